@@ -0,0 +1,74 @@
+/**
+ *   @description Benchmark Configuration
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.benchmarks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.tridion.configuration.Configuration;
+import com.tridion.configuration.ConfigurationException;
+
+/**
+ * BenchmarkConfiguration is a flat {@link Configuration} of parameters, used to configure connectors without a
+ * cd_storage_conf.xml.
+ */
+class BenchmarkConfiguration implements Configuration
+{
+	private final Map<String, String> mParameters = new HashMap<String, String>();
+
+	/**
+	 * Set a parameter value
+	 *
+	 * @return This {@link BenchmarkConfiguration}
+	 */
+	BenchmarkConfiguration set(String name, String value)
+	{
+		mParameters.put(name, value);
+		return this;
+	}
+
+	public boolean hasChild(String name)
+	{
+		return false;
+	}
+
+	public Configuration getChild(String name) throws ConfigurationException
+	{
+		throw new ConfigurationException("No child " + name);
+	}
+
+	public List<Configuration> getChildrenByName(String name)
+	{
+		return Collections.emptyList();
+	}
+
+	public String getAttribute(String name) throws ConfigurationException
+	{
+		String value = mParameters.get(name);
+
+		if (value == null)
+			throw new ConfigurationException("No attribute " + name);
+
+		return value;
+	}
+
+	public String getAttribute(String name, String defaultValue)
+	{
+		return getParameterValue(name, defaultValue);
+	}
+
+	public String getParameterValue(String name)
+	{
+		return mParameters.get(name);
+	}
+
+	public String getParameterValue(String name, String defaultValue)
+	{
+		String value = mParameters.get(name);
+		return value != null ? value : defaultValue;
+	}
+}
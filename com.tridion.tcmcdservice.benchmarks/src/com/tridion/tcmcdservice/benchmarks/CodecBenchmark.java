@@ -0,0 +1,116 @@
+/**
+ *   @description Codec Benchmark
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.benchmarks;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tridion.cache.CacheEvent;
+import com.tridion.tcmcdservice.common.BinaryCacheEventCodec;
+import com.tridion.tcmcdservice.common.CacheEventMessage;
+import com.tridion.tcmcdservice.common.CacheEventSequencer;
+import com.tridion.tcmcdservice.common.RegionDictionary;
+import com.tridion.tcmcdservice.common.XMLCacheEventCodec;
+
+/**
+ * CodecBenchmark measures encoding and decoding of a sequenced {@link CacheEventMessage} of "batchSize" events.
+ * <p>
+ * The XML benchmarks follow the connectors: JMS publishes the encoded string as text message, ZeroMQ sends its UTF-8
+ * bytes. Decoding starts from the same representation as handleJmsMessage and the ZeroMQ reactor receive it.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark
+{
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	@Param({ "1", "32" })
+	public int batchSize;
+
+	private CacheEventMessage mMessage;
+	private String mXml;
+	private byte[] mXmlBytes;
+	private byte[] mBinary;
+	private RegionDictionary.Encoder mDictionaryEncoder;
+
+	@Setup
+	public void setup()
+	{
+		List<CacheEvent> cacheEvents = new ArrayList<CacheEvent>(batchSize);
+
+		for (int i = 0; i < batchSize; i++)
+			cacheEvents.add(new CacheEvent("/com_tridion_linking_ComponentLink" + (i % 4), Integer.valueOf(1000 + i), CacheEvent.INVALIDATE));
+
+		mMessage = new CacheEventSequencer("Benchmark").next(cacheEvents);
+		mXml = XMLCacheEventCodec.encode(mMessage);
+		mXmlBytes = mXml.getBytes(UTF8);
+		mBinary = BinaryCacheEventCodec.encode(mMessage);
+
+		// Warm the dictionary so the encoded regions are references, as for a long running publisher
+		mDictionaryEncoder = new RegionDictionary.Encoder();
+		BinaryCacheEventCodec.encode(mMessage, mDictionaryEncoder);
+	}
+
+	@Benchmark
+	public String encodeXml()
+	{
+		return XMLCacheEventCodec.encode(mMessage);
+	}
+
+	@Benchmark
+	public byte[] encodeXmlBytes()
+	{
+		return XMLCacheEventCodec.encode(mMessage).getBytes(UTF8);
+	}
+
+	@Benchmark
+	public CacheEventMessage decodeXml()
+	{
+		return XMLCacheEventCodec.decodeMessage(mXml);
+	}
+
+	@Benchmark
+	public CacheEventMessage decodeXmlBytes()
+	{
+		return XMLCacheEventCodec.decodeMessage(new String(mXmlBytes, UTF8));
+	}
+
+	@Benchmark
+	public byte[] encodeBinary()
+	{
+		return BinaryCacheEventCodec.encode(mMessage);
+	}
+
+	@Benchmark
+	public CacheEventMessage decodeBinary()
+	{
+		return BinaryCacheEventCodec.decodeMessage(mBinary);
+	}
+
+	@Benchmark
+	public byte[] encodeDictionary()
+	{
+		return BinaryCacheEventCodec.encode(mMessage, mDictionaryEncoder);
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ *   @description Queue Hand-off Benchmark
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tridion.cache.CacheEvent;
+import com.tridion.tcmcdservice.common.CacheEventRingBuffer;
+
+/**
+ * QueueHandoffBenchmark measures the {@link CacheEventRingBuffer} which hands events from the threads calling
+ * broadcastEvent to the ZeroMQ reactor thread.
+ * <p>
+ * The "handoff" group runs producers offering events against a single consumer polling them, as the connector does.
+ * The "block" overflow policy is left out, a producer waiting on a full buffer would not finish once the consumer of
+ * the iteration stops. "offerPoll" measures the uncontended cost of a single event on one thread.
+ * </p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueHandoffBenchmark
+{
+	@Param({ "flush", "drop-oldest" })
+	public String overflowPolicy;
+
+	@Param({ "16384" })
+	public int capacity;
+
+	private CacheEventRingBuffer mQueue;
+	private CacheEvent mCacheEvent;
+
+	@Setup
+	public void setup()
+	{
+		mQueue = new CacheEventRingBuffer(capacity, CacheEventRingBuffer.OverflowPolicy.fromName(overflowPolicy));
+		mCacheEvent = new CacheEvent("/com_tridion_linking_ComponentLink", Integer.valueOf(1000), CacheEvent.INVALIDATE);
+	}
+
+	@Benchmark
+	@Group("handoff")
+	@GroupThreads(2)
+	public void offer()
+	{
+		mQueue.offer(mCacheEvent);
+	}
+
+	@Benchmark
+	@Group("handoff")
+	@GroupThreads(1)
+	public CacheEvent poll()
+	{
+		return mQueue.poll();
+	}
+
+	@Benchmark
+	@Group("offerPoll")
+	public CacheEvent offerPoll()
+	{
+		mQueue.offer(mCacheEvent);
+		return mQueue.poll();
+	}
+}
@@ -0,0 +1,237 @@
+/**
+ *   @description Socket Factory Benchmark
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.tridion.cache.CacheEvent;
+import com.tridion.cache.RemoteCacheChannelService;
+import com.tridion.cache.RemoteCacheListener;
+import com.tridion.tcmcdservice.rmi.TunedSocketFactory;
+
+/**
+ * SocketFactoryBenchmark measures the latency of RMI cache event broadcasts to a service in a separate JVM on the same
+ * host, for the default sockets and a number of {@link TunedSocketFactory} configurations.
+ * <p>
+ * Usage: java -cp benchmarks.jar com.tridion.tcmcdservice.benchmarks.SocketFactoryBenchmark [iterations] [batchSize]
+ * </p>
+ * <p>
+ * The benchmark starts a second JVM with the same classpath, which exports an empty {@link RemoteCacheChannelService}
+ * for every configuration. Every configuration broadcasts a single invalidation and a batch of "batchSize" keys,
+ * reporting the mean, median and 99th percentile round trip in microseconds.
+ * </p>
+ */
+public class SocketFactoryBenchmark
+{
+	private static final String SERVE = "serve";
+	private static final String READY = "ready";
+
+	private static final String[] CONFIGURATIONS = new String[] {
+		null,
+		"noDelay=false",
+		"noDelay=true",
+		"sendBuffer=65536,receiveBuffer=65536",
+		"exportClientFactory,compress",
+		"sendBuffer=65536,receiveBuffer=65536,exportClientFactory,compress"
+	};
+
+	/**
+	 * Service discarding all events
+	 */
+	private static class NullService implements RemoteCacheChannelService
+	{
+		public void addListener(RemoteCacheListener listener)
+		{
+		}
+
+		public void broadcastEvent(String identifier, CacheEvent cacheEvent)
+		{
+		}
+
+		public boolean isAlive(String identifier)
+		{
+			return true;
+		}
+	}
+
+	public static void main(String[] args)
+		throws Exception
+	{
+		if (args.length > 0 && SERVE.equals(args[0]))
+		{
+			serve(Integer.parseInt(args[1]));
+			return;
+		}
+
+		int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+
+		CacheEvent single = new CacheEvent("/com_tridion_storage_ComponentPresentation", "tcm:12-3456", CacheEvent.INVALIDATE);
+
+		// Batched payloads repeat region paths and key prefixes, as the events of a publish do
+		ArrayList<String> keys = new ArrayList<String>(batchSize);
+
+		for (int i = 0; i < batchSize; i++)
+			keys.add("/com_tridion_storage_ComponentPresentation:tcm:12-" + (3456 + i) + "-16");
+
+		CacheEvent batch = new CacheEvent("/com_tridion_storage_ComponentPresentation", keys, CacheEvent.INVALIDATE);
+
+		int port = getFreePort();
+		Process server = startServer(port);
+
+		try
+		{
+			Registry registry = LocateRegistry.getRegistry("127.0.0.1", port);
+
+			// The first pass only warms up the JIT, so no configuration pays for it
+			for (int pass = 0; pass < 2; pass++)
+			{
+				if (pass == 1)
+					System.out.println(String.format("%-68s %-8s %10s %10s %10s", "Sockets", "Payload", "Mean (us)", "p50 (us)", "p99 (us)"));
+
+				for (int i = 0; i < CONFIGURATIONS.length; i++)
+				{
+					String name = (CONFIGURATIONS[i] != null ? CONFIGURATIONS[i] : "default");
+					RemoteCacheChannelService stub = (RemoteCacheChannelService)registry.lookup("service" + i);
+
+					long[] singleSamples = measure(stub, single, pass == 0 ? iterations / 10 : iterations);
+					long[] batchSamples = measure(stub, batch, pass == 0 ? iterations / 40 : iterations / 4);
+
+					if (pass == 1)
+					{
+						report(name, "single", singleSamples);
+						report(name, "batch", batchSamples);
+					}
+				}
+			}
+		}
+		finally
+		{
+			server.destroy();
+		}
+	}
+
+	/**
+	 * Start the service JVM and wait until it has exported its services
+	 */
+	private static Process startServer(int port)
+		throws IOException
+	{
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+		List<String> command = new ArrayList<String>();
+		command.add(java);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(SocketFactoryBenchmark.class.getName());
+		command.add(SERVE);
+		command.add(String.valueOf(port));
+
+		Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+
+		String line;
+
+		while ((line = reader.readLine()) != null)
+		{
+			if (READY.equals(line))
+				return process;
+		}
+
+		process.destroy();
+		throw new IOException("Benchmark service exited before it was ready");
+	}
+
+	/**
+	 * Export a service for every configuration and keep running until the benchmark closes standard input
+	 */
+	private static void serve(int port)
+		throws Exception
+	{
+		Registry registry = LocateRegistry.createRegistry(port);
+		List<NullService> services = new ArrayList<NullService>();
+
+		for (int i = 0; i < CONFIGURATIONS.length; i++)
+		{
+			TunedSocketFactory factory = (CONFIGURATIONS[i] != null ? new TunedSocketFactory(CONFIGURATIONS[i]) : null);
+			NullService service = new NullService();
+
+			services.add(service);
+			registry.rebind("service" + i, UnicastRemoteObject.exportObject(service, 0, factory != null ? factory.getExportClientFactory() : null, factory));
+		}
+
+		System.out.println(READY);
+		System.out.flush();
+
+		while (System.in.read() >= 0)
+		{
+		}
+
+		for (NullService service : services)
+			UnicastRemoteObject.unexportObject(service, true);
+
+		UnicastRemoteObject.unexportObject(registry, true);
+	}
+
+	private static int getFreePort()
+		throws IOException
+	{
+		ServerSocket socket = new ServerSocket(0);
+
+		try
+		{
+			return socket.getLocalPort();
+		}
+		finally
+		{
+			socket.close();
+		}
+	}
+
+	private static long[] measure(RemoteCacheChannelService stub, CacheEvent cacheEvent, int iterations)
+		throws RemoteException
+	{
+		// Warm up the connection and the JIT
+		for (int i = 0; i < Math.max(1000, iterations / 10); i++)
+			stub.broadcastEvent("benchmark", cacheEvent);
+
+		long[] samples = new long[iterations];
+
+		for (int i = 0; i < iterations; i++)
+		{
+			long start = System.nanoTime();
+			stub.broadcastEvent("benchmark", cacheEvent);
+			samples[i] = System.nanoTime() - start;
+		}
+
+		Arrays.sort(samples);
+
+		return samples;
+	}
+
+	private static void report(String name, String payload, long[] samples)
+	{
+		long total = 0;
+
+		for (long sample : samples)
+			total += sample;
+
+		System.out.println(String.format("%-68s %-8s %10.1f %10.1f %10.1f", name, payload,
+				total / (double)samples.length / 1000.0,
+				samples[samples.length / 2] / 1000.0,
+				samples[(int)(samples.length * 0.99)] / 1000.0));
+	}
+}
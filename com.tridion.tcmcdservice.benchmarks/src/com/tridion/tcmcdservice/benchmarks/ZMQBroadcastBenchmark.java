@@ -0,0 +1,92 @@
+/**
+ *   @description ZeroMQ Broadcast Benchmark
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tridion.cache.CacheEvent;
+import com.tridion.cache.CacheException;
+import com.tridion.tcmcdservice.zmq.ZMQBroker;
+import com.tridion.tcmcdservice.zmq.ZMQCacheChannelConnector;
+
+/**
+ * ZMQBroadcastBenchmark measures {@link ZMQCacheChannelConnector#broadcastEvent} against an in-process {@link ZMQBroker}
+ * on the loopback interface.
+ * <p>
+ * The benchmark covers the caller side of a broadcast: queueing the event and signalling the reactor thread, which
+ * encodes and sends it in the configured "format". Events the reactor could not keep up with are collapsed into region
+ * flushes, their number is printed after each trial.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZMQBroadcastBenchmark
+{
+	@Param({ "xml", "binary" })
+	public String format;
+
+	@Param({ "15557" })
+	public int submissionPort;
+
+	@Param({ "15556" })
+	public int subscriptionPort;
+
+	private ZMQBroker mBroker;
+	private ZMQCacheChannelConnector mConnector;
+	private CacheEvent mCacheEvent;
+
+	@Setup(Level.Trial)
+	public void setup()
+		throws Exception
+	{
+		mBroker = new ZMQBroker("tcp://127.0.0.1:" + submissionPort, "tcp://127.0.0.1:" + subscriptionPort);
+		mBroker.setReportInterval(0);
+		mBroker.start();
+
+		mConnector = new ZMQCacheChannelConnector();
+		mConnector.configure(new BenchmarkConfiguration()
+			.set("submissionUri", "tcp://127.0.0.1:" + submissionPort)
+			.set("subscriptionUri", "tcp://127.0.0.1:" + subscriptionPort)
+			.set("format", format)
+			.set("propagationReportInterval", "0"));
+		mConnector.validate();
+
+		mCacheEvent = new CacheEvent("/com_tridion_linking_ComponentLink", Integer.valueOf(1000), CacheEvent.INVALIDATE);
+	}
+
+	@Benchmark
+	public void broadcastEvent()
+		throws CacheException
+	{
+		mConnector.broadcastEvent(mCacheEvent);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		System.out.println("Queue overflows: " + mConnector.getQueueOverflowCount() + " high water mark: " + mConnector.getQueueHighWaterMark());
+
+		mConnector.close();
+		mBroker.stop();
+	}
+}
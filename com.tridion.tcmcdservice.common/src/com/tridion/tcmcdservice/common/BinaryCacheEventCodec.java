@@ -0,0 +1,604 @@
+/**
+ *   @description Binary Cache Event Codec
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * BinaryCacheEventCodec reads and writes a compact binary representation of one or more {@link CacheEvent}s.
+ * <p>
+ * Layout (version 1):
+ * <pre>
+ * frame  := version:byte count:varint event*
+ * event  := header:varint regionPath:string key
+ * header := (eventType &lt;&lt; 1) | (key is a string ? 1 : 0)
+ * key    := zigzag-varint (integer key) | string
+ * string := length:varint utf-8 bytes
+ * </pre>
+ * Version 2 adds the sequence header of a {@link CacheEventMessage} in front of the events:
+ * <pre>
+ * frame  := version:byte publisher:string sequence:varlong digest count:varint event*
+ * digest := (regions + 1):varint regionPath:string*   (0 for an incomplete digest)
+ * </pre>
+ * Version 3 replaces region paths by references to the {@link RegionDictionary} of the publisher, which is identified by
+ * the transport:
+ * <pre>
+ * frame  := version:byte epoch:varint sequence:varlong digest count:varint event*
+ * digest := (regions + 1):varint ref*
+ * event  := header:varint regionPath:ref key
+ * ref    := (index &lt;&lt; 1 | 1):varint string (definition) | (index &lt;&lt; 1):varint (reference)
+ * </pre>
+ * Versions 2 and 3 may be followed by the origin time of the message as trailer, decoders which do not know it ignore
+ * the remaining bytes:
+ * <pre>
+ * trailer := originTime:varlong   (milliseconds since the epoch)
+ * </pre>
+ * The version byte can never start an XML document, which allows receivers to tell both formats apart from the first
+ * byte of a payload. The codec holds no state and is safe for concurrent use.
+ * </p>
+ */
+public final class BinaryCacheEventCodec
+{
+	public static final byte VERSION = 1;
+	public static final byte VERSION_SEQUENCED = 2;
+	public static final byte VERSION_DICTIONARY = 3;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private BinaryCacheEventCodec()
+	{
+	}
+
+	/**
+	 * Verify if the given payload is in the binary cache event format
+	 *
+	 * @param data Payload
+	 * @return true if the payload starts with a known binary format version
+	 */
+	public static boolean isBinary(byte[] data)
+	{
+		return data != null && data.length > 0 && data[0] >= VERSION && data[0] <= VERSION_DICTIONARY;
+	}
+
+	/**
+	 * Encode a single {@link CacheEvent}
+	 *
+	 * @param cacheEvent {@link CacheEvent} to encode
+	 * @return Binary representation
+	 */
+	public static byte[] encode(CacheEvent cacheEvent)
+	{
+		return encode(Collections.singletonList(cacheEvent));
+	}
+
+	/**
+	 * Encode a collection of {@link CacheEvent}s into a single frame
+	 *
+	 * @param cacheEvents {@link CacheEvent}s to encode
+	 * @return Binary representation
+	 */
+	public static byte[] encode(Collection<CacheEvent> cacheEvents)
+	{
+		Writer writer = new Writer(16 + cacheEvents.size() * 48);
+
+		writer.writeByte(VERSION);
+		writer.writeVarint(cacheEvents.size());
+
+		for (CacheEvent cacheEvent : cacheEvents)
+			writer.writeEvent(cacheEvent);
+
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Encode a {@link CacheEventMessage} into a single frame, including its sequence header if it has one
+	 *
+	 * @param message {@link CacheEventMessage} to encode
+	 * @return Binary representation
+	 */
+	public static byte[] encode(CacheEventMessage message)
+	{
+		if (!message.isSequenced())
+			return encode(message.getEvents());
+
+		List<CacheEvent> cacheEvents = message.getEvents();
+		List<String> recentRegions = message.getRecentRegions();
+		Writer writer = new Writer(64 + cacheEvents.size() * 48);
+
+		writer.writeByte(VERSION_SEQUENCED);
+		writer.writeString(message.getPublisher());
+		writer.writeVarlong(message.getSequence());
+
+		if (recentRegions != null)
+		{
+			writer.writeVarint(recentRegions.size() + 1);
+
+			for (String regionPath : recentRegions)
+				writer.writeString(regionPath);
+		}
+		else
+			writer.writeVarint(0);
+
+		writer.writeVarint(cacheEvents.size());
+
+		for (CacheEvent cacheEvent : cacheEvents)
+			writer.writeEvent(cacheEvent);
+
+		writeTrailer(message, writer);
+
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Write the optional trailer of a sequenced frame
+	 */
+	private static void writeTrailer(CacheEventMessage message, Writer writer)
+	{
+		if (message.getOriginTime() > 0)
+			writer.writeVarlong(message.getOriginTime());
+	}
+
+	/**
+	 * Read the optional trailer of a sequenced frame
+	 *
+	 * @return Origin time, or 0 if the frame has no trailer
+	 */
+	private static long readTrailer(Reader reader)
+	{
+		return reader.hasRemaining() ? reader.readVarlong() : 0;
+	}
+
+	/**
+	 * Encode a {@link CacheEventMessage} into a single dictionary encoded frame, the publisher of the message is not
+	 * written as it is identified by the transport
+	 *
+	 * @param message {@link CacheEventMessage} to encode
+	 * @param dictionary {@link RegionDictionary.Encoder} of the publisher
+	 * @return Binary representation
+	 */
+	public static byte[] encode(CacheEventMessage message, RegionDictionary.Encoder dictionary)
+	{
+		List<CacheEvent> cacheEvents = message.getEvents();
+		List<String> recentRegions = message.getRecentRegions();
+		Writer writer = new Writer(32 + cacheEvents.size() * 16);
+
+		writer.writeByte(VERSION_DICTIONARY);
+		writer.writeVarint(dictionary.begin());
+		writer.writeVarlong(message.getSequence());
+
+		if (recentRegions != null)
+		{
+			writer.writeVarint(recentRegions.size() + 1);
+
+			for (String regionPath : recentRegions)
+				writer.writeRef(regionPath, dictionary);
+		}
+		else
+			writer.writeVarint(0);
+
+		writer.writeVarint(cacheEvents.size());
+
+		for (CacheEvent cacheEvent : cacheEvents)
+			writer.writeEvent(cacheEvent, dictionary);
+
+		writeTrailer(message, writer);
+
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Decode all {@link CacheEvent}s from a binary frame
+	 *
+	 * @param data Binary representation
+	 * @return Decoded {@link CacheEvent}s
+	 * @throws IllegalArgumentException Data is truncated, malformed or of an unsupported version
+	 */
+	public static List<CacheEvent> decode(byte[] data)
+	{
+		return decodeMessage(data).getEvents();
+	}
+
+	/**
+	 * Decode a {@link CacheEventMessage} from a binary frame
+	 *
+	 * @param data Binary representation
+	 * @return Decoded {@link CacheEventMessage}, version 1 frames have no sequence header
+	 * @throws IllegalArgumentException Data is truncated, malformed or of an unsupported version
+	 */
+	public static CacheEventMessage decodeMessage(byte[] data)
+	{
+		return decodeMessage(data, null);
+	}
+
+	/**
+	 * Decode a {@link CacheEventMessage} from a binary frame of any version.
+	 * <p>
+	 * Events of a dictionary encoded frame whose region path cannot be resolved are replaced by a single flush of all
+	 * regions, which is requested once per dictionary epoch, see {@link RegionDictionary}. A digest with unresolved region
+	 * paths is reported as incomplete.
+	 * </p>
+	 *
+	 * @param data Binary representation
+	 * @param dictionary {@link RegionDictionary.Decoder} of the publisher, required for dictionary encoded frames
+	 * @return Decoded {@link CacheEventMessage}
+	 * @throws IllegalArgumentException Data is truncated, malformed or of an unsupported version
+	 */
+	public static CacheEventMessage decodeMessage(byte[] data, RegionDictionary.Decoder dictionary)
+	{
+		Reader reader = new Reader(data);
+
+		int version = reader.readByte();
+
+		if (version == VERSION_DICTIONARY)
+		{
+			if (dictionary == null)
+				throw new IllegalArgumentException("Dictionary encoded binary cache event data requires a region dictionary.");
+
+			return readDictionaryMessage(reader, dictionary);
+		}
+		String publisher = null;
+		long sequence = 0;
+		List<String> recentRegions = null;
+
+		if (version == VERSION_SEQUENCED)
+		{
+			publisher = reader.readString();
+			sequence = reader.readVarlong();
+
+			int regions = reader.readVarint() - 1;
+
+			if (regions >= 0)
+			{
+				recentRegions = new ArrayList<String>(Math.min(regions, 1024));
+
+				for (int i = 0; i < regions; i++)
+					recentRegions.add(reader.readString());
+			}
+		}
+		else if (version != VERSION)
+			throw new IllegalArgumentException("Unsupported binary cache event version " + version + ".");
+
+		int count = reader.readVarint();
+		List<CacheEvent> cacheEvents = new ArrayList<CacheEvent>(Math.min(count, 1024));
+
+		for (int i = 0; i < count; i++)
+			cacheEvents.add(reader.readEvent());
+
+		if (version == VERSION)
+			return new CacheEventMessage(cacheEvents);
+
+		return new CacheEventMessage(publisher, sequence, recentRegions, cacheEvents, readTrailer(reader));
+	}
+
+	private static CacheEventMessage readDictionaryMessage(Reader reader, RegionDictionary.Decoder dictionary)
+	{
+		boolean flushed = dictionary.begin(reader.readVarint());
+
+		long sequence = reader.readVarlong();
+		int regions = reader.readVarint() - 1;
+		List<String> recentRegions = null;
+
+		if (regions >= 0)
+		{
+			recentRegions = new ArrayList<String>(Math.min(regions, 1024));
+
+			for (int i = 0; i < regions; i++)
+				recentRegions.add(reader.readRef(dictionary));
+
+			// Regions defined in a lost message make the digest incomplete
+			if (recentRegions.contains(null))
+				recentRegions = null;
+		}
+
+		int count = reader.readVarint();
+		List<CacheEvent> cacheEvents = new ArrayList<CacheEvent>(Math.min(count, 1024));
+
+		// Covers the events suppressed in the previous epoch
+		if (flushed)
+			cacheEvents.add(ReplayBuffer.createFlushAllEvent());
+
+		for (int i = 0; i < count; i++)
+		{
+			CacheEvent cacheEvent = reader.readEvent(dictionary);
+
+			if (cacheEvent != null)
+				cacheEvents.add(cacheEvent);
+			else if (dictionary.unresolved() && !flushed)
+			{
+				flushed = true;
+				cacheEvents.add(ReplayBuffer.createFlushAllEvent());
+			}
+		}
+
+		return new CacheEventMessage(dictionary.getPublisher(), sequence, recentRegions, cacheEvents, readTrailer(reader));
+	}
+
+	/**
+	 * Writer implements a growable byte buffer with varint and UTF-8 string support
+	 */
+	static final class Writer
+	{
+		private byte[] mBuffer;
+		private int mPosition = 0;
+
+		Writer(int capacity)
+		{
+			mBuffer = new byte[capacity];
+		}
+
+		private void ensureCapacity(int additional)
+		{
+			if (mPosition + additional > mBuffer.length)
+			{
+				byte[] buffer = new byte[Math.max(mBuffer.length * 2, mPosition + additional)];
+				System.arraycopy(mBuffer, 0, buffer, 0, mPosition);
+				mBuffer = buffer;
+			}
+		}
+
+		void writeByte(int value)
+		{
+			ensureCapacity(1);
+			mBuffer[mPosition++] = (byte)value;
+		}
+
+		void writeVarint(int value)
+		{
+			ensureCapacity(5);
+
+			while ((value & ~0x7F) != 0)
+			{
+				mBuffer[mPosition++] = (byte)((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+
+			mBuffer[mPosition++] = (byte)value;
+		}
+
+		void writeVarlong(long value)
+		{
+			ensureCapacity(10);
+
+			while ((value & ~0x7FL) != 0)
+			{
+				mBuffer[mPosition++] = (byte)((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+
+			mBuffer[mPosition++] = (byte)value;
+		}
+
+		void writeString(String value)
+		{
+			int length = value.length();
+			int encodedLength = 0;
+
+			for (int i = 0; i < length; i++)
+			{
+				char c = value.charAt(i);
+
+				if (c < 0x80)
+					encodedLength++;
+				else if (c < 0x800)
+					encodedLength += 2;
+				else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+				{
+					encodedLength += 4;
+					i++;
+				}
+				else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)
+					encodedLength++;
+				else
+					encodedLength += 3;
+			}
+
+			writeVarint(encodedLength);
+			ensureCapacity(encodedLength);
+
+			for (int i = 0; i < length; i++)
+			{
+				char c = value.charAt(i);
+
+				if (c < 0x80)
+					mBuffer[mPosition++] = (byte)c;
+				else if (c < 0x800)
+				{
+					mBuffer[mPosition++] = (byte)(0xC0 | (c >> 6));
+					mBuffer[mPosition++] = (byte)(0x80 | (c & 0x3F));
+				}
+				else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+				{
+					int codePoint = Character.toCodePoint(c, value.charAt(++i));
+
+					mBuffer[mPosition++] = (byte)(0xF0 | (codePoint >> 18));
+					mBuffer[mPosition++] = (byte)(0x80 | ((codePoint >> 12) & 0x3F));
+					mBuffer[mPosition++] = (byte)(0x80 | ((codePoint >> 6) & 0x3F));
+					mBuffer[mPosition++] = (byte)(0x80 | (codePoint & 0x3F));
+				}
+				else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)
+				{
+					// Unpaired surrogates are replaced, matching the behaviour of String.getBytes
+					mBuffer[mPosition++] = (byte)'?';
+				}
+				else
+				{
+					mBuffer[mPosition++] = (byte)(0xE0 | (c >> 12));
+					mBuffer[mPosition++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+					mBuffer[mPosition++] = (byte)(0x80 | (c & 0x3F));
+				}
+			}
+		}
+
+		void writeRef(String regionPath, RegionDictionary.Encoder dictionary)
+		{
+			int index = dictionary.lookup(regionPath);
+
+			if (index >= 0)
+				writeVarint(index << 1);
+			else
+			{
+				writeVarint((~index << 1) | 1);
+				writeString(regionPath);
+			}
+		}
+
+		void writeEvent(CacheEvent cacheEvent)
+		{
+			writeEvent(cacheEvent, null);
+		}
+
+		void writeEvent(CacheEvent cacheEvent, RegionDictionary.Encoder dictionary)
+		{
+			Serializable key = cacheEvent.getKey();
+			boolean isStringKey = !(key instanceof Integer);
+
+			writeVarint((cacheEvent.getType() << 1) | (isStringKey ? 1 : 0));
+
+			if (dictionary != null)
+				writeRef(cacheEvent.getRegionPath(), dictionary);
+			else
+				writeString(cacheEvent.getRegionPath());
+
+			if (isStringKey)
+				writeString(key.toString());
+			else
+			{
+				int value = ((Integer)key).intValue();
+				writeVarint((value << 1) ^ (value >> 31));
+			}
+		}
+
+		byte[] toByteArray()
+		{
+			byte[] result = new byte[mPosition];
+			System.arraycopy(mBuffer, 0, result, 0, mPosition);
+			return result;
+		}
+	}
+
+	/**
+	 * Reader implements a bounds-checked reader over a binary frame
+	 */
+	static final class Reader
+	{
+		private final byte[] mData;
+		private final int mLimit;
+		private int mPosition;
+
+		Reader(byte[] data)
+		{
+			mData = data;
+			mPosition = 0;
+			mLimit = data.length;
+		}
+
+		boolean hasRemaining()
+		{
+			return mPosition < mLimit;
+		}
+
+		int readByte()
+		{
+			if (mPosition >= mLimit)
+				throw new IllegalArgumentException("Truncated binary cache event data.");
+
+			return mData[mPosition++] & 0xFF;
+		}
+
+		int readVarint()
+		{
+			int result = 0;
+
+			for (int shift = 0; shift < 35; shift += 7)
+			{
+				int b = readByte();
+				result |= (b & 0x7F) << shift;
+
+				if ((b & 0x80) == 0)
+					return result;
+			}
+
+			throw new IllegalArgumentException("Malformed varint in binary cache event data.");
+		}
+
+		long readVarlong()
+		{
+			long result = 0;
+
+			for (int shift = 0; shift < 70; shift += 7)
+			{
+				int b = readByte();
+				result |= (long)(b & 0x7F) << shift;
+
+				if ((b & 0x80) == 0)
+					return result;
+			}
+
+			throw new IllegalArgumentException("Malformed varint in binary cache event data.");
+		}
+
+		String readString()
+		{
+			int length = readVarint();
+
+			if (length < 0 || length > mLimit - mPosition)
+				throw new IllegalArgumentException("Truncated binary cache event data.");
+
+			String value = new String(mData, mPosition, length, UTF8);
+			mPosition += length;
+
+			return value;
+		}
+
+		/**
+		 * Read a region path reference, definitions are stored in the dictionary
+		 *
+		 * @return Region path, or null if the reference cannot be resolved
+		 */
+		String readRef(RegionDictionary.Decoder dictionary)
+		{
+			int ref = readVarint();
+
+			if ((ref & 1) != 0)
+				return dictionary.define(ref >>> 1, readString());
+
+			return dictionary.resolve(ref >>> 1);
+		}
+
+		CacheEvent readEvent()
+		{
+			return readEvent(null);
+		}
+
+		/**
+		 * Read an event, region paths are read as references if a dictionary is given
+		 *
+		 * @return {@link CacheEvent}, or null if its region path cannot be resolved
+		 */
+		CacheEvent readEvent(RegionDictionary.Decoder dictionary)
+		{
+			int header = readVarint();
+			String regionPath = dictionary != null ? readRef(dictionary) : RegionPathInterner.intern(readString());
+			Serializable key;
+
+			if ((header & 1) != 0)
+				key = readString();
+			else
+			{
+				int value = readVarint();
+				key = Integer.valueOf((value >>> 1) ^ -(value & 1));
+			}
+
+			return regionPath != null ? new CacheEvent(regionPath, key, header >>> 1) : null;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+/**
+ *   @description Cache Event Format
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+/**
+ * CacheEventFormat enumerates the supported cache event wire formats
+ */
+public enum CacheEventFormat
+{
+	/**
+	 * XML text as understood by all peers, see {@link XMLCacheEventCodec}
+	 */
+	XML("xml"),
+
+	/**
+	 * Compact binary frames, see {@link BinaryCacheEventCodec}
+	 */
+	BINARY("binary");
+
+	private final String mName;
+
+	private CacheEventFormat(String name)
+	{
+		mName = name;
+	}
+
+	/**
+	 * Get the name of this format as used in configuration and message headers
+	 */
+	public String getName()
+	{
+		return mName;
+	}
+
+	/**
+	 * Resolve a {@link CacheEventFormat} from its name
+	 *
+	 * @param name Format name, case insensitive
+	 * @return Matching {@link CacheEventFormat}
+	 * @throws IllegalArgumentException Unknown format name
+	 */
+	public static CacheEventFormat fromName(String name)
+	{
+		for (CacheEventFormat format : values())
+		{
+			if (format.mName.equalsIgnoreCase(name))
+				return format;
+		}
+
+		throw new IllegalArgumentException("Unknown cache event format '" + name + "'.");
+	}
+}
@@ -0,0 +1,120 @@
+/**
+ *   @description Cache Event Message
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * CacheEventMessage holds the {@link CacheEvent}s of a single published message together with its sequence header.
+ * <p>
+ * The header identifies the publisher, the position of the message in the sequence of messages sent by that publisher
+ * and a digest of the regions touched by its preceding messages, see {@link CacheEventSequencer}. Messages of peers which
+ * do not send a header have no publisher.
+ * </p>
+ * <p>
+ * The optional origin time is the wall clock time at which the publisher created the message, receivers use it to measure
+ * the propagation delay from the publisher.
+ * </p>
+ */
+public final class CacheEventMessage
+{
+	private final String mPublisher;
+	private final long mSequence;
+	private final List<String> mRecentRegions;
+	private final List<CacheEvent> mEvents;
+	private final long mOriginTime;
+
+	/**
+	 * Create a new CacheEventMessage without a sequence header
+	 *
+	 * @param events {@link CacheEvent}s
+	 */
+	public CacheEventMessage(List<CacheEvent> events)
+	{
+		this(null, 0, null, events);
+	}
+
+	/**
+	 * Create a new CacheEventMessage
+	 *
+	 * @param publisher Identifier of the publisher, or null if the message has no sequence header
+	 * @param sequence Sequence number of the message for its publisher
+	 * @param recentRegions Regions of the preceding messages, or null if the digest is incomplete
+	 * @param events {@link CacheEvent}s
+	 */
+	public CacheEventMessage(String publisher, long sequence, List<String> recentRegions, List<CacheEvent> events)
+	{
+		this(publisher, sequence, recentRegions, events, 0);
+	}
+
+	/**
+	 * Create a new CacheEventMessage with an origin time
+	 *
+	 * @param publisher Identifier of the publisher, or null if the message has no sequence header
+	 * @param sequence Sequence number of the message for its publisher
+	 * @param recentRegions Regions of the preceding messages, or null if the digest is incomplete
+	 * @param events {@link CacheEvent}s
+	 * @param originTime Time in milliseconds since the epoch at which the publisher created the message, 0 if unknown
+	 */
+	public CacheEventMessage(String publisher, long sequence, List<String> recentRegions, List<CacheEvent> events, long originTime)
+	{
+		mPublisher = publisher;
+		mSequence = sequence;
+		mRecentRegions = recentRegions != null ? Collections.unmodifiableList(recentRegions) : null;
+		mEvents = events;
+		mOriginTime = originTime;
+	}
+
+	/**
+	 * Verify if this message carries a sequence header
+	 */
+	public boolean isSequenced()
+	{
+		return mPublisher != null;
+	}
+
+	/**
+	 * Identifier of the publisher, or null if the message has no sequence header
+	 */
+	public String getPublisher()
+	{
+		return mPublisher;
+	}
+
+	/**
+	 * Sequence number of this message for its publisher
+	 */
+	public long getSequence()
+	{
+		return mSequence;
+	}
+
+	/**
+	 * Regions touched by the preceding messages of the publisher, or null if they are not known
+	 */
+	public List<String> getRecentRegions()
+	{
+		return mRecentRegions;
+	}
+
+	/**
+	 * {@link CacheEvent}s of this message
+	 */
+	public List<CacheEvent> getEvents()
+	{
+		return mEvents;
+	}
+
+	/**
+	 * Time in milliseconds since the epoch at which the publisher created this message, 0 if unknown
+	 */
+	public long getOriginTime()
+	{
+		return mOriginTime;
+	}
+}
@@ -0,0 +1,357 @@
+/**
+ *   @description Cache Event Ring Buffer
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * CacheEventRingBuffer implements a bounded, lock-free queue of {@link CacheEvent}s for many producers and a single
+ * consumer thread.
+ * <p>
+ * The buffer is a preallocated array of slots, each guarded by a sequence number (D. Vyukov's bounded queue). Events are
+ * stored as-is, so encoding is deferred until the consumer sends them. When the buffer is full the {@link OverflowPolicy}
+ * decides if the producer waits, if the oldest queued event is discarded or if the event collapses into a flush of its
+ * region which the consumer receives after every event queued before it. Events without region path collapse into a
+ * flush of all regions.
+ * </p>
+ */
+public class CacheEventRingBuffer
+{
+	private static final long BLOCK_INTERVAL = TimeUnit.MICROSECONDS.toNanos(100);
+
+	/**
+	 * OverflowPolicy enumerates the behaviours for events offered while the buffer is full
+	 */
+	public enum OverflowPolicy
+	{
+		/**
+		 * Wait for a free slot
+		 */
+		BLOCK("block"),
+
+		/**
+		 * Discard the oldest queued event
+		 */
+		DROP_OLDEST("drop-oldest"),
+
+		/**
+		 * Replace the event by a single pending flush of its region
+		 */
+		FLUSH("flush");
+
+		private final String mName;
+
+		private OverflowPolicy(String name)
+		{
+			mName = name;
+		}
+
+		/**
+		 * Get the name of this policy as used in configuration
+		 */
+		public String getName()
+		{
+			return mName;
+		}
+
+		/**
+		 * Resolve an {@link OverflowPolicy} from its name
+		 *
+		 * @param name Policy name, case insensitive
+		 * @return Matching {@link OverflowPolicy}
+		 * @throws IllegalArgumentException Unknown policy name
+		 */
+		public static OverflowPolicy fromName(String name)
+		{
+			for (OverflowPolicy policy : values())
+			{
+				if (policy.mName.equalsIgnoreCase(name))
+					return policy;
+			}
+
+			throw new IllegalArgumentException("Unknown queue overflow policy '" + name + "'.");
+		}
+	}
+
+	private final int mMask;
+	private final AtomicLongArray mSequences;
+	private final AtomicReferenceArray<CacheEvent> mEvents;
+	private final OverflowPolicy mOverflowPolicy;
+
+	private final AtomicLong mHead = new AtomicLong();
+	private final AtomicLong mTail = new AtomicLong();
+	private final AtomicLong mHighWaterMark = new AtomicLong();
+	private final AtomicLong mOverflowCount = new AtomicLong();
+	private final AtomicLong mFlushPosition = new AtomicLong();
+	private final ConcurrentHashMap<String, Boolean> mPendingFlushes = new ConcurrentHashMap<String, Boolean>();
+
+	private volatile Thread mConsumer;
+
+	/**
+	 * Create a new CacheEventRingBuffer
+	 *
+	 * @param capacity Number of slots, rounded up to a power of two
+	 * @param overflowPolicy {@link OverflowPolicy} applied once the buffer is full
+	 */
+	public CacheEventRingBuffer(int capacity, OverflowPolicy overflowPolicy)
+	{
+		int size = 2;
+
+		while (size < capacity && size < (1 << 30))
+			size <<= 1;
+
+		mMask = size - 1;
+		mSequences = new AtomicLongArray(size);
+		mEvents = new AtomicReferenceArray<CacheEvent>(size);
+		mOverflowPolicy = overflowPolicy;
+
+		for (int i = 0; i < size; i++)
+			mSequences.set(i, i);
+	}
+
+	/**
+	 * Number of slots in this buffer
+	 */
+	public int getCapacity()
+	{
+		return mMask + 1;
+	}
+
+	/**
+	 * {@link OverflowPolicy} of this buffer
+	 */
+	public OverflowPolicy getOverflowPolicy()
+	{
+		return mOverflowPolicy;
+	}
+
+	/**
+	 * Number of queued events
+	 */
+	public int getDepth()
+	{
+		return (int)Math.max(0, mTail.get() - mHead.get());
+	}
+
+	/**
+	 * Highest number of queued events observed since the last {@link #resetHighWaterMark()}
+	 */
+	public int getHighWaterMark()
+	{
+		return (int)mHighWaterMark.get();
+	}
+
+	/**
+	 * Reset the high-water mark to the current depth
+	 */
+	public void resetHighWaterMark()
+	{
+		mHighWaterMark.set(getDepth());
+	}
+
+	/**
+	 * Number of events which were dropped or collapsed because the buffer was full
+	 */
+	public long getOverflowCount()
+	{
+		return mOverflowCount.get();
+	}
+
+	/**
+	 * Queue a {@link CacheEvent}, applying the {@link OverflowPolicy} if the buffer is full
+	 *
+	 * @param cacheEvent {@link CacheEvent}
+	 */
+	public void offer(CacheEvent cacheEvent)
+	{
+		while (!tryOffer(cacheEvent))
+		{
+			switch (mOverflowPolicy)
+			{
+				case DROP_OLDEST:
+					if (tryPoll() != null)
+						mOverflowCount.incrementAndGet();
+					break;
+
+				case FLUSH:
+					mOverflowCount.incrementAndGet();
+					updateMaximum(mFlushPosition, mTail.get());
+					mPendingFlushes.putIfAbsent(cacheEvent.getRegionPath() != null ? cacheEvent.getRegionPath() : ReplayBuffer.FLUSH_ALL_REGION, Boolean.TRUE);
+					signal();
+					return;
+
+				default:
+					signal();
+					LockSupport.parkNanos(this, BLOCK_INTERVAL);
+			}
+		}
+
+		signal();
+	}
+
+	/**
+	 * Take the next {@link CacheEvent}, waiting up to the given time if the buffer is empty.
+	 * <p>
+	 * Only a single consumer thread may call this method.
+	 * </p>
+	 *
+	 * @param timeout Maximum time to wait
+	 * @param unit {@link TimeUnit} of the timeout
+	 * @return Next {@link CacheEvent}, or null if the time has elapsed
+	 * @throws InterruptedException Consumer thread was interrupted while waiting
+	 */
+	public CacheEvent poll(long timeout, TimeUnit unit)
+		throws InterruptedException
+	{
+		CacheEvent cacheEvent = poll();
+
+		if (cacheEvent != null)
+			return cacheEvent;
+
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		mConsumer = Thread.currentThread();
+
+		try
+		{
+			while ((cacheEvent = poll()) == null)
+			{
+				long remaining = deadline - System.nanoTime();
+
+				if (remaining <= 0)
+					return null;
+
+				LockSupport.parkNanos(this, remaining);
+
+				if (Thread.interrupted())
+					throw new InterruptedException();
+			}
+
+			return cacheEvent;
+		}
+		finally
+		{
+			mConsumer = null;
+		}
+	}
+
+	/**
+	 * Take the next {@link CacheEvent} without waiting.
+	 * <p>
+	 * Pending region flushes are returned once every event queued before the overflow has been taken.
+	 * </p>
+	 *
+	 * @return Next {@link CacheEvent}, or null if the buffer is empty
+	 */
+	public CacheEvent poll()
+	{
+		if (!mPendingFlushes.isEmpty() && mHead.get() >= mFlushPosition.get())
+		{
+			Iterator<String> iterator = mPendingFlushes.keySet().iterator();
+
+			if (iterator.hasNext())
+			{
+				String regionPath = iterator.next();
+				iterator.remove();
+
+				return new CacheEvent(regionPath, Integer.valueOf(0), CacheEvent.FLUSH);
+			}
+		}
+
+		return tryPoll();
+	}
+
+	/**
+	 * Verify if the buffer holds no events and no pending region flushes
+	 */
+	public boolean isEmpty()
+	{
+		return getDepth() == 0 && mPendingFlushes.isEmpty();
+	}
+
+	private boolean tryOffer(CacheEvent cacheEvent)
+	{
+		long position = mTail.get();
+
+		while (true)
+		{
+			int index = (int)position & mMask;
+			long difference = mSequences.get(index) - position;
+
+			if (difference == 0)
+			{
+				if (mTail.compareAndSet(position, position + 1))
+				{
+					mEvents.set(index, cacheEvent);
+					mSequences.lazySet(index, position + 1);
+
+					updateMaximum(mHighWaterMark, position + 1 - mHead.get());
+					return true;
+				}
+
+				position = mTail.get();
+			}
+			else if (difference < 0)
+				return false;
+			else
+				position = mTail.get();
+		}
+	}
+
+	private CacheEvent tryPoll()
+	{
+		long position = mHead.get();
+
+		while (true)
+		{
+			int index = (int)position & mMask;
+			long difference = mSequences.get(index) - (position + 1);
+
+			if (difference == 0)
+			{
+				// Producers applying DROP_OLDEST compete with the consumer for the head slot
+				if (mHead.compareAndSet(position, position + 1))
+				{
+					CacheEvent cacheEvent = mEvents.getAndSet(index, null);
+					mSequences.lazySet(index, position + mMask + 1);
+
+					return cacheEvent;
+				}
+
+				position = mHead.get();
+			}
+			else if (difference < 0)
+				return null;
+			else
+				position = mHead.get();
+		}
+	}
+
+	private static void updateMaximum(AtomicLong maximum, long value)
+	{
+		long current;
+
+		while (value > (current = maximum.get()))
+		{
+			if (maximum.compareAndSet(current, value))
+				break;
+		}
+	}
+
+	private void signal()
+	{
+		Thread consumer = mConsumer;
+
+		if (consumer != null)
+			LockSupport.unpark(consumer);
+	}
+}
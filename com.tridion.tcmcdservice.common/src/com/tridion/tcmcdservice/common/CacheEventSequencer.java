@@ -0,0 +1,113 @@
+/**
+ *   @description Cache Event Sequencer
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * CacheEventSequencer assigns consecutive sequence numbers to the messages of a single publisher.
+ * <p>
+ * Every message also carries a digest of the distinct regions of the preceding "window" messages. A receiver which
+ * detects a gap of at most "window" messages can therefore flush only the regions the lost messages may have touched,
+ * see {@link SequenceTracker}. The digest is omitted once it holds more than "maxRegions" regions.
+ * </p>
+ * <p>
+ * Sequence numbers start at one, the sequencer is thread-safe.
+ * </p>
+ */
+public class CacheEventSequencer
+{
+	public static final int DEFAULT_WINDOW = 64;
+	public static final int DEFAULT_MAX_REGIONS = 32;
+
+	private final String mPublisher;
+	private final int mMaxRegions;
+
+	private final String[][] mWindow;
+	private final Map<String, Integer> mRegionCounts = new HashMap<String, Integer>();
+	private long mSequence = 0;
+
+	/**
+	 * Create a new CacheEventSequencer with the default window and digest size
+	 *
+	 * @param publisher Identifier of the publisher
+	 */
+	public CacheEventSequencer(String publisher)
+	{
+		this(publisher, DEFAULT_WINDOW, DEFAULT_MAX_REGIONS);
+	}
+
+	/**
+	 * Create a new CacheEventSequencer
+	 *
+	 * @param publisher Identifier of the publisher
+	 * @param window Number of preceding messages covered by the region digest
+	 * @param maxRegions Maximum number of regions in the region digest
+	 */
+	public CacheEventSequencer(String publisher, int window, int maxRegions)
+	{
+		mPublisher = publisher;
+		mWindow = new String[Math.max(1, window)][];
+		mMaxRegions = Math.max(1, maxRegions);
+	}
+
+	/**
+	 * Number of preceding messages covered by the region digest
+	 */
+	public int getWindow()
+	{
+		return mWindow.length;
+	}
+
+	/**
+	 * Create the next message of this publisher
+	 *
+	 * @param cacheEvents {@link CacheEvent}s of the message
+	 * @return {@link CacheEventMessage} with the next sequence number and the current region digest
+	 */
+	public synchronized CacheEventMessage next(List<CacheEvent> cacheEvents)
+	{
+		List<String> recentRegions = mRegionCounts.size() <= mMaxRegions ? new ArrayList<String>(mRegionCounts.keySet()) : null;
+		CacheEventMessage message = new CacheEventMessage(mPublisher, ++mSequence, recentRegions, cacheEvents, System.currentTimeMillis());
+
+		// Move the window, the regions of this message are part of the digest of the next one
+		int slot = (int)(mSequence % mWindow.length);
+
+		if (mWindow[slot] != null)
+		{
+			for (String regionPath : mWindow[slot])
+			{
+				int count = mRegionCounts.get(regionPath);
+
+				if (count == 1)
+					mRegionCounts.remove(regionPath);
+				else
+					mRegionCounts.put(regionPath, count - 1);
+			}
+		}
+
+		Set<String> regions = new LinkedHashSet<String>();
+
+		for (CacheEvent cacheEvent : cacheEvents)
+			regions.add(cacheEvent.getRegionPath());
+
+		mWindow[slot] = regions.toArray(new String[regions.size()]);
+
+		for (String regionPath : mWindow[slot])
+		{
+			Integer count = mRegionCounts.get(regionPath);
+			mRegionCounts.put(regionPath, count != null ? count + 1 : 1);
+		}
+
+		return message;
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ *   @description Cache Event Tracer
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * CacheEventTracer traces the phases a cache event passes through in a cache channel connector, for example as Java
+ * Flight Recorder events.
+ * <p>
+ * The first implementation registered in "META-INF/services/com.tridion.tcmcdservice.common.CacheEventTracer" is used,
+ * without one every connector uses {@link #NONE}. Connectors hold the tracer in a static final field, so the calls to
+ * {@link #NONE} are removed by the JIT compiler and an implementation only allocates while its phase is traced:
+ * </p>
+ * <pre>
+ * Object span = mTracer.begin(CacheEventTracer.Phase.SEND);
+ * ...
+ * mTracer.end(span, "ZeroMQ", cacheEvent, 1);
+ * </pre>
+ * <p>
+ * Spans are not carried through queues, the time an event waits in a queue is the time between its {@link Phase#ENQUEUE}
+ * span and the {@link Phase#ENCODE} or {@link Phase#SEND} span for the same region path and key.
+ * </p>
+ */
+public abstract class CacheEventTracer
+{
+	/**
+	 * Phase of a cache event in a cache channel connector
+	 */
+	public enum Phase
+	{
+		/**
+		 * {@link CacheEvent} is broadcast by the caller
+		 */
+		PUBLISH,
+
+		/**
+		 * {@link CacheEvent} is handed to the outgoing queue
+		 */
+		ENQUEUE,
+
+		/**
+		 * {@link CacheEvent}s are encoded into a message
+		 */
+		ENCODE,
+
+		/**
+		 * Message is sent to the broker or remote service
+		 */
+		SEND,
+
+		/**
+		 * Received message is decoded and dispatched
+		 */
+		RECEIVE,
+
+		/**
+		 * Received message is decoded
+		 */
+		DECODE,
+
+		/**
+		 * Received {@link CacheEvent}s are passed to the listener
+		 */
+		DISPATCH
+	}
+
+	/**
+	 * CacheEventTracer which traces nothing
+	 */
+	public static final CacheEventTracer NONE = new CacheEventTracer()
+	{
+		@Override
+		public Object begin(Phase phase)
+		{
+			return null;
+		}
+
+		@Override
+		public void end(Object span, String connector, CacheEvent cacheEvent, int eventCount)
+		{
+		}
+	};
+
+	private static final CacheEventTracer mInstance = load();
+
+	/**
+	 * Get the registered CacheEventTracer
+	 *
+	 * @return Registered CacheEventTracer, or {@link #NONE}
+	 */
+	public static CacheEventTracer getInstance()
+	{
+		return mInstance;
+	}
+
+	private static CacheEventTracer load()
+	{
+		try
+		{
+			Iterator<CacheEventTracer> tracers = ServiceLoader.load(CacheEventTracer.class, CacheEventTracer.class.getClassLoader()).iterator();
+
+			if (tracers.hasNext())
+				return tracers.next();
+		}
+		catch (ServiceConfigurationError ex)
+		{
+			// Implementation cannot be instantiated, tracing is disabled
+		}
+		catch (LinkageError ex)
+		{
+			// Implementation requires a newer Java runtime, tracing is disabled
+		}
+
+		return NONE;
+	}
+
+	/**
+	 * Start tracing a phase
+	 *
+	 * @param phase {@link Phase}
+	 * @return Opaque span passed to {@link #end(Object, String, CacheEvent, int)}, or null if the phase is not traced
+	 */
+	public abstract Object begin(Phase phase);
+
+	/**
+	 * Finish tracing a phase
+	 *
+	 * @param span Span returned by {@link #begin(Phase)}, null is ignored
+	 * @param connector Type of the connector, for example "JMS"
+	 * @param cacheEvent Traced {@link CacheEvent}, or the first event of a message, null if unknown
+	 * @param eventCount Number of events covered by the span
+	 */
+	public abstract void end(Object span, String connector, CacheEvent cacheEvent, int eventCount);
+
+	/**
+	 * Finish tracing a phase which covers a message
+	 *
+	 * @param span Span returned by {@link #begin(Phase)}, null is ignored
+	 * @param connector Type of the connector, for example "JMS"
+	 * @param message Traced {@link CacheEventMessage}
+	 */
+	public final void end(Object span, String connector, CacheEventMessage message)
+	{
+		if (span != null)
+		{
+			List<CacheEvent> cacheEvents = message.getEvents();
+			end(span, connector, cacheEvents.isEmpty() ? null : cacheEvents.get(0), cacheEvents.size());
+		}
+	}
+}
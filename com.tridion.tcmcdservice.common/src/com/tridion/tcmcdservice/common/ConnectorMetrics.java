@@ -0,0 +1,419 @@
+/**
+ *   @description Connector Metrics
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * ConnectorMetrics counts the events, errors and connection changes of a single cache channel connector and records the
+ * latency of broadcasts and listener dispatches, see {@link ConnectorMetricsMXBean}.
+ * <p>
+ * All recording methods are lock-free and do not allocate once a region has been seen, at most "MAX_REGIONS" regions
+ * are counted separately and further regions are counted as "other". The metrics are registered with the platform
+ * MBean server as "com.tridion.tcmcdservice:type=&lt;connector type&gt;,name=&lt;identifier&gt;".
+ * </p>
+ * <p>
+ * Receivers record the propagation delay of messages which carry an origin time per publishing node, at most
+ * "MAX_ORIGINS" nodes are recorded separately. The delay is measured against the wall clock of the receiver, so it
+ * includes the clock offset between both nodes, negative delays are recorded as zero.
+ * </p>
+ * <p>
+ * ConnectorMetrics does not log, so it can be used by connectors without a logging framework.
+ * </p>
+ */
+public class ConnectorMetrics implements ConnectorMetricsMXBean
+{
+	public static final String DOMAIN = "com.tridion.tcmcdservice";
+	public static final int MAX_REGIONS = 256;
+	public static final int MAX_ORIGINS = 64;
+
+	private static final String OTHER = "other";
+
+	/**
+	 * Gauge supplies the current value of a metric owned by the connector
+	 */
+	public interface Gauge
+	{
+		long getValue();
+	}
+
+	private final String mConnectorType;
+	private final String mIdentifier;
+	private volatile ObjectName mObjectName = null;
+
+	private final AtomicLong mEventsSent = new AtomicLong();
+	private final AtomicLong mEventsReceived = new AtomicLong();
+	private final AtomicLong mEncodeErrors = new AtomicLong();
+	private final AtomicLong mDecodeErrors = new AtomicLong();
+	private final AtomicLong mConnects = new AtomicLong();
+	private final AtomicLong mDisconnects = new AtomicLong();
+
+	// Counts per region, indexed by event type: flush, invalidate and any other type
+	private final ConcurrentMap<String, AtomicLongArray> mSentByRegion = new ConcurrentHashMap<String, AtomicLongArray>();
+	private final ConcurrentMap<String, AtomicLongArray> mReceivedByRegion = new ConcurrentHashMap<String, AtomicLongArray>();
+
+	private final LatencyHistogram mBroadcastLatency = new LatencyHistogram();
+	private final LatencyHistogram mDispatchLatency = new LatencyHistogram();
+	private final ConcurrentMap<String, LatencyHistogram> mPropagationDelay = new ConcurrentHashMap<String, LatencyHistogram>();
+
+	private volatile long mReportInterval = 0;
+	private final AtomicLong mNextReport = new AtomicLong();
+
+	private volatile Gauge mQueueDepth = null;
+
+	/**
+	 * Create new ConnectorMetrics
+	 *
+	 * @param connectorType Type of the connector, for example "JMS"
+	 * @param identifier Client identifier of the connector
+	 */
+	public ConnectorMetrics(String connectorType, String identifier)
+	{
+		mConnectorType = connectorType;
+		mIdentifier = identifier;
+	}
+
+	/**
+	 * Register with the platform MBean server
+	 *
+	 * @return false if the metrics could not be registered, for example when JMX is unavailable
+	 */
+	public boolean register()
+	{
+		try
+		{
+			ObjectName objectName = new ObjectName(DOMAIN + ":type=" + ObjectName.quote(mConnectorType) + ",name=" + ObjectName.quote(mIdentifier));
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+			if (!server.isRegistered(objectName))
+				server.registerMBean(this, objectName);
+
+			mObjectName = objectName;
+
+			return true;
+		}
+		catch (JMException ex)
+		{
+			return false;
+		}
+		catch (LinkageError ex)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Unregister from the platform MBean server
+	 */
+	public void unregister()
+	{
+		ObjectName objectName = mObjectName;
+		mObjectName = null;
+
+		if (objectName == null)
+			return;
+
+		try
+		{
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		}
+		catch (JMException ex)
+		{
+			// Already unregistered
+		}
+	}
+
+	/**
+	 * Supply the queue depth of the connector
+	 */
+	public void setQueueDepth(Gauge queueDepth)
+	{
+		mQueueDepth = queueDepth;
+	}
+
+	private static void count(ConcurrentMap<String, AtomicLongArray> counts, CacheEvent cacheEvent)
+	{
+		String regionPath = cacheEvent.getRegionPath();
+		AtomicLongArray regionCounts = counts.get(regionPath);
+
+		if (regionCounts == null)
+		{
+			if (regionPath == null || counts.size() >= MAX_REGIONS)
+				regionPath = OTHER;
+
+			regionCounts = counts.get(regionPath);
+
+			if (regionCounts == null)
+			{
+				AtomicLongArray created = new AtomicLongArray(3);
+				regionCounts = counts.putIfAbsent(regionPath, created);
+
+				if (regionCounts == null)
+					regionCounts = created;
+			}
+		}
+
+		int type = cacheEvent.getType();
+		regionCounts.incrementAndGet(type == CacheEvent.FLUSH || type == CacheEvent.INVALIDATE ? type : 2);
+	}
+
+	private static Map<String, Long> snapshot(ConcurrentMap<String, AtomicLongArray> counts)
+	{
+		Map<String, Long> snapshot = new TreeMap<String, Long>();
+
+		for (Map.Entry<String, AtomicLongArray> entry : counts.entrySet())
+		{
+			AtomicLongArray regionCounts = entry.getValue();
+
+			if (regionCounts.get(CacheEvent.FLUSH) > 0)
+				snapshot.put(entry.getKey() + ":flush", regionCounts.get(CacheEvent.FLUSH));
+
+			if (regionCounts.get(CacheEvent.INVALIDATE) > 0)
+				snapshot.put(entry.getKey() + ":invalidate", regionCounts.get(CacheEvent.INVALIDATE));
+
+			if (regionCounts.get(2) > 0)
+				snapshot.put(entry.getKey() + ":other", regionCounts.get(2));
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * Record a sent event
+	 */
+	public void eventSent(CacheEvent cacheEvent)
+	{
+		mEventsSent.incrementAndGet();
+		count(mSentByRegion, cacheEvent);
+	}
+
+	/**
+	 * Record a received event
+	 */
+	public void eventReceived(CacheEvent cacheEvent)
+	{
+		mEventsReceived.incrementAndGet();
+		count(mReceivedByRegion, cacheEvent);
+	}
+
+	public void encodeError()
+	{
+		mEncodeErrors.incrementAndGet();
+	}
+
+	public void decodeError()
+	{
+		mDecodeErrors.incrementAndGet();
+	}
+
+	public void connected()
+	{
+		mConnects.incrementAndGet();
+	}
+
+	public void disconnected()
+	{
+		mDisconnects.incrementAndGet();
+	}
+
+	/**
+	 * Record the duration of sending a message or remote call
+	 *
+	 * @param nanos Duration in nanoseconds
+	 */
+	public void broadcastLatency(long nanos)
+	{
+		mBroadcastLatency.record(nanos);
+	}
+
+	/**
+	 * Record the duration of passing received events to the listener
+	 *
+	 * @param nanos Duration in nanoseconds
+	 */
+	public void dispatchLatency(long nanos)
+	{
+		mDispatchLatency.record(nanos);
+	}
+
+	/**
+	 * Record the propagation delay of a received message
+	 *
+	 * @param origin Identifier of the publisher of the message
+	 * @param delay Time in milliseconds between the origin time of the message and its reception
+	 */
+	public void propagationDelay(String origin, long delay)
+	{
+		LatencyHistogram histogram = origin != null ? mPropagationDelay.get(origin) : null;
+
+		if (histogram == null)
+		{
+			if (origin == null || mPropagationDelay.size() >= MAX_ORIGINS)
+				origin = OTHER;
+
+			histogram = mPropagationDelay.get(origin);
+
+			if (histogram == null)
+			{
+				LatencyHistogram created = new LatencyHistogram();
+				histogram = mPropagationDelay.putIfAbsent(origin, created);
+
+				if (histogram == null)
+					histogram = created;
+			}
+		}
+
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay)));
+	}
+
+	/**
+	 * Configure the interval of the propagation delay report, see {@link #takePropagationReport()}
+	 *
+	 * @param reportInterval Time in milliseconds between reports, 0 disables the report
+	 */
+	public void setReportInterval(long reportInterval)
+	{
+		mReportInterval = Math.max(0, reportInterval);
+		mNextReport.set(System.currentTimeMillis() + reportInterval);
+	}
+
+	/**
+	 * Take the periodic propagation delay report, only a single caller receives the report of an interval
+	 *
+	 * @return Summary of the propagation delay per origin, or null if the report is not due
+	 */
+	public String takePropagationReport()
+	{
+		long reportInterval = mReportInterval;
+
+		if (reportInterval <= 0 || mPropagationDelay.isEmpty())
+			return null;
+
+		long now = System.currentTimeMillis();
+		long nextReport = mNextReport.get();
+
+		if (now < nextReport || !mNextReport.compareAndSet(nextReport, now + reportInterval))
+			return null;
+
+		StringBuilder builder = new StringBuilder("Propagation delay [" + mConnectorType + "] Client [" + mIdentifier + "]");
+
+		for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<String, LatencyHistogram>(mPropagationDelay).entrySet())
+		{
+			LatencyHistogram histogram = entry.getValue();
+
+			builder.append(", Origin [").append(entry.getKey()).append("] count ").append(histogram.getCount())
+				.append(" p50 ").append(TimeUnit.NANOSECONDS.toMillis(histogram.getPercentile(0.50)))
+				.append("ms p90 ").append(TimeUnit.NANOSECONDS.toMillis(histogram.getPercentile(0.90)))
+				.append("ms p99 ").append(TimeUnit.NANOSECONDS.toMillis(histogram.getPercentile(0.99)))
+				.append("ms max ").append(TimeUnit.NANOSECONDS.toMillis(histogram.getPercentile(1.0))).append("ms");
+		}
+
+		return builder.toString();
+	}
+
+	public String getConnectorType()
+	{
+		return mConnectorType;
+	}
+
+	public String getIdentifier()
+	{
+		return mIdentifier;
+	}
+
+	public long getEventsSent()
+	{
+		return mEventsSent.get();
+	}
+
+	public long getEventsReceived()
+	{
+		return mEventsReceived.get();
+	}
+
+	public Map<String, Long> getEventsSentByRegion()
+	{
+		return snapshot(mSentByRegion);
+	}
+
+	public Map<String, Long> getEventsReceivedByRegion()
+	{
+		return snapshot(mReceivedByRegion);
+	}
+
+	public long getEncodeErrors()
+	{
+		return mEncodeErrors.get();
+	}
+
+	public long getDecodeErrors()
+	{
+		return mDecodeErrors.get();
+	}
+
+	public long getConnects()
+	{
+		return mConnects.get();
+	}
+
+	public long getDisconnects()
+	{
+		return mDisconnects.get();
+	}
+
+	public long getQueueDepth()
+	{
+		Gauge queueDepth = mQueueDepth;
+		return queueDepth != null ? queueDepth.getValue() : 0;
+	}
+
+	public Map<String, Long> getBroadcastLatency()
+	{
+		return mBroadcastLatency.getSummary();
+	}
+
+	public Map<String, Long> getDispatchLatency()
+	{
+		return mDispatchLatency.getSummary();
+	}
+
+	public Map<String, Map<String, Long>> getPropagationDelay()
+	{
+		Map<String, Map<String, Long>> summaries = new TreeMap<String, Map<String, Long>>();
+
+		for (Map.Entry<String, LatencyHistogram> entry : mPropagationDelay.entrySet())
+			summaries.put(entry.getKey(), entry.getValue().getSummary());
+
+		return summaries;
+	}
+
+	public void reset()
+	{
+		mEventsSent.set(0);
+		mEventsReceived.set(0);
+		mEncodeErrors.set(0);
+		mDecodeErrors.set(0);
+		mConnects.set(0);
+		mDisconnects.set(0);
+		mSentByRegion.clear();
+		mReceivedByRegion.clear();
+		mBroadcastLatency.reset();
+		mDispatchLatency.reset();
+		mPropagationDelay.clear();
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ *   @description Connector Metrics MXBean
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.Map;
+
+/**
+ * ConnectorMetricsMXBean exposes the {@link ConnectorMetrics} of a cache channel connector over JMX.
+ * <p>
+ * Event counts by region are keyed as "region:type", latencies are summarized in microseconds. Propagation delays are
+ * summarized per origin.
+ * </p>
+ */
+public interface ConnectorMetricsMXBean
+{
+	public String getConnectorType();
+
+	public String getIdentifier();
+
+	public long getEventsSent();
+
+	public long getEventsReceived();
+
+	public Map<String, Long> getEventsSentByRegion();
+
+	public Map<String, Long> getEventsReceivedByRegion();
+
+	public long getEncodeErrors();
+
+	public long getDecodeErrors();
+
+	public long getConnects();
+
+	public long getDisconnects();
+
+	public long getQueueDepth();
+
+	public Map<String, Long> getBroadcastLatency();
+
+	public Map<String, Long> getDispatchLatency();
+
+	public Map<String, Map<String, Long>> getPropagationDelay();
+
+	public void reset();
+}
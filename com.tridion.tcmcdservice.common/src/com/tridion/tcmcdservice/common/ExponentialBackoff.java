@@ -0,0 +1,82 @@
+/**
+ *   @description Exponential Backoff
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.Random;
+
+/**
+ * ExponentialBackoff tracks consecutive failures of an operation and computes a jittered, exponentially growing delay
+ * before the next attempt.
+ * <p>
+ * The delay after <i>n</i> consecutive failures is drawn uniformly between half and the full value of
+ * min(maximum, initial * 2<sup>n-1</sup>), spreading reconnect attempts of many nodes after a shared outage.
+ * </p>
+ */
+public class ExponentialBackoff
+{
+	private final long mInitialDelay;
+	private final long mMaximumDelay;
+	private final Random mRandom = new Random();
+
+	private int mFailures = 0;
+	private long mNextAttempt = 0;
+
+	/**
+	 * Create a new ExponentialBackoff
+	 *
+	 * @param initialDelay Delay in milliseconds after the first failure
+	 * @param maximumDelay Upper bound in milliseconds of the delay
+	 */
+	public ExponentialBackoff(long initialDelay, long maximumDelay)
+	{
+		mInitialDelay = Math.max(1, initialDelay);
+		mMaximumDelay = Math.max(mInitialDelay, maximumDelay);
+	}
+
+	/**
+	 * Number of consecutive failures
+	 */
+	public synchronized int getFailures()
+	{
+		return mFailures;
+	}
+
+	/**
+	 * Milliseconds until the next attempt is allowed, zero if an attempt is allowed now
+	 */
+	public synchronized long getRemainingDelay()
+	{
+		return Math.max(0, mNextAttempt - System.currentTimeMillis());
+	}
+
+	/**
+	 * Record a failed attempt
+	 *
+	 * @return Delay in milliseconds before the next attempt
+	 */
+	public synchronized long failure()
+	{
+		mFailures++;
+
+		long delay = mInitialDelay << Math.min(mFailures - 1, 30);
+
+		if (delay <= 0 || delay > mMaximumDelay)
+			delay = mMaximumDelay;
+
+		delay = delay / 2 + (long)(mRandom.nextDouble() * (delay - delay / 2));
+		mNextAttempt = System.currentTimeMillis() + delay;
+
+		return delay;
+	}
+
+	/**
+	 * Record a successful attempt, resetting the delay
+	 */
+	public synchronized void success()
+	{
+		mFailures = 0;
+		mNextAttempt = 0;
+	}
+}
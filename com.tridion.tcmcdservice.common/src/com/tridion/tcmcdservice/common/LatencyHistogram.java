@@ -0,0 +1,144 @@
+/**
+ *   @description Latency Histogram
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram records durations in nanoseconds without locking.
+ * <p>
+ * Durations are counted in log-linear buckets, every power of two is divided into eight buckets so percentiles are
+ * reported within 12.5% of the recorded value. Recording is a single atomic increment plus an atomic add for the mean.
+ * </p>
+ */
+public final class LatencyHistogram
+{
+	private static final int SUB_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKETS);
+	private final AtomicLong mTotal = new AtomicLong();
+	private final AtomicLong mMax = new AtomicLong();
+
+	/**
+	 * Record a duration
+	 *
+	 * @param nanos Duration in nanoseconds
+	 */
+	public void record(long nanos)
+	{
+		if (nanos < 0)
+			nanos = 0;
+
+		mBuckets.incrementAndGet(bucket(nanos));
+		mTotal.addAndGet(nanos);
+
+		long max;
+
+		while (nanos > (max = mMax.get()) && !mMax.compareAndSet(max, nanos))
+		{
+			// Retry, another thread recorded a larger maximum
+		}
+	}
+
+	private static int bucket(long value)
+	{
+		if (value < SUB_BUCKETS)
+			return (int)value;
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int)(value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	private static long upperBound(int bucket)
+	{
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+
+		int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+		long lower = (long)(SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+
+		return lower + (1L << (exponent - SUB_BITS)) - 1;
+	}
+
+	/**
+	 * Number of recorded durations
+	 */
+	public long getCount()
+	{
+		long count = 0;
+
+		for (int i = 0; i < BUCKETS; i++)
+			count += mBuckets.get(i);
+
+		return count;
+	}
+
+	/**
+	 * Duration in nanoseconds below which the given fraction of recorded durations falls
+	 *
+	 * @param fraction Fraction between 0 and 1, for example 0.99
+	 */
+	public long getPercentile(double fraction)
+	{
+		long[] counts = new long[BUCKETS];
+		long count = 0;
+
+		for (int i = 0; i < BUCKETS; i++)
+			count += (counts[i] = mBuckets.get(i));
+
+		if (count == 0)
+			return 0;
+
+		long rank = (long)Math.ceil(fraction * count);
+		long seen = 0;
+
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			seen += counts[i];
+
+			if (seen >= rank)
+				return Math.min(upperBound(i), mMax.get());
+		}
+
+		return mMax.get();
+	}
+
+	/**
+	 * Summary in microseconds: count, mean, p50, p90, p99 and max
+	 */
+	public Map<String, Long> getSummary()
+	{
+		Map<String, Long> summary = new LinkedHashMap<String, Long>();
+		long count = getCount();
+
+		summary.put("count", count);
+		summary.put("mean", count > 0 ? mTotal.get() / count / 1000 : 0);
+		summary.put("p50", getPercentile(0.50) / 1000);
+		summary.put("p90", getPercentile(0.90) / 1000);
+		summary.put("p99", getPercentile(0.99) / 1000);
+		summary.put("max", mMax.get() / 1000);
+
+		return summary;
+	}
+
+	/**
+	 * Clear all recorded durations
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < BUCKETS; i++)
+			mBuckets.set(i, 0);
+
+		mTotal.set(0);
+		mMax.set(0);
+	}
+}
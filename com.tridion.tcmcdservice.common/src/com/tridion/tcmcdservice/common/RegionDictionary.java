@@ -0,0 +1,219 @@
+/**
+ *   @description Region Dictionary
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RegionDictionary holds the per-publisher state of the dictionary encoded binary format, see
+ * {@link BinaryCacheEventCodec#encode(CacheEventMessage, Encoder)}.
+ * <p>
+ * The {@link Encoder} of a publisher assigns a small index to every region path. The first occurrence of a path within
+ * an epoch is written as a definition, later occurrences only as index. Definitions carry their index, so a receiver
+ * which lost a message can still use every definition it did receive.
+ * </p>
+ * <p>
+ * As the channel is one-way a receiver cannot ask for lost definitions. The encoder therefore starts a new epoch, with an
+ * empty dictionary, every "refreshMessages" messages or "refreshInterval" milliseconds. The {@link Decoder} of a
+ * receiver resets itself when the epoch changes, references it cannot resolve until then are reported as unknown.
+ * </p>
+ * <p>
+ * One lost definition makes every later reference to it in the same epoch unresolvable. The decoder therefore requests a
+ * single flush of all regions for the first unresolved reference of an epoch and suppresses the events of later ones.
+ * Those events were received after that flush, so one more flush is requested once the next epoch starts.
+ * </p>
+ * <p>
+ * Encoders and decoders are not thread-safe, each belongs to a single sending or receiving thread.
+ * </p>
+ */
+public final class RegionDictionary
+{
+	public static final int DEFAULT_REFRESH_MESSAGES = 1024;
+	public static final long DEFAULT_REFRESH_INTERVAL = 10000;
+	public static final int MAX_ENTRIES = 1024;
+
+	// Upper bound for received indices, a single message may define entries beyond MAX_ENTRIES
+	private static final int MAX_INDEX = 65536;
+
+	private RegionDictionary()
+	{
+	}
+
+	/**
+	 * Encoder assigns the dictionary indices of a single publisher
+	 */
+	public static final class Encoder
+	{
+		private final int mRefreshMessages;
+		private final long mRefreshInterval;
+
+		private final Map<String, Integer> mIndices = new HashMap<String, Integer>();
+		private int mEpoch = 0;
+		private int mMessages = 0;
+		private long mEpochStart = 0;
+
+		/**
+		 * Create a new Encoder with the default refresh
+		 */
+		public Encoder()
+		{
+			this(DEFAULT_REFRESH_MESSAGES, DEFAULT_REFRESH_INTERVAL);
+		}
+
+		/**
+		 * Create a new Encoder
+		 *
+		 * @param refreshMessages Number of messages after which a new epoch is started
+		 * @param refreshInterval Time in milliseconds after which a new epoch is started
+		 */
+		public Encoder(int refreshMessages, long refreshInterval)
+		{
+			mRefreshMessages = Math.max(1, refreshMessages);
+			mRefreshInterval = TimeUnit.MILLISECONDS.toNanos(refreshInterval);
+		}
+
+		/**
+		 * Start encoding the next message
+		 *
+		 * @return Epoch of the message
+		 */
+		int begin()
+		{
+			long now = System.nanoTime();
+
+			if (mMessages == 0 || mMessages >= mRefreshMessages || now - mEpochStart >= mRefreshInterval || mIndices.size() >= MAX_ENTRIES)
+			{
+				if (mMessages > 0)
+					mEpoch++;
+
+				mIndices.clear();
+				mMessages = 0;
+				mEpochStart = now;
+			}
+
+			mMessages++;
+
+			return mEpoch;
+		}
+
+		/**
+		 * Get the index of a region path
+		 *
+		 * @param regionPath Region path
+		 * @return Existing index, or the complement (~index) of a newly assigned index which must be defined
+		 */
+		int lookup(String regionPath)
+		{
+			Integer index = mIndices.get(regionPath);
+
+			if (index != null)
+				return index;
+
+			int assigned = mIndices.size();
+			mIndices.put(regionPath, assigned);
+
+			return ~assigned;
+		}
+	}
+
+	/**
+	 * Decoder resolves the dictionary indices of a single publisher
+	 */
+	public static final class Decoder
+	{
+		private final String mPublisher;
+		private final List<String> mEntries = new ArrayList<String>();
+		private int mEpoch = -1;
+		private boolean mPoisoned = false;
+		private boolean mSuppressed = false;
+
+		/**
+		 * Create a new Decoder
+		 *
+		 * @param publisher Identifier of the publisher, assigned to the decoded messages
+		 */
+		public Decoder(String publisher)
+		{
+			mPublisher = publisher;
+		}
+
+		/**
+		 * Identifier of the publisher
+		 */
+		public String getPublisher()
+		{
+			return mPublisher;
+		}
+
+		/**
+		 * Start decoding a message, the dictionary is cleared when its epoch differs from the previous message
+		 *
+		 * @return true if events were suppressed in the previous epoch and a flush of all regions is required
+		 */
+		boolean begin(int epoch)
+		{
+			if (epoch == mEpoch)
+				return false;
+
+			boolean suppressed = mSuppressed;
+
+			mEntries.clear();
+			mEpoch = epoch;
+			mPoisoned = false;
+			mSuppressed = false;
+
+			return suppressed;
+		}
+
+		/**
+		 * Report a reference which could not be resolved
+		 *
+		 * @return true for the first unresolved reference of the epoch, which requires a flush of all regions
+		 */
+		boolean unresolved()
+		{
+			if (!mPoisoned)
+			{
+				mPoisoned = true;
+				return true;
+			}
+
+			mSuppressed = true;
+
+			return false;
+		}
+
+		/**
+		 * Store a definition
+		 */
+		String define(int index, String regionPath)
+		{
+			if (index >= MAX_INDEX)
+				throw new IllegalArgumentException("Region dictionary index " + index + " exceeds " + MAX_INDEX + ".");
+
+			while (mEntries.size() <= index)
+				mEntries.add(null);
+
+			regionPath = RegionPathInterner.intern(regionPath);
+			mEntries.set(index, regionPath);
+
+			return regionPath;
+		}
+
+		/**
+		 * Resolve an index
+		 *
+		 * @return Region path, or null if its definition was not received
+		 */
+		String resolve(int index)
+		{
+			return index < mEntries.size() ? mEntries.get(index) : null;
+		}
+	}
+}
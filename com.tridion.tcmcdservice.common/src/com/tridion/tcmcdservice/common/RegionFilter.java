@@ -0,0 +1,174 @@
+/**
+ *   @description Region Filter
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RegionFilter selects cache events by the prefix of their region path.
+ * <p>
+ * A region path matches if it starts with any of the included prefixes (or no prefixes are included) and does not start
+ * with any of the excluded prefixes. Flushes of all regions ({@link ReplayBuffer#FLUSH_ALL_REGION}) always match. The
+ * filter can be translated into a JMS message selector, allowing the broker to drop uninteresting messages before they
+ * are delivered.
+ * </p>
+ */
+public final class RegionFilter
+{
+	/**
+	 * RegionFilter which matches every region path
+	 */
+	public static final RegionFilter ALL = new RegionFilter(Collections.<String>emptyList(), Collections.<String>emptyList());
+
+	private final List<String> mIncludes;
+	private final List<String> mExcludes;
+
+	/**
+	 * Create a new RegionFilter
+	 *
+	 * @param includes Included region path prefixes, an empty collection includes every region
+	 * @param excludes Excluded region path prefixes
+	 */
+	public RegionFilter(Collection<String> includes, Collection<String> excludes)
+	{
+		mIncludes = Collections.unmodifiableList(new ArrayList<String>(includes));
+		mExcludes = Collections.unmodifiableList(new ArrayList<String>(excludes));
+	}
+
+	/**
+	 * Included region path prefixes
+	 */
+	public List<String> getIncludes()
+	{
+		return mIncludes;
+	}
+
+	/**
+	 * Excluded region path prefixes
+	 */
+	public List<String> getExcludes()
+	{
+		return mExcludes;
+	}
+
+	/**
+	 * Verify if this filter matches every region path
+	 */
+	public boolean isEmpty()
+	{
+		return mIncludes.isEmpty() && mExcludes.isEmpty();
+	}
+
+	/**
+	 * Verify if the given region path passes this filter
+	 *
+	 * @param regionPath Region path
+	 * @return true if the region path is included and not excluded, or flushes all regions
+	 */
+	public boolean matches(String regionPath)
+	{
+		if (regionPath == null || ReplayBuffer.FLUSH_ALL_REGION.equals(regionPath))
+			return true;
+
+		for (String exclude : mExcludes)
+		{
+			if (regionPath.startsWith(exclude))
+				return false;
+		}
+
+		if (mIncludes.isEmpty())
+			return true;
+
+		for (String include : mIncludes)
+		{
+			if (regionPath.startsWith(include))
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Build a JMS message selector for this filter.
+	 * <p>
+	 * Messages without the property, such as messages spanning multiple regions or sent by older publishers, always pass
+	 * the selector and need to be filtered by the receiver using {@link #matches(String)}. Messages flushing all regions
+	 * always pass the selector.
+	 * </p>
+	 *
+	 * @param propertyName Name of the JMS string property holding the region path
+	 * @return Message selector, or null if this filter matches every region path
+	 */
+	public String toMessageSelector(String propertyName)
+	{
+		if (isEmpty())
+			return null;
+
+		StringBuilder builder = new StringBuilder();
+		builder.append(propertyName).append(" IS NULL OR ").append(propertyName).append(" = '").append(ReplayBuffer.FLUSH_ALL_REGION).append("' OR (");
+
+		if (!mIncludes.isEmpty())
+		{
+			builder.append('(');
+			appendLikes(builder, propertyName, mIncludes, " OR ");
+			builder.append(')');
+		}
+
+		if (!mExcludes.isEmpty())
+		{
+			if (!mIncludes.isEmpty())
+				builder.append(" AND ");
+
+			builder.append("NOT (");
+			appendLikes(builder, propertyName, mExcludes, " OR ");
+			builder.append(')');
+		}
+
+		return builder.append(')').toString();
+	}
+
+	private static void appendLikes(StringBuilder builder, String propertyName, List<String> prefixes, String separator)
+	{
+		for (int i = 0; i < prefixes.size(); i++)
+		{
+			if (i > 0)
+				builder.append(separator);
+
+			builder.append(propertyName).append(" LIKE '");
+
+			String prefix = prefixes.get(i);
+
+			for (int j = 0; j < prefix.length(); j++)
+			{
+				char c = prefix.charAt(j);
+
+				switch (c)
+				{
+					case '\'':
+						builder.append("''");
+						break;
+					case '%':
+					case '_':
+					case '\\':
+						builder.append('\\').append(c);
+						break;
+					default:
+						builder.append(c);
+				}
+			}
+
+			builder.append("%' ESCAPE '\\'");
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "includes: " + mIncludes + " excludes: " + mExcludes;
+	}
+}
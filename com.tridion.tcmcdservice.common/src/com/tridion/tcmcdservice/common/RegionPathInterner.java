@@ -0,0 +1,50 @@
+/**
+ *   @description Region Path Interner
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RegionPathInterner maps equal region paths of decoded cache events to a single {@link String} instance.
+ * <p>
+ * A channel typically carries a few dozen distinct region paths, interning them keeps millions of decoded events from
+ * retaining their own copies. Unlike {@link String#intern()} the pool is bounded, once it holds "MAX_ENTRIES" paths new
+ * paths are returned as-is. The interner is thread-safe.
+ * </p>
+ */
+public final class RegionPathInterner
+{
+	public static final int MAX_ENTRIES = 4096;
+
+	private static final ConcurrentHashMap<String, String> mPaths = new ConcurrentHashMap<String, String>();
+
+	private RegionPathInterner()
+	{
+	}
+
+	/**
+	 * Return the pooled instance equal to the given region path
+	 *
+	 * @param regionPath Region path
+	 * @return Pooled region path, or the given region path if it is not pooled
+	 */
+	public static String intern(String regionPath)
+	{
+		if (regionPath == null)
+			return null;
+
+		String pooled = mPaths.get(regionPath);
+
+		if (pooled != null)
+			return pooled;
+
+		if (mPaths.size() >= MAX_ENTRIES)
+			return regionPath;
+
+		pooled = mPaths.putIfAbsent(regionPath, regionPath);
+
+		return pooled != null ? pooled : regionPath;
+	}
+}
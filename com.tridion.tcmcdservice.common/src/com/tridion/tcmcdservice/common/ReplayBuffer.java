@@ -0,0 +1,120 @@
+/**
+ *   @description Replay Buffer
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * ReplayBuffer retains {@link CacheEvent}s broadcast while a cache channel is disconnected, so they can be sent once the
+ * connection is restored.
+ * <p>
+ * Repeated events for the same region, key and type coalesce into a single entry which keeps its position of the most
+ * recent broadcast. When the number of distinct events exceeds the capacity the buffered events are discarded in favour
+ * of a single flush event, which invalidates every cache served by the channel. The buffer is thread-safe.
+ * </p>
+ */
+public class ReplayBuffer
+{
+	/**
+	 * Region path of the flush event replayed after an overflow
+	 */
+	public static final String FLUSH_ALL_REGION = "/";
+
+	private final int mCapacity;
+	private final LinkedHashMap<String, CacheEvent> mEvents = new LinkedHashMap<String, CacheEvent>();
+	private boolean mOverflow = false;
+
+	/**
+	 * Create a new ReplayBuffer
+	 *
+	 * @param capacity Maximum number of distinct buffered events
+	 */
+	public ReplayBuffer(int capacity)
+	{
+		mCapacity = Math.max(1, capacity);
+	}
+
+	/**
+	 * Create the flush event replayed after an overflow of a {@link ReplayBuffer}
+	 */
+	public static CacheEvent createFlushAllEvent()
+	{
+		return new CacheEvent(FLUSH_ALL_REGION, Integer.valueOf(0), CacheEvent.FLUSH);
+	}
+
+	/**
+	 * Add a {@link CacheEvent} to the buffer
+	 *
+	 * @param cacheEvent {@link CacheEvent}
+	 * @return false if the buffer has overflowed and only a flush event will be replayed
+	 */
+	public synchronized boolean add(CacheEvent cacheEvent)
+	{
+		if (mOverflow)
+			return false;
+
+		String key = cacheEvent.getType() + ":" + cacheEvent.getRegionPath() + ":" + cacheEvent.getKey();
+
+		// Re-insert so the coalesced event is replayed in the position of its latest broadcast
+		mEvents.remove(key);
+		mEvents.put(key, cacheEvent);
+
+		if (mEvents.size() > mCapacity)
+		{
+			mEvents.clear();
+			mOverflow = true;
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Number of buffered events
+	 */
+	public synchronized int size()
+	{
+		return mOverflow ? 1 : mEvents.size();
+	}
+
+	/**
+	 * Verify if the buffer has overflowed since it was last drained
+	 */
+	public synchronized boolean isOverflow()
+	{
+		return mOverflow;
+	}
+
+	/**
+	 * Remove and return all buffered events in broadcast order
+	 *
+	 * @return Buffered events, or a single flush event if the buffer has overflowed
+	 */
+	public synchronized List<CacheEvent> drain()
+	{
+		if (mOverflow)
+		{
+			mOverflow = false;
+			return Collections.singletonList(createFlushAllEvent());
+		}
+
+		List<CacheEvent> cacheEvents = new ArrayList<CacheEvent>(mEvents.size());
+
+		for (Iterator<Map.Entry<String, CacheEvent>> iterator = mEvents.entrySet().iterator(); iterator.hasNext(); )
+		{
+			cacheEvents.add(iterator.next().getValue());
+			iterator.remove();
+		}
+
+		return cacheEvents;
+	}
+}
@@ -0,0 +1,132 @@
+/**
+ *   @description Sequence Tracker
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * SequenceTracker detects lost messages from the sequence numbers assigned by each publisher's {@link CacheEventSequencer}.
+ * <p>
+ * The last sequence number is tracked per publisher. When a message skips one or more sequence numbers the tracker
+ * returns flush events for the regions in the region digest of that message, or a single flush of all regions if the gap
+ * is larger than the digest window or the digest is incomplete. Late or duplicate messages are not reported as a gap.
+ * </p>
+ * <p>
+ * The first message of a publisher only starts tracking, at most "maxPublishers" publishers are tracked and the least
+ * recently seen publisher is forgotten first. The tracker is thread-safe.
+ * </p>
+ */
+public class SequenceTracker
+{
+	private static Logger mLog = LoggerFactory.getLogger(SequenceTracker.class);
+
+	private final int mWindow;
+	private final Map<String, Long> mSequences;
+
+	private long mGapCount = 0;
+	private long mLostCount = 0;
+
+	/**
+	 * Create a new SequenceTracker for publishers using the default {@link CacheEventSequencer} window
+	 */
+	public SequenceTracker()
+	{
+		this(CacheEventSequencer.DEFAULT_WINDOW, 1024);
+	}
+
+	/**
+	 * Create a new SequenceTracker
+	 *
+	 * @param window Number of preceding messages covered by the region digest of the publishers
+	 * @param maxPublishers Maximum number of tracked publishers
+	 */
+	public SequenceTracker(int window, final int maxPublishers)
+	{
+		mWindow = window;
+		mSequences = new LinkedHashMap<String, Long>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Long> eldest)
+			{
+				return size() > maxPublishers;
+			}
+		};
+	}
+
+	/**
+	 * Number of detected gaps
+	 */
+	public synchronized long getGapCount()
+	{
+		return mGapCount;
+	}
+
+	/**
+	 * Number of messages lost in all detected gaps
+	 */
+	public synchronized long getLostCount()
+	{
+		return mLostCount;
+	}
+
+	/**
+	 * Track a received message
+	 *
+	 * @param message Received {@link CacheEventMessage}
+	 * @return Flush events compensating for lost messages, empty if no messages were lost
+	 */
+	public List<CacheEvent> track(CacheEventMessage message)
+	{
+		if (!message.isSequenced())
+			return Collections.emptyList();
+
+		long lost;
+
+		synchronized (this)
+		{
+			Long last = mSequences.get(message.getPublisher());
+
+			if (last != null && message.getSequence() <= last)
+				return Collections.emptyList();
+
+			mSequences.put(message.getPublisher(), message.getSequence());
+
+			if (last == null || message.getSequence() == last + 1)
+				return Collections.emptyList();
+
+			lost = message.getSequence() - last - 1;
+			mGapCount++;
+			mLostCount += lost;
+		}
+
+		List<String> recentRegions = message.getRecentRegions();
+
+		if (lost > mWindow || recentRegions == null)
+		{
+			mLog.warn("Publisher [" + message.getPublisher() + "] lost " + lost + " messages before sequence " + message.getSequence() + ", flushing all regions.");
+			return Collections.singletonList(ReplayBuffer.createFlushAllEvent());
+		}
+
+		mLog.warn("Publisher [" + message.getPublisher() + "] lost " + lost + " messages before sequence " + message.getSequence() + ", flushing regions " + recentRegions + ".");
+
+		List<CacheEvent> cacheEvents = new ArrayList<CacheEvent>(recentRegions.size());
+
+		for (String regionPath : recentRegions)
+			cacheEvents.add(new CacheEvent(regionPath, Integer.valueOf(0), CacheEvent.FLUSH));
+
+		return cacheEvents;
+	}
+}
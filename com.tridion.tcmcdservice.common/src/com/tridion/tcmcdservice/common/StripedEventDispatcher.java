@@ -0,0 +1,327 @@
+/**
+ *   @description Striped Event Dispatcher
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.tridion.cache.CacheChannelEventListener;
+import com.tridion.cache.CacheEvent;
+
+/**
+ * StripedEventDispatcher hands received {@link CacheEvent}s to a {@link CacheChannelEventListener} from a fixed set of
+ * worker threads.
+ * <p>
+ * Events are assigned to a stripe by the hash of their region path and key, events for the same key are therefore always
+ * delivered in order while events for unrelated regions are delivered in parallel. Each stripe has a bounded queue, once
+ * it is full the {@link OverflowPolicy} decides if the receiving thread waits or if the event collapses into a flush of
+ * its region, events without region path collapse into a flush of all regions.
+ * </p>
+ */
+public class StripedEventDispatcher
+{
+	private static Logger mLog = LoggerFactory.getLogger(StripedEventDispatcher.class);
+
+	/**
+	 * Marker queued to wake up a worker waiting for events, for a pending flush or shutdown
+	 */
+	private static final CacheEvent WAKE_UP = new CacheEvent(ReplayBuffer.FLUSH_ALL_REGION, Integer.valueOf(0), CacheEvent.FLUSH);
+
+	/**
+	 * OverflowPolicy enumerates the behaviours for events received while their stripe queue is full
+	 */
+	public enum OverflowPolicy
+	{
+		/**
+		 * Wait for room in the stripe queue, applying back pressure to the receiving thread
+		 */
+		BLOCK("block"),
+
+		/**
+		 * Replace the event by a single pending flush of its region
+		 */
+		FLUSH("flush");
+
+		private final String mName;
+
+		private OverflowPolicy(String name)
+		{
+			mName = name;
+		}
+
+		/**
+		 * Get the name of this policy as used in configuration
+		 */
+		public String getName()
+		{
+			return mName;
+		}
+
+		/**
+		 * Resolve an {@link OverflowPolicy} from its name
+		 *
+		 * @param name Policy name, case insensitive
+		 * @return Matching {@link OverflowPolicy}
+		 * @throws IllegalArgumentException Unknown policy name
+		 */
+		public static OverflowPolicy fromName(String name)
+		{
+			for (OverflowPolicy policy : values())
+			{
+				if (policy.mName.equalsIgnoreCase(name))
+					return policy;
+			}
+
+			throw new IllegalArgumentException("Unknown dispatch overflow policy '" + name + "'.");
+		}
+	}
+
+	private final String mName;
+	private final CacheChannelEventListener mListener;
+	private final OverflowPolicy mOverflowPolicy;
+	private final Stripe[] mStripes;
+
+	private volatile boolean mShutdown = false;
+
+	/**
+	 * Create a new StripedEventDispatcher, worker threads are started immediately
+	 *
+	 * @param name Name used for worker threads and logging
+	 * @param listener {@link CacheChannelEventListener} receiving the dispatched events
+	 * @param stripes Number of worker stripes
+	 * @param queueSize Maximum number of queued events per stripe
+	 * @param overflowPolicy {@link OverflowPolicy} applied once a stripe queue is full
+	 */
+	public StripedEventDispatcher(String name, CacheChannelEventListener listener, int stripes, int queueSize, OverflowPolicy overflowPolicy)
+	{
+		if (stripes < 1)
+			throw new IllegalArgumentException("Number of dispatch stripes must be at least 1.");
+
+		mName = name;
+		mListener = listener;
+		mOverflowPolicy = overflowPolicy;
+		mStripes = new Stripe[stripes];
+
+		for (int i = 0; i < stripes; i++)
+		{
+			mStripes[i] = new Stripe(Math.max(1, queueSize));
+
+			Thread thread = new Thread(mStripes[i], name + "-Dispatch-" + i);
+			thread.setDaemon(true);
+			mStripes[i].mThread = thread;
+			thread.start();
+		}
+
+		mLog.info("Dispatcher [" + name + "] started " + stripes + " stripes, queue size: " + queueSize + " overflow: " + overflowPolicy.getName());
+	}
+
+	/**
+	 * Number of worker stripes
+	 */
+	public int getStripeCount()
+	{
+		return mStripes.length;
+	}
+
+	/**
+	 * Number of events waiting to be dispatched over all stripes
+	 */
+	public int getQueueDepth()
+	{
+		int depth = 0;
+
+		for (Stripe stripe : mStripes)
+			depth += stripe.mQueue.size();
+
+		return depth;
+	}
+
+	/**
+	 * Queue a {@link CacheEvent} for dispatch on its stripe
+	 *
+	 * @param cacheEvent {@link CacheEvent}
+	 */
+	public void dispatch(CacheEvent cacheEvent)
+	{
+		if (mShutdown)
+		{
+			mLog.warn("Dispatcher [" + mName + "] is shut down, dispatching " + cacheEvent + " on the calling thread.");
+			deliver(cacheEvent);
+			return;
+		}
+
+		Stripe stripe = mStripes[stripeIndex(cacheEvent)];
+
+		if (stripe.mQueue.offer(cacheEvent))
+		{
+			stripe.mQueued.incrementAndGet();
+			return;
+		}
+
+		if (mOverflowPolicy == OverflowPolicy.FLUSH)
+		{
+			String regionPath = cacheEvent.getRegionPath() != null ? cacheEvent.getRegionPath() : ReplayBuffer.FLUSH_ALL_REGION;
+
+			// The flush waits for the events queued before it
+			updateMaximum(stripe.mFlushPosition, stripe.mQueued.get());
+
+			if (stripe.mPendingFlushes.putIfAbsent(regionPath, Boolean.TRUE) == null)
+			{
+				mLog.debug("Dispatcher [" + mName + "] stripe queue full, collapsing events for region '" + regionPath + "' to a flush.");
+
+				// The worker may have emptied the queue meanwhile, if the queue is still full it takes an event first
+				stripe.mQueue.offer(WAKE_UP);
+			}
+
+			return;
+		}
+
+		try
+		{
+			stripe.mQueue.put(cacheEvent);
+			stripe.mQueued.incrementAndGet();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			deliver(cacheEvent);
+		}
+	}
+
+	/**
+	 * Stop the worker threads once their queued events have been dispatched
+	 *
+	 * @param timeout Maximum time in milliseconds to wait for the worker threads
+	 */
+	public void shutdown(long timeout)
+	{
+		mShutdown = true;
+
+		// A full queue does not need the marker, its worker is not waiting
+		for (Stripe stripe : mStripes)
+			stripe.mQueue.offer(WAKE_UP);
+
+		long deadline = System.currentTimeMillis() + timeout;
+
+		for (Stripe stripe : mStripes)
+		{
+			try
+			{
+				stripe.mThread.join(Math.max(1, deadline - System.currentTimeMillis()));
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+	}
+
+	private int stripeIndex(CacheEvent cacheEvent)
+	{
+		int hash = cacheEvent.getRegionPath() != null ? cacheEvent.getRegionPath().hashCode() : 0;
+
+		if (cacheEvent.getKey() != null)
+			hash = 31 * hash + cacheEvent.getKey().hashCode();
+
+		// Spread the hash bits, as done by java.util.HashMap
+		hash ^= (hash >>> 20) ^ (hash >>> 12);
+		hash ^= (hash >>> 7) ^ (hash >>> 4);
+
+		return (hash & Integer.MAX_VALUE) % mStripes.length;
+	}
+
+	private static void updateMaximum(AtomicLong maximum, long value)
+	{
+		long current;
+
+		while (value > (current = maximum.get()))
+		{
+			if (maximum.compareAndSet(current, value))
+				break;
+		}
+	}
+
+	private void deliver(CacheEvent cacheEvent)
+	{
+		try
+		{
+			mListener.handleRemoteEvent(cacheEvent);
+		}
+		catch (RuntimeException ex)
+		{
+			mLog.error("Dispatcher [" + mName + "] error handling " + cacheEvent + ".", ex);
+		}
+	}
+
+	/**
+	 * Stripe holds the queue and pending region flushes of a single worker thread
+	 */
+	private final class Stripe
+		implements Runnable
+	{
+		private final BlockingQueue<CacheEvent> mQueue;
+		private final ConcurrentHashMap<String, Boolean> mPendingFlushes = new ConcurrentHashMap<String, Boolean>();
+		private final AtomicLong mQueued = new AtomicLong();
+		private final AtomicLong mFlushPosition = new AtomicLong();
+		private Thread mThread;
+
+		Stripe(int queueSize)
+		{
+			mQueue = new ArrayBlockingQueue<CacheEvent>(queueSize);
+		}
+
+		private void flushPending()
+		{
+			for (Iterator<String> iterator = mPendingFlushes.keySet().iterator(); iterator.hasNext(); )
+			{
+				String regionPath = iterator.next();
+				iterator.remove();
+
+				deliver(new CacheEvent(regionPath, Integer.valueOf(0), CacheEvent.FLUSH));
+			}
+		}
+
+		@Override
+		public void run()
+		{
+			long taken = 0;
+
+			while (true)
+			{
+				CacheEvent cacheEvent;
+
+				try
+				{
+					// Once shut down the remaining events are dispatched without waiting for more
+					cacheEvent = mShutdown ? mQueue.poll() : mQueue.take();
+				}
+				catch (InterruptedException ex)
+				{
+					break;
+				}
+
+				if (cacheEvent != null && cacheEvent != WAKE_UP)
+				{
+					deliver(cacheEvent);
+					taken++;
+				}
+
+				// Collapsed events are covered by a flush delivered after every event queued before them
+				if (!mPendingFlushes.isEmpty() && (taken >= mFlushPosition.get() || cacheEvent == null))
+					flushPending();
+
+				if (cacheEvent == null)
+					break;
+			}
+		}
+	}
+}
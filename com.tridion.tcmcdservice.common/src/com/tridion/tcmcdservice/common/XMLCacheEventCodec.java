@@ -0,0 +1,742 @@
+/**
+ *   @description XML Cache Event Codec
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.tridion.cache.CacheEvent;
+import com.tridion.cache.KeyGenerator;
+
+/**
+ * XMLCacheEventCodec reads and writes the <code>&lt;cacheEvent regionPath="" key="" type="" /&gt;</code> wire format
+ * shared with the .NET XmlCacheEvent peers.
+ * <p>
+ * Multiple events can be combined in a <code>&lt;cacheEvents&gt;</code> envelope, single events are always written
+ * without an envelope so peers which do not understand batches can still decode them.
+ * </p>
+ * <p>
+ * Messages of a {@link CacheEventSequencer} carry their sequence header as "publisher", "sequence", "recentRegions"
+ * (comma separated, a comma or backslash within a region path is preceded by a backslash) and "originTime" attributes
+ * on the document element, peers which do not know them ignore these attributes.
+ * </p>
+ * <p>
+ * Encoding and decoding is done with a hand-written writer and scanner instead of a W3C DOM, the codec holds no state
+ * and is safe for concurrent use by any number of threads.
+ * </p>
+ */
+public final class XMLCacheEventCodec
+{
+	public static final String ELEMENT_CACHE_EVENT = "cacheEvent";
+	public static final String ELEMENT_CACHE_EVENTS = "cacheEvents";
+	public static final String ATTRIBUTE_REGION_PATH = "regionPath";
+	public static final String ATTRIBUTE_KEY = "key";
+	public static final String ATTRIBUTE_TYPE = "type";
+	public static final String ATTRIBUTE_PUBLISHER = "publisher";
+	public static final String ATTRIBUTE_SEQUENCE = "sequence";
+	public static final String ATTRIBUTE_RECENT_REGIONS = "recentRegions";
+	public static final String ATTRIBUTE_ORIGIN_TIME = "originTime";
+
+	private XMLCacheEventCodec()
+	{
+	}
+
+	/**
+	 * Convert a cache key string to the original serializable value as per com.tridion.cache.KeyGenerator
+	 *
+	 * @param key Cache key as {@link String}
+	 * @return {@link String} for composite keys, {@link Integer} otherwise
+	 * @throws NumberFormatException Key is neither a composite nor an integer key
+	 */
+	public static Serializable toSerializableKey(String key)
+	{
+		return key.contains(KeyGenerator.KEY_DELIMITER) ? key : Integer.valueOf(key);
+	}
+
+	/**
+	 * Encode a {@link CacheEvent} to its XML representation
+	 *
+	 * @param cacheEvent {@link CacheEvent} to encode
+	 * @return XML representation
+	 */
+	public static String encode(CacheEvent cacheEvent)
+	{
+		String regionPath = cacheEvent.getRegionPath();
+		String key = cacheEvent.getKey().toString();
+
+		StringBuilder builder = new StringBuilder(48 + regionPath.length() + key.length());
+		encode(regionPath, key, cacheEvent.getType(), null, builder);
+
+		return builder.toString();
+	}
+
+	/**
+	 * Encode a {@link CacheEvent} and append its XML representation to the given {@link StringBuilder}
+	 *
+	 * @param cacheEvent {@link CacheEvent} to encode
+	 * @param builder {@link StringBuilder} to append to
+	 */
+	public static void encode(CacheEvent cacheEvent, StringBuilder builder)
+	{
+		encode(cacheEvent.getRegionPath(), cacheEvent.getKey().toString(), cacheEvent.getType(), null, builder);
+	}
+
+	/**
+	 * Encode a collection of {@link CacheEvent}s, multiple events are wrapped in a cacheEvents envelope
+	 *
+	 * @param cacheEvents {@link CacheEvent}s to encode
+	 * @return XML representation
+	 */
+	public static String encode(Collection<CacheEvent> cacheEvents)
+	{
+		if (cacheEvents.size() == 1)
+			return encode(cacheEvents.iterator().next());
+
+		StringBuilder builder = new StringBuilder(32 + cacheEvents.size() * 96);
+		builder.append('<').append(ELEMENT_CACHE_EVENTS).append('>');
+
+		for (CacheEvent cacheEvent : cacheEvents)
+			encode(cacheEvent, builder);
+
+		builder.append("</").append(ELEMENT_CACHE_EVENTS).append('>');
+
+		return builder.toString();
+	}
+
+	/**
+	 * Encode a {@link CacheEventMessage} including its sequence header, see {@link #encode(Collection)}
+	 *
+	 * @param message {@link CacheEventMessage} to encode
+	 * @return XML representation
+	 */
+	public static String encode(CacheEventMessage message)
+	{
+		List<CacheEvent> cacheEvents = message.getEvents();
+		StringBuilder builder = new StringBuilder(128 + cacheEvents.size() * 96);
+
+		if (cacheEvents.size() == 1)
+		{
+			CacheEvent cacheEvent = cacheEvents.get(0);
+			encode(cacheEvent.getRegionPath(), cacheEvent.getKey().toString(), cacheEvent.getType(), message, builder);
+
+			return builder.toString();
+		}
+
+		builder.append('<').append(ELEMENT_CACHE_EVENTS);
+		appendHeader(message, builder);
+		builder.append('>');
+
+		for (CacheEvent cacheEvent : cacheEvents)
+			encode(cacheEvent, builder);
+
+		builder.append("</").append(ELEMENT_CACHE_EVENTS).append('>');
+
+		return builder.toString();
+	}
+
+	/**
+	 * Append the sequence header attributes of a {@link CacheEventMessage}
+	 */
+	private static void appendHeader(CacheEventMessage message, StringBuilder builder)
+	{
+		if (message == null || !message.isSequenced())
+			return;
+
+		builder.append(' ').append(ATTRIBUTE_PUBLISHER).append("=\"");
+		appendEscaped(message.getPublisher(), builder);
+		builder.append("\" ").append(ATTRIBUTE_SEQUENCE).append("=\"").append(message.getSequence()).append('"');
+
+		// An incomplete digest is written as a missing attribute
+		if (message.getRecentRegions() != null)
+		{
+			builder.append(' ').append(ATTRIBUTE_RECENT_REGIONS).append("=\"");
+
+			for (int i = 0; i < message.getRecentRegions().size(); i++)
+			{
+				if (i > 0)
+					builder.append(',');
+
+				appendEscaped(escapeRegion(message.getRecentRegions().get(i)), builder);
+			}
+
+			builder.append('"');
+		}
+
+		if (message.getOriginTime() > 0)
+			builder.append(' ').append(ATTRIBUTE_ORIGIN_TIME).append("=\"").append(message.getOriginTime()).append('"');
+	}
+
+	private static void encode(String regionPath, String key, int eventType, CacheEventMessage message, StringBuilder builder)
+	{
+		builder.append('<').append(ELEMENT_CACHE_EVENT);
+
+		builder.append(' ').append(ATTRIBUTE_REGION_PATH).append("=\"");
+		appendEscaped(regionPath, builder);
+
+		builder.append("\" ").append(ATTRIBUTE_KEY).append("=\"");
+		appendEscaped(key, builder);
+
+		builder.append("\" ").append(ATTRIBUTE_TYPE).append("=\"").append(eventType).append('"');
+
+		appendHeader(message, builder);
+		builder.append(" />");
+	}
+
+	/**
+	 * Escape the separator of the "recentRegions" attribute in a region path, the common case of a path without commas
+	 * and backslashes is returned as is
+	 */
+	private static String escapeRegion(String regionPath)
+	{
+		if (regionPath.indexOf(',') < 0 && regionPath.indexOf('\\') < 0)
+			return regionPath;
+
+		StringBuilder builder = new StringBuilder(regionPath.length() + 4);
+
+		for (int i = 0; i < regionPath.length(); i++)
+		{
+			char c = regionPath.charAt(i);
+
+			if (c == ',' || c == '\\')
+				builder.append('\\');
+
+			builder.append(c);
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Split the "recentRegions" attribute, a backslash which does not escape a comma or backslash is kept so values of
+	 * peers which did not escape region paths are still read
+	 */
+	private static List<String> splitRegions(String value)
+	{
+		List<String> regions = new ArrayList<String>();
+		StringBuilder builder = new StringBuilder();
+		int length = value.length();
+
+		for (int i = 0; i < length; i++)
+		{
+			char c = value.charAt(i);
+
+			if (c == '\\' && i + 1 < length && (value.charAt(i + 1) == ',' || value.charAt(i + 1) == '\\'))
+				builder.append(value.charAt(++i));
+			else if (c != ',')
+				builder.append(c);
+			else
+			{
+				if (builder.length() > 0)
+					regions.add(builder.toString());
+
+				builder.setLength(0);
+			}
+		}
+
+		if (builder.length() > 0)
+			regions.add(builder.toString());
+
+		return regions;
+	}
+
+	/**
+	 * Escape an attribute value, the common case of a value without markup characters is copied as is
+	 */
+	private static void appendEscaped(String value, StringBuilder builder)
+	{
+		int length = value.length();
+		int start = 0;
+
+		for (int i = 0; i < length; i++)
+		{
+			String replacement;
+
+			switch (value.charAt(i))
+			{
+				case '&': replacement = "&amp;"; break;
+				case '<': replacement = "&lt;"; break;
+				case '>': replacement = "&gt;"; break;
+				case '"': replacement = "&quot;"; break;
+				case '\t': replacement = "&#9;"; break;
+				case '\n': replacement = "&#10;"; break;
+				case '\r': replacement = "&#13;"; break;
+				default: continue;
+			}
+
+			builder.append(value, start, i).append(replacement);
+			start = i + 1;
+		}
+
+		builder.append(value, start, length);
+	}
+
+	/**
+	 * Decode a {@link CacheEvent} from its XML representation
+	 *
+	 * @param xml XML representation
+	 * @return Decoded {@link CacheEvent} or null if the document element is not a cacheEvent element
+	 * @throws IllegalArgumentException XML is malformed or contains an invalid event type or key
+	 */
+	public static CacheEvent decode(String xml)
+	{
+		Scanner scanner = new Scanner(xml);
+
+		if (!scanner.readStartElement(ELEMENT_CACHE_EVENT))
+			return null;
+
+		return readEvent(scanner, null);
+	}
+
+	/**
+	 * Decode all {@link CacheEvent}s from either a single cacheEvent or a cacheEvents envelope
+	 *
+	 * @param xml XML representation
+	 * @return Decoded {@link CacheEvent}s, empty if the document element is not recognized
+	 * @throws IllegalArgumentException XML is malformed or contains an invalid event type or key
+	 */
+	public static List<CacheEvent> decodeAll(String xml)
+	{
+		return decodeMessage(xml).getEvents();
+	}
+
+	/**
+	 * Decode a {@link CacheEventMessage} from either a single cacheEvent or a cacheEvents envelope
+	 *
+	 * @param xml XML representation
+	 * @return Decoded {@link CacheEventMessage}, without events if the document element is not recognized
+	 * @throws IllegalArgumentException XML is malformed or contains an invalid event type, key or sequence header
+	 */
+	public static CacheEventMessage decodeMessage(String xml)
+	{
+		Scanner scanner = new Scanner(xml);
+		Header header = new Header();
+
+		if (scanner.readStartElement(ELEMENT_CACHE_EVENT))
+			return header.toMessage(Collections.singletonList(readEvent(scanner, header)));
+
+		if (!scanner.isElement(ELEMENT_CACHE_EVENTS))
+			return new CacheEventMessage(Collections.<CacheEvent>emptyList());
+
+		List<CacheEvent> cacheEvents = new ArrayList<CacheEvent>();
+
+		while (scanner.nextAttribute())
+			header.read(scanner);
+
+		if (!scanner.closeStartTag())
+		{
+			while (scanner.nextChildElement())
+			{
+				if (scanner.isElement(ELEMENT_CACHE_EVENT))
+					cacheEvents.add(readEvent(scanner, null));
+				else
+					scanner.skipElement();
+			}
+		}
+
+		return header.toMessage(cacheEvents);
+	}
+
+	/**
+	 * Read a {@link CacheEvent} from the attributes of the current cacheEvent element, header attributes are passed to
+	 * the given {@link Header} if any
+	 */
+	private static CacheEvent readEvent(Scanner scanner, Header header)
+	{
+		String regionPath = "";
+		String key = "";
+		String eventType = null;
+
+		while (scanner.nextAttribute())
+		{
+			if (scanner.isAttribute(ATTRIBUTE_REGION_PATH))
+				regionPath = scanner.attributeValue();
+			else if (scanner.isAttribute(ATTRIBUTE_KEY))
+				key = scanner.attributeValue();
+			else if (scanner.isAttribute(ATTRIBUTE_TYPE))
+				eventType = scanner.attributeValue();
+			else if (header != null)
+				header.read(scanner);
+		}
+
+		if (eventType == null)
+			throw new IllegalArgumentException("Missing " + ATTRIBUTE_TYPE + " attribute on " + ELEMENT_CACHE_EVENT + ".");
+
+		if (!scanner.closeStartTag())
+			scanner.skipContent(ELEMENT_CACHE_EVENT);
+
+		return new CacheEvent(RegionPathInterner.intern(regionPath), toSerializableKey(key), Integer.parseInt(eventType.trim()));
+	}
+
+	/**
+	 * Header collects the sequence header attributes of a message
+	 */
+	private static final class Header
+	{
+		private String mPublisher = null;
+		private String mSequence = null;
+		private String mRecentRegions = null;
+		private String mOriginTime = null;
+
+		void read(Scanner scanner)
+		{
+			if (scanner.isAttribute(ATTRIBUTE_PUBLISHER))
+				mPublisher = scanner.attributeValue();
+			else if (scanner.isAttribute(ATTRIBUTE_SEQUENCE))
+				mSequence = scanner.attributeValue();
+			else if (scanner.isAttribute(ATTRIBUTE_RECENT_REGIONS))
+				mRecentRegions = scanner.attributeValue();
+			else if (scanner.isAttribute(ATTRIBUTE_ORIGIN_TIME))
+				mOriginTime = scanner.attributeValue();
+		}
+
+		CacheEventMessage toMessage(List<CacheEvent> cacheEvents)
+		{
+			if (mPublisher == null || mSequence == null)
+				return new CacheEventMessage(cacheEvents);
+
+			List<String> recentRegions = (mRecentRegions != null ? splitRegions(mRecentRegions) : null);
+
+			return new CacheEventMessage(mPublisher, Long.parseLong(mSequence.trim()), recentRegions, cacheEvents, getOriginTime());
+		}
+
+		/**
+		 * The origin time is informational, a malformed value is treated as unknown
+		 */
+		private long getOriginTime()
+		{
+			try
+			{
+				return mOriginTime != null ? Long.parseLong(mOriginTime.trim()) : 0;
+			}
+			catch (NumberFormatException ex)
+			{
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Scanner implements a minimal forward-only XML scanner for the start tag of a document element.
+	 * <p>
+	 * The prolog (BOM, XML declaration, comments, processing instructions and whitespace) is skipped, only the
+	 * attributes of the document element are scanned.
+	 * </p>
+	 */
+	static final class Scanner
+	{
+		private final String mXml;
+		private final int mLength;
+		private int mPosition = 0;
+
+		private int mNameStart;
+		private int mNameEnd;
+		private int mValueStart;
+		private int mValueEnd;
+
+		Scanner(String xml)
+		{
+			if (xml == null)
+				throw new IllegalArgumentException("XML text is null.");
+
+			mXml = xml;
+			mLength = xml.length();
+		}
+
+		private IllegalArgumentException error(String message)
+		{
+			return new IllegalArgumentException(message + " at offset " + mPosition + ".");
+		}
+
+		private void skipWhitespace()
+		{
+			while (mPosition < mLength && isWhitespace(mXml.charAt(mPosition)))
+				mPosition++;
+		}
+
+		private void skipPast(String terminator)
+		{
+			int index = mXml.indexOf(terminator, mPosition);
+
+			if (index < 0)
+				throw error("Unterminated markup");
+
+			mPosition = index + terminator.length();
+		}
+
+		private void readName()
+		{
+			mNameStart = mPosition;
+
+			while (mPosition < mLength && isNameChar(mXml.charAt(mPosition)))
+				mPosition++;
+
+			mNameEnd = mPosition;
+
+			if (mNameStart == mNameEnd)
+				throw error("Expected XML name");
+		}
+
+		/**
+		 * Move to the document element and verify its name
+		 *
+		 * @param name Expected element name
+		 * @return true if the document element has the expected name
+		 */
+		boolean readStartElement(String name)
+		{
+			if (mPosition < mLength && mXml.charAt(mPosition) == '\uFEFF')
+				mPosition++;
+
+			if (!skipMisc())
+				throw error("Expected document element");
+
+			mPosition++;
+			readName();
+
+			return isName(name);
+		}
+
+		/**
+		 * Skip whitespace, comments, processing instructions and declarations
+		 *
+		 * @return true if positioned on the start of an element or end tag
+		 */
+		private boolean skipMisc()
+		{
+			while (true)
+			{
+				skipWhitespace();
+
+				if (mPosition >= mLength || mXml.charAt(mPosition) != '<')
+					return false;
+
+				if (mXml.startsWith("<?", mPosition))
+					skipPast("?>");
+				else if (mXml.startsWith("<!--", mPosition))
+					skipPast("-->");
+				else if (mXml.startsWith("<!", mPosition))
+					skipPast(">");
+				else
+					return true;
+			}
+		}
+
+		/**
+		 * Consume the end of the current start tag
+		 *
+		 * @return true if the element was an empty element tag
+		 */
+		boolean closeStartTag()
+		{
+			if (mXml.startsWith("/>", mPosition))
+			{
+				mPosition += 2;
+				return true;
+			}
+
+			mPosition++;
+			return false;
+		}
+
+		/**
+		 * Move to the start tag of the next child element of the current element
+		 *
+		 * @return true if a child element was read, false if the end tag of the current element was consumed
+		 */
+		boolean nextChildElement()
+		{
+			if (!skipMisc())
+				throw error("Expected element");
+
+			if (mXml.startsWith("</", mPosition))
+			{
+				skipPast(">");
+				return false;
+			}
+
+			mPosition++;
+			readName();
+
+			return true;
+		}
+
+		/**
+		 * Skip the remainder of the current element, including its attributes
+		 */
+		void skipElement()
+		{
+			String name = mXml.substring(mNameStart, mNameEnd);
+
+			while (nextAttribute())
+			{
+				// Skip attributes
+			}
+
+			if (!closeStartTag())
+				skipContent(name);
+		}
+
+		/**
+		 * Skip the content and end tag of an element with the given name
+		 */
+		void skipContent(String name)
+		{
+			skipPast("</" + name);
+			skipPast(">");
+		}
+
+		/**
+		 * Move to the next attribute of the current start tag
+		 *
+		 * @return true if an attribute was read, false when the end of the start tag was reached
+		 */
+		boolean nextAttribute()
+		{
+			skipWhitespace();
+
+			if (mPosition >= mLength)
+				throw error("Unterminated start tag");
+
+			char c = mXml.charAt(mPosition);
+
+			if (c == '>' || (c == '/' && mPosition + 1 < mLength && mXml.charAt(mPosition + 1) == '>'))
+				return false;
+
+			readName();
+			skipWhitespace();
+
+			if (mPosition >= mLength || mXml.charAt(mPosition) != '=')
+				throw error("Expected '='");
+
+			mPosition++;
+			skipWhitespace();
+
+			if (mPosition >= mLength)
+				throw error("Expected attribute value");
+
+			char quote = mXml.charAt(mPosition);
+
+			if (quote != '"' && quote != '\'')
+				throw error("Expected quoted attribute value");
+
+			mValueStart = ++mPosition;
+			mValueEnd = mXml.indexOf(quote, mPosition);
+
+			if (mValueEnd < 0)
+				throw error("Unterminated attribute value");
+
+			mPosition = mValueEnd + 1;
+			return true;
+		}
+
+		/**
+		 * Verify the name of the element or attribute which was read last
+		 */
+		private boolean isName(String name)
+		{
+			return name.length() == mNameEnd - mNameStart && mXml.regionMatches(mNameStart, name, 0, name.length());
+		}
+
+		/**
+		 * Verify the name of the current element
+		 */
+		boolean isElement(String name)
+		{
+			return isName(name);
+		}
+
+		/**
+		 * Verify the name of the current attribute
+		 */
+		boolean isAttribute(String name)
+		{
+			return isName(name);
+		}
+
+		/**
+		 * Return the normalized value of the current attribute
+		 */
+		String attributeValue()
+		{
+			int i = mValueStart;
+
+			while (i < mValueEnd)
+			{
+				char c = mXml.charAt(i);
+
+				if (c == '&' || c == '<' || (c != ' ' && isWhitespace(c)))
+					break;
+
+				i++;
+			}
+
+			// Fast path, nothing to unescape or normalize
+			if (i == mValueEnd)
+				return mXml.substring(mValueStart, mValueEnd);
+
+			StringBuilder builder = new StringBuilder(mValueEnd - mValueStart);
+			builder.append(mXml, mValueStart, i);
+
+			while (i < mValueEnd)
+			{
+				char c = mXml.charAt(i);
+
+				if (c == '&')
+				{
+					int end = mXml.indexOf(';', i);
+
+					if (end < 0 || end > mValueEnd)
+						throw new IllegalArgumentException("Unterminated entity reference at offset " + i + ".");
+
+					appendEntity(mXml.substring(i + 1, end), builder);
+					i = end + 1;
+				}
+				else if (c == '<')
+					throw new IllegalArgumentException("Illegal '<' in attribute value at offset " + i + ".");
+				else
+				{
+					// Attribute value normalization as per XML 1.0 section 3.3.3
+					builder.append(isWhitespace(c) ? ' ' : c);
+					i++;
+				}
+			}
+
+			return builder.toString();
+		}
+
+		private static void appendEntity(String entity, StringBuilder builder)
+		{
+			if (entity.equals("amp"))
+				builder.append('&');
+			else if (entity.equals("lt"))
+				builder.append('<');
+			else if (entity.equals("gt"))
+				builder.append('>');
+			else if (entity.equals("quot"))
+				builder.append('"');
+			else if (entity.equals("apos"))
+				builder.append('\'');
+			else if (entity.startsWith("#x"))
+				builder.appendCodePoint(Integer.parseInt(entity.substring(2), 16));
+			else if (entity.startsWith("#"))
+				builder.appendCodePoint(Integer.parseInt(entity.substring(1)));
+			else
+				throw new IllegalArgumentException("Unknown entity reference '&" + entity + ";'.");
+		}
+
+		private static boolean isWhitespace(char c)
+		{
+			return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+		}
+
+		private static boolean isNameChar(char c)
+		{
+			return c > ' ' && c != '=' && c != '>' && c != '/' && c != '"' && c != '\'' && c != '<';
+		}
+	}
+}
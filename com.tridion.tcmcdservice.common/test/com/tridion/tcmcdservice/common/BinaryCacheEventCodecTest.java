@@ -0,0 +1,179 @@
+/**
+ *   @description Binary Cache Event Codec Test
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * BinaryCacheEventCodecTest verifies the version 1 and version 2 binary frame layouts against hand-encoded frames and
+ * round-trips through the encoder.
+ */
+public class BinaryCacheEventCodecTest
+{
+	private static void assertEvent(String regionPath, Object key, int eventType, CacheEvent cacheEvent)
+	{
+		assertEquals(regionPath, cacheEvent.getRegionPath());
+		assertEquals(key, cacheEvent.getKey());
+		assertEquals(eventType, cacheEvent.getType());
+	}
+
+	private static byte[] bytes(int... values)
+	{
+		byte[] data = new byte[values.length];
+
+		for (int i = 0; i < values.length; i++)
+			data[i] = (byte)values[i];
+
+		return data;
+	}
+
+	@Test
+	public void decodesVersion1Frame()
+	{
+		// version, count, (string key, invalidate) "/a" "1:2", (integer key, flush) "/b" -1
+		byte[] data = bytes(1, 2, 3, 2, '/', 'a', 3, '1', ':', '2', 0, 2, '/', 'b', 1);
+
+		CacheEventMessage message = BinaryCacheEventCodec.decodeMessage(data);
+
+		assertFalse(message.isSequenced());
+		assertEquals(2, message.getEvents().size());
+		assertEvent("/a", "1:2", CacheEvent.INVALIDATE, message.getEvents().get(0));
+		assertEvent("/b", Integer.valueOf(-1), CacheEvent.FLUSH, message.getEvents().get(1));
+	}
+
+	@Test
+	public void encodesVersion1Frame()
+	{
+		byte[] data = BinaryCacheEventCodec.encode(Arrays.asList(new CacheEvent("/a", "1:2", CacheEvent.INVALIDATE), new CacheEvent("/b", Integer.valueOf(-1), CacheEvent.FLUSH)));
+
+		assertArrayEquals(bytes(1, 2, 3, 2, '/', 'a', 3, '1', ':', '2', 0, 2, '/', 'b', 1), data);
+	}
+
+	@Test
+	public void decodesVersion2Frame()
+	{
+		// version, publisher "p", sequence 300, digest ["/a"], count, (integer key 1, invalidate) "/b"
+		byte[] data = bytes(2, 1, 'p', 0xAC, 0x02, 2, 2, '/', 'a', 1, 2, 2, '/', 'b', 2);
+
+		CacheEventMessage message = BinaryCacheEventCodec.decodeMessage(data);
+
+		assertTrue(message.isSequenced());
+		assertEquals("p", message.getPublisher());
+		assertEquals(300, message.getSequence());
+		assertEquals(Arrays.asList("/a"), message.getRecentRegions());
+		assertEquals(0, message.getOriginTime());
+		assertEquals(1, message.getEvents().size());
+		assertEvent("/b", Integer.valueOf(1), CacheEvent.INVALIDATE, message.getEvents().get(0));
+	}
+
+	@Test
+	public void decodesVersion2FrameWithIncompleteDigestAndTrailer()
+	{
+		byte[] data = bytes(2, 1, 'p', 7, 0, 0, 0xAC, 0x02);
+
+		CacheEventMessage message = BinaryCacheEventCodec.decodeMessage(data);
+
+		assertEquals(7, message.getSequence());
+		assertNull(message.getRecentRegions());
+		assertTrue(message.getEvents().isEmpty());
+		assertEquals(300, message.getOriginTime());
+	}
+
+	@Test
+	public void roundTripsVersion2Frame()
+	{
+		List<CacheEvent> cacheEvents = new ArrayList<CacheEvent>();
+		cacheEvents.add(new CacheEvent("/com_tridion_dcp/ComponentPresentation", "12:345:67", CacheEvent.INVALIDATE));
+		cacheEvents.add(new CacheEvent("/region", Integer.valueOf(Integer.MIN_VALUE), CacheEvent.FLUSH));
+		cacheEvents.add(new CacheEvent("/region", Integer.valueOf(Integer.MAX_VALUE), CacheEvent.FLUSH));
+
+		CacheEventMessage message = new CacheEventMessage("publisher", Long.MAX_VALUE, Arrays.asList("/a", "/b"), cacheEvents, 1400000000000L);
+		byte[] data = BinaryCacheEventCodec.encode(message);
+
+		assertEquals(BinaryCacheEventCodec.VERSION_SEQUENCED, data[0]);
+
+		CacheEventMessage decoded = BinaryCacheEventCodec.decodeMessage(data);
+
+		assertEquals("publisher", decoded.getPublisher());
+		assertEquals(Long.MAX_VALUE, decoded.getSequence());
+		assertEquals(Arrays.asList("/a", "/b"), decoded.getRecentRegions());
+		assertEquals(1400000000000L, decoded.getOriginTime());
+		assertEquals(3, decoded.getEvents().size());
+		assertEvent("/com_tridion_dcp/ComponentPresentation", "12:345:67", CacheEvent.INVALIDATE, decoded.getEvents().get(0));
+		assertEvent("/region", Integer.valueOf(Integer.MIN_VALUE), CacheEvent.FLUSH, decoded.getEvents().get(1));
+		assertEvent("/region", Integer.valueOf(Integer.MAX_VALUE), CacheEvent.FLUSH, decoded.getEvents().get(2));
+	}
+
+	@Test
+	public void encodesUnsequencedMessageAsVersion1()
+	{
+		byte[] data = BinaryCacheEventCodec.encode(new CacheEventMessage(Arrays.asList(new CacheEvent("/a", "1:2", CacheEvent.INVALIDATE))));
+
+		assertEquals(BinaryCacheEventCodec.VERSION, data[0]);
+	}
+
+	@Test
+	public void roundTripsNonAsciiRegionPaths()
+	{
+		String regionPath = "/r\u00e9gion/\u4e2d\u6587/\ud83d\ude00";
+		List<CacheEvent> decoded = BinaryCacheEventCodec.decode(BinaryCacheEventCodec.encode(new CacheEvent(regionPath, "1:2", CacheEvent.INVALIDATE)));
+
+		assertEvent(regionPath, "1:2", CacheEvent.INVALIDATE, decoded.get(0));
+	}
+
+	@Test
+	public void replacesUnpairedSurrogates()
+	{
+		List<CacheEvent> decoded = BinaryCacheEventCodec.decode(BinaryCacheEventCodec.encode(new CacheEvent("/a\ud800b", "1:2", CacheEvent.INVALIDATE)));
+
+		assertEquals("/a?b", decoded.get(0).getRegionPath());
+	}
+
+	@Test
+	public void detectsBinaryPayloads()
+	{
+		assertTrue(BinaryCacheEventCodec.isBinary(bytes(1, 0)));
+		assertTrue(BinaryCacheEventCodec.isBinary(bytes(2)));
+		assertFalse(BinaryCacheEventCodec.isBinary("<cacheEvent />".getBytes()));
+		assertFalse(BinaryCacheEventCodec.isBinary(new byte[0]));
+		assertFalse(BinaryCacheEventCodec.isBinary(null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnsupportedVersion()
+	{
+		BinaryCacheEventCodec.decode(bytes(9, 0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsTruncatedString()
+	{
+		BinaryCacheEventCodec.decode(bytes(1, 1, 3, 10, '/', 'a'));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsTruncatedEventList()
+	{
+		BinaryCacheEventCodec.decode(bytes(1, 2, 0, 2, '/', 'b', 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsMalformedVarint()
+	{
+		BinaryCacheEventCodec.decode(bytes(1, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01));
+	}
+}
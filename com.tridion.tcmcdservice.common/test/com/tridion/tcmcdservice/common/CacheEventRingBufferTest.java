@@ -0,0 +1,332 @@
+/**
+ *   @description Cache Event Ring Buffer Test
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.junit.Test;
+
+import com.tridion.cache.CacheEvent;
+import com.tridion.tcmcdservice.common.CacheEventRingBuffer.OverflowPolicy;
+
+/**
+ * CacheEventRingBufferTest verifies the overflow policies, single threaded and with several producers competing with the
+ * consumer for a small buffer.
+ */
+public class CacheEventRingBufferTest
+{
+	private static final int PRODUCERS = 4;
+	private static final int EVENTS = 20000;
+	private static final int CAPACITY = 16;
+
+	private static CacheEvent event(String regionPath, int key)
+	{
+		return new CacheEvent(regionPath, Integer.valueOf(key), CacheEvent.INVALIDATE);
+	}
+
+	@Test
+	public void roundsCapacityToPowerOfTwo()
+	{
+		assertEquals(16, new CacheEventRingBuffer(10, OverflowPolicy.BLOCK).getCapacity());
+		assertEquals(2, new CacheEventRingBuffer(0, OverflowPolicy.BLOCK).getCapacity());
+	}
+
+	@Test
+	public void resolvesPolicyNames()
+	{
+		assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.fromName("Drop-Oldest"));
+		assertEquals(OverflowPolicy.FLUSH, OverflowPolicy.fromName("flush"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnknownPolicyName()
+	{
+		OverflowPolicy.fromName("drop-newest");
+	}
+
+	@Test
+	public void dropsOldestEvent()
+	{
+		CacheEventRingBuffer buffer = new CacheEventRingBuffer(2, OverflowPolicy.DROP_OLDEST);
+
+		for (int i = 0; i < 3; i++)
+			buffer.offer(event("/a", i));
+
+		assertEquals(1, buffer.getOverflowCount());
+		assertEquals(2, buffer.getHighWaterMark());
+		assertEquals(Integer.valueOf(1), buffer.poll().getKey());
+		assertEquals(Integer.valueOf(2), buffer.poll().getKey());
+		assertNull(buffer.poll());
+		assertTrue(buffer.isEmpty());
+	}
+
+	@Test
+	public void deliversPendingFlushAfterEarlierEvents()
+	{
+		CacheEventRingBuffer buffer = new CacheEventRingBuffer(2, OverflowPolicy.FLUSH);
+
+		buffer.offer(event("/a", 0));
+		buffer.offer(event("/a", 1));
+		buffer.offer(event("/b", 2));
+		buffer.offer(event("/b", 3));
+
+		assertEquals(2, buffer.getOverflowCount());
+		assertFalse(buffer.isEmpty());
+		assertEquals(Integer.valueOf(0), buffer.poll().getKey());
+
+		// The flush waits for every event queued before the overflow
+		buffer.offer(event("/a", 4));
+		assertEquals(Integer.valueOf(1), buffer.poll().getKey());
+
+		CacheEvent flush = buffer.poll();
+		assertEquals("/b", flush.getRegionPath());
+		assertEquals(CacheEvent.FLUSH, flush.getType());
+
+		assertEquals(Integer.valueOf(4), buffer.poll().getKey());
+		assertNull(buffer.poll());
+		assertTrue(buffer.isEmpty());
+	}
+
+	@Test
+	public void flushesAllRegionsForEventWithoutRegion()
+	{
+		CacheEventRingBuffer buffer = new CacheEventRingBuffer(2, OverflowPolicy.FLUSH);
+
+		buffer.offer(event("/a", 0));
+		buffer.offer(event("/a", 1));
+		buffer.offer(event(null, 2));
+
+		assertEquals(1, buffer.getOverflowCount());
+		assertEquals(Integer.valueOf(0), buffer.poll().getKey());
+		assertEquals(Integer.valueOf(1), buffer.poll().getKey());
+
+		CacheEvent flush = buffer.poll();
+		assertEquals(ReplayBuffer.FLUSH_ALL_REGION, flush.getRegionPath());
+		assertEquals(CacheEvent.FLUSH, flush.getType());
+		assertNull(buffer.poll());
+	}
+
+	@Test
+	public void blockedProducerResumesWhenConsumerTakesEvent()
+		throws Exception
+	{
+		final CacheEventRingBuffer buffer = new CacheEventRingBuffer(2, OverflowPolicy.BLOCK);
+		buffer.offer(event("/a", 0));
+		buffer.offer(event("/a", 1));
+
+		final CountDownLatch offered = new CountDownLatch(1);
+
+		Thread producer = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				buffer.offer(event("/a", 2));
+				offered.countDown();
+			}
+		});
+		producer.start();
+
+		assertFalse(offered.await(50, TimeUnit.MILLISECONDS));
+		assertEquals(Integer.valueOf(0), buffer.poll(1, TimeUnit.SECONDS).getKey());
+		assertTrue(offered.await(5, TimeUnit.SECONDS));
+
+		producer.join(5000);
+		assertEquals(0, buffer.getOverflowCount());
+	}
+
+	@Test
+	public void pollTimesOutOnEmptyBuffer()
+		throws InterruptedException
+	{
+		CacheEventRingBuffer buffer = new CacheEventRingBuffer(2, OverflowPolicy.BLOCK);
+
+		assertNull(buffer.poll(10, TimeUnit.MILLISECONDS));
+	}
+
+	@Test(timeout = 60000)
+	public void blockDeliversEveryEventUnderContention()
+		throws Exception
+	{
+		Run run = new Run(OverflowPolicy.BLOCK);
+		run.execute();
+
+		assertEquals(0, run.mBuffer.getOverflowCount());
+		assertTrue(run.mBuffer.getHighWaterMark() <= CAPACITY);
+
+		for (int producer = 0; producer < PRODUCERS; producer++)
+			assertEquals(EVENTS, run.mReceived.get(producer).size());
+	}
+
+	@Test(timeout = 60000)
+	public void dropOldestAccountsForEveryEventUnderContention()
+		throws Exception
+	{
+		Run run = new Run(OverflowPolicy.DROP_OLDEST);
+		run.execute();
+
+		long received = 0;
+
+		for (int producer = 0; producer < PRODUCERS; producer++)
+			received += run.mReceived.get(producer).size();
+
+		assertEquals(PRODUCERS * EVENTS, received + run.mBuffer.getOverflowCount());
+		assertTrue(run.mBuffer.getHighWaterMark() <= CAPACITY);
+	}
+
+	@Test(timeout = 60000)
+	public void flushCoversEveryCollapsedEventUnderContention()
+		throws Exception
+	{
+		Run run = new Run(OverflowPolicy.FLUSH);
+		run.execute();
+
+		long received = 0;
+
+		for (int producer = 0; producer < PRODUCERS; producer++)
+		{
+			List<Integer> keys = run.mReceived.get(producer);
+			received += keys.size();
+
+			// Every collapsed event is followed by a flush of its region requested no earlier than the event was offered
+			int next = 0;
+
+			for (int key : keys)
+			{
+				for (; next < key; next++)
+					assertTrue("Event " + next + " of producer " + producer + " is not covered by a flush", run.mLastFlush.get(producer) >= run.mOffered[producer].get(next));
+
+				next = key + 1;
+			}
+
+			for (; next < EVENTS; next++)
+				assertTrue("Event " + next + " of producer " + producer + " is not covered by a flush", run.mLastFlush.get(producer) >= run.mOffered[producer].get(next));
+		}
+
+		assertEquals(PRODUCERS * EVENTS, received + run.mBuffer.getOverflowCount());
+	}
+
+	/**
+	 * Run offers events from several producers, each to its own region, while a single consumer takes them.
+	 * <p>
+	 * A shared clock orders the offers of the producers against the flushes taken by the consumer.
+	 * </p>
+	 */
+	private static final class Run
+	{
+		private final CacheEventRingBuffer mBuffer;
+		private final AtomicLong mClock = new AtomicLong();
+		private final AtomicLongArray[] mOffered = new AtomicLongArray[PRODUCERS];
+		private final AtomicLongArray mLastFlush = new AtomicLongArray(PRODUCERS);
+		private final List<List<Integer>> mReceived = new ArrayList<List<Integer>>();
+
+		Run(OverflowPolicy overflowPolicy)
+		{
+			mBuffer = new CacheEventRingBuffer(CAPACITY, overflowPolicy);
+
+			for (int producer = 0; producer < PRODUCERS; producer++)
+			{
+				mOffered[producer] = new AtomicLongArray(EVENTS);
+				mReceived.add(new ArrayList<Integer>());
+			}
+		}
+
+		void execute()
+			throws Exception
+		{
+			final CountDownLatch start = new CountDownLatch(1);
+			final CountDownLatch done = new CountDownLatch(PRODUCERS);
+			final List<Throwable> errors = new ArrayList<Throwable>();
+			List<Thread> producers = new ArrayList<Thread>();
+
+			for (int i = 0; i < PRODUCERS; i++)
+			{
+				final int producer = i;
+
+				Thread thread = new Thread(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						try
+						{
+							start.await();
+
+							for (int key = 0; key < EVENTS; key++)
+							{
+								mOffered[producer].set(key, mClock.incrementAndGet());
+								mBuffer.offer(event("/" + producer, key));
+							}
+						}
+						catch (InterruptedException ex)
+						{
+							Thread.currentThread().interrupt();
+						}
+						finally
+						{
+							done.countDown();
+						}
+					}
+				});
+
+				thread.start();
+				producers.add(thread);
+			}
+
+			start.countDown();
+
+			try
+			{
+				while (done.getCount() > 0 || !mBuffer.isEmpty())
+				{
+					CacheEvent cacheEvent = mBuffer.poll(1, TimeUnit.MILLISECONDS);
+
+					if (cacheEvent != null)
+						receive(cacheEvent);
+				}
+			}
+			catch (Throwable ex)
+			{
+				errors.add(ex);
+			}
+
+			for (Thread thread : producers)
+				thread.join(10000);
+
+			if (!errors.isEmpty())
+				throw new AssertionError(errors.get(0));
+		}
+
+		private void receive(CacheEvent cacheEvent)
+		{
+			int producer = Integer.parseInt(cacheEvent.getRegionPath().substring(1));
+
+			if (cacheEvent.getType() == CacheEvent.FLUSH)
+			{
+				mLastFlush.set(producer, mClock.get());
+				return;
+			}
+
+			List<Integer> keys = mReceived.get(producer);
+			int key = ((Integer)cacheEvent.getKey()).intValue();
+
+			// Events of a producer are taken in the order they were offered
+			if (!keys.isEmpty())
+				assertTrue("Event " + key + " of producer " + producer + " taken after " + keys.get(keys.size() - 1), key > keys.get(keys.size() - 1));
+
+			keys.add(Integer.valueOf(key));
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ *   @description Region Filter Test
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * RegionFilterTest verifies matching of region paths and the JMS message selector built for included and excluded
+ * prefixes.
+ */
+public class RegionFilterTest
+{
+	private static final String PROPERTY = "RegionPath";
+
+	private static RegionFilter filter(String[] includes, String... excludes)
+	{
+		return new RegionFilter(Arrays.asList(includes), Arrays.asList(excludes));
+	}
+
+	@Test
+	public void matchesEveryRegionWithoutPrefixes()
+	{
+		assertTrue(RegionFilter.ALL.isEmpty());
+		assertTrue(RegionFilter.ALL.matches("/com_tridion_dcp/ComponentPresentation"));
+		assertNull(RegionFilter.ALL.toMessageSelector(PROPERTY));
+	}
+
+	@Test
+	public void matchesIncludedPrefixes()
+	{
+		RegionFilter regionFilter = filter(new String[] { "/com_tridion_dcp", "/com_tridion_linking" });
+
+		assertTrue(regionFilter.matches("/com_tridion_dcp/ComponentPresentation"));
+		assertTrue(regionFilter.matches("/com_tridion_linking"));
+		assertFalse(regionFilter.matches("/com_tridion_broker"));
+	}
+
+	@Test
+	public void excludedPrefixesOverrideIncludes()
+	{
+		RegionFilter regionFilter = filter(new String[] { "/com_tridion_dcp" }, "/com_tridion_dcp/Binary");
+
+		assertTrue(regionFilter.matches("/com_tridion_dcp/ComponentPresentation"));
+		assertFalse(regionFilter.matches("/com_tridion_dcp/BinaryMeta"));
+		assertFalse(filter(new String[0], "/a").matches("/a/b"));
+		assertTrue(filter(new String[0], "/a").matches("/b"));
+	}
+
+	@Test
+	public void matchesEventsWithoutRegion()
+	{
+		assertTrue(filter(new String[] { "/a" }, "/b").matches(null));
+	}
+
+	@Test
+	public void matchesFlushOfAllRegions()
+	{
+		assertTrue(filter(new String[] { "/a" }).matches(ReplayBuffer.FLUSH_ALL_REGION));
+		assertTrue(filter(new String[0], "/").matches(ReplayBuffer.FLUSH_ALL_REGION));
+		assertTrue(filter(new String[] { "/a" }).matches(ReplayBuffer.createFlushAllEvent().getRegionPath()));
+	}
+
+	@Test
+	public void buildsSelectorForIncludesAndExcludes()
+	{
+		assertEquals("RegionPath IS NULL OR RegionPath = '/' OR ((RegionPath LIKE '/a%' ESCAPE '\\' OR RegionPath LIKE '/b%' ESCAPE '\\')"
+			+ " AND NOT (RegionPath LIKE '/a/x%' ESCAPE '\\'))", filter(new String[] { "/a", "/b" }, "/a/x").toMessageSelector(PROPERTY));
+	}
+
+	@Test
+	public void buildsSelectorForExcludesOnly()
+	{
+		assertEquals("RegionPath IS NULL OR RegionPath = '/' OR (NOT (RegionPath LIKE '/a%' ESCAPE '\\'))",
+			new RegionFilter(Collections.<String>emptyList(), Arrays.asList("/a")).toMessageSelector(PROPERTY));
+	}
+
+	@Test
+	public void escapesSelectorLiterals()
+	{
+		assertEquals("RegionPath IS NULL OR RegionPath = '/' OR ((RegionPath LIKE '/it''s\\_100\\%\\\\%' ESCAPE '\\'))",
+			filter(new String[] { "/it's_100%\\" }).toMessageSelector(PROPERTY));
+	}
+}
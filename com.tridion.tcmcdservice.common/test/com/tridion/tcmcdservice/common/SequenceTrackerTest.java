@@ -0,0 +1,222 @@
+/**
+ *   @description Sequence Tracker Test
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * SequenceTrackerTest verifies gap detection on messages of a {@link CacheEventSequencer}, for gaps within and beyond the
+ * digest window and for sequence numbers which go backwards.
+ */
+public class SequenceTrackerTest
+{
+	private static final int WINDOW = 4;
+
+	/**
+	 * Create the given number of messages, message n touches region "/rn"
+	 */
+	private static List<CacheEventMessage> messages(CacheEventSequencer sequencer, int count)
+	{
+		List<CacheEventMessage> messages = new ArrayList<CacheEventMessage>();
+
+		for (int i = 1; i <= count; i++)
+			messages.add(sequencer.next(Collections.singletonList(new CacheEvent("/r" + i, "1:" + i, CacheEvent.INVALIDATE))));
+
+		return messages;
+	}
+
+	private static Set<String> flushedRegions(List<CacheEvent> cacheEvents)
+	{
+		Set<String> regions = new HashSet<String>();
+
+		for (CacheEvent cacheEvent : cacheEvents)
+		{
+			assertEquals(CacheEvent.FLUSH, cacheEvent.getType());
+			regions.add(cacheEvent.getRegionPath());
+		}
+
+		return regions;
+	}
+
+	@Test
+	public void numbersMessagesFromOne()
+	{
+		List<CacheEventMessage> messages = messages(new CacheEventSequencer("p", WINDOW, 32), 3);
+
+		for (int i = 0; i < 3; i++)
+		{
+			assertEquals("p", messages.get(i).getPublisher());
+			assertEquals(i + 1, messages.get(i).getSequence());
+		}
+	}
+
+	@Test
+	public void digestCoversPrecedingWindow()
+	{
+		List<CacheEventMessage> messages = messages(new CacheEventSequencer("p", WINDOW, 32), 7);
+
+		assertTrue(messages.get(0).getRecentRegions().isEmpty());
+		assertEquals(new HashSet<String>(Arrays.asList("/r3", "/r4", "/r5", "/r6")), new HashSet<String>(messages.get(6).getRecentRegions()));
+	}
+
+	@Test
+	public void omitsDigestWithTooManyRegions()
+	{
+		List<CacheEventMessage> messages = messages(new CacheEventSequencer("p", WINDOW, 2), 4);
+
+		assertEquals(2, messages.get(2).getRecentRegions().size());
+		assertNull(messages.get(3).getRecentRegions());
+	}
+
+	@Test
+	public void reportsNothingForConsecutiveMessages()
+	{
+		SequenceTracker tracker = new SequenceTracker(WINDOW, 16);
+
+		for (CacheEventMessage message : messages(new CacheEventSequencer("p", WINDOW, 32), 10))
+			assertTrue(tracker.track(message).isEmpty());
+
+		assertEquals(0, tracker.getGapCount());
+	}
+
+	@Test
+	public void ignoresUnsequencedMessages()
+	{
+		SequenceTracker tracker = new SequenceTracker(WINDOW, 16);
+
+		assertTrue(tracker.track(new CacheEventMessage(Collections.<CacheEvent>emptyList())).isEmpty());
+	}
+
+	@Test
+	public void flushesDigestRegionsForGapSmallerThanWindow()
+	{
+		SequenceTracker tracker = new SequenceTracker(WINDOW, 16);
+		List<CacheEventMessage> messages = messages(new CacheEventSequencer("p", WINDOW, 32), 6);
+
+		tracker.track(messages.get(0));
+		tracker.track(messages.get(1));
+		tracker.track(messages.get(2));
+
+		// Messages 4 and 5 are lost
+		Set<String> regions = flushedRegions(tracker.track(messages.get(5)));
+
+		assertTrue(regions.containsAll(Arrays.asList("/r4", "/r5")));
+		assertFalse(regions.contains(ReplayBuffer.FLUSH_ALL_REGION));
+		assertEquals(1, tracker.getGapCount());
+		assertEquals(2, tracker.getLostCount());
+	}
+
+	@Test
+	public void flushesDigestRegionsForGapEqualToWindow()
+	{
+		SequenceTracker tracker = new SequenceTracker(WINDOW, 16);
+		List<CacheEventMessage> messages = messages(new CacheEventSequencer("p", WINDOW, 32), 6);
+
+		tracker.track(messages.get(0));
+
+		// Messages 2 to 5 are lost
+		assertEquals(new HashSet<String>(Arrays.asList("/r2", "/r3", "/r4", "/r5")), flushedRegions(tracker.track(messages.get(5))));
+		assertEquals(WINDOW, tracker.getLostCount());
+	}
+
+	@Test
+	public void flushesAllRegionsForGapLargerThanWindow()
+	{
+		SequenceTracker tracker = new SequenceTracker(WINDOW, 16);
+		List<CacheEventMessage> messages = messages(new CacheEventSequencer("p", WINDOW, 32), 7);
+
+		tracker.track(messages.get(0));
+
+		// Messages 2 to 6 are lost
+		List<CacheEvent> flushes = tracker.track(messages.get(6));
+
+		assertEquals(1, flushes.size());
+		assertEquals(ReplayBuffer.FLUSH_ALL_REGION, flushes.get(0).getRegionPath());
+		assertEquals(CacheEvent.FLUSH, flushes.get(0).getType());
+		assertEquals(WINDOW + 1, tracker.getLostCount());
+	}
+
+	@Test
+	public void flushesAllRegionsForIncompleteDigest()
+	{
+		SequenceTracker tracker = new SequenceTracker(WINDOW, 16);
+		List<CacheEventMessage> messages = messages(new CacheEventSequencer("p", WINDOW, 2), 4);
+
+		tracker.track(messages.get(0));
+
+		List<CacheEvent> flushes = tracker.track(messages.get(3));
+
+		assertEquals(1, flushes.size());
+		assertEquals(ReplayBuffer.FLUSH_ALL_REGION, flushes.get(0).getRegionPath());
+	}
+
+	@Test
+	public void ignoresLateAndDuplicateMessages()
+	{
+		SequenceTracker tracker = new SequenceTracker(WINDOW, 16);
+		List<CacheEventMessage> messages = messages(new CacheEventSequencer("p", WINDOW, 32), 5);
+
+		tracker.track(messages.get(0));
+		tracker.track(messages.get(1));
+		tracker.track(messages.get(3));
+
+		long gaps = tracker.getGapCount();
+
+		// The sequence goes backwards, neither message is a gap nor moves the tracked sequence back
+		assertTrue(tracker.track(messages.get(2)).isEmpty());
+		assertTrue(tracker.track(messages.get(3)).isEmpty());
+		assertTrue(tracker.track(messages.get(0)).isEmpty());
+		assertTrue(tracker.track(messages.get(4)).isEmpty());
+
+		assertEquals(gaps, tracker.getGapCount());
+		assertEquals(1, tracker.getLostCount());
+	}
+
+	@Test
+	public void tracksPublishersIndependently()
+	{
+		SequenceTracker tracker = new SequenceTracker(WINDOW, 16);
+		List<CacheEventMessage> first = messages(new CacheEventSequencer("a", WINDOW, 32), 3);
+		List<CacheEventMessage> second = messages(new CacheEventSequencer("b", WINDOW, 32), 3);
+
+		tracker.track(first.get(0));
+		tracker.track(second.get(0));
+		tracker.track(second.get(1));
+		tracker.track(second.get(2));
+
+		assertEquals(0, tracker.getGapCount());
+		assertTrue(flushedRegions(tracker.track(first.get(2))).contains("/r2"));
+		assertEquals(1, tracker.getGapCount());
+	}
+
+	@Test
+	public void restartsTrackingOfForgottenPublisher()
+	{
+		SequenceTracker tracker = new SequenceTracker(WINDOW, 1);
+		List<CacheEventMessage> first = messages(new CacheEventSequencer("a", WINDOW, 32), 10);
+		List<CacheEventMessage> second = messages(new CacheEventSequencer("b", WINDOW, 32), 1);
+
+		tracker.track(first.get(0));
+		tracker.track(second.get(0));
+
+		// Publisher "a" was forgotten, its next message starts tracking again
+		assertTrue(tracker.track(first.get(9)).isEmpty());
+		assertEquals(0, tracker.getGapCount());
+	}
+}
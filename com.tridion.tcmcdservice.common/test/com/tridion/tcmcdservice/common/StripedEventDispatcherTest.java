@@ -0,0 +1,272 @@
+/**
+ *   @description Striped Event Dispatcher Test
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.tridion.cache.CacheChannelEventListener;
+import com.tridion.cache.CacheEvent;
+import com.tridion.tcmcdservice.common.StripedEventDispatcher.OverflowPolicy;
+
+/**
+ * StripedEventDispatcherTest verifies the per-key delivery order of the stripes and both overflow policies.
+ */
+public class StripedEventDispatcherTest
+{
+	private static final int KEYS = 64;
+	private static final int EVENTS = 320 * KEYS;
+
+	private static CacheEvent event(String regionPath, int key)
+	{
+		return new CacheEvent(regionPath, Integer.valueOf(key), CacheEvent.INVALIDATE);
+	}
+
+	/**
+	 * Listener recording delivered events, the first delivery waits until it is released
+	 */
+	private static class Listener implements CacheChannelEventListener
+	{
+		private final List<CacheEvent> mEvents = new ArrayList<CacheEvent>();
+		private final CountDownLatch mStarted = new CountDownLatch(1);
+		private final CountDownLatch mRelease;
+
+		Listener(boolean hold)
+		{
+			mRelease = new CountDownLatch(hold ? 1 : 0);
+		}
+
+		public void handleRemoteEvent(CacheEvent cacheEvent)
+		{
+			mStarted.countDown();
+
+			try
+			{
+				mRelease.await();
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+			}
+
+			synchronized (mEvents)
+			{
+				mEvents.add(cacheEvent);
+			}
+		}
+
+		public void handleDisconnect()
+		{
+		}
+
+		public void handleConnect()
+		{
+		}
+
+		List<CacheEvent> getEvents()
+		{
+			synchronized (mEvents)
+			{
+				return new ArrayList<CacheEvent>(mEvents);
+			}
+		}
+	}
+
+	@Test
+	public void resolvesPolicyNames()
+	{
+		assertEquals(OverflowPolicy.BLOCK, OverflowPolicy.fromName("Block"));
+		assertEquals(OverflowPolicy.FLUSH, OverflowPolicy.fromName("flush"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnknownPolicyName()
+	{
+		OverflowPolicy.fromName("drop-oldest");
+	}
+
+	@Test(timeout = 60000)
+	public void deliversEventsOfEachKeyInOrder()
+	{
+		final Map<CacheEvent, Integer> sequences = new IdentityHashMap<CacheEvent, Integer>();
+		final Map<Integer, Integer> last = new HashMap<Integer, Integer>();
+		final List<String> errors = new ArrayList<String>();
+		List<CacheEvent> cacheEvents = new ArrayList<CacheEvent>();
+
+		for (int i = 0; i < EVENTS; i++)
+		{
+			CacheEvent cacheEvent = event("/region" + (i % KEYS) % 8, i % KEYS);
+			cacheEvents.add(cacheEvent);
+			sequences.put(cacheEvent, Integer.valueOf(i / KEYS));
+		}
+
+		StripedEventDispatcher dispatcher = new StripedEventDispatcher("test", new Listener(false)
+		{
+			@Override
+			public void handleRemoteEvent(CacheEvent cacheEvent)
+			{
+				Integer key = (Integer)cacheEvent.getKey();
+
+				synchronized (last)
+				{
+					int sequence = sequences.get(cacheEvent).intValue();
+					Integer previous = last.put(key, Integer.valueOf(sequence));
+
+					if (previous != null && previous.intValue() >= sequence)
+						errors.add("Key " + key + " event " + sequence + " delivered after " + previous);
+				}
+			}
+		}, 4, 16, OverflowPolicy.BLOCK);
+
+		for (CacheEvent cacheEvent : cacheEvents)
+			dispatcher.dispatch(cacheEvent);
+
+		dispatcher.shutdown(10000);
+
+		assertEquals(new ArrayList<String>(), errors);
+		assertEquals(KEYS, last.size());
+
+		for (Integer sequence : last.values())
+			assertEquals(EVENTS / KEYS - 1, sequence.intValue());
+	}
+
+	@Test(timeout = 60000)
+	public void blockWaitsForRoomInStripeQueue()
+		throws Exception
+	{
+		Listener listener = new Listener(true);
+		final StripedEventDispatcher dispatcher = new StripedEventDispatcher("test", listener, 1, 1, OverflowPolicy.BLOCK);
+
+		dispatcher.dispatch(event("/a", 0));
+		assertTrue(listener.mStarted.await(5, TimeUnit.SECONDS));
+		dispatcher.dispatch(event("/a", 1));
+
+		final CountDownLatch dispatched = new CountDownLatch(1);
+
+		Thread receiver = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				dispatcher.dispatch(event("/a", 2));
+				dispatched.countDown();
+			}
+		});
+		receiver.start();
+
+		assertFalse(dispatched.await(50, TimeUnit.MILLISECONDS));
+
+		listener.mRelease.countDown();
+		assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+		receiver.join(5000);
+		dispatcher.shutdown(5000);
+
+		List<CacheEvent> events = listener.getEvents();
+		assertEquals(3, events.size());
+
+		for (int i = 0; i < 3; i++)
+			assertEquals(Integer.valueOf(i), events.get(i).getKey());
+	}
+
+	@Test(timeout = 60000)
+	public void flushCollapsesOverflowIntoRegionFlushes()
+		throws Exception
+	{
+		Listener listener = new Listener(true);
+		StripedEventDispatcher dispatcher = new StripedEventDispatcher("test", listener, 1, 1, OverflowPolicy.FLUSH);
+
+		dispatcher.dispatch(event("/a", 0));
+		assertTrue(listener.mStarted.await(5, TimeUnit.SECONDS));
+		dispatcher.dispatch(event("/a", 1));
+
+		// The stripe queue is full, these collapse without blocking, an event without region into a flush of all regions
+		dispatcher.dispatch(event("/b", 2));
+		dispatcher.dispatch(event("/b", 3));
+		dispatcher.dispatch(event(null, 4));
+
+		listener.mRelease.countDown();
+		dispatcher.shutdown(5000);
+
+		List<CacheEvent> events = listener.getEvents();
+		assertEquals(4, events.size());
+		assertEquals(Integer.valueOf(0), events.get(0).getKey());
+		assertEquals(Integer.valueOf(1), events.get(1).getKey());
+
+		HashSet<String> flushed = new HashSet<String>();
+
+		for (CacheEvent cacheEvent : events.subList(2, 4))
+		{
+			assertEquals(CacheEvent.FLUSH, cacheEvent.getType());
+			flushed.add(cacheEvent.getRegionPath());
+		}
+
+		assertEquals(new HashSet<String>(Arrays.asList("/b", ReplayBuffer.FLUSH_ALL_REGION)), flushed);
+	}
+
+	@Test(timeout = 60000)
+	public void flushIsDeliveredWithoutFurtherEvents()
+		throws Exception
+	{
+		Listener listener = new Listener(true);
+		StripedEventDispatcher dispatcher = new StripedEventDispatcher("test", listener, 1, 1, OverflowPolicy.FLUSH);
+
+		dispatcher.dispatch(event("/a", 0));
+		assertTrue(listener.mStarted.await(5, TimeUnit.SECONDS));
+		dispatcher.dispatch(event("/a", 1));
+		dispatcher.dispatch(event("/b", 2));
+		listener.mRelease.countDown();
+
+		// The worker is waiting for events once the queue is empty, the pending flush must not wait for the next one
+		long deadline = System.currentTimeMillis() + 5000;
+
+		while (listener.getEvents().size() < 3 && System.currentTimeMillis() < deadline)
+			Thread.sleep(1);
+
+		List<CacheEvent> events = listener.getEvents();
+		assertEquals(3, events.size());
+		assertEquals("/b", events.get(2).getRegionPath());
+		assertEquals(CacheEvent.FLUSH, events.get(2).getType());
+
+		dispatcher.shutdown(5000);
+	}
+
+	@Test(timeout = 60000)
+	public void shutdownDispatchesQueuedEventsAndStopsWaitingWorkers()
+		throws Exception
+	{
+		Listener listener = new Listener(false);
+		StripedEventDispatcher dispatcher = new StripedEventDispatcher("shutdown", listener, 4, 16, OverflowPolicy.BLOCK);
+
+		for (int i = 0; i < 10; i++)
+			dispatcher.dispatch(event("/a", i));
+
+		dispatcher.shutdown(5000);
+
+		assertEquals(10, listener.getEvents().size());
+
+		for (Thread thread : Thread.getAllStackTraces().keySet())
+			assertFalse(thread.getName() + " is still running", thread.getName().startsWith("shutdown-Dispatch-"));
+
+		// Events received after shutdown are delivered on the receiving thread
+		CacheEvent late = event("/a", 10);
+		dispatcher.dispatch(late);
+
+		assertSame(late, listener.getEvents().get(10));
+	}
+}
@@ -0,0 +1,203 @@
+/**
+ *   @description XML Cache Event Codec Test
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * XMLCacheEventCodecTest verifies the XML wire format round-trips and the tolerance of the decoder for the documents
+ * produced by the .NET peers.
+ */
+public class XMLCacheEventCodecTest
+{
+	private static void assertEvent(String regionPath, Object key, int eventType, CacheEvent cacheEvent)
+	{
+		assertEquals(regionPath, cacheEvent.getRegionPath());
+		assertEquals(key, cacheEvent.getKey());
+		assertEquals(eventType, cacheEvent.getType());
+	}
+
+	@Test
+	public void roundTripsSingleEvent()
+	{
+		CacheEvent cacheEvent = XMLCacheEventCodec.decode(XMLCacheEventCodec.encode(new CacheEvent("/com_tridion_dcp/ComponentPresentation", "1:2:3", CacheEvent.INVALIDATE)));
+
+		assertEvent("/com_tridion_dcp/ComponentPresentation", "1:2:3", CacheEvent.INVALIDATE, cacheEvent);
+	}
+
+	@Test
+	public void roundTripsIntegerKey()
+	{
+		CacheEvent cacheEvent = XMLCacheEventCodec.decode(XMLCacheEventCodec.encode(new CacheEvent("/region", Integer.valueOf(42), CacheEvent.FLUSH)));
+
+		assertEvent("/region", Integer.valueOf(42), CacheEvent.FLUSH, cacheEvent);
+	}
+
+	@Test
+	public void roundTripsMarkupCharacters()
+	{
+		String regionPath = "/a&b<c>\"d'\te\nf\rg";
+		CacheEvent cacheEvent = XMLCacheEventCodec.decode(XMLCacheEventCodec.encode(new CacheEvent(regionPath, "1:2", CacheEvent.INVALIDATE)));
+
+		assertEvent(regionPath, "1:2", CacheEvent.INVALIDATE, cacheEvent);
+	}
+
+	@Test
+	public void roundTripsBatch()
+	{
+		List<CacheEvent> cacheEvents = new ArrayList<CacheEvent>();
+
+		for (int i = 0; i < 3; i++)
+			cacheEvents.add(new CacheEvent("/region" + i, "1:" + i, CacheEvent.INVALIDATE));
+
+		String xml = XMLCacheEventCodec.encode(cacheEvents);
+		assertTrue(xml.startsWith("<" + XMLCacheEventCodec.ELEMENT_CACHE_EVENTS + ">"));
+
+		List<CacheEvent> decoded = XMLCacheEventCodec.decodeAll(xml);
+		assertEquals(3, decoded.size());
+
+		for (int i = 0; i < 3; i++)
+			assertEvent("/region" + i, "1:" + i, CacheEvent.INVALIDATE, decoded.get(i));
+	}
+
+	@Test
+	public void roundTripsSequenceHeader()
+	{
+		CacheEventMessage message = new CacheEventMessage("publisher&1", 17, Arrays.asList("/a", "/b"),
+			Arrays.asList(new CacheEvent("/a", "1:1", CacheEvent.INVALIDATE), new CacheEvent("/b", Integer.valueOf(0), CacheEvent.FLUSH)), 1234L);
+
+		CacheEventMessage decoded = XMLCacheEventCodec.decodeMessage(XMLCacheEventCodec.encode(message));
+
+		assertTrue(decoded.isSequenced());
+		assertEquals("publisher&1", decoded.getPublisher());
+		assertEquals(17, decoded.getSequence());
+		assertEquals(Arrays.asList("/a", "/b"), decoded.getRecentRegions());
+		assertEquals(1234L, decoded.getOriginTime());
+		assertEquals(2, decoded.getEvents().size());
+		assertEvent("/b", Integer.valueOf(0), CacheEvent.FLUSH, decoded.getEvents().get(1));
+	}
+
+	@Test
+	public void roundTripsRegionsContainingSeparator()
+	{
+		List<String> regions = Arrays.asList("/a,b", "C:\\cache\\", ",", "\\,", "/c");
+		CacheEventMessage message = new CacheEventMessage("publisher", 5, regions, Arrays.asList(new CacheEvent("/a", "1:1", CacheEvent.INVALIDATE)));
+
+		assertEquals(regions, XMLCacheEventCodec.decodeMessage(XMLCacheEventCodec.encode(message)).getRecentRegions());
+	}
+
+	@Test
+	public void decodesRegionsWithoutEscapes()
+	{
+		String xml = "<cacheEvent regionPath=\"/a\" key=\"1:1\" type=\"1\" publisher=\"p\" sequence=\"2\" recentRegions=\"/a,,C:\\cache\\x,/b\" />";
+
+		assertEquals(Arrays.asList("/a", "C:\\cache\\x", "/b"), XMLCacheEventCodec.decodeMessage(xml).getRecentRegions());
+	}
+
+	@Test
+	public void decodesIncompleteDigestAsUnknown()
+	{
+		CacheEventMessage message = new CacheEventMessage("publisher", 3, null, Arrays.asList(new CacheEvent("/a", "1:1", CacheEvent.INVALIDATE)));
+		CacheEventMessage decoded = XMLCacheEventCodec.decodeMessage(XMLCacheEventCodec.encode(message));
+
+		assertTrue(decoded.isSequenced());
+		assertNull(decoded.getRecentRegions());
+		assertEquals(0, decoded.getOriginTime());
+	}
+
+	@Test
+	public void skipsByteOrderMarkAndProlog()
+	{
+		String xml = "\uFEFF<?xml version=\"1.0\" encoding=\"utf-16\"?>\r\n<!-- .NET XmlCacheEvent -->\r\n"
+			+ "<cacheEvent regionPath=\"/region\" key=\"1:2\" type=\"1\" />";
+
+		assertEvent("/region", "1:2", CacheEvent.INVALIDATE, XMLCacheEventCodec.decode(xml));
+	}
+
+	@Test
+	public void unescapesEntities()
+	{
+		String xml = "<cacheEvent regionPath='/a&amp;b&lt;&gt;&quot;&apos;&#65;&#x42;' key=\"1:2\" type=\" 1 \"></cacheEvent>";
+
+		assertEvent("/a&b<>\"'AB", "1:2", CacheEvent.INVALIDATE, XMLCacheEventCodec.decode(xml));
+	}
+
+	@Test
+	public void normalizesWhitespaceInAttributeValues()
+	{
+		String xml = "<cacheEvent regionPath=\"/a\tb\nc\" key=\"1:2\" type=\"1\" />";
+
+		assertEvent("/a b c", "1:2", CacheEvent.INVALIDATE, XMLCacheEventCodec.decode(xml));
+	}
+
+	@Test
+	public void ignoresUnknownAttributesAndElements()
+	{
+		String xml = "<cacheEvents version=\"2\" xmlns:x=\"urn:x\">"
+			+ "<x:other a=\"1\"><nested /></x:other>"
+			+ "<cacheEvent x:extra=\"value\" regionPath=\"/region\" key=\"7\" type=\"0\" publisher=\"ignored\" />"
+			+ "<!-- comment --><cacheEvent regionPath=\"/other\" key=\"1:2\" type=\"1\"><child /></cacheEvent>"
+			+ "</cacheEvents>";
+
+		CacheEventMessage message = XMLCacheEventCodec.decodeMessage(xml);
+
+		assertFalse(message.isSequenced());
+		assertEquals(2, message.getEvents().size());
+		assertEvent("/region", Integer.valueOf(7), CacheEvent.FLUSH, message.getEvents().get(0));
+		assertEvent("/other", "1:2", CacheEvent.INVALIDATE, message.getEvents().get(1));
+	}
+
+	@Test
+	public void returnsNothingForUnknownDocumentElement()
+	{
+		assertNull(XMLCacheEventCodec.decode("<other regionPath=\"/region\" key=\"1\" type=\"1\" />"));
+		assertTrue(XMLCacheEventCodec.decodeAll("<other />").isEmpty());
+	}
+
+	@Test
+	public void ignoresMalformedOriginTime()
+	{
+		String xml = "<cacheEvent regionPath=\"/region\" key=\"1\" type=\"1\" publisher=\"p\" sequence=\"5\" originTime=\"soon\" />";
+		CacheEventMessage message = XMLCacheEventCodec.decodeMessage(xml);
+
+		assertEquals(5, message.getSequence());
+		assertEquals(0, message.getOriginTime());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsMissingType()
+	{
+		XMLCacheEventCodec.decode("<cacheEvent regionPath=\"/region\" key=\"1\" />");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnknownEntity()
+	{
+		XMLCacheEventCodec.decode("<cacheEvent regionPath=\"/&nbsp;\" key=\"1\" type=\"1\" />");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnterminatedStartTag()
+	{
+		XMLCacheEventCodec.decode("<cacheEvent regionPath=\"/region\" key=\"1\" type=\"1\"");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsInvalidKey()
+	{
+		XMLCacheEventCodec.decode("<cacheEvent regionPath=\"/region\" key=\"abc\" type=\"1\" />");
+	}
+}
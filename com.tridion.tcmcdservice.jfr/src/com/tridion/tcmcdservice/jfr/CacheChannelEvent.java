@@ -0,0 +1,91 @@
+/**
+ *   @description Cache Channel Event
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * CacheChannelEvent is the base of the Java Flight Recorder events recorded by {@link JFRCacheEventTracer}.
+ * <p>
+ * Every phase of {@link com.tridion.tcmcdservice.common.CacheEventTracer.Phase} has its own event type, so phases can
+ * be enabled and given a threshold separately. Spans covering a message describe its first cache event.
+ * </p>
+ */
+@Category({ "Tridion", "Cache Channel" })
+@StackTrace(false)
+public abstract class CacheChannelEvent extends Event
+{
+	@Label("Connector")
+	@Description("Type of the cache channel connector")
+	String connector;
+
+	@Label("Region Path")
+	String regionPath;
+
+	@Label("Key")
+	String key;
+
+	@Label("Event Type")
+	@Description("Cache event type, 0 for flush and 1 for invalidate, -1 if unknown")
+	int eventType;
+
+	@Label("Event Count")
+	@Description("Number of cache events covered")
+	int eventCount;
+
+	@Name("com.tridion.tcmcdservice.Publish")
+	@Label("Cache Event Publish")
+	@Description("Cache event is broadcast by the caller")
+	public static final class Publish extends CacheChannelEvent
+	{
+	}
+
+	@Name("com.tridion.tcmcdservice.Enqueue")
+	@Label("Cache Event Enqueue")
+	@Description("Cache event is handed to the outgoing queue")
+	public static final class Enqueue extends CacheChannelEvent
+	{
+	}
+
+	@Name("com.tridion.tcmcdservice.Encode")
+	@Label("Cache Event Encode")
+	@Description("Cache events are encoded into a message")
+	public static final class Encode extends CacheChannelEvent
+	{
+	}
+
+	@Name("com.tridion.tcmcdservice.Send")
+	@Label("Cache Event Send")
+	@Description("Message is sent to the broker or remote service")
+	public static final class Send extends CacheChannelEvent
+	{
+	}
+
+	@Name("com.tridion.tcmcdservice.Receive")
+	@Label("Cache Event Receive")
+	@Description("Received message is decoded and dispatched")
+	public static final class Receive extends CacheChannelEvent
+	{
+	}
+
+	@Name("com.tridion.tcmcdservice.Decode")
+	@Label("Cache Event Decode")
+	@Description("Received message is decoded")
+	public static final class Decode extends CacheChannelEvent
+	{
+	}
+
+	@Name("com.tridion.tcmcdservice.Dispatch")
+	@Label("Cache Event Dispatch")
+	@Description("Received cache events are passed to the listener")
+	public static final class Dispatch extends CacheChannelEvent
+	{
+	}
+}
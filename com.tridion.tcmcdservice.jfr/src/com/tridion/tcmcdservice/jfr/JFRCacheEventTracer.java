@@ -0,0 +1,92 @@
+/**
+ *   @description JFR Cache Event Tracer
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.jfr;
+
+import jdk.jfr.EventType;
+
+import com.tridion.cache.CacheEvent;
+import com.tridion.tcmcdservice.common.CacheEventTracer;
+
+/**
+ * JFRCacheEventTracer records the phases of cache events as Java Flight Recorder events, see {@link CacheChannelEvent}.
+ * <p>
+ * The tracer is registered as service provider of {@link CacheEventTracer}, adding this jar to the classpath of a Java
+ * 11 or later runtime is sufficient. Events are only allocated while a recording has enabled their type, otherwise
+ * {@link #begin(Phase)} costs a single flag check.
+ * </p>
+ */
+public class JFRCacheEventTracer extends CacheEventTracer
+{
+	private final EventType[] mEventTypes = new EventType[Phase.values().length];
+
+	/**
+	 * Create a new JFRCacheEventTracer
+	 */
+	public JFRCacheEventTracer()
+	{
+		for (Phase phase : Phase.values())
+			mEventTypes[phase.ordinal()] = EventType.getEventType(create(phase).getClass());
+	}
+
+	private static CacheChannelEvent create(Phase phase)
+	{
+		switch (phase)
+		{
+			case PUBLISH:
+				return new CacheChannelEvent.Publish();
+			case ENQUEUE:
+				return new CacheChannelEvent.Enqueue();
+			case ENCODE:
+				return new CacheChannelEvent.Encode();
+			case SEND:
+				return new CacheChannelEvent.Send();
+			case RECEIVE:
+				return new CacheChannelEvent.Receive();
+			case DECODE:
+				return new CacheChannelEvent.Decode();
+			default:
+				return new CacheChannelEvent.Dispatch();
+		}
+	}
+
+	@Override
+	public Object begin(Phase phase)
+	{
+		if (!mEventTypes[phase.ordinal()].isEnabled())
+			return null;
+
+		CacheChannelEvent event = create(phase);
+		event.begin();
+
+		return event;
+	}
+
+	@Override
+	public void end(Object span, String connector, CacheEvent cacheEvent, int eventCount)
+	{
+		if (span == null)
+			return;
+
+		CacheChannelEvent event = (CacheChannelEvent)span;
+		event.end();
+
+		if (!event.shouldCommit())
+			return;
+
+		event.connector = connector;
+		event.eventCount = eventCount;
+
+		if (cacheEvent != null)
+		{
+			event.regionPath = cacheEvent.getRegionPath();
+			event.key = String.valueOf(cacheEvent.getKey());
+			event.eventType = cacheEvent.getType();
+		}
+		else
+			event.eventType = -1;
+
+		event.commit();
+	}
+}
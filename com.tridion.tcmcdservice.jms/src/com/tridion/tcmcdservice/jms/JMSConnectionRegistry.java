@@ -0,0 +1,472 @@
+/**
+ *   @description JMS Connection Registry
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.jms;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.jms.BytesMessage;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+import javax.jms.Topic;
+import javax.jms.TopicConnection;
+import javax.jms.TopicConnectionFactory;
+import javax.jms.TopicSession;
+import javax.jms.TopicSubscriber;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JMSConnectionRegistry shares physical JMS connections between the cache channel clients of a JVM.
+ * <p>
+ * Clients configured with the same JNDI properties and connection factory name share one {@link TopicConnection}, and
+ * clients subscribing to the same topic with the same message selector share one subscriber whose messages are passed to
+ * every registered {@link MessageListener}. Messages are not passed back to the client which published them, as
+ * identified by the "Client" message property. Connections and subscribers are closed once their last registration is
+ * released.
+ * </p>
+ * <p>
+ * The registry lock only guards the map of connections. Sessions and subscribers, which require a round trip to the
+ * broker, are created and closed holding the lock of their connection, so clients of other connections do not wait for
+ * them. A connection lock may be held while taking the registry lock, never the other way around.
+ * </p>
+ * <p>
+ * Clients registering without sharing get a private connection which is not added to the registry, for example to
+ * simulate separate JVMs in a single process.
+ * </p>
+ */
+final class JMSConnectionRegistry
+{
+	private static Logger mLog = LoggerFactory.getLogger(JMSConnectionRegistry.class);
+
+	private static final Map<String, SharedConnection> mConnections = new HashMap<String, SharedConnection>();
+
+	private JMSConnectionRegistry()
+	{
+	}
+
+	/**
+	 * Register a client on the shared connection for the given settings, creating the connection if required
+	 *
+	 * @param jndiProperties JNDI context properties, or null for the default context
+	 * @param factoryName JNDI name of the {@link TopicConnectionFactory}
+	 * @param factory {@link TopicConnectionFactory} used if a new connection is required
+	 * @param topic {@link Topic} to subscribe to
+	 * @param selector JMS message selector, or null
+	 * @param identifier Client identifier, messages published by this client are not passed to its listener
+	 * @param messageListener {@link MessageListener} receiving messages for the topic
+	 * @param exceptionListener {@link ExceptionListener} notified of connection failures
+	 * @param shared Share the connection with other clients using the same settings, or open a private connection
+	 * @return {@link Registration} which needs to be released using {@link #release(Registration)}
+	 * @throws JMSException Connection or subscriber could not be created
+	 */
+	static Registration register(Properties jndiProperties, String factoryName, TopicConnectionFactory factory, Topic topic, String selector,
+		String identifier, MessageListener messageListener, ExceptionListener exceptionListener, boolean shared)
+		throws JMSException
+	{
+		String key = getKey(jndiProperties, factoryName);
+
+		if (!shared)
+			return registerPrivate(key, factoryName, factory, topic, selector, identifier, messageListener, exceptionListener);
+
+		while (true)
+		{
+			SharedConnection connection;
+
+			synchronized (mConnections)
+			{
+				connection = mConnections.get(key);
+			}
+
+			if (connection == null)
+				connection = open(key, factoryName, factory);
+
+			JMSException failure;
+
+			synchronized (connection)
+			{
+				// The connection failed or was released and removed from the registry before this client registered
+				if (!connection.isRegistered())
+					continue;
+
+				try
+				{
+					return connection.register(topic, selector, identifier, messageListener, exceptionListener);
+				}
+				catch (JMSException ex)
+				{
+					if (!connection.mRegistrations.isEmpty())
+						throw ex;
+
+					connection.unregisterConnection();
+					failure = ex;
+				}
+			}
+
+			connection.close();
+			throw failure;
+		}
+	}
+
+	/**
+	 * Register a client on a new connection which is not added to the registry, the connection is closed once the
+	 * registration is released
+	 */
+	private static Registration registerPrivate(String key, String factoryName, TopicConnectionFactory factory, Topic topic, String selector,
+		String identifier, MessageListener messageListener, ExceptionListener exceptionListener)
+		throws JMSException
+	{
+		SharedConnection connection = new SharedConnection(key, factoryName, factory.createTopicConnection());
+
+		try
+		{
+			synchronized (connection)
+			{
+				return connection.register(topic, selector, identifier, messageListener, exceptionListener);
+			}
+		}
+		catch (JMSException ex)
+		{
+			connection.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Open a new connection without holding the registry lock and add it to the registry, unless another client
+	 * registered a connection for the same settings meanwhile
+	 *
+	 * @return {@link SharedConnection} registered for the given key
+	 */
+	private static SharedConnection open(String key, String factoryName, TopicConnectionFactory factory)
+		throws JMSException
+	{
+		SharedConnection connection = new SharedConnection(key, factoryName, factory.createTopicConnection());
+		SharedConnection existing;
+
+		synchronized (mConnections)
+		{
+			existing = mConnections.get(key);
+
+			if (existing == null)
+			{
+				mConnections.put(key, connection);
+				return connection;
+			}
+		}
+
+		connection.close();
+
+		return existing;
+	}
+
+	/**
+	 * Release a {@link Registration}, closing its subscriber and connection if they are no longer used
+	 *
+	 * @param registration {@link Registration}
+	 */
+	static void release(Registration registration)
+	{
+		SharedConnection connection = registration.mConnection;
+
+		synchronized (connection)
+		{
+			if (!connection.unregister(registration) || !connection.mRegistrations.isEmpty())
+				return;
+
+			connection.unregisterConnection();
+		}
+
+		// Closing may block on an unreachable broker, other clients do not wait for it
+		connection.close();
+	}
+
+	private static String getKey(Properties jndiProperties, String factoryName)
+	{
+		StringBuilder builder = new StringBuilder(factoryName);
+
+		if (jndiProperties != null)
+		{
+			Map<String, String> properties = new TreeMap<String, String>();
+
+			for (String name : jndiProperties.stringPropertyNames())
+				properties.put(name, jndiProperties.getProperty(name));
+
+			builder.append(properties);
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Registration represents a single client on a shared connection
+	 */
+	static final class Registration
+	{
+		private final SharedConnection mConnection;
+		private final Subscription mSubscription;
+		private final String mIdentifier;
+		private final MessageListener mMessageListener;
+		private final ExceptionListener mExceptionListener;
+
+		private Registration(SharedConnection connection, Subscription subscription, String identifier, MessageListener messageListener, ExceptionListener exceptionListener)
+		{
+			mConnection = connection;
+			mSubscription = subscription;
+			mIdentifier = identifier;
+			mMessageListener = messageListener;
+			mExceptionListener = exceptionListener;
+		}
+
+		/**
+		 * Physical {@link TopicConnection} shared by this registration
+		 */
+		TopicConnection getConnection()
+		{
+			return mConnection.mConnection;
+		}
+	}
+
+	/**
+	 * SharedConnection holds a physical connection and its subscriptions, private connections are never added to the
+	 * registry. Registrations and subscriptions are guarded by the lock of the SharedConnection.
+	 */
+	private static final class SharedConnection
+		implements ExceptionListener
+	{
+		private final String mKey;
+		private final String mName;
+		private final TopicConnection mConnection;
+		private final List<Registration> mRegistrations = new ArrayList<Registration>();
+		private final Map<String, Subscription> mSubscriptions = new HashMap<String, Subscription>();
+
+		SharedConnection(String key, String name, TopicConnection connection)
+			throws JMSException
+		{
+			mKey = key;
+			mName = name;
+			mConnection = connection;
+
+			try
+			{
+				String clientID = "JMSXML-" + UUID.randomUUID().toString();
+
+				mConnection.setClientID(clientID);
+				mConnection.setExceptionListener(this);
+				mConnection.start();
+
+				mLog.info("Opened connection [" + clientID + "], Factory [" + name + "]");
+			}
+			catch (JMSException ex)
+			{
+				close();
+				throw ex;
+			}
+		}
+
+		Registration register(Topic topic, String selector, String identifier, MessageListener messageListener, ExceptionListener exceptionListener)
+			throws JMSException
+		{
+			String subscriptionKey = topic.getTopicName() + (selector != null ? "|" + selector : "");
+			Subscription subscription = mSubscriptions.get(subscriptionKey);
+
+			if (subscription == null)
+			{
+				subscription = new Subscription(subscriptionKey, mConnection, topic, selector);
+				mSubscriptions.put(subscriptionKey, subscription);
+			}
+
+			Registration registration = new Registration(this, subscription, identifier, messageListener, exceptionListener);
+
+			subscription.mRegistrations.add(registration);
+			mRegistrations.add(registration);
+
+			return registration;
+		}
+
+		/**
+		 * Verify if this connection is still the registered connection for its key
+		 */
+		boolean isRegistered()
+		{
+			synchronized (mConnections)
+			{
+				return mConnections.get(mKey) == this;
+			}
+		}
+
+		/**
+		 * Remove this connection from the registry, unless another connection was registered for its key meanwhile
+		 */
+		void unregisterConnection()
+		{
+			synchronized (mConnections)
+			{
+				if (mConnections.get(mKey) == this)
+					mConnections.remove(mKey);
+			}
+		}
+
+		boolean unregister(Registration registration)
+		{
+			if (!mRegistrations.remove(registration))
+				return false;
+
+			Subscription subscription = registration.mSubscription;
+			subscription.mRegistrations.remove(registration);
+
+			if (subscription.mRegistrations.isEmpty())
+			{
+				mSubscriptions.remove(subscription.mKey);
+				subscription.close();
+			}
+
+			return true;
+		}
+
+		/**
+		 * Remove the failed connection from the registry and notify every registered client
+		 */
+		@Override
+		public void onException(JMSException exception)
+		{
+			List<Registration> registrations;
+
+			unregisterConnection();
+
+			synchronized (this)
+			{
+				registrations = new ArrayList<Registration>(mRegistrations);
+			}
+
+			mLog.warn("Connection for Factory [" + mName + "] failed, notifying " + registrations.size() + " clients: " + exception.getMessage());
+
+			// Clients release their registration from their exception listener, which requires the connection lock
+			for (Registration registration : registrations)
+			{
+				try
+				{
+					registration.mExceptionListener.onException(exception);
+				}
+				catch (RuntimeException ex)
+				{
+					mLog.error("Error notifying client [" + registration.mIdentifier + "] of connection failure.", ex);
+				}
+			}
+		}
+
+		void close()
+		{
+			try
+			{
+				mConnection.stop();
+			}
+			catch (JMSException ex) {}
+
+			try
+			{
+				mConnection.close();
+			}
+			catch (JMSException ex) {}
+
+			mLog.info("Closed connection for Factory [" + mName + "]");
+		}
+	}
+
+	/**
+	 * Subscription holds a subscriber on a shared connection and passes its messages to the registered clients
+	 */
+	private static final class Subscription
+		implements MessageListener
+	{
+		private final String mKey;
+		private final TopicSession mSession;
+		private final TopicSubscriber mSubscriber;
+		private final List<Registration> mRegistrations = new CopyOnWriteArrayList<Registration>();
+
+		Subscription(String key, TopicConnection connection, Topic topic, String selector)
+			throws JMSException
+		{
+			mKey = key;
+			mSession = connection.createTopicSession(false, Session.AUTO_ACKNOWLEDGE);
+
+			try
+			{
+				// Local messages are delivered as well, other clients on this connection need them
+				mSubscriber = mSession.createSubscriber(topic, selector, false);
+				mSubscriber.setMessageListener(this);
+			}
+			catch (JMSException ex)
+			{
+				close();
+				throw ex;
+			}
+		}
+
+		@Override
+		public void onMessage(Message message)
+		{
+			String client;
+
+			try
+			{
+				client = message.getStringProperty("Client");
+			}
+			catch (JMSException ex)
+			{
+				client = null;
+			}
+
+			for (Registration registration : mRegistrations)
+			{
+				if (registration.mIdentifier.equals(client))
+					continue;
+
+				try
+				{
+					// Every client reads the message body from the start
+					if (message instanceof BytesMessage)
+						((BytesMessage)message).reset();
+
+					registration.mMessageListener.onMessage(message);
+				}
+				catch (JMSException ex)
+				{
+					mLog.error("Error passing message to client [" + registration.mIdentifier + "].", ex);
+				}
+				catch (RuntimeException ex)
+				{
+					mLog.error("Error passing message to client [" + registration.mIdentifier + "].", ex);
+				}
+			}
+		}
+
+		void close()
+		{
+			try
+			{
+				if (mSubscriber != null)
+					mSubscriber.close();
+			}
+			catch (JMSException ex) {}
+
+			try
+			{
+				mSession.close();
+			}
+			catch (JMSException ex) {}
+		}
+	}
+}
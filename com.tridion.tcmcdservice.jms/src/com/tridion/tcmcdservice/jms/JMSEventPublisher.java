@@ -0,0 +1,636 @@
+/**
+ *   @description JMS Event Publisher
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.jms;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.jms.BytesMessage;
+import javax.jms.DeliveryMode;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.Topic;
+import javax.jms.TopicConnection;
+import javax.jms.TopicPublisher;
+import javax.jms.TopicSession;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.tridion.cache.CacheEvent;
+import com.tridion.tcmcdservice.common.BinaryCacheEventCodec;
+import com.tridion.tcmcdservice.common.CacheEventFormat;
+import com.tridion.tcmcdservice.common.CacheEventMessage;
+import com.tridion.tcmcdservice.common.CacheEventSequencer;
+import com.tridion.tcmcdservice.common.CacheEventTracer;
+import com.tridion.tcmcdservice.common.ConnectorMetrics;
+import com.tridion.tcmcdservice.common.ReplayBuffer;
+import com.tridion.tcmcdservice.common.XMLCacheEventCodec;
+
+/**
+ * JMSEventPublisher implements a single-writer publishing stage for cache events.
+ * <p>
+ * Callers hand events to a lock-free queue and return immediately, one sender thread owns the publishing
+ * {@link TopicSession} and sends the queued events, optionally coalesced into batches. When the JMS provider implements
+ * the JMS 2.0 asynchronous send, at most "MaxInFlight" messages are awaiting completion at any time, otherwise every
+ * message is sent synchronously by the sender thread.
+ * </p>
+ * <p>
+ * Every message carries a sequence number of the {@link CacheEventSequencer} of this publisher, a message which is
+ * retried after a send failure keeps its sequence number.
+ * </p>
+ * <p>
+ * When the queue is full an event collapses into a pending flush of its region, which is published ahead of the
+ * queued events. Send failures are reported to the connection {@link ExceptionListener}, which drives the regular
+ * reconnect of the cache channel connector. A message which cannot be encoded is discarded, it would fail on every retry.
+ * </p>
+ */
+class JMSEventPublisher
+{
+	private static Logger mLog = LoggerFactory.getLogger(JMSEventPublisher.class);
+
+	private static final long RETRY_INTERVAL = TimeUnit.MILLISECONDS.toNanos(500);
+	private static final long SEND_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+	private static final CacheEventTracer mTracer = CacheEventTracer.getInstance();
+
+	private final String mIdentifier;
+	private final CacheEventFormat mFormat;
+	private final CacheEventSequencer mSequencer;
+	private final ConnectorMetrics mMetrics;
+
+	private int mBatchSize = 1;
+	private long mBatchLinger = 0;
+	private int mQueueCapacity = 10000;
+	private int mMaxInFlight = 100;
+
+	private final ConcurrentLinkedQueue<CacheEvent> mQueue = new ConcurrentLinkedQueue<CacheEvent>();
+	private final AtomicInteger mQueueDepth = new AtomicInteger();
+	private final ConcurrentHashMap<String, Boolean> mPendingFlushes = new ConcurrentHashMap<String, Boolean>();
+	private volatile boolean mOverflowReported = false;
+
+	private volatile Channel mChannel = null;
+	private volatile ExceptionListener mExceptionListener = null;
+
+	private Thread mSender = null;
+	private volatile boolean mWaiting = false;
+	private volatile boolean mShutdown = false;
+
+	/**
+	 * Creates a new JMSEventPublisher
+	 *
+	 * @param identifier Client identifier attached to every published message
+	 * @param format {@link CacheEventFormat} of published messages
+	 * @param metrics {@link ConnectorMetrics} recording published events
+	 */
+	JMSEventPublisher(String identifier, CacheEventFormat format, ConnectorMetrics metrics)
+	{
+		mIdentifier = identifier;
+		mFormat = format;
+		mSequencer = new CacheEventSequencer(identifier);
+		mMetrics = metrics;
+	}
+
+	/**
+	 * Configure batching of published cache events
+	 *
+	 * @param batchSize Maximum number of events per message, a value of one or less disables batching
+	 * @param batchLinger Maximum time in milliseconds an event waits for its batch to fill up
+	 */
+	void setBatching(int batchSize, long batchLinger)
+	{
+		mBatchSize = Math.max(batchSize, 1);
+		mBatchLinger = TimeUnit.MILLISECONDS.toNanos(Math.max(batchLinger, 0));
+	}
+
+	/**
+	 * Configure the bounds of this publisher
+	 *
+	 * @param queueCapacity Maximum number of events waiting to be published
+	 * @param maxInFlight Maximum number of asynchronously sent messages awaiting completion
+	 */
+	void setLimits(int queueCapacity, int maxInFlight)
+	{
+		mQueueCapacity = Math.max(queueCapacity, 1);
+		mMaxInFlight = Math.max(maxInFlight, 1);
+	}
+
+	/**
+	 * Number of events waiting to be published
+	 */
+	int getQueueDepth()
+	{
+		return mQueueDepth.get();
+	}
+
+	/**
+	 * Attach this publisher to a new connection, the sender thread is started if required
+	 *
+	 * @param connection {@link TopicConnection} to publish on
+	 * @param topic {@link Topic} to publish to
+	 * @param exceptionListener {@link ExceptionListener} receiving publishing failures
+	 * @throws JMSException Unable to create the publishing session
+	 */
+	synchronized void attach(TopicConnection connection, Topic topic, ExceptionListener exceptionListener)
+		throws JMSException
+	{
+		detach();
+
+		mExceptionListener = exceptionListener;
+		mChannel = new Channel(connection, topic, mMaxInFlight);
+
+		if (mSender == null)
+		{
+			mSender = new Thread(new Sender(), "JMSEventPublisher-" + mIdentifier);
+			mSender.setDaemon(true);
+			mSender.start();
+		}
+
+		LockSupport.unpark(mSender);
+	}
+
+	/**
+	 * Detach this publisher from its connection, queued events are retained until the next {@link #attach}
+	 */
+	synchronized void detach()
+	{
+		Channel channel = mChannel;
+		mChannel = null;
+
+		if (channel != null)
+			channel.close();
+	}
+
+	/**
+	 * Stop the sender thread, queued events are sent first if a connection is attached
+	 *
+	 * @param timeout Maximum time in milliseconds to wait for queued events to be sent
+	 */
+	void shutdown(long timeout)
+	{
+		Thread sender;
+
+		synchronized (this)
+		{
+			mShutdown = true;
+			sender = mSender;
+		}
+
+		if (sender != null)
+		{
+			LockSupport.unpark(sender);
+
+			try
+			{
+				sender.join(timeout);
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		detach();
+	}
+
+	/**
+	 * Queue a cache event for publishing, if the queue is full the event is replaced by a flush of its region
+	 *
+	 * @param cacheEvent {@link CacheEvent} to publish
+	 */
+	void publish(CacheEvent cacheEvent)
+	{
+		if (mQueueDepth.incrementAndGet() > mQueueCapacity)
+		{
+			mQueueDepth.decrementAndGet();
+
+			String regionPath = cacheEvent.getRegionPath() != null ? cacheEvent.getRegionPath() : ReplayBuffer.FLUSH_ALL_REGION;
+			mPendingFlushes.putIfAbsent(regionPath, Boolean.TRUE);
+
+			if (!mOverflowReported)
+			{
+				mOverflowReported = true;
+				mLog.warn("Client [" + mIdentifier + "] publish queue exceeded " + mQueueCapacity + " events, collapsing events to region flushes.");
+			}
+
+			return;
+		}
+
+		Object span = mTracer.begin(CacheEventTracer.Phase.ENQUEUE);
+		mQueue.offer(cacheEvent);
+
+		if (mWaiting)
+			LockSupport.unpark(mSender);
+
+		mTracer.end(span, JMSXMLCacheChannelConnector.CONNECTOR_TYPE, cacheEvent, 1);
+	}
+
+	/**
+	 * Report a publishing failure to the connection exception listener
+	 */
+	private void report(JMSException exception)
+	{
+		mLog.warn("Publishing failure: " + exception.getMessage());
+
+		ExceptionListener exceptionListener = mExceptionListener;
+
+		if (exceptionListener != null)
+			exceptionListener.onException(exception);
+	}
+
+	/**
+	 * Move up to the configured batch size of pending region flushes and queued events into the given batch
+	 */
+	private void drain(List<CacheEvent> batch)
+	{
+		// A flush published ahead of queued events is safe, invalidating an entry twice has no effect
+		for (Iterator<String> iterator = mPendingFlushes.keySet().iterator(); batch.size() < mBatchSize && iterator.hasNext(); )
+		{
+			String regionPath = iterator.next();
+			iterator.remove();
+
+			batch.add(new CacheEvent(regionPath, Integer.valueOf(0), CacheEvent.FLUSH));
+		}
+
+		CacheEvent cacheEvent;
+
+		while (batch.size() < mBatchSize && (cacheEvent = mQueue.poll()) != null)
+		{
+			mQueueDepth.decrementAndGet();
+			batch.add(cacheEvent);
+		}
+
+		// Report the next overflow once the queue has recovered
+		if (mOverflowReported && mQueueDepth.get() < mQueueCapacity / 2)
+			mOverflowReported = false;
+	}
+
+	/**
+	 * Park the sender thread until an event is queued or the given time has elapsed
+	 */
+	private void await(long nanos)
+	{
+		mWaiting = true;
+
+		if (mQueue.isEmpty() && mPendingFlushes.isEmpty() && !mShutdown)
+			LockSupport.parkNanos(this, nanos);
+
+		mWaiting = false;
+	}
+
+	/**
+	 * Sender implements the single thread which owns the publishing session
+	 */
+	private class Sender implements Runnable
+	{
+		public void run()
+		{
+			List<CacheEvent> batch = new ArrayList<CacheEvent>();
+			CacheEventMessage message = null;
+
+			while (!mShutdown || !batch.isEmpty() || !mQueue.isEmpty() || !mPendingFlushes.isEmpty())
+			{
+				if (batch.isEmpty())
+				{
+					drain(batch);
+
+					if (batch.isEmpty())
+					{
+						if (!mShutdown)
+							await(TimeUnit.SECONDS.toNanos(1));
+
+						continue;
+					}
+
+					// Give the batch the opportunity to fill up
+					if (mBatchSize > 1 && mBatchLinger > 0)
+					{
+						long deadline = System.nanoTime() + mBatchLinger;
+						long remaining;
+
+						while (batch.size() < mBatchSize && !mShutdown && (remaining = deadline - System.nanoTime()) > 0)
+						{
+							await(remaining);
+							drain(batch);
+						}
+					}
+				}
+
+				Channel channel = mChannel;
+
+				if (channel == null)
+				{
+					// Events are retained until a connection is attached again
+					if (mShutdown)
+						break;
+
+					LockSupport.parkNanos(this, RETRY_INTERVAL);
+					continue;
+				}
+
+				// The sequence number is assigned once, so a retried batch does not appear as a gap to receivers
+				if (message == null)
+					message = mSequencer.next(new ArrayList<CacheEvent>(batch));
+
+				try
+				{
+					long start = System.nanoTime();
+
+					if (channel.send(message))
+					{
+						mMetrics.broadcastLatency(System.nanoTime() - start);
+
+						for (CacheEvent cacheEvent : batch)
+							mMetrics.eventSent(cacheEvent);
+					}
+
+					batch.clear();
+					message = null;
+				}
+				catch (JMSException ex)
+				{
+					if (channel.fail())
+						report(ex);
+
+					if (mShutdown)
+						break;
+
+					LockSupport.parkNanos(this, RETRY_INTERVAL);
+				}
+				catch (RuntimeException ex)
+				{
+					// Provider failures must not terminate the sender thread
+					if (channel.fail())
+						report(asJMSException(ex));
+
+					if (mShutdown)
+						break;
+
+					LockSupport.parkNanos(this, RETRY_INTERVAL);
+				}
+			}
+
+			if (!batch.isEmpty() || !mQueue.isEmpty() || !mPendingFlushes.isEmpty())
+				mLog.warn("Client [" + mIdentifier + "] discarded " + (batch.size() + mQueueDepth.get() + mPendingFlushes.size()) + " unpublished events on shutdown.");
+		}
+	}
+
+	/**
+	 * Channel holds the publishing session and publisher of one connection
+	 * <p>
+	 * Only the sender thread sends, serialized by the channel monitor. Failing and closing the channel do not take that
+	 * monitor, so they do not wait for a send blocked on the broker; JMS allows closing a session while another thread
+	 * uses it.
+	 * </p>
+	 */
+	private class Channel
+	{
+		private final TopicSession mSession;
+		private final TopicPublisher mPublisher;
+		private final Method mAsyncSend;
+		private final Object mCompletionListener;
+		private final Semaphore mInFlight;
+		private final int mMaxInFlight;
+		private final AtomicBoolean mFailed = new AtomicBoolean(false);
+		private volatile boolean mClosed = false;
+
+		Channel(TopicConnection connection, Topic topic, int maxInFlight)
+			throws JMSException
+		{
+			mSession = connection.createTopicSession(false, Session.AUTO_ACKNOWLEDGE);
+			mPublisher = mSession.createPublisher(topic);
+			mPublisher.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+			mInFlight = new Semaphore(maxInFlight);
+			mMaxInFlight = maxInFlight;
+
+			Method asyncSend = null;
+			Object completionListener = null;
+
+			// JMS 2.0 asynchronous send, resolved at runtime as the connector compiles against JMS 1.1
+			try
+			{
+				Class<?> listenerClass = Class.forName("javax.jms.CompletionListener", false, MessageProducer.class.getClassLoader());
+				asyncSend = MessageProducer.class.getMethod("send", Message.class, listenerClass);
+				completionListener = Proxy.newProxyInstance(listenerClass.getClassLoader(), new Class<?>[] { listenerClass }, new CompletionHandler());
+			}
+			catch (ClassNotFoundException ex)
+			{
+				asyncSend = null;
+			}
+			catch (NoSuchMethodException ex)
+			{
+				asyncSend = null;
+			}
+
+			mAsyncSend = asyncSend;
+			mCompletionListener = completionListener;
+
+			mLog.info("Client [" + mIdentifier + "] publishing " + (mAsyncSend != null ? "asynchronously, max in-flight " + maxInFlight : "synchronously"));
+		}
+
+		/**
+		 * Get the region path shared by all given events, or null if they span several regions
+		 */
+		private String getRegionPath(List<CacheEvent> cacheEvents)
+		{
+			String regionPath = cacheEvents.get(0).getRegionPath();
+
+			for (int i = 1; i < cacheEvents.size(); i++)
+			{
+				if (regionPath == null || !regionPath.equals(cacheEvents.get(i).getRegionPath()))
+					return null;
+			}
+
+			return regionPath;
+		}
+
+		/**
+		 * Mark this channel as failed
+		 *
+		 * @return true for the first failure of this channel
+		 */
+		boolean fail()
+		{
+			return mFailed.compareAndSet(false, true);
+		}
+
+		/**
+		 * Send a message
+		 *
+		 * @return false if the message could not be encoded and was discarded
+		 */
+		synchronized boolean send(CacheEventMessage cacheEventMessage)
+			throws JMSException
+		{
+			if (mClosed)
+				throw new JMSException("Client [" + mIdentifier + "] publishing session is closed.");
+
+			Message message;
+			Object span = mTracer.begin(CacheEventTracer.Phase.ENCODE);
+
+			try
+			{
+				if (mFormat == CacheEventFormat.BINARY)
+				{
+					BytesMessage bytesMessage = mSession.createBytesMessage();
+					bytesMessage.writeBytes(BinaryCacheEventCodec.encode(cacheEventMessage));
+					message = bytesMessage;
+				}
+				else
+					message = mSession.createTextMessage(XMLCacheEventCodec.encode(cacheEventMessage));
+			}
+			catch (IllegalArgumentException ex)
+			{
+				mMetrics.encodeError();
+				mLog.error("Client [" + mIdentifier + "] discarded " + cacheEventMessage.getEvents().size() + " events which could not be encoded.", ex);
+
+				return false;
+			}
+
+			mTracer.end(span, JMSXMLCacheChannelConnector.CONNECTOR_TYPE, cacheEventMessage);
+			span = mTracer.begin(CacheEventTracer.Phase.SEND);
+
+			message.setStringProperty("Client", mIdentifier);
+			message.setStringProperty(JMSXMLCacheChannelConnector.PROPERTY_FORMAT, mFormat.getName());
+
+			if (cacheEventMessage.getOriginTime() > 0)
+				message.setLongProperty(JMSXMLCacheChannelConnector.PROPERTY_ORIGIN_TIME, cacheEventMessage.getOriginTime());
+
+			// Messages spanning multiple regions carry no region path and pass every subscriber selector
+			String regionPath = getRegionPath(cacheEventMessage.getEvents());
+
+			if (regionPath != null)
+				message.setStringProperty(JMSXMLCacheChannelConnector.PROPERTY_REGION_PATH, regionPath);
+
+			if (mAsyncSend == null)
+			{
+				mPublisher.send(message);
+				mTracer.end(span, JMSXMLCacheChannelConnector.CONNECTOR_TYPE, cacheEventMessage);
+
+				return true;
+			}
+
+			// Bounded wait, so a closed channel does not keep the sender waiting for completions which never arrive
+			try
+			{
+				if (!mInFlight.tryAcquire(SEND_TIMEOUT, TimeUnit.MILLISECONDS))
+					throw new JMSException("Client [" + mIdentifier + "] no asynchronous send completed within " + SEND_TIMEOUT + "ms.");
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				throw new JMSException("Client [" + mIdentifier + "] interrupted while waiting for an asynchronous send to complete.");
+			}
+
+			try
+			{
+				mAsyncSend.invoke(mPublisher, message, mCompletionListener);
+			}
+			catch (IllegalAccessException ex)
+			{
+				mInFlight.release();
+				throw asJMSException(ex);
+			}
+			catch (InvocationTargetException ex)
+			{
+				mInFlight.release();
+				throw asJMSException(ex.getCause());
+			}
+
+			mTracer.end(span, JMSXMLCacheChannelConnector.CONNECTOR_TYPE, cacheEventMessage);
+
+			return true;
+		}
+
+		/**
+		 * Close the publishing session without waiting for a send in progress on the sender thread
+		 */
+		void close()
+		{
+			mClosed = true;
+
+			// Allow outstanding asynchronous sends to complete before closing the session
+			if (mAsyncSend != null)
+			{
+				try
+				{
+					mInFlight.tryAcquire(mMaxInFlight, 1, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			try
+			{
+				mPublisher.close();
+			}
+			catch (JMSException ex) {}
+
+			try
+			{
+				mSession.close();
+			}
+			catch (JMSException ex) {}
+		}
+
+		/**
+		 * CompletionHandler implements javax.jms.CompletionListener through a dynamic proxy
+		 */
+		private class CompletionHandler implements InvocationHandler
+		{
+			public Object invoke(Object proxy, Method method, Object[] args)
+			{
+				String name = method.getName();
+
+				if (name.equals("onCompletion"))
+					mInFlight.release();
+				else if (name.equals("onException"))
+				{
+					mInFlight.release();
+
+					if (fail())
+						report(asJMSException((Throwable)args[1]));
+				}
+				else if (name.equals("hashCode"))
+					return Integer.valueOf(System.identityHashCode(proxy));
+				else if (name.equals("equals"))
+					return Boolean.valueOf(proxy == args[0]);
+				else if (name.equals("toString"))
+					return "CompletionListener [" + mIdentifier + "]";
+
+				return null;
+			}
+		}
+	}
+
+	private static JMSException asJMSException(Throwable cause)
+	{
+		if (cause instanceof JMSException)
+			return (JMSException)cause;
+
+		JMSException exception = new JMSException(String.valueOf(cause));
+
+		if (cause instanceof Exception)
+			exception.setLinkedException((Exception)cause);
+
+		return exception;
+	}
+}
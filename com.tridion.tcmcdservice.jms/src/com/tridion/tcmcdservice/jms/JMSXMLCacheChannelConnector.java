@@ -5,62 +5,114 @@
  */
 package com.tridion.tcmcdservice.jms;
 
-import java.io.IOException;
-import java.io.Serializable;
-import java.io.StringReader;
-import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
 
-import javax.jms.DeliveryMode;
+import javax.jms.BytesMessage;
 import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageListener;
-import javax.jms.Session;
 import javax.jms.TextMessage;
 import javax.jms.Topic;
-import javax.jms.TopicConnection;
 import javax.jms.TopicConnectionFactory;
-import javax.jms.TopicPublisher;
-import javax.jms.TopicSession;
-import javax.jms.TopicSubscriber;
 import javax.naming.Context;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 
 import com.tridion.cache.CacheChannelEventListener;
+import com.tridion.cache.CacheException;
 import com.tridion.cache.CacheEvent;
 import com.tridion.cache.JMSCacheChannelConnector;
-import com.tridion.cache.KeyGenerator;
 import com.tridion.configuration.Configuration;
 import com.tridion.configuration.ConfigurationException;
+import com.tridion.tcmcdservice.common.BinaryCacheEventCodec;
+import com.tridion.tcmcdservice.common.CacheEventFormat;
+import com.tridion.tcmcdservice.common.CacheEventMessage;
+import com.tridion.tcmcdservice.common.CacheEventTracer;
+import com.tridion.tcmcdservice.common.ConnectorMetrics;
+import com.tridion.tcmcdservice.common.ExponentialBackoff;
+import com.tridion.tcmcdservice.common.RegionFilter;
+import com.tridion.tcmcdservice.common.ReplayBuffer;
+import com.tridion.tcmcdservice.common.SequenceTracker;
+import com.tridion.tcmcdservice.common.StripedEventDispatcher;
+import com.tridion.tcmcdservice.common.XMLCacheEventCodec;
 
 /**
  * JMSXMLCacheConnector overrides the default com.tridion.cache.JMSCacheChannelConnector
  * and provides XML formatted cache event messages over JMS.
+ * <p>
+ * Optionally cache events are published in the compact binary format as a {@link BytesMessage}, 
+ * the "Format" message property identifies the format so XML and binary publishers can share a topic.
+ * </p>
+ * <p>
+ * When "BatchSize" is configured larger than one, published events are coalesced into a single message which is sent
+ * once the batch is full or once its oldest event is older than "BatchLinger" milliseconds.
+ * </p>
+ * <p>
+ * Publishing is asynchronous: {@link #broadcastEvent} queues the event for a dedicated sender thread, see
+ * {@link JMSEventPublisher}. "PublishQueueSize" bounds the number of queued events and "MaxInFlight" the number of
+ * unacknowledged asynchronous sends for JMS 2.0 providers.
+ * </p>
+ * <p>
+ * Received events are passed to the listener on the JMS delivery thread, unless "DispatchStripes" is configured larger
+ * than zero. In that case events are handed to a {@link StripedEventDispatcher} with "DispatchQueueSize" queued events
+ * per stripe and "DispatchOverflow" ("block" or "flush") as overflow policy.
+ * </p>
+ * <p>
+ * An optional "RegionFilter" element lists "Include" and "Exclude" region path prefixes. Published messages are tagged
+ * with a "RegionPath" property and the subscriber uses a message selector so the broker drops messages for regions which
+ * are not of interest. Flushes of all regions always pass the filter. Messages spanning several regions are filtered
+ * after they are received.
+ * </p>
+ * <p>
+ * Failed connection attempts are retried with a jittered exponential backoff between "ReconnectInterval" and
+ * "ReconnectMaxInterval" milliseconds. Events broadcast while disconnected are coalesced in a replay buffer of at most
+ * "ReplayBufferSize" events which is published after reconnecting, a buffer overflow is replayed as a single flush.
+ * </p>
+ * <p>
+ * Published messages carry a per-publisher sequence number. As non-persistent messages can be lost, for example when
+ * the broker restarts, received sequence numbers are tracked per publisher and a gap is replaced by a flush of the
+ * regions the lost messages may have touched, see {@link SequenceTracker}. Gap detection is disabled when a
+ * "RegionFilter" is configured, as the broker then only delivers part of the messages of a publisher.
+ * </p>
+ * <p>
+ * Published messages carry their creation time in the payload and as "OriginTime" property. Receivers record the
+ * propagation delay per publisher in the {@link ConnectorMetrics} and log a summary every "PropagationReportInterval"
+ * milliseconds (default 60000, 0 disables the summary). The delay includes the clock offset between both hosts.
+ * </p>
+ * <p>
+ * Connectors in the same JVM with identical JNDI properties and connection factory share a single JMS connection and
+ * subscriber, see {@link JMSConnectionRegistry}. Setting "ShareConnection" to false gives the connector a private
+ * connection.
+ * </p>
  */
 public class JMSXMLCacheChannelConnector extends JMSCacheChannelConnector 
 {
 	private static Logger mLog = LoggerFactory.getLogger(JMSXMLCacheChannelConnector.class);
-	private static DocumentBuilderFactory mDocumentFactory = DocumentBuilderFactory.newInstance();
+	
+	/**
+	 * JMS message property identifying the {@link CacheEventFormat} of a message
+	 */
+	public static final String PROPERTY_FORMAT = "Format";
+	
+	/**
+	 * JMS message property holding the region path shared by all events in a message
+	 */
+	public static final String PROPERTY_REGION_PATH = "RegionPath";
+	
+	/**
+	 * JMS message property holding the time in milliseconds at which the publisher created a message
+	 */
+	public static final String PROPERTY_ORIGIN_TIME = "OriginTime";
+	
+	static final String CONNECTOR_TYPE = "JMS";
+	private static final CacheEventTracer mTracer = CacheEventTracer.getInstance();
 	
 	private static CacheChannelEventListener mEmptyListener = new CacheChannelEventListener()
 	{
@@ -69,7 +121,30 @@ public class JMSXMLCacheChannelConnector extends JMSCacheChannelConnector
 	    public void handleConnect() {}
 	};
 	
-	private CacheChannelEventListener mListener = mEmptyListener;
+	private volatile CacheChannelEventListener mListener = mEmptyListener;
+	private volatile StripedEventDispatcher mDispatcher = null;
+	private RegionFilter mRegionFilter = RegionFilter.ALL;
+	private final SequenceTracker mSequenceTracker = new SequenceTracker();
+	private volatile ConnectorMetrics mMetrics = null;
+	
+	/**
+	 * Forwards dispatched events to the currently configured listener
+	 */
+	private final CacheChannelEventListener mDispatchListener = new CacheChannelEventListener()
+	{
+		public void handleRemoteEvent(CacheEvent event) 
+		{
+			Object span = mTracer.begin(CacheEventTracer.Phase.DISPATCH);
+			long start = System.nanoTime();
+			
+			mListener.handleRemoteEvent(event);
+			
+			mMetrics.dispatchLatency(System.nanoTime() - start);
+			mTracer.end(span, CONNECTOR_TYPE, event, 1);
+		}
+	    public void handleDisconnect() {}	    
+	    public void handleConnect() {}
+	};
 	
 	/**
 	 * Apply configuration to the JMSXMLCacheChannelConnector
@@ -99,68 +174,312 @@ public class JMSXMLCacheChannelConnector extends JMSCacheChannelConnector
 		
 		String topic = configuration.getAttribute("Topic", "TridionCacheChannel");
 	    String factory = configuration.getAttribute("TopicConnectionFactory", "TopicConnectionFactory");
+	    CacheEventFormat format;
 	    
-	    this.client = new JMSXMLClient(contextProperties, factory, topic);
-    		    
-	    mLog.info("JMS XML configuration TopicConnectionFactory: " + factory + " topic: " + topic);		
+	    try
+	    {
+	    	format = CacheEventFormat.fromName(configuration.getAttribute("Format", CacheEventFormat.XML.getName()));
+	    }
+	    catch (IllegalArgumentException ex)
+	    {
+	    	throw new ConfigurationException(ex.getMessage());
+	    }
+	    
+	    int batchSize = getIntAttribute(configuration, "BatchSize", 1);
+	    int batchLinger = getIntAttribute(configuration, "BatchLinger", 50);
+	    int queueSize = getIntAttribute(configuration, "PublishQueueSize", 10000);
+	    int maxInFlight = getIntAttribute(configuration, "MaxInFlight", 100);
+	    int dispatchStripes = getIntAttribute(configuration, "DispatchStripes", 0);
+	    int dispatchQueueSize = getIntAttribute(configuration, "DispatchQueueSize", 1000);
+	    StripedEventDispatcher.OverflowPolicy dispatchOverflow;
+	    
+	    try
+	    {
+	    	dispatchOverflow = StripedEventDispatcher.OverflowPolicy.fromName(configuration.getAttribute("DispatchOverflow", StripedEventDispatcher.OverflowPolicy.BLOCK.getName()));
+	    }
+	    catch (IllegalArgumentException ex)
+	    {
+	    	throw new ConfigurationException(ex.getMessage());
+	    }
+	    
+	    int reconnectInterval = getIntAttribute(configuration, "ReconnectInterval", 1000);
+	    int reconnectMaxInterval = getIntAttribute(configuration, "ReconnectMaxInterval", 60000);
+	    int replayBufferSize = getIntAttribute(configuration, "ReplayBufferSize", 10000);
+	    int propagationReportInterval = getIntAttribute(configuration, "PropagationReportInterval", 60000);
+	    boolean shareConnection = Boolean.parseBoolean(configuration.getAttribute("ShareConnection", "true").trim());
+
+	    mRegionFilter = getRegionFilter(configuration);
+	    
+	    JMSXMLClient client = new JMSXMLClient(contextProperties, factory, topic, format);
+	    client.setRegionFilter(mRegionFilter);
+	    client.setBatching(batchSize, batchLinger);
+	    client.setPublishLimits(queueSize, maxInFlight);
+	    client.setReconnect(reconnectInterval, reconnectMaxInterval, replayBufferSize);
+	    client.setShareConnection(shareConnection);
+
+	    if (this.client instanceof JMSXMLClient)
+	    	((JMSXMLClient)this.client).getMetrics().unregister();
+	    
+	    this.client = client;
+	    mMetrics = client.getMetrics();
+	    mMetrics.setReportInterval(propagationReportInterval);
+
+	    if (mDispatcher != null)
+	    	mDispatcher.shutdown(5000);
+
+	    mDispatcher = dispatchStripes > 0 ? new StripedEventDispatcher("JMSXML", mDispatchListener, dispatchStripes, dispatchQueueSize, dispatchOverflow) : null;
+
+	    mLog.info("JMS XML configuration TopicConnectionFactory: " + factory + " topic: " + topic + " format: " + format.getName() + " batch size: " + batchSize + " batch linger: " + batchLinger + "ms" +
+	    		" publish queue size: " + queueSize + " max in-flight: " + maxInFlight + " dispatch stripes: " + dispatchStripes +
+	    		" reconnect interval: " + reconnectInterval + "-" + reconnectMaxInterval + "ms replay buffer size: " + replayBufferSize + " region filter: " + mRegionFilter +
+	    		" propagation report interval: " + propagationReportInterval + "ms share connection: " + shareConnection);
+	}
+	
+	/**
+	 * Read the optional "RegionFilter" element from the given {@link Configuration}
+	 */
+	private static RegionFilter getRegionFilter(Configuration configuration)
+		throws ConfigurationException
+	{
+		if (!configuration.hasChild("RegionFilter"))
+			return RegionFilter.ALL;
+		
+		Configuration filterConfig = configuration.getChild("RegionFilter");
+		List<String> includes = new ArrayList<String>();
+		List<String> excludes = new ArrayList<String>();
+		
+		for (Configuration config : filterConfig.getChildrenByName("Include"))
+			includes.add(config.getAttribute("Prefix"));
+		
+		for (Configuration config : filterConfig.getChildrenByName("Exclude"))
+			excludes.add(config.getAttribute("Prefix"));
+		
+		return new RegionFilter(includes, excludes);
+	}
+	
+	/**
+	 * Close this JMSXMLCacheChannelConnector, queued events are published before the connection is closed
+	 */
+	@Override
+	public void close()
+	{
+		if (this.client instanceof JMSXMLClient)
+			((JMSXMLClient)this.client).shutdown();
+		
+		super.close();
+		
+		if (mMetrics != null)
+			mMetrics.unregister();
+		
+		if (mDispatcher != null)
+			mDispatcher.shutdown(5000);
+	}
+	
+	/**
+	 * Broadcast a {@link CacheEvent}, events which cannot be sent while disconnected are retained in the replay buffer
+	 */
+	@Override
+	public void broadcastEvent(CacheEvent event)
+		throws CacheException
+	{
+		Object span = mTracer.begin(CacheEventTracer.Phase.PUBLISH);
+		
+		try
+		{
+			super.broadcastEvent(event);
+		}
+		catch (CacheException ex)
+		{
+			if (!(this.client instanceof JMSXMLClient))
+				throw ex;
+
+			mLog.debug("broadcastEvent: Disconnected, buffering " + event + ": " + ex.getMessage());
+			((JMSXMLClient)this.client).bufferEvent(event);
+		}
+		
+		mTracer.end(span, CONNECTOR_TYPE, event, 1);
+	}
+
+	/**
+	 * Read an optional integer attribute from the given {@link Configuration}
+	 */
+	private static int getIntAttribute(Configuration configuration, String name, int defaultValue)
+		throws ConfigurationException
+	{
+		String value = configuration.getAttribute(name, null);
+		
+		try
+		{
+			return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+		}
+		catch (NumberFormatException ex)
+		{
+			throw new ConfigurationException("Invalid value '" + value + "' for " + name + ", expected an integer.");
+		}
 	}
 	
 	@Override
 	protected void handleJmsMessage(Message message)
 	{
-		if (message instanceof TextMessage) 
+		Object span = mTracer.begin(CacheEventTracer.Phase.RECEIVE);
+		CacheEventMessage cacheEventMessage = null;
+		
+		try
+		{
+			if (message instanceof BytesMessage && CacheEventFormat.BINARY.getName().equals(message.getStringProperty(PROPERTY_FORMAT)))
+				cacheEventMessage = handleBinaryMessage((BytesMessage)message);
+			else if (message instanceof TextMessage)
+				cacheEventMessage = handleXmlMessage((TextMessage)message);
+			else
+				mLog.warn("Ignoring unexpected message, type: " + (message != null ? message.getClass().getName() : "null"));
+		}
+		catch (JMSException ex)
+		{
+			mLog.error("handleJmsMessage: JMS error.", ex);
+		}
+		
+		if (cacheEventMessage != null)
+			mTracer.end(span, CONNECTOR_TYPE, cacheEventMessage);
+	}
+	
+	/**
+	 * Decode and dispatch an XML message
+	 * 
+	 * @return Decoded {@link CacheEventMessage}, or null if the message could not be read
+	 */
+	private CacheEventMessage handleXmlMessage(TextMessage message)
+		throws JMSException
+	{
+		String text = message.getText();
+		
+		if (text != null)
 		{
 			try
 			{
-				String text = ((TextMessage)message).getText();
+				Object span = mTracer.begin(CacheEventTracer.Phase.DECODE);
+				CacheEventMessage cacheEventMessage = XMLCacheEventCodec.decodeMessage(text);
+				mTracer.end(span, CONNECTOR_TYPE, cacheEventMessage);
 				
-				if (text != null)
-				{
-		            DocumentBuilder documentBuilder = mDocumentFactory.newDocumentBuilder();		            
-		            InputSource inputSource = new InputSource(new StringReader(text));		            
-		            Document document = documentBuilder.parse(inputSource);
-		            
-		            Element element = document.getDocumentElement();
-		            
-		            if (element != null && element.getTagName() == "cacheEvent")
-		            {
-		            	String regionPath = element.getAttribute("regionPath");
-		            	String key = element.getAttribute("key");
-		            	int eventType = Integer.parseInt(element.getAttribute("type"));
-		            	
-				    	// Convert to the original serializable value as per com.tridion.cache.KeyGenerator
-				    	Serializable serializableKey = key.contains(KeyGenerator.KEY_DELIMITER) ? key : Integer.valueOf(key);
-		            	
-	            		mListener.handleRemoteEvent(new CacheEvent(regionPath, serializableKey, eventType));		            	
-		            }
-				}				
-				else
-					mLog.warn("Ignoring unexpected message data received on topic, data: " + (text != null ? text : "null"));
-			}
-			catch (JMSException ex)
-			{
-				mLog.error("handleJmsMessage: JMS error.", ex);
-			}
-			catch (ParserConfigurationException ex)
-			{
-				mLog.error("handleJmsMessage: Error initializing XML parser.", ex);
-			}
-			catch (SAXException ex) 
-			{
-				mLog.error("handleJmsMessage: Error reading input XML text.", ex);				
-			}
-			catch (IOException ex) 
-			{
-				mLog.error("handleJmsMessage: Error reading input XML text.", ex);
+				handleMessage(cacheEventMessage, message);
+				return cacheEventMessage;
 			}
 			catch (IllegalArgumentException ex)
 			{
+				mMetrics.decodeError();
 				mLog.error("handleJmsMessage: Error reading input XML text.", ex);		
-			}			
-	    }
+			}
+		}
 		else
-			mLog.warn("Ignoring unexpected message, type: " + (message != null ? message.getClass().getName() : "null"));		
-	}	
+			mLog.warn("Ignoring unexpected message data received on topic, data: null");
+		
+		return null;
+	}
+	
+	/**
+	 * Decode and dispatch a binary message
+	 * 
+	 * @return Decoded {@link CacheEventMessage}, or null if the message could not be read
+	 */
+	private CacheEventMessage handleBinaryMessage(BytesMessage message)
+		throws JMSException
+	{
+		byte[] data = new byte[(int)message.getBodyLength()];
+		message.readBytes(data);
+		
+		try
+		{
+			Object span = mTracer.begin(CacheEventTracer.Phase.DECODE);
+			CacheEventMessage cacheEventMessage = BinaryCacheEventCodec.decodeMessage(data);
+			mTracer.end(span, CONNECTOR_TYPE, cacheEventMessage);
+			
+			handleMessage(cacheEventMessage, message);
+			return cacheEventMessage;
+		}
+		catch (IllegalArgumentException ex)
+		{
+			mMetrics.decodeError();
+			mLog.error("handleJmsMessage: Error reading input binary data.", ex);		
+			return null;
+		}
+	}
+	
+	/**
+	 * Dispatch the events of a received message, preceded by flushes for messages lost before it
+	 */
+	private void handleMessage(CacheEventMessage message, Message jmsMessage)
+		throws JMSException
+	{
+		recordPropagationDelay(message, jmsMessage);
+		
+		if (mRegionFilter.isEmpty())
+		{
+			for (CacheEvent cacheEvent : mSequenceTracker.track(message))
+				dispatch(cacheEvent);
+		}
+		
+		for (CacheEvent cacheEvent : message.getEvents())
+			dispatch(cacheEvent);
+	}
+	
+	/**
+	 * Record the propagation delay of a received message, using the JMS properties for payloads without origin time
+	 */
+	private void recordPropagationDelay(CacheEventMessage message, Message jmsMessage)
+		throws JMSException
+	{
+		long originTime = message.getOriginTime();
+		String origin = message.getPublisher();
+		
+		if (originTime <= 0 && jmsMessage.propertyExists(PROPERTY_ORIGIN_TIME))
+		{
+			originTime = jmsMessage.getLongProperty(PROPERTY_ORIGIN_TIME);
+			
+			if (origin == null)
+				origin = jmsMessage.getStringProperty("Client");
+		}
+		
+		if (originTime <= 0)
+			return;
+		
+		mMetrics.propagationDelay(origin, System.currentTimeMillis() - originTime);
+		String report = mMetrics.takePropagationReport();
+		
+		if (report != null)
+			mLog.info(report);
+	}
+	
+	/**
+	 * Number of sequence gaps detected in received messages
+	 */
+	public long getSequenceGapCount()
+	{
+		return mSequenceTracker.getGapCount();
+	}
+	
+	/**
+	 * {@link ConnectorMetrics} of the configured client, also registered with JMX
+	 */
+	public ConnectorMetrics getMetrics()
+	{
+		return mMetrics;
+	}
+	
+	/**
+	 * Pass a received {@link CacheEvent} to the listener, through the {@link StripedEventDispatcher} if configured
+	 */
+	private void dispatch(CacheEvent cacheEvent)
+	{
+		if (!mRegionFilter.matches(cacheEvent.getRegionPath()))
+			return;
+		
+		mMetrics.eventReceived(cacheEvent);
+		StripedEventDispatcher dispatcher = mDispatcher;
+		
+		if (dispatcher != null)
+			dispatcher.dispatch(cacheEvent);
+		else
+			mDispatchListener.handleRemoteEvent(cacheEvent);
+	}
 	
 	/**
 	 * Configure the {@link CacheChannelEventListener} for this CacheChannelConnector
@@ -181,14 +500,21 @@ public class JMSXMLCacheChannelConnector extends JMSCacheChannelConnector
 		private Properties mProperties;
 		private String mFactoryName;
 		private String mTopicName;
+		private CacheEventFormat mFormat;
+		private RegionFilter mRegionFilter = RegionFilter.ALL;
 		
 		private String mIdentifier = "JMSXML-" + UUID.randomUUID().toString();
 		
+		private TopicConnectionFactory mFactory;
 		private Topic mTopic;	
-		private TopicConnection mConnection;
-		private TopicSession mSession;
-		private TopicSubscriber mSubscriber;
-		private TopicPublisher mPublisher;
+		private JMSConnectionRegistry.Registration mRegistration;
+		private JMSEventPublisher mEventPublisher;
+		private final ConnectorMetrics mMetrics = new ConnectorMetrics(CONNECTOR_TYPE, mIdentifier);
+		
+		private ExponentialBackoff mBackoff = new ExponentialBackoff(1000, 60000);
+		private ReplayBuffer mReplayBuffer = new ReplayBuffer(10000);
+		private volatile boolean mConnected = false;
+		private boolean mShareConnection = true;
 		
 		/**
 		 * 
@@ -198,126 +524,238 @@ public class JMSXMLCacheChannelConnector extends JMSCacheChannelConnector
 		 * @param topicName JMS subscription topic
 		 */
 		public JMSXMLClient(Properties jndiProperties, String factoryName, String topicName)
+		{
+			this(jndiProperties, factoryName, topicName, CacheEventFormat.XML);
+		}
+		
+		/**
+		 * 
+		 * 
+		 * @param jndiProperties JNDI context properties
+		 * @param factoryName JMS factory class name
+		 * @param topicName JMS subscription topic
+		 * @param format {@link CacheEventFormat} used for published messages
+		 */
+		public JMSXMLClient(Properties jndiProperties, String factoryName, String topicName, CacheEventFormat format)
 		{
 			mProperties = jndiProperties;
 			mFactoryName = factoryName;
 			mTopicName = topicName;
+			mFormat = format;
+			mEventPublisher = new JMSEventPublisher(mIdentifier, format, mMetrics);
+			
+			mMetrics.setQueueDepth(new ConnectorMetrics.Gauge()
+			{
+				public long getValue()
+				{
+					return mEventPublisher.getQueueDepth();
+				}
+			});
 			
-			mLog.info("Initializing: Client [" + mIdentifier + "], Factory [" + factoryName + "] Topic [" + topicName + "]");
+			if (!mMetrics.register())
+				mLog.warn("Client [" + mIdentifier + "] unable to register JMX metrics.");
+			
+			mLog.info("Initializing: Client [" + mIdentifier + "], Factory [" + factoryName + "] Topic [" + topicName + "] Format [" + format.getName() + "]");
 		}		
 		
-		@Override
-		public void connect(MessageListener messageListener, ExceptionListener exceptionListener)
-			throws JMSException, NamingException 
+		/**
+		 * Configure the {@link RegionFilter} applied by the broker to received messages
+		 * 
+		 * @param regionFilter {@link RegionFilter}
+		 */
+		public void setRegionFilter(RegionFilter regionFilter)
 		{
-			Context context = mProperties != null ? new InitialContext(mProperties) : new InitialContext();
-			  
-			TopicConnectionFactory factory = (TopicConnectionFactory)context.lookup(mFactoryName);
-			mConnection = factory.createTopicConnection();
-			mConnection.setClientID(mIdentifier);
-			mConnection.setExceptionListener(exceptionListener);
-			
-			mTopic = (Topic)context.lookup(mTopicName);
-			
-			mSession = mConnection.createTopicSession(false, TopicSession.AUTO_ACKNOWLEDGE);
-			
-			mSession = mConnection.createTopicSession(false, Session.AUTO_ACKNOWLEDGE);
-			
-			mConnection.start();
-			
-			mPublisher = mSession.createPublisher(mTopic);
-			mPublisher.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+			mRegionFilter = regionFilter;
+		}
+		
+		/**
+		 * Configure reconnect behaviour
+		 * 
+		 * @param interval Delay in milliseconds after the first failed connection attempt
+		 * @param maxInterval Maximum delay in milliseconds between connection attempts
+		 * @param replayBufferSize Maximum number of distinct events retained while disconnected
+		 */
+		public void setReconnect(long interval, long maxInterval, int replayBufferSize)
+		{
+			mBackoff = new ExponentialBackoff(interval, maxInterval);
+			mReplayBuffer = new ReplayBuffer(replayBufferSize);
+		}
 		
-			//mSubscriber = mSession.createSubscriber(mTopic, "Client <> '" + mUniqueIdentifier + "'", true);
-			mSubscriber = mSession.createSubscriber(mTopic, null, true);
-			mSubscriber.setMessageListener(messageListener);
+		/**
+		 * Configure if the JMS connection is shared with other clients using the same settings in this JVM
+		 * 
+		 * @param shareConnection false to open a private connection
+		 */
+		public void setShareConnection(boolean shareConnection)
+		{
+			mShareConnection = shareConnection;
+		}
+		
+		/**
+		 * Retain a {@link CacheEvent} which could not be broadcast until the connection is restored
+		 * 
+		 * @param cacheEvent {@link CacheEvent}
+		 */
+		public void bufferEvent(CacheEvent cacheEvent)
+		{
+			synchronized (mReplayBuffer)
+			{
+				boolean overflow = mReplayBuffer.isOverflow();
+				
+				if (mConnected)
+					mEventPublisher.publish(cacheEvent);
+				else if (!mReplayBuffer.add(cacheEvent) && !overflow)
+					mLog.warn("Client [" + mIdentifier + "] replay buffer overflow, a cache flush will be published after reconnecting.");
+			}
+		}
+		
+		/**
+		 * Configure batching of published cache events
+		 * 
+		 * @param batchSize Maximum number of events per message, a value of one or less disables batching
+		 * @param batchLinger Maximum time in milliseconds an event waits for its batch to fill up
+		 */
+		public void setBatching(int batchSize, long batchLinger)
+		{
+			mEventPublisher.setBatching(batchSize, batchLinger);
+		}
+		
+		/**
+		 * Configure the bounds of the asynchronous publisher
+		 * 
+		 * @param queueSize Maximum number of events waiting to be published
+		 * @param maxInFlight Maximum number of asynchronously sent messages awaiting completion
+		 */
+		public void setPublishLimits(int queueSize, int maxInFlight)
+		{
+			mEventPublisher.setLimits(queueSize, maxInFlight);
+		}
+		
+		/**
+		 * Number of events waiting to be published
+		 */
+		public int getPublishQueueDepth()
+		{
+			return mEventPublisher.getQueueDepth();
+		}
+		
+		/**
+		 * {@link ConnectorMetrics} of this client
+		 */
+		public ConnectorMetrics getMetrics()
+		{
+			return mMetrics;
+		}
+		
+		/**
+		 * Publish all queued events and stop the publisher thread
+		 */
+		public void shutdown()
+		{
+			mEventPublisher.shutdown(5000);
 		}
 		
 		@Override
-		public void broadcastEvent(CacheEvent cacheEvent)
-			throws JMSException 
+		public void connect(MessageListener messageListener, ExceptionListener exceptionListener)
+			throws JMSException, NamingException 
 		{
+			long remainingDelay = mBackoff.getRemainingDelay();
+			
+			if (remainingDelay > 0)
+				throw new JMSException("Client [" + mIdentifier + "] reconnect delayed, next attempt in " + remainingDelay + "ms.");
+			
 			try
-			{		
-				DocumentBuilder builder = mDocumentFactory.newDocumentBuilder(); 
-				Document document = builder.newDocument();
-		
-				Element element = document.createElement("cacheEvent");
-				document.appendChild(element);		
+			{
+				lookup();
 				
-				element.setAttribute("regionPath", cacheEvent.getRegionPath());
-				element.setAttribute("key", cacheEvent.getKey().toString());
-				element.setAttribute("type", Integer.toString(cacheEvent.getType()));
-		
-				DOMSource domSource = new DOMSource(document);
-				StringWriter writer = new StringWriter();
-				StreamResult result = new StreamResult(writer);
-				TransformerFactory transformerFactory = TransformerFactory.newInstance();
-				Transformer transformer = transformerFactory.newTransformer();
-				transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+				// Connection and subscriber are shared with other clients using the same settings in this JVM
+				mRegistration = JMSConnectionRegistry.register(mProperties, mFactoryName, mFactory, mTopic, mRegionFilter.toMessageSelector(PROPERTY_REGION_PATH),
+					mIdentifier, messageListener, exceptionListener, mShareConnection);
 				
-				transformer.transform(domSource, result);
-		       
-				TextMessage message = mSession.createTextMessage(writer.toString());
-				message.setStringProperty("Client", mIdentifier);
-				mPublisher.send(message);
+				// Publishing uses a dedicated session owned by the publisher thread
+				mEventPublisher.attach(mRegistration.getConnection(), mTopic, exceptionListener);
 			}
 			catch (JMSException ex)
-			{			
-				mLog.warn("sendMessage: Remote connection error.", ex);
+			{
+				mLog.warn("Client [" + mIdentifier + "] connection failed, next attempt in " + mBackoff.failure() + "ms: " + ex.getMessage());
 				throw ex;
 			}
-			catch (TransformerException ex) 
+			catch (NamingException ex)
 			{
-				mLog.error("sendMessage: Error creating XML.", ex);				
+				// Repeat the JNDI lookup on the next attempt
+				mFactory = null;
+				mTopic = null;
+				
+				mLog.warn("Client [" + mIdentifier + "] JNDI lookup failed, next attempt in " + mBackoff.failure() + "ms: " + ex.getMessage());
+				throw ex;
 			}
-			catch (ParserConfigurationException ex) 
+			
+			mBackoff.success();
+			
+			synchronized (mReplayBuffer)
 			{
-				mLog.error("sendMessage: Error initializing XML parser.", ex);				
+				List<CacheEvent> cacheEvents = mReplayBuffer.drain();
+				
+				if (!cacheEvents.isEmpty())
+					mLog.info("Client [" + mIdentifier + "] replaying " + cacheEvents.size() + " events broadcast while disconnected.");
+				
+				for (CacheEvent cacheEvent : cacheEvents)
+					mEventPublisher.publish(cacheEvent);
+				
+				mConnected = true;
+				mMetrics.connected();
 			}
 		}
 		
-		@Override
-		public void cleanupIgnoringErrors() 
+		/**
+		 * Look up the {@link TopicConnectionFactory} and {@link Topic}, the results are reused by subsequent connections
+		 */
+		private void lookup()
+			throws NamingException
 		{
-			try
-			{
-				if (mSubscriber != null)
-					mSubscriber.close();
-			}
-			catch (JMSException ex) {}
+			if (mFactory != null && mTopic != null)
+				return;
 			
-			mSubscriber = null;
+			Context context = mProperties != null ? new InitialContext(mProperties) : new InitialContext();
 			
 			try
 			{
-				if (mPublisher != null)
-					mPublisher.close();
+				mFactory = (TopicConnectionFactory)context.lookup(mFactoryName);
+				mTopic = (Topic)context.lookup(mTopicName);
 			}
-			catch (JMSException ex) {}
-			
-			mPublisher = null;
-			
-			try		
+			finally
 			{
-				if (mSession != null)
-					mSession.close();
+				context.close();
 			}
-			catch (JMSException ex) {}
-			
-			mSession = null;
-
-			try
+		}
+		
+		@Override
+		public void broadcastEvent(CacheEvent cacheEvent)
+			throws JMSException 
+		{
+			if (!mConnected)
 			{
-				if (mConnection != null)
-				{
-					mConnection.stop();
-					mConnection.close();
-				}
+				bufferEvent(cacheEvent);
+				return;
 			}
-			catch (JMSException ex) {}
 			
-			mConnection = null;			
+			mEventPublisher.publish(cacheEvent);
+		}
+		
+		@Override
+		public synchronized void cleanupIgnoringErrors() 
+		{
+			if (mConnected)
+				mMetrics.disconnected();
+			
+			mConnected = false;
+			
+			mEventPublisher.detach();
+			
+			if (mRegistration != null)
+				JMSConnectionRegistry.release(mRegistration);
+			
+			mRegistration = null;
 		}		
     }
 }
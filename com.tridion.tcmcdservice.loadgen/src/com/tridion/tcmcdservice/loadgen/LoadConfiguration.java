@@ -0,0 +1,103 @@
+/**
+ *   @description Load Configuration
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.loadgen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.tridion.configuration.Configuration;
+import com.tridion.configuration.ConfigurationException;
+
+/**
+ * LoadConfiguration is an in-memory {@link Configuration} for the connectors of the {@link LoadGenerator}, in place of
+ * the cd_storage_conf.xml elements. Attributes and parameters share the same values.
+ */
+class LoadConfiguration implements Configuration
+{
+	private final Map<String, String> mValues = new HashMap<String, String>();
+	private final Map<String, List<Configuration>> mChildren = new HashMap<String, List<Configuration>>();
+
+	/**
+	 * Set an attribute or parameter value
+	 *
+	 * @return This {@link LoadConfiguration}
+	 */
+	LoadConfiguration set(String name, String value)
+	{
+		mValues.put(name, value);
+		return this;
+	}
+
+	/**
+	 * Add a child element
+	 *
+	 * @return The added child {@link LoadConfiguration}
+	 */
+	LoadConfiguration addChild(String name)
+	{
+		List<Configuration> children = mChildren.get(name);
+
+		if (children == null)
+		{
+			children = new ArrayList<Configuration>();
+			mChildren.put(name, children);
+		}
+
+		LoadConfiguration child = new LoadConfiguration();
+		children.add(child);
+
+		return child;
+	}
+
+	public boolean hasChild(String name)
+	{
+		return mChildren.containsKey(name);
+	}
+
+	public Configuration getChild(String name) throws ConfigurationException
+	{
+		List<Configuration> children = mChildren.get(name);
+
+		if (children == null)
+			throw new ConfigurationException("Element " + name + " is not configured.");
+
+		return children.get(0);
+	}
+
+	public List<Configuration> getChildrenByName(String name)
+	{
+		List<Configuration> children = mChildren.get(name);
+		return children != null ? children : Collections.<Configuration>emptyList();
+	}
+
+	public String getAttribute(String name) throws ConfigurationException
+	{
+		String value = mValues.get(name);
+
+		if (value == null)
+			throw new ConfigurationException("Attribute " + name + " is not configured.");
+
+		return value;
+	}
+
+	public String getAttribute(String name, String defaultValue)
+	{
+		return getParameterValue(name, defaultValue);
+	}
+
+	public String getParameterValue(String name)
+	{
+		return mValues.get(name);
+	}
+
+	public String getParameterValue(String name, String defaultValue)
+	{
+		String value = mValues.get(name);
+		return value != null ? value : defaultValue;
+	}
+}
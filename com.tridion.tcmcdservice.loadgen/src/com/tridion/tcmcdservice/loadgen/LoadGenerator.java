@@ -0,0 +1,578 @@
+/**
+ *   @description Load Generator
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.loadgen;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.activemq.broker.BrokerService;
+
+import com.tridion.cache.CacheChannelConnector;
+import com.tridion.tcmcdservice.common.LatencyHistogram;
+import com.tridion.tcmcdservice.jms.JMSXMLCacheChannelConnector;
+import com.tridion.tcmcdservice.zmq.ZMQBroker;
+import com.tridion.tcmcdservice.zmq.ZMQCacheChannelConnector;
+
+/**
+ * LoadGenerator drives a {@link Workload} of invalidations through a set of {@link SimulatedNode}s on the loopback
+ * interface and reports throughput, loss and end-to-end latency.
+ * <p>
+ * The "jms" transport starts an embedded ActiveMQ broker and connects every node with a
+ * {@link JMSXMLCacheChannelConnector}, the "zmq" transport starts an in-process {@link ZMQBroker} and connects every node
+ * with a {@link ZMQCacheChannelConnector}. No external services are required.
+ * </p>
+ * <p>
+ * Every node publishes its share of "rate" events per second from its own thread and receives the events of all other
+ * nodes, so each published event is expected to be delivered "nodes" - 1 times. The first "warmup" seconds of publishing
+ * are excluded from the statistics, so the results do not depend on the JIT compiling the codecs. Publishing then
+ * stops after "duration" seconds or "events" events, after which deliveries are awaited for at most "drain" seconds.
+ * Progress is reported every "report" seconds, which together with a long duration makes the generator usable as a soak
+ * test.
+ * </p>
+ * <p>
+ * Usage: LoadGenerator [name=value ...], see {@link #DEFAULTS} for the options. The exit code is 2 when the fraction
+ * of lost deliveries exceeds "maxLoss".
+ * </p>
+ */
+public class LoadGenerator
+{
+	/**
+	 * Options and their default values
+	 */
+	private static final String[][] DEFAULTS = new String[][] {
+		{ "transport", "zmq", "jms or zmq" },
+		{ "nodes", "4", "number of simulated nodes" },
+		{ "rate", "1000", "events published per second by all nodes together" },
+		{ "warmup", "5", "seconds to publish before measuring" },
+		{ "duration", "30", "seconds to publish" },
+		{ "events", "0", "maximum number of events to publish, 0 for no limit" },
+		{ "distribution", "uniform", "uniform, zipf or burst" },
+		{ "regions", "20", "number of distinct regions" },
+		{ "keys", "10000", "number of distinct keys" },
+		{ "exponent", "1.0", "exponent of the zipf distribution" },
+		{ "burstSize", "200", "events per burst of the burst distribution" },
+		{ "format", "xml", "xml or binary" },
+		{ "dictionary", "false", "zmq region dictionary, requires the binary format" },
+		{ "batchSize", "1", "jms events per message" },
+		{ "queueSize", "16384", "publish queue size of each connector" },
+		{ "settle", "1000", "milliseconds to wait for subscriptions before publishing" },
+		{ "drain", "10", "seconds to wait for outstanding deliveries" },
+		{ "report", "5", "seconds between progress reports, 0 disables them" },
+		{ "seed", "", "random seed, empty for a random workload" },
+		{ "maxLoss", "-1", "fraction of lost deliveries failing the run, negative disables the check" }
+	};
+
+	private final Map<String, String> mOptions;
+	private final int mNodeCount;
+	private final LoadStatistics mStatistics = new LoadStatistics();
+	private final List<SimulatedNode> mNodes = new ArrayList<SimulatedNode>();
+
+	private BrokerService mJmsBroker;
+	private ZMQBroker mZmqBroker;
+	private volatile boolean mStopped = false;
+
+	/**
+	 * Create a new LoadGenerator
+	 *
+	 * @param options Options by name, missing options take their default
+	 * @throws IllegalArgumentException Unknown or invalid option
+	 */
+	public LoadGenerator(Map<String, String> options)
+	{
+		mOptions = new LinkedHashMap<String, String>();
+
+		for (String[] option : DEFAULTS)
+			mOptions.put(option[0], option[1]);
+
+		for (Map.Entry<String, String> option : options.entrySet())
+		{
+			if (!mOptions.containsKey(option.getKey()))
+				throw new IllegalArgumentException("Unknown option '" + option.getKey() + "'.");
+
+			mOptions.put(option.getKey(), option.getValue());
+		}
+
+		mNodeCount = getInt("nodes");
+
+		if (mNodeCount < 2)
+			throw new IllegalArgumentException("At least two nodes are required.");
+
+		if (getDouble("rate") <= 0)
+			throw new IllegalArgumentException("rate must be positive.");
+
+		// Fail on an unknown distribution before anything is started
+		createWorkload();
+	}
+
+	private String get(String name)
+	{
+		return mOptions.get(name);
+	}
+
+	private int getInt(String name)
+	{
+		try
+		{
+			return Integer.parseInt(get(name).trim());
+		}
+		catch (NumberFormatException ex)
+		{
+			throw new IllegalArgumentException("Invalid value '" + get(name) + "' for " + name + ", expected an integer.");
+		}
+	}
+
+	private double getDouble(String name)
+	{
+		try
+		{
+			return Double.parseDouble(get(name).trim());
+		}
+		catch (NumberFormatException ex)
+		{
+			throw new IllegalArgumentException("Invalid value '" + get(name) + "' for " + name + ", expected a number.");
+		}
+	}
+
+	private Workload createWorkload()
+	{
+		return Workload.create(get("distribution"), getInt("regions"), getInt("keys"), getDouble("exponent"), getInt("burstSize"));
+	}
+
+	/**
+	 * Run the load test
+	 *
+	 * @return true if the loss stayed within "maxLoss"
+	 * @throws Exception Broker or connectors could not be started
+	 */
+	public boolean run()
+		throws Exception
+	{
+		System.out.println("Load generator " + mOptions);
+
+		try
+		{
+			start();
+
+			Thread.sleep(getInt("settle"));
+
+			if (getInt("warmup") > 0)
+				warmup();
+
+			long start = System.nanoTime();
+			List<Thread> publishers = startPublishers(getInt("duration"), getInt("events"));
+			long reportInterval = TimeUnit.SECONDS.toNanos(getInt("report"));
+			long nextReport = start + reportInterval;
+			Progress progress = new Progress(start);
+
+			for (Thread publisher : publishers)
+			{
+				while (publisher.isAlive())
+				{
+					publisher.join(100);
+
+					if (reportInterval > 0 && System.nanoTime() >= nextReport)
+					{
+						progress.report();
+						nextReport += reportInterval;
+					}
+				}
+			}
+
+			long published = System.nanoTime();
+			long drainDeadline = published + TimeUnit.SECONDS.toNanos(getInt("drain"));
+
+			while (mStatistics.getDelivered() < getExpected() && System.nanoTime() < drainDeadline)
+			{
+				Thread.sleep(100);
+
+				if (reportInterval > 0 && System.nanoTime() >= nextReport)
+				{
+					progress.report();
+					nextReport += reportInterval;
+				}
+			}
+
+			return report(published - start, System.nanoTime() - start);
+		}
+		finally
+		{
+			stop();
+		}
+	}
+
+	/**
+	 * Start the broker and connect the nodes
+	 */
+	private void start()
+		throws Exception
+	{
+		String transport = get("transport");
+
+		if ("jms".equalsIgnoreCase(transport))
+		{
+			String brokerUri = "tcp://127.0.0.1:" + getFreePort();
+
+			mJmsBroker = new BrokerService();
+			mJmsBroker.setBrokerName("loadgen");
+			mJmsBroker.setPersistent(false);
+			mJmsBroker.setUseJmx(false);
+			mJmsBroker.setAdvisorySupport(false);
+			mJmsBroker.addConnector(brokerUri);
+			mJmsBroker.start();
+			mJmsBroker.waitUntilStarted();
+
+			for (int i = 0; i < mNodeCount; i++)
+			{
+				JMSXMLCacheChannelConnector connector = new JMSXMLCacheChannelConnector();
+				connector.configure(getJmsConfiguration(brokerUri));
+				addNode(connector);
+			}
+		}
+		else if ("zmq".equalsIgnoreCase(transport))
+		{
+			String submissionUri = "tcp://127.0.0.1:" + getFreePort();
+			String subscriptionUri = "tcp://127.0.0.1:" + getFreePort();
+
+			mZmqBroker = new ZMQBroker(submissionUri, subscriptionUri);
+			mZmqBroker.setReportInterval(0);
+			mZmqBroker.start();
+
+			for (int i = 0; i < mNodeCount; i++)
+			{
+				ZMQCacheChannelConnector connector = new ZMQCacheChannelConnector();
+				connector.configure(new LoadConfiguration()
+					.set("submissionUri", submissionUri)
+					.set("subscriptionUri", subscriptionUri)
+					.set("format", get("format"))
+					.set("dictionary", get("dictionary"))
+					.set("queueCapacity", get("queueSize"))
+					.set("propagationReportInterval", "0"));
+				addNode(connector);
+			}
+		}
+		else
+			throw new IllegalArgumentException("Unknown transport '" + transport + "', expected jms or zmq.");
+	}
+
+	/**
+	 * JMS connector configuration of a node, equivalent to the cd_storage_conf.xml RemoteSynchronization element
+	 */
+	private LoadConfiguration getJmsConfiguration(String brokerUri)
+	{
+		LoadConfiguration configuration = new LoadConfiguration()
+			.set("Topic", "TridionCacheChannel")
+			.set("TopicConnectionFactory", "ConnectionFactory")
+			.set("Format", get("format"))
+			.set("BatchSize", get("batchSize"))
+			.set("PublishQueueSize", get("queueSize"))
+			.set("PropagationReportInterval", "0")
+			// Each node gets its own connection, as separate JVMs would
+			.set("ShareConnection", "false");
+
+		LoadConfiguration jndiContext = configuration.addChild("JndiContext");
+		jndiContext.addChild("Property").set("Name", "java.naming.factory.initial").set("Value", "org.apache.activemq.jndi.ActiveMQInitialContextFactory");
+		jndiContext.addChild("Property").set("Name", "java.naming.provider.url").set("Value", brokerUri);
+		jndiContext.addChild("Property").set("Name", "topic.TridionCacheChannel").set("Value", "TridionCacheChannel");
+
+		return configuration;
+	}
+
+	private void addNode(CacheChannelConnector connector)
+		throws Exception
+	{
+		SimulatedNode node = new SimulatedNode(mNodes.size(), mNodeCount, connector, mStatistics);
+		mNodes.add(node);
+
+		connector.validate();
+	}
+
+	/**
+	 * Publish for "warmup" seconds and reset the statistics once the warm-up events are delivered
+	 */
+	private void warmup()
+		throws InterruptedException
+	{
+		System.out.println("Warming up for " + getInt("warmup") + "s");
+
+		for (Thread publisher : startPublishers(getInt("warmup"), 0))
+			publisher.join();
+
+		long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(getInt("drain"));
+
+		while (mStatistics.getDelivered() < getExpected() && System.nanoTime() < drainDeadline)
+			Thread.sleep(100);
+
+		long[] sequences = new long[mNodeCount];
+
+		for (SimulatedNode node : mNodes)
+			sequences[node.getIndex()] = node.getSequence();
+
+		for (SimulatedNode node : mNodes)
+			node.endWarmup(sequences);
+
+		mStatistics.reset();
+	}
+
+	/**
+	 * Start a publisher thread for every node
+	 *
+	 * @param duration Seconds to publish
+	 * @param events Maximum number of events to publish, 0 for no limit
+	 */
+	private List<Thread> startPublishers(int duration, final long events)
+	{
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(duration);
+		final long interval = (long)(TimeUnit.SECONDS.toNanos(1) * mNodeCount / getDouble("rate"));
+		final AtomicLong remaining = new AtomicLong(events > 0 ? events : Long.MAX_VALUE);
+		final Random seeds = get("seed").trim().length() > 0 ? new Random(Long.parseLong(get("seed").trim())) : new Random();
+
+		List<Thread> publishers = new ArrayList<Thread>();
+
+		for (final SimulatedNode node : mNodes)
+		{
+			final Workload workload = createWorkload();
+			final Random random = new Random(seeds.nextLong());
+
+			Thread publisher = new Thread("LoadPublisher-" + node.getIndex())
+			{
+				@Override
+				public void run()
+				{
+					long next = System.nanoTime();
+
+					while (!mStopped && next < deadline)
+					{
+						int burstSize = workload.getBurstSize();
+
+						for (int i = 0; i < burstSize; i++)
+						{
+							if (remaining.getAndDecrement() <= 0)
+								return;
+
+							int region = workload.nextRegion(random);
+							node.publish(region, workload.nextKey(random));
+						}
+
+						// Pace against the schedule rather than the previous send, so a stall is caught up afterwards
+						next += burstSize * interval;
+						long delay = next - System.nanoTime();
+
+						if (delay > 0)
+							LockSupport.parkNanos(delay);
+					}
+				}
+			};
+
+			publisher.setDaemon(true);
+			publisher.start();
+			publishers.add(publisher);
+		}
+
+		return publishers;
+	}
+
+	/**
+	 * Close the nodes and stop the broker
+	 */
+	private void stop()
+	{
+		mStopped = true;
+
+		for (SimulatedNode node : mNodes)
+		{
+			try
+			{
+				node.getConnector().close();
+			}
+			catch (RuntimeException ex)
+			{
+				System.err.println("Closing node " + node.getIndex() + " failed: " + ex);
+			}
+		}
+
+		if (mZmqBroker != null)
+			mZmqBroker.stop();
+
+		if (mJmsBroker != null)
+		{
+			try
+			{
+				mJmsBroker.stop();
+			}
+			catch (Exception ex)
+			{
+				System.err.println("Stopping the JMS broker failed: " + ex);
+			}
+		}
+	}
+
+	private long getExpected()
+	{
+		return mStatistics.getPublished() * (mNodeCount - 1);
+	}
+
+	private int getConnectedCount()
+	{
+		int connected = 0;
+
+		for (SimulatedNode node : mNodes)
+		{
+			if (node.isConnected())
+				connected++;
+		}
+
+		return connected;
+	}
+
+	/**
+	 * Print the final report
+	 *
+	 * @param publishTime Time in nanoseconds spent publishing
+	 * @param totalTime Time in nanoseconds spent publishing and draining
+	 * @return true if the loss stayed within "maxLoss"
+	 */
+	private boolean report(long publishTime, long totalTime)
+	{
+		long published = mStatistics.getPublished();
+		long delivered = mStatistics.getDelivered();
+		long expected = getExpected();
+		long lost = Math.max(0, expected - delivered);
+		double loss = expected > 0 ? lost / (double)expected : 0;
+		LatencyHistogram latency = mStatistics.getLatency();
+
+		System.out.println();
+		System.out.println(String.format("Published  %12d events in %.1fs, %.0f events/s, %d failed",
+				published, publishTime / 1e9, published / (publishTime / 1e9), mStatistics.getPublishErrors()));
+		System.out.println(String.format("Delivered  %12d of %d in %.1fs, %.0f deliveries/s",
+				delivered, expected, totalTime / 1e9, delivered / (totalTime / 1e9)));
+		System.out.println(String.format("Lost       %12d (%.4f%%), %d out of order, %d region flushes, %d foreign events",
+				lost, loss * 100, mStatistics.getReordered(), mStatistics.getFlushes(), mStatistics.getForeign()));
+		System.out.println(String.format("Latency    p50 %.2fms p90 %.2fms p99 %.2fms p99.9 %.2fms max %.2fms",
+				latency.getPercentile(0.5) / 1e6, latency.getPercentile(0.9) / 1e6, latency.getPercentile(0.99) / 1e6,
+				latency.getPercentile(0.999) / 1e6, latency.getSummary().get("max") / 1e3));
+
+		double maxLoss = getDouble("maxLoss");
+
+		if (maxLoss >= 0 && loss > maxLoss)
+		{
+			System.out.println(String.format("FAILED: loss %.4f%% exceeds %.4f%%", loss * 100, maxLoss * 100));
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Progress keeps the totals of the previous report to print the rates of each interval
+	 */
+	private class Progress
+	{
+		private final long mStart;
+		private long mLastTime;
+		private long mLastPublished = 0;
+		private long mLastDelivered = 0;
+
+		Progress(long start)
+		{
+			mStart = start;
+			mLastTime = start;
+		}
+
+		void report()
+		{
+			long now = System.nanoTime();
+			long published = mStatistics.getPublished();
+			long delivered = mStatistics.getDelivered();
+			double seconds = (now - mLastTime) / 1e9;
+			LatencyHistogram latency = mStatistics.getIntervalLatency();
+
+			System.out.println(String.format("[%6.1fs] published %8.0f/s delivered %8.0f/s outstanding %8d p50 %7.2fms p99 %7.2fms flushes %d connected %d/%d",
+					(now - mStart) / 1e9, (published - mLastPublished) / seconds, (delivered - mLastDelivered) / seconds,
+					Math.max(0, getExpected() - delivered), latency.getPercentile(0.5) / 1e6, latency.getPercentile(0.99) / 1e6,
+					mStatistics.getFlushes(), getConnectedCount(), mNodeCount));
+
+			latency.reset();
+			mLastTime = now;
+			mLastPublished = published;
+			mLastDelivered = delivered;
+		}
+	}
+
+	/**
+	 * Find a free port on the loopback interface
+	 */
+	private static int getFreePort()
+		throws IOException
+	{
+		ServerSocket socket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+
+		try
+		{
+			return socket.getLocalPort();
+		}
+		finally
+		{
+			socket.close();
+		}
+	}
+
+	private static void usage(String message)
+	{
+		System.err.println(message);
+		System.err.println("Usage: LoadGenerator [name=value ...]");
+		System.err.println("   eg: LoadGenerator transport=jms nodes=8 rate=5000 duration=60 distribution=zipf");
+
+		for (String[] option : DEFAULTS)
+			System.err.println(String.format("  %-13s %-9s %s", option[0], option[1].length() > 0 ? option[1] : "-", option[2]));
+	}
+
+	public static void main(String[] args)
+		throws Exception
+	{
+		// Connector and broker logging is limited to warnings unless configured otherwise
+		if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null)
+			System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+
+		Map<String, String> options = new LinkedHashMap<String, String>();
+
+		for (String arg : args)
+		{
+			int index = arg.indexOf('=');
+
+			if (index <= 0)
+			{
+				usage("Invalid argument '" + arg + "', expected name=value.");
+				System.exit(1);
+			}
+
+			options.put(arg.substring(0, index), arg.substring(index + 1));
+		}
+
+		LoadGenerator generator;
+
+		try
+		{
+			generator = new LoadGenerator(options);
+		}
+		catch (IllegalArgumentException ex)
+		{
+			usage(ex.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		// Broker and connector threads are not all daemons, so the exit code ends the process
+		System.exit(generator.run() ? 0 : 2);
+	}
+}
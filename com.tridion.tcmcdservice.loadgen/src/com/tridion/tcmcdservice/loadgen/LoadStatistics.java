@@ -0,0 +1,125 @@
+/**
+ *   @description Load Statistics
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.loadgen;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.tridion.tcmcdservice.common.LatencyHistogram;
+
+/**
+ * LoadStatistics counts published and delivered events and records the end-to-end latency of every delivery.
+ * <p>
+ * Besides the totals an interval histogram is kept, which the {@link LoadGenerator} resets after every progress report.
+ * All statistics are reset once the warm-up has finished.
+ * </p>
+ */
+class LoadStatistics
+{
+	private final AtomicLong mPublished = new AtomicLong();
+	private final AtomicLong mPublishErrors = new AtomicLong();
+	private final AtomicLong mDelivered = new AtomicLong();
+	private final AtomicLong mReordered = new AtomicLong();
+	private final AtomicLong mFlushes = new AtomicLong();
+	private final AtomicLong mForeign = new AtomicLong();
+	private final LatencyHistogram mLatency = new LatencyHistogram();
+	private final LatencyHistogram mIntervalLatency = new LatencyHistogram();
+
+	void published()
+	{
+		mPublished.incrementAndGet();
+	}
+
+	void publishError()
+	{
+		mPublishErrors.incrementAndGet();
+	}
+
+	/**
+	 * Record the delivery of a published event
+	 *
+	 * @param latency Time in nanoseconds between publishing and delivery
+	 * @param inOrder false if the event arrived after a later event of the same publisher
+	 */
+	void delivered(long latency, boolean inOrder)
+	{
+		mDelivered.incrementAndGet();
+		mLatency.record(latency);
+		mIntervalLatency.record(latency);
+
+		if (!inOrder)
+			mReordered.incrementAndGet();
+	}
+
+	/**
+	 * Record a region flush, sent by a connector in place of events it could not queue or lost
+	 */
+	void flush()
+	{
+		mFlushes.incrementAndGet();
+	}
+
+	/**
+	 * Record an event which was not published by the load generator
+	 */
+	void foreign()
+	{
+		mForeign.incrementAndGet();
+	}
+
+	/**
+	 * Reset all statistics
+	 */
+	void reset()
+	{
+		mPublished.set(0);
+		mPublishErrors.set(0);
+		mDelivered.set(0);
+		mReordered.set(0);
+		mFlushes.set(0);
+		mForeign.set(0);
+		mLatency.reset();
+		mIntervalLatency.reset();
+	}
+
+	long getPublished()
+	{
+		return mPublished.get();
+	}
+
+	long getPublishErrors()
+	{
+		return mPublishErrors.get();
+	}
+
+	long getDelivered()
+	{
+		return mDelivered.get();
+	}
+
+	long getReordered()
+	{
+		return mReordered.get();
+	}
+
+	long getFlushes()
+	{
+		return mFlushes.get();
+	}
+
+	long getForeign()
+	{
+		return mForeign.get();
+	}
+
+	LatencyHistogram getLatency()
+	{
+		return mLatency;
+	}
+
+	LatencyHistogram getIntervalLatency()
+	{
+		return mIntervalLatency;
+	}
+}
@@ -0,0 +1,166 @@
+/**
+ *   @description Simulated Node
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.loadgen;
+
+import java.io.Serializable;
+
+import com.tridion.cache.CacheChannelConnector;
+import com.tridion.cache.CacheChannelEventListener;
+import com.tridion.cache.CacheEvent;
+import com.tridion.cache.CacheException;
+
+/**
+ * SimulatedNode is a single content delivery node of the {@link LoadGenerator}: a connector which publishes the events of
+ * one publisher thread and receives the events of all other nodes.
+ * <p>
+ * Published keys have the form "key:node:sequence:nanoTime", so a receiving node derives the end-to-end latency and
+ * the order of delivery per publisher from the key alone, without shared state per event.
+ * </p>
+ */
+class SimulatedNode implements CacheChannelEventListener
+{
+	static final String REGION_PREFIX = "/com_tridion_loadgen_Region";
+
+	private final int mIndex;
+	private final CacheChannelConnector mConnector;
+	private final LoadStatistics mStatistics;
+	private final long[] mLastSequence;
+	private long mSequence = 0;
+	private volatile long[] mWarmupSequences = null;
+	private volatile boolean mConnected = false;
+
+	/**
+	 * Create a new SimulatedNode
+	 *
+	 * @param index Index of this node
+	 * @param nodes Total number of nodes
+	 * @param connector Configured {@link CacheChannelConnector}
+	 * @param statistics Shared {@link LoadStatistics}
+	 */
+	SimulatedNode(int index, int nodes, CacheChannelConnector connector, LoadStatistics statistics)
+	{
+		mIndex = index;
+		mConnector = connector;
+		mStatistics = statistics;
+		mLastSequence = new long[nodes];
+
+		connector.setListener(this);
+	}
+
+	int getIndex()
+	{
+		return mIndex;
+	}
+
+	CacheChannelConnector getConnector()
+	{
+		return mConnector;
+	}
+
+	/**
+	 * Number of events published by this node, read once its publisher thread has finished
+	 */
+	long getSequence()
+	{
+		return mSequence;
+	}
+
+	/**
+	 * Ignore events published during the warm-up from here on
+	 *
+	 * @param sequences Last sequence number published during the warm-up, by node
+	 */
+	void endWarmup(long[] sequences)
+	{
+		mWarmupSequences = sequences;
+	}
+
+	boolean isConnected()
+	{
+		return mConnected;
+	}
+
+	/**
+	 * Publish an invalidation, only called from the publisher thread of this node
+	 *
+	 * @param region Region number
+	 * @param key Key number
+	 */
+	void publish(int region, int key)
+	{
+		String eventKey = key + ":" + mIndex + ":" + (++mSequence) + ":" + System.nanoTime();
+
+		try
+		{
+			mConnector.broadcastEvent(new CacheEvent(REGION_PREFIX + region, eventKey, CacheEvent.INVALIDATE));
+			mStatistics.published();
+		}
+		catch (CacheException ex)
+		{
+			mStatistics.publishError();
+		}
+		catch (RuntimeException ex)
+		{
+			mStatistics.publishError();
+		}
+	}
+
+	public void handleRemoteEvent(CacheEvent cacheEvent)
+	{
+		long received = System.nanoTime();
+
+		if (cacheEvent.getType() == CacheEvent.FLUSH)
+		{
+			mStatistics.flush();
+			return;
+		}
+
+		Serializable key = cacheEvent.getKey();
+		String[] parts = key != null ? key.toString().split(":") : new String[0];
+
+		if (parts.length != 4 || cacheEvent.getRegionPath() == null || !cacheEvent.getRegionPath().startsWith(REGION_PREFIX))
+		{
+			mStatistics.foreign();
+			return;
+		}
+
+		try
+		{
+			int publisher = Integer.parseInt(parts[1]);
+			long sequence = Long.parseLong(parts[2]);
+			long sent = Long.parseLong(parts[3]);
+			long[] warmupSequences = mWarmupSequences;
+
+			if (warmupSequences != null && sequence <= warmupSequences[publisher])
+				return;
+
+			boolean inOrder;
+
+			synchronized (mLastSequence)
+			{
+				inOrder = sequence > mLastSequence[publisher];
+
+				if (inOrder)
+					mLastSequence[publisher] = sequence;
+			}
+
+			mStatistics.delivered(received - sent, inOrder);
+		}
+		catch (RuntimeException ex)
+		{
+			mStatistics.foreign();
+		}
+	}
+
+	public void handleConnect()
+	{
+		mConnected = true;
+	}
+
+	public void handleDisconnect()
+	{
+		mConnected = false;
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ *   @description Workload
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.loadgen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Workload selects the region and key of each published cache event.
+ * <p>
+ * "uniform" picks regions and keys with equal probability, "zipf" favours low region and key numbers as a Zipf
+ * distribution with the given exponent, modelling a few hot pages. "burst" publishes bursts of "burstSize" consecutive
+ * keys of a single region, as a publish of a structure group does, with the publisher idle between bursts so the
+ * average rate is kept. A Workload keeps the state of the current burst, so every publisher uses its own instance.
+ * </p>
+ */
+abstract class Workload
+{
+	protected final int mRegions;
+	protected final int mKeys;
+
+	protected Workload(int regions, int keys)
+	{
+		mRegions = Math.max(1, regions);
+		mKeys = Math.max(1, keys);
+	}
+
+	/**
+	 * Create a new Workload
+	 *
+	 * @param distribution "uniform", "zipf" or "burst"
+	 * @param regions Number of distinct regions
+	 * @param keys Number of distinct keys
+	 * @param exponent Exponent of the Zipf distribution
+	 * @param burstSize Number of events in a burst
+	 * @return {@link Workload}
+	 * @throws IllegalArgumentException Unknown distribution
+	 */
+	static Workload create(String distribution, int regions, int keys, double exponent, int burstSize)
+	{
+		if ("uniform".equalsIgnoreCase(distribution))
+			return new Uniform(regions, keys);
+
+		if ("zipf".equalsIgnoreCase(distribution))
+			return new Zipf(regions, keys, exponent);
+
+		if ("burst".equalsIgnoreCase(distribution))
+			return new Burst(regions, keys, burstSize);
+
+		throw new IllegalArgumentException("Unknown distribution '" + distribution + "', expected uniform, zipf or burst.");
+	}
+
+	/**
+	 * Number of events published back to back before the publisher paces itself
+	 */
+	int getBurstSize()
+	{
+		return 1;
+	}
+
+	/**
+	 * Select the region of the next event
+	 */
+	abstract int nextRegion(Random random);
+
+	/**
+	 * Select the key of the next event, called after {@link #nextRegion(Random)}
+	 */
+	abstract int nextKey(Random random);
+
+	/**
+	 * Uniform workload
+	 */
+	private static class Uniform extends Workload
+	{
+		Uniform(int regions, int keys)
+		{
+			super(regions, keys);
+		}
+
+		@Override
+		int nextRegion(Random random)
+		{
+			return random.nextInt(mRegions);
+		}
+
+		@Override
+		int nextKey(Random random)
+		{
+			return random.nextInt(mKeys);
+		}
+	}
+
+	/**
+	 * Zipf workload, sampled by a binary search of the cumulative distribution
+	 */
+	private static class Zipf extends Workload
+	{
+		private final double[] mRegionDistribution;
+		private final double[] mKeyDistribution;
+
+		Zipf(int regions, int keys, double exponent)
+		{
+			super(regions, keys);
+
+			mRegionDistribution = cumulative(mRegions, exponent);
+			mKeyDistribution = cumulative(mKeys, exponent);
+		}
+
+		private static double[] cumulative(int size, double exponent)
+		{
+			double[] distribution = new double[size];
+			double total = 0;
+
+			for (int i = 0; i < size; i++)
+			{
+				total += 1.0 / Math.pow(i + 1, exponent);
+				distribution[i] = total;
+			}
+
+			for (int i = 0; i < size; i++)
+				distribution[i] /= total;
+
+			return distribution;
+		}
+
+		private static int sample(double[] distribution, Random random)
+		{
+			int index = Arrays.binarySearch(distribution, random.nextDouble());
+
+			return Math.min(distribution.length - 1, index >= 0 ? index : -index - 1);
+		}
+
+		@Override
+		int nextRegion(Random random)
+		{
+			return sample(mRegionDistribution, random);
+		}
+
+		@Override
+		int nextKey(Random random)
+		{
+			return sample(mKeyDistribution, random);
+		}
+	}
+
+	/**
+	 * Burst workload
+	 */
+	private static class Burst extends Workload
+	{
+		private final int mBurstSize;
+		private int mRemaining = 0;
+		private int mRegion;
+		private int mKey;
+
+		Burst(int regions, int keys, int burstSize)
+		{
+			super(regions, keys);
+
+			mBurstSize = Math.max(1, burstSize);
+		}
+
+		@Override
+		int getBurstSize()
+		{
+			return mBurstSize;
+		}
+
+		@Override
+		int nextRegion(Random random)
+		{
+			if (mRemaining-- <= 0)
+			{
+				mRemaining = mBurstSize - 1;
+				mRegion = random.nextInt(mRegions);
+				mKey = random.nextInt(mKeys);
+			}
+
+			return mRegion;
+		}
+
+		@Override
+		int nextKey(Random random)
+		{
+			return mKey++ % mKeys;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/**
+ *   @description Load Generator Test
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.loadgen;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * LoadGeneratorTest runs a short, bounded loopback load test over each transport and fails on any lost delivery.
+ * <p>
+ * Longer soak runs use the load generator from the command line with a larger "duration".
+ * </p>
+ */
+public class LoadGeneratorTest
+{
+	@BeforeClass
+	public static void setUpLogging()
+	{
+		if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null)
+			System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+	}
+
+	private static Map<String, String> getOptions(String transport)
+	{
+		Map<String, String> options = new LinkedHashMap<String, String>();
+		options.put("transport", transport);
+		options.put("nodes", "3");
+		options.put("rate", "500");
+		options.put("warmup", "0");
+		options.put("duration", "2");
+		options.put("events", "1000");
+		options.put("drain", "10");
+		options.put("report", "0");
+		options.put("seed", "1");
+		options.put("maxLoss", "0");
+
+		return options;
+	}
+
+	@Test(timeout = 60000)
+	public void deliversEveryEventOverZeroMQ()
+		throws Exception
+	{
+		assertTrue(new LoadGenerator(getOptions("zmq")).run());
+	}
+
+	@Test(timeout = 60000)
+	public void deliversEveryEventOverJMS()
+		throws Exception
+	{
+		Map<String, String> options = getOptions("jms");
+		options.put("batchSize", "10");
+
+		assertTrue(new LoadGenerator(options).run());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnknownOption()
+	{
+		new LoadGenerator(Collections.singletonMap("unknown", "1"));
+	}
+}
@@ -0,0 +1,272 @@
+/**
+ *   @description Broadcast Queue
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.rmi;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.tridion.cache.CacheEvent;
+import com.tridion.tcmcdservice.common.CacheEventTracer;
+
+/**
+ * BroadcastQueue decouples callers of {@link CacheChannelConnector#broadcastEvent} from the RMI round-trip.
+ * <p>
+ * Events are held in a bounded queue and sent by a single background thread, which waits "flushWindow" milliseconds
+ * after the first queued event so bursts are sent together. With coalescing enabled an event for a region, key and type
+ * which is already queued is not queued again, both callers share the same {@link Future}.
+ * </p>
+ */
+class BroadcastQueue implements Runnable
+{
+	private static final CacheEventTracer mTracer = CacheEventTracer.getInstance();
+
+	private final CacheChannelConnector mConnector;
+	private final int mCapacity;
+	private final long mFlushWindow;
+	private final boolean mCoalesce;
+
+	private final LinkedHashMap<String, Broadcast> mPending = new LinkedHashMap<String, Broadcast>();
+	private long mCounter = 0;
+	private boolean mShutdown = false;
+	private final Thread mThread;
+
+	/**
+	 * Create and start a new BroadcastQueue
+	 *
+	 * @param connector {@link CacheChannelConnector} sending the events
+	 * @param capacity Maximum number of queued events
+	 * @param flushWindow Time in milliseconds queued events wait for further events
+	 * @param coalesce Coalesce queued events for the same region, key and type
+	 */
+	BroadcastQueue(CacheChannelConnector connector, int capacity, long flushWindow, boolean coalesce)
+	{
+		mConnector = connector;
+		mCapacity = Math.max(1, capacity);
+		mFlushWindow = Math.max(0, flushWindow);
+		mCoalesce = coalesce;
+
+		mThread = new Thread(this, "BroadcastQueue-" + connector.getGUID());
+		mThread.setDaemon(true);
+		mThread.start();
+	}
+
+	/**
+	 * Number of queued events
+	 */
+	synchronized int size()
+	{
+		return mPending.size();
+	}
+
+	/**
+	 * Queue a {@link CacheEvent} for broadcasting
+	 *
+	 * @param cacheEvent {@link CacheEvent} to broadcast
+	 * @return {@link Future} completed once the event is delivered, or failed with a {@link CacheException}
+	 * @throws CacheException Queue is full or shut down
+	 */
+	synchronized Future<Void> offer(CacheEvent cacheEvent)
+		throws CacheException
+	{
+		if (mShutdown)
+			throw new CacheException("Broadcast queue is shut down");
+
+		Object span = mTracer.begin(CacheEventTracer.Phase.ENQUEUE);
+
+		String key = mCoalesce ? cacheEvent.getType() + ":" + cacheEvent.getRegionPath() + ":" + cacheEvent.getKey() : String.valueOf(mCounter++);
+		Broadcast broadcast = mPending.get(key);
+
+		if (broadcast != null)
+			return broadcast;
+
+		if (mPending.size() >= mCapacity)
+			throw new CacheException("Broadcast queue exceeded " + mCapacity + " events");
+
+		broadcast = new Broadcast(cacheEvent);
+		mPending.put(key, broadcast);
+
+		notifyAll();
+		mTracer.end(span, CacheChannelConnector.CONNECTOR_TYPE, cacheEvent, 1);
+
+		return broadcast;
+	}
+
+	/**
+	 * Stop the background thread, queued events are sent first
+	 *
+	 * @param timeout Maximum time in milliseconds to wait for queued events to be sent
+	 */
+	void shutdown(long timeout)
+	{
+		synchronized (this)
+		{
+			mShutdown = true;
+			notifyAll();
+		}
+
+		try
+		{
+			mThread.join(timeout);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		// Events which could not be sent in time are failed
+		List<Broadcast> remaining;
+
+		synchronized (this)
+		{
+			remaining = new ArrayList<Broadcast>(mPending.values());
+			mPending.clear();
+		}
+
+		for (Broadcast broadcast : remaining)
+			broadcast.fail(new CacheException("Broadcast queue was shut down before the event was sent"));
+	}
+
+	/**
+	 * Wait for queued events and take them once the flush window has passed
+	 */
+	private List<Broadcast> take()
+		throws InterruptedException
+	{
+		synchronized (this)
+		{
+			while (mPending.isEmpty() && !mShutdown)
+				wait();
+
+			if (mPending.isEmpty())
+				return null;
+		}
+
+		if (mFlushWindow > 0 && !mShutdown)
+			Thread.sleep(mFlushWindow);
+
+		synchronized (this)
+		{
+			List<Broadcast> batch = new ArrayList<Broadcast>(mPending.values());
+			mPending.clear();
+
+			return batch;
+		}
+	}
+
+	public void run()
+	{
+		try
+		{
+			List<Broadcast> batch;
+
+			while ((batch = take()) != null)
+			{
+				CacheException failure = null;
+
+				for (Broadcast broadcast : batch)
+				{
+					// After a failure the connection is gone, fail the rest of the batch without reconnecting for each event
+					if (failure == null)
+					{
+						try
+						{
+							mConnector.sendEvent(broadcast.mCacheEvent);
+							broadcast.complete();
+							continue;
+						}
+						catch (CacheException ex)
+						{
+							failure = ex;
+						}
+						catch (RuntimeException ex)
+						{
+							failure = new CacheException("Unable to broadcast event", ex);
+						}
+
+						mConnector.log("Asynchronous broadcast failed, " + batch.size() + " events affected: " + failure.getMessage());
+					}
+
+					broadcast.fail(failure);
+				}
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			// Thread was interrupted, remaining events are failed by shutdown
+		}
+	}
+
+	/**
+	 * Broadcast implements the {@link Future} of a queued event
+	 */
+	private static class Broadcast implements Future<Void>
+	{
+		private final CacheEvent mCacheEvent;
+		private final CountDownLatch mDone = new CountDownLatch(1);
+		private volatile CacheException mFailure = null;
+
+		Broadcast(CacheEvent cacheEvent)
+		{
+			mCacheEvent = cacheEvent;
+		}
+
+		void complete()
+		{
+			mDone.countDown();
+		}
+
+		void fail(CacheException failure)
+		{
+			mFailure = failure;
+			mDone.countDown();
+		}
+
+		public boolean cancel(boolean mayInterruptIfRunning)
+		{
+			return false;
+		}
+
+		public boolean isCancelled()
+		{
+			return false;
+		}
+
+		public boolean isDone()
+		{
+			return mDone.getCount() == 0;
+		}
+
+		public Void get()
+			throws InterruptedException, ExecutionException
+		{
+			mDone.await();
+			return result();
+		}
+
+		public Void get(long timeout, TimeUnit unit)
+			throws InterruptedException, ExecutionException, TimeoutException
+		{
+			if (!mDone.await(timeout, unit))
+				throw new TimeoutException("Event was not broadcast within " + unit.toMillis(timeout) + "ms");
+
+			return result();
+		}
+
+		private Void result()
+			throws ExecutionException
+		{
+			if (mFailure != null)
+				throw new ExecutionException(mFailure.getMessage(), mFailure);
+
+			return null;
+		}
+	}
+}
@@ -0,0 +1,17 @@
+/**
+ *   @description Cache Channel Batch Event Listener
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.rmi;
+
+/**
+ * CacheChannelBatchEventListener receives cache events in batches, a single call replaces up to "batchSize" calls of
+ * {@link CacheChannelEventListener#onCacheEvent(String, String, int)}.
+ */
+public abstract interface CacheChannelBatchEventListener extends CacheChannelEventListener
+{
+	/**
+	 * Handle a batch of cache events, the arrays are owned by the listener and only the first "count" entries are valid
+	 */
+	public abstract void onCacheEvents(String[] regions, String[] keys, int[] eventTypes, int count);
+}
@@ -9,21 +9,49 @@ import java.net.MalformedURLException;
 import java.rmi.Naming;
 import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
+import java.rmi.NoSuchObjectException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import com.tridion.cache.CacheEvent;
 import com.tridion.cache.RemoteCacheChannelService;
 import com.tridion.cache.RemoteCacheListener;
+import com.tridion.tcmcdservice.common.CacheEventTracer;
+import com.tridion.tcmcdservice.common.ConnectorMetrics;
 
 /**
  * CacheChannelConnector connects to a remote Tridion cache channel service and listens for events.
+ * <p>
+ * Multiple cache channel services can be configured. In failover mode events are broadcast to the first connected
+ * service and the next one is kept connected as warm standby, in fan-out mode events are broadcast to all services in
+ * parallel. In fan-out mode events received from more than one service are delivered once.
+ * </p>
  */
 @SuppressWarnings("serial")
 public class CacheChannelConnector extends UnicastRemoteObject implements RemoteCacheListener
 {
 	private static final String DEFAULT_RMI_HOST = "127.0.0.1";
 	private static final int DEFAULT_RMI_PORT = 1099;
+	private static final long SHUTDOWN_TIMEOUT = 5000;
+	private static final int DEFAULT_BATCH_SIZE = 256;
+	private static final long DEFAULT_BATCH_DELAY = 10;
+	private static final long DEFAULT_LEASE_INTERVAL = 5000;
+	private static final long DEDUPLICATION_WINDOW = 2000;
+	private static final int DEDUPLICATION_CAPACITY = 4096;
+	static final String CONNECTOR_TYPE = "RMI";
+	private static final CacheEventTracer mTracer = CacheEventTracer.getInstance();
 	
 	private static CacheChannelEventListener mNullListener = new CacheChannelEventListener()
 	{
@@ -36,16 +64,26 @@ public class CacheChannelConnector extends UnicastRemoteObject implements Remote
 		public void onConnect() { }
 	};	
 	
-	private volatile transient RemoteCacheChannelService mService = null;
+	private final transient Object mStateLock = new Object();
 	private String mIdentifier = "TcmCDService-" + UUID.randomUUID().toString();
 	
-	private String mHost = DEFAULT_RMI_HOST;
-	private int mPort = DEFAULT_RMI_PORT;
-	private String mInstanceIdentifier = null;
+	private final transient List<CacheChannelEndpoint> mEndpoints;
+	private final boolean mFanOut;
+	private final transient EventDeduplicator mDeduplicator;
+	private final transient ExecutorService mFanOutExecutor;
+	private final transient TunedSocketFactory mSocketFactory;
+	private final transient ConnectorMetrics mMetrics = new ConnectorMetrics(CONNECTOR_TYPE, mIdentifier);
 	
-	private boolean mIsClosed = false;
+	private volatile boolean mIsClosed = false;
+	private volatile BroadcastQueue mBroadcastQueue = null;
 		
     private CacheChannelEventListener mListener = mNullListener;	
+    private volatile EventBatcher mEventBatcher = null;
+    private int mBatchSize = DEFAULT_BATCH_SIZE;
+    private long mBatchDelay = DEFAULT_BATCH_DELAY;
+    
+    private volatile long mLeaseInterval = DEFAULT_LEASE_INTERVAL;
+    private volatile LeaseMonitor mLeaseMonitor = null;
 
 	/**
 	 * Verify if the service is available
@@ -60,49 +98,206 @@ public class CacheChannelConnector extends UnicastRemoteObject implements Remote
 	}
 	
 	/**
-	 * Connects this cache channel connector to the remote service
+	 * Connects this cache channel connector to the remote services, in failover mode to the active and standby service
+	 * 
+	 * @throws CacheException No service could be connected
 	 */
-	private void connect()  
+	private synchronized void connect()  
 			throws CacheException
-	{		
-		String serviceUri = "//" + mHost + ":" + mPort + "/" + "CacheChannelService";
+	{
+		CacheException failure = null;
+		
+		for (CacheChannelEndpoint endpoint : mEndpoints)
+		{
+			if (isSatisfied())
+				break;
+			
+			if (endpoint.getService() != null)
+				continue;
+			
+			try
+			{
+				connect(endpoint);
+			}
+			catch (CacheException e)
+			{
+				mListener.onLog(e.getMessage());
+				failure = e;
+			}
+		}
+		
+		if (!isConnected() && failure != null)
+			throw failure;
+	}
 	
-		// Append instance identifier if requested
-		if (mInstanceIdentifier != null) 
-			serviceUri = serviceUri + "_" + mInstanceIdentifier;
+	/**
+	 * Connects this cache channel connector to the remote service of a single endpoint
+	 */
+	private void connect(CacheChannelEndpoint endpoint)
+		throws CacheException
+	{
+		String serviceUri = endpoint.getServiceUri();
 		
 		mListener.onLog("Attempting to look up cache channel service on " + serviceUri);
 		
 		try
 		{
-			mService = null;
-			
 			// Connect to the service and add our current instance as a new listener
-			RemoteCacheChannelService service = (RemoteCacheChannelService)Naming.lookup(serviceUri);
-			service.addListener(this);
+			RemoteCacheChannelService service;
+			
+			if (mSocketFactory != null)
+			{
+				// The registry is exported with plain sockets, so it is only tuned, never compressed
+				Registry registry = LocateRegistry.getRegistry(endpoint.getHost(), endpoint.getPort(), mSocketFactory.withoutCompression());
+				service = (RemoteCacheChannelService)registry.lookup(endpoint.getServiceName());
+			}
+			else
+				service = (RemoteCacheChannelService)Naming.lookup(serviceUri);
+			
+			service.addListener(endpoint.getListener());
 	    
-			mService = service;
-				
 			mListener.onLog("Successfully set cache channel service");
 			
-			mListener.onConnect();
-			
-			mIsClosed = false;
+			connected(endpoint, service);
 		}
 		catch (NotBoundException e)
 		{			
-			throw new CacheException("The remote CacheChannelService [" + mService + "] was not bound to " + serviceUri, e);
+			throw new CacheException("The remote CacheChannelService was not bound to " + serviceUri, e);
 		}
 		catch (MalformedURLException e)
 		{
-			throw new CacheException("Check configuration for the CacheChannelService [" + mService + "] on " + serviceUri, e);
+			throw new CacheException("Check configuration for the CacheChannelService on " + serviceUri, e);
 		}
 		catch (RemoteException e)
 		{
-			throw new CacheException("Could not get a connection with the CacheChannelService[" + mService + "] on " + serviceUri, e);
+			throw new CacheException("Could not get a connection with the CacheChannelService on " + serviceUri, e);
 		}		
 	}
 	
+	/**
+	 * Whether any endpoint is connected
+	 */
+	private boolean isConnected()
+	{
+		for (CacheChannelEndpoint endpoint : mEndpoints)
+		{
+			if (endpoint.getService() != null)
+				return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Whether the number of connected endpoints required by the mode is reached, all endpoints in fan-out mode and the
+	 * active and standby endpoint in failover mode
+	 */
+	private boolean isSatisfied()
+	{
+		int connected = 0;
+		
+		for (CacheChannelEndpoint endpoint : mEndpoints)
+		{
+			if (endpoint.getService() != null)
+				connected++;
+		}
+		
+		return connected >= (mFanOut ? mEndpoints.size() : Math.min(2, mEndpoints.size()));
+	}
+	
+	/**
+	 * Set the connected service of an endpoint, {@link CacheChannelEventListener#onConnect()} is only fired when no
+	 * endpoint was connected
+	 */
+	private void connected(CacheChannelEndpoint endpoint, RemoteCacheChannelService service)
+	{
+		synchronized (mStateLock)
+		{
+			if (mIsClosed)
+				return;
+			
+			boolean wasConnected = isConnected();
+			endpoint.setService(service);
+			
+			if (wasConnected)
+				return;
+		}
+		
+		mMetrics.connected();
+		mListener.onConnect();
+	}
+	
+	/**
+	 * Clear the failed service of an endpoint, {@link CacheChannelEventListener#onDisconnect()} is only fired when no
+	 * endpoint remains connected. A failure of an earlier connection does not affect a newer one.
+	 */
+	private void disconnected(CacheChannelEndpoint endpoint, RemoteCacheChannelService service)
+	{
+		synchronized (mStateLock)
+		{
+			if (service == null || endpoint.getService() != service)
+				return;
+			
+			endpoint.setService(null);
+			
+			if (isConnected())
+				return;
+		}
+		
+		mMetrics.disconnected();
+		mListener.onDisconnect();
+	}
+	
+	/**
+	 * Renew the lease with all connected services, services which lost the lease are disconnected
+	 */
+	void renewLeases()
+	{
+		for (CacheChannelEndpoint endpoint : mEndpoints)
+		{
+			RemoteCacheChannelService service = endpoint.getService();
+			
+			if (service == null)
+				continue;
+			
+			try
+			{
+				if (service.isAlive(mIdentifier))
+					continue;
+				
+				mListener.onLog("Client no longer valid according to service " + endpoint + ", will attempt to reconnect");
+			}
+			catch (RemoteException e)
+			{
+				mListener.onLog("RMI Cache channel connector lost connection to " + endpoint);
+			}
+			
+			disconnected(endpoint, service);
+		}
+	}
+	
+	/**
+	 * Attempt to connect the endpoints required by the mode
+	 * 
+	 * @return true if the required endpoints are connected
+	 */
+	boolean reconnect()
+	{
+		if (isSatisfied())
+			return true;
+		
+		try
+		{
+			connect();
+		}
+		catch (CacheException e)
+		{
+			// Already logged
+		}
+		
+		return isSatisfied();
+	}
+	
 	/**
 	 * Creates a new CacheChannelConnector
 	 * 
@@ -125,29 +320,222 @@ public class CacheChannelConnector extends UnicastRemoteObject implements Remote
 	public CacheChannelConnector(String host, int port, String instanceIdentifier)
 		throws RemoteException
 	{
-		mHost = host;
-		mPort = port;
+		this(Collections.singletonList(new CacheChannelEndpoint(0, host, port, instanceIdentifier)), false, null);
+	}
+	
+	/**
+	 * Creates a new CacheChannelConnector for multiple cache channel services
+	 * 
+	 * @param endpoints Cache channel services formatted as "host[:port][/instanceIdentifier]", separated by commas
+	 * @param fanOut Broadcast to all services in parallel instead of failing over between them
+	 */
+	public CacheChannelConnector(String endpoints, boolean fanOut)
+		throws RemoteException
+	{
+		this(endpoints, fanOut, null);
+	}
+	
+	/**
+	 * Creates a new CacheChannelConnector for multiple cache channel services, receiving events through tuned sockets
+	 * 
+	 * @param endpoints Cache channel services formatted as "host[:port][/instanceIdentifier]", separated by commas
+	 * @param fanOut Broadcast to all services in parallel instead of failing over between them
+	 * @param socketFactory {@link TunedSocketFactory} to accept service calls and look up the services with, or null for default sockets
+	 */
+	public CacheChannelConnector(String endpoints, boolean fanOut, TunedSocketFactory socketFactory)
+		throws RemoteException
+	{
+		this(CacheChannelEndpoint.parse(endpoints, DEFAULT_RMI_HOST, DEFAULT_RMI_PORT), fanOut, socketFactory);
+	}
+	
+	private CacheChannelConnector(List<CacheChannelEndpoint> endpoints, boolean fanOut, TunedSocketFactory socketFactory)
+		throws RemoteException
+	{
+		super(0, socketFactory != null ? socketFactory.getExportClientFactory() : null, socketFactory);
 		
-		if ("".equals(instanceIdentifier)) 
-			instanceIdentifier = null;
+		mEndpoints = endpoints;
+		mFanOut = fanOut;
+		mSocketFactory = socketFactory;
 		
-		mInstanceIdentifier = instanceIdentifier;
+		if (endpoints.size() > 1)
+		{
+			// Each service gets its own listener, so the endpoint an event was received from is known
+			for (CacheChannelEndpoint endpoint : endpoints)
+				endpoint.setListener(new EndpointListener(endpoint, socketFactory));
+		}
+		else
+			endpoints.get(0).setListener(this);
+		
+		// Only fan-out delivers the same event through several services, the failover standby is not deduplicated
+		mDeduplicator = fanOut && endpoints.size() > 1 ? new EventDeduplicator(DEDUPLICATION_WINDOW, DEDUPLICATION_CAPACITY) : null;
+		
+		if (fanOut && endpoints.size() > 1)
+		{
+			mFanOutExecutor = Executors.newCachedThreadPool(new ThreadFactory()
+			{
+				public Thread newThread(Runnable runnable)
+				{
+					Thread thread = new Thread(runnable, "FanOut-" + mIdentifier);
+					thread.setDaemon(true);
+					
+					return thread;
+				}
+			});
+		}
+		else
+			mFanOutExecutor = null;
+		
+		mMetrics.setQueueDepth(new ConnectorMetrics.Gauge()
+		{
+			public long getValue()
+			{
+				return getQueuedEventCount();
+			}
+		});
+		mMetrics.register();
 		
-		mListener.onLog("RMIConnector Host " + mHost + " Port " + mPort + " (InstanceID:" + mInstanceIdentifier + ")");		
+		mListener.onLog("RMIConnector Endpoints " + endpoints + " Mode " + (fanOut ? "fan-out" : "failover") + (socketFactory != null ? " Sockets " + socketFactory : ""));
 	}
 	
 	/**
 	 * Configure the {@link CacheChannelEventListener} for this CacheChannelConnector
+	 * <p>
+	 * A {@link CacheChannelBatchEventListener} receives cache events in batches, see {@link #setEventBatching(int, long)}.
+	 * </p>
 	 * 
 	 * @param listener Event listener to pass events to, a value of null assigns an empty listener
 	 */
-	public void setListener(CacheChannelEventListener listener)
+	public synchronized void setListener(CacheChannelEventListener listener)
 	{
 		mListener = (listener != null ? listener : mNullListener);
+		
+		updateEventBatcher();
 	}	
+	
+	/**
+	 * Configure the delivery of cache events to a {@link CacheChannelBatchEventListener}
+	 * 
+	 * @param batchSize Maximum number of cache events in a batch, a value of 1 delivers every event separately
+	 * @param batchDelay Maximum time in milliseconds a cache event waits for its batch to be delivered
+	 */
+	public synchronized void setEventBatching(int batchSize, long batchDelay)
+	{
+		mBatchSize = batchSize;
+		mBatchDelay = batchDelay;
+		
+		updateEventBatcher();
+	}
+	
+	/**
+	 * Replace the {@link EventBatcher} after the listener or batching configuration changed
+	 */
+	private void updateEventBatcher()
+	{
+		EventBatcher previous = mEventBatcher;
+		
+		if (mListener instanceof CacheChannelBatchEventListener && mBatchSize > 1)
+			mEventBatcher = new EventBatcher((CacheChannelBatchEventListener)mListener, mBatchSize, mBatchDelay, "EventBatcher-" + mIdentifier, mMetrics);
+		else
+			mEventBatcher = null;
+		
+		if (previous != null)
+			previous.close();
+	}
+
+	/**
+	 * Configure asynchronous broadcasting, {@link #broadcastEvent(CacheEvent)} then returns once the event is queued
+	 * and a background thread performs the remote call.
+	 * 
+	 * @param queueCapacity Maximum number of queued events, a value of 0 restores synchronous broadcasting
+	 * @param flushWindow Time in milliseconds a queued event waits for further events before the queue is sent
+	 * @param coalesce Queue an event for a region, key and type which is already queued only once
+	 */
+	public void setAsyncBroadcast(int queueCapacity, long flushWindow, boolean coalesce)
+	{
+		verifyOpenState();
+		
+		BroadcastQueue previous = mBroadcastQueue;
+		mBroadcastQueue = (queueCapacity > 0 ? new BroadcastQueue(this, queueCapacity, flushWindow, coalesce) : null);
+		
+		if (previous != null)
+			previous.shutdown(SHUTDOWN_TIMEOUT);
+		
+		mListener.onLog("RMIConnector asynchronous broadcast " + (queueCapacity > 0 ? "Capacity " + queueCapacity + " FlushWindow " + flushWindow + "ms Coalesce " + coalesce : "disabled"));
+	}
+	
+	/**
+	 * Number of events waiting for asynchronous broadcasting
+	 */
+	public int getQueuedEventCount()
+	{
+		BroadcastQueue queue = mBroadcastQueue;
+		return queue != null ? queue.size() : 0;
+	}
+	
+	/**
+	 * {@link ConnectorMetrics} of this connector, also registered with JMX
+	 */
+	public ConnectorMetrics getMetrics()
+	{
+		return mMetrics;
+	}
+	
+	/**
+	 * Configure the interval at which a background thread renews the lease with the cache channel service. While the lease
+	 * is held {@link #validate()} and {@link #broadcastEvent(CacheEvent)} do not make additional remote calls, a lost
+	 * lease is reconnected in the background with a jittered backoff.
+	 * 
+	 * @param leaseInterval Time in milliseconds between lease renewals, a value of 0 validates the connection on every call to {@link #validate()}
+	 */
+	public synchronized void setLeaseInterval(long leaseInterval)
+	{
+		verifyOpenState();
+		
+		mLeaseInterval = leaseInterval;
+		
+		LeaseMonitor previous = mLeaseMonitor;
+		mLeaseMonitor = null;
+		
+		if (previous != null)
+		{
+			previous.close(SHUTDOWN_TIMEOUT);
+			startLeaseMonitor();
+		}
+	}
+	
+	/**
+	 * Start the {@link LeaseMonitor} if lease renewal is enabled
+	 * 
+	 * @return true if the {@link LeaseMonitor} is running
+	 */
+	private boolean startLeaseMonitor()
+	{
+		if (mLeaseInterval <= 0)
+			return false;
+		
+		if (mLeaseMonitor == null)
+		{
+			synchronized (this)
+			{
+				if (mLeaseMonitor == null && mLeaseInterval > 0 && !mIsClosed)
+				{
+					// Connect once on the calling thread, so events can be broadcast as soon as validate returns
+					reconnect();
+					
+					mLeaseMonitor = new LeaseMonitor(this, mLeaseInterval);
+				}
+			}
+		}
+		
+		return true;
+	}
 
 	/**
 	 * Broadcast a cache event to all registered cache channel service listeners.
+	 * <p>
+	 * With asynchronous broadcasting enabled the event is only queued, delivery failures are reported through
+	 * {@link CacheChannelEventListener#onLog(String)} and the {@link Future} of {@link #broadcastEventAsync(CacheEvent)}.
+	 * </p>
 	 * 
 	 * @param cacheEvent Event to broadcast
 	 * @throws CacheException Exception wrapper around any errors
@@ -157,61 +545,218 @@ public class CacheChannelConnector extends UnicastRemoteObject implements Remote
 	{
 		verifyOpenState();
 		
-		if (mService == null) 
-			connect();
+		Object span = mTracer.begin(CacheEventTracer.Phase.PUBLISH);
+		BroadcastQueue queue = mBroadcastQueue;
+		
+		if (queue != null)
+			queue.offer(cacheEvent);
+		else
+			sendEvent(cacheEvent);
+		
+		mTracer.end(span, CONNECTOR_TYPE, cacheEvent, 1);
+	}
+
+	/**
+	 * Broadcast a cache event to all registered cache channel service listeners without waiting for the remote call.
+	 * <p>
+	 * Without asynchronous broadcasting the event is sent before returning and the {@link Future} is already done.
+	 * </p>
+	 * 
+	 * @param cacheEvent Event to broadcast
+	 * @return {@link Future} which completes once the event is delivered, or fails with the {@link CacheException}
+	 * @throws CacheException The event could not be queued
+	 */
+	public Future<Void> broadcastEventAsync(CacheEvent cacheEvent)
+		throws CacheException
+	{
+		verifyOpenState();
+		
+		BroadcastQueue queue = mBroadcastQueue;
+		
+		if (queue != null)
+			return queue.offer(cacheEvent);
+		
+		CacheException failure = null;
 		
 		try
 		{
-			mListener.onLog("Starting broadcasting event for key: " + cacheEvent.getKey());
-			
-			mService.broadcastEvent(mIdentifier, cacheEvent);
-			
-			mListener.onLog("Broadcasting event finished for key: " + cacheEvent.getKey());
+			sendEvent(cacheEvent);
 		}
-		catch (RemoteException e)
+		catch (CacheException e)
 		{
-			mService = null;
-			mListener.onDisconnect();
-			
-			throw new CacheException("Unable to broadcast event", e);
+			failure = e;
 		}
+		
+		return new CompletedBroadcast(failure);
 	}
-
+	
 	/**
-	 * Validate the connection state of the CacheChannelConnector and connect if necessary
+	 * Send a cache event to the remote services, connecting if necessary
 	 * 
-	 * @throws CacheException Unexpected remote RMI error occurred
+	 * @param cacheEvent Event to send
+	 * @throws CacheException Exception wrapper around any errors
 	 */
-	public void validate()
-		throws CacheException  
+	void sendEvent(CacheEvent cacheEvent)
+		throws CacheException
 	{
-		verifyOpenState();
+		if (!isConnected())
+		{
+			// The lease monitor reconnects in the background, only connect on this thread without it
+			if (!startLeaseMonitor())
+				connect();
+			
+			if (!isConnected())
+				throw new CacheException("Not connected to the CacheChannelService, reconnecting in the background");
+		}
+		
+		mListener.onLog("Starting broadcasting event for key: " + cacheEvent.getKey());
+		Object span = mTracer.begin(CacheEventTracer.Phase.SEND);
+		long start = System.nanoTime();
+		
+		if (mFanOutExecutor != null)
+			sendFanOut(cacheEvent);
+		else
+			sendFailover(cacheEvent);
 		
-		if (mService != null) 
+		mMetrics.broadcastLatency(System.nanoTime() - start);
+		mMetrics.eventSent(cacheEvent);
+		mTracer.end(span, CONNECTOR_TYPE, cacheEvent, 1);
+		mListener.onLog("Broadcasting event finished for key: " + cacheEvent.getKey());
+	}
+	
+	/**
+	 * Send a cache event to the active service, failing over to the next connected service on failure
+	 */
+	private void sendFailover(CacheEvent cacheEvent)
+		throws CacheException
+	{
+		RemoteException failure = null;
+		
+		for (CacheChannelEndpoint endpoint : mEndpoints)
 		{
+			RemoteCacheChannelService service = endpoint.getService();
+			
+			if (service == null)
+				continue;
+			
 			try
 			{
-				if (!mService.isAlive(mIdentifier))
-				{
-					mListener.onLog("Client no longer valid according to service, will attempt to reconnect");
-					
-					mService = null;
-					
-					mListener.onDisconnect();					
-				}
+				service.broadcastEvent(mIdentifier, cacheEvent);
+				return;
 			}
 			catch (RemoteException e)
 			{
-				mListener.onLog("RMI Cache channel connector lost connection");
-				mService = null;
+				failure = e;
+				disconnected(endpoint, service);
 				
-				mListener.onDisconnect();
+				if (mEndpoints.size() > 1)
+					mListener.onLog("Broadcasting to " + endpoint + " failed, failing over to the next service");
+			}
+		}
+		
+		if (failure != null)
+			throw new CacheException("Unable to broadcast event", failure);
+		
+		throw new CacheException("Unable to broadcast event, not connected to the CacheChannelService");
+	}
+	
+	/**
+	 * Send a cache event to all connected services in parallel, succeeds if any service received the event
+	 */
+	private void sendFanOut(final CacheEvent cacheEvent)
+		throws CacheException
+	{
+		List<CacheChannelEndpoint> endpoints = new ArrayList<CacheChannelEndpoint>(mEndpoints.size());
+		List<RemoteCacheChannelService> services = new ArrayList<RemoteCacheChannelService>(mEndpoints.size());
+		List<Future<Void>> results = new ArrayList<Future<Void>>(mEndpoints.size());
+		
+		for (CacheChannelEndpoint endpoint : mEndpoints)
+		{
+			final RemoteCacheChannelService service = endpoint.getService();
+			
+			if (service == null)
+				continue;
+			
+			endpoints.add(endpoint);
+			services.add(service);
+			results.add(mFanOutExecutor.submit(new Callable<Void>()
+			{
+				public Void call()
+					throws RemoteException
+				{
+					service.broadcastEvent(mIdentifier, cacheEvent);
+					return null;
+				}
+			}));
+		}
+		
+		Throwable failure = null;
+		int delivered = 0;
+		
+		for (int i = 0; i < results.size(); i++)
+		{
+			try
+			{
+				results.get(i).get();
+				delivered++;
+			}
+			catch (ExecutionException e)
+			{
+				failure = e.getCause();
+				disconnected(endpoints.get(i), services.get(i));
 				
-				throw new CacheException("RMI Cache channel connector lost connection", e);
+				mListener.onLog("Broadcasting to " + endpoints.get(i) + " failed: " + failure.getMessage());
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new CacheException("Interrupted while broadcasting event", e);
 			}
 		}
 		
-		if (mService == null) 
+		if (delivered == 0)
+		{
+			if (failure != null)
+				throw new CacheException("Unable to broadcast event", failure);
+			
+			throw new CacheException("Unable to broadcast event, not connected to the CacheChannelService");
+		}
+	}
+	
+	/**
+	 * Log a message to the {@link CacheChannelEventListener}
+	 */
+	void log(String message)
+	{
+		mListener.onLog(message);
+	}
+
+	/**
+	 * Validate the connection state of the CacheChannelConnector and connect if necessary
+	 * <p>
+	 * With lease renewal enabled the first call connects and starts the {@link LeaseMonitor}, later calls only check
+	 * the local state.
+	 * </p>
+	 * 
+	 * @throws CacheException Unexpected remote RMI error occurred, or no service is connected
+	 */
+	public void validate()
+		throws CacheException  
+	{
+		verifyOpenState();
+		
+		if (startLeaseMonitor())
+		{
+			// The monitor reconnects in the background, callers are still told about an outage
+			if (!isConnected())
+				throw new CacheException("RMI Cache channel connector is not connected, reconnecting in the background");
+			
+			return;
+		}
+		
+		renewLeases();
+		
+		if (!isSatisfied()) 
 			connect();
 	}
 
@@ -223,7 +768,36 @@ public class CacheChannelConnector extends UnicastRemoteObject implements Remote
 	public void handleEvent(CacheEvent cacheEvent)
 	{
 		if (!mIsClosed) 
-			mListener.onCacheEvent(cacheEvent.getRegionPath(), cacheEvent.getKey().toString(), cacheEvent.getType());
+		{
+			Object span = mTracer.begin(CacheEventTracer.Phase.RECEIVE);
+			mMetrics.eventReceived(cacheEvent);
+			EventBatcher batcher = mEventBatcher;
+			
+			if (batcher != null)
+				batcher.add(cacheEvent.getRegionPath(), cacheEvent.getKey().toString(), cacheEvent.getType());
+			else
+			{
+				Object dispatchSpan = mTracer.begin(CacheEventTracer.Phase.DISPATCH);
+				long start = System.nanoTime();
+				
+				mListener.onCacheEvent(cacheEvent.getRegionPath(), cacheEvent.getKey().toString(), cacheEvent.getType());
+				
+				mMetrics.dispatchLatency(System.nanoTime() - start);
+				mTracer.end(dispatchSpan, CONNECTOR_TYPE, cacheEvent, 1);
+			}
+			
+			mTracer.end(span, CONNECTOR_TYPE, cacheEvent, 1);
+		}
+	}
+	
+	/**
+	 * Handle an event received from one of multiple endpoints, in fan-out mode events already received from another
+	 * endpoint are dropped
+	 */
+	private void handleEvent(CacheChannelEndpoint endpoint, CacheEvent cacheEvent)
+	{
+		if (mDeduplicator == null || !mDeduplicator.isDuplicate(endpoint.getIndex(), cacheEvent))
+			handleEvent(cacheEvent);
 	}
 
 	/**
@@ -231,13 +805,59 @@ public class CacheChannelConnector extends UnicastRemoteObject implements Remote
 	 */
 	public void disconnect()
 	{
-		mIsClosed = true;
+		// Send queued events before the connection is released
+		BroadcastQueue queue = mBroadcastQueue;
+		mBroadcastQueue = null;
+		
+		if (queue != null)
+			queue.shutdown(SHUTDOWN_TIMEOUT);
+		
+		// Deliver received events before the connector is closed
+		EventBatcher batcher = mEventBatcher;
+		mEventBatcher = null;
 		
-		if (mService != null)
+		if (batcher != null)
+			batcher.close();
+		
+		LeaseMonitor monitor = mLeaseMonitor;
+		mLeaseMonitor = null;
+		
+		if (monitor != null)
+			monitor.close(SHUTDOWN_TIMEOUT);
+		
+		List<RemoteCacheChannelService> services = new ArrayList<RemoteCacheChannelService>(mEndpoints.size());
+		
+		synchronized (mStateLock)
 		{
-			mListener.onDisconnect();    
-			mService = null;
+			mIsClosed = true;
+			
+			for (CacheChannelEndpoint endpoint : mEndpoints)
+				services.add(endpoint.getService());
+		}
+		
+		for (int i = 0; i < mEndpoints.size(); i++)
+			disconnected(mEndpoints.get(i), services.get(i));
+		
+		if (mFanOutExecutor != null)
+			mFanOutExecutor.shutdown();
+		
+		// Endpoint listeners are exported separately from this connector
+		for (CacheChannelEndpoint endpoint : mEndpoints)
+		{
+			if (endpoint.getListener() != this)
+			{
+				try
+				{
+					UnicastRemoteObject.unexportObject(endpoint.getListener(), true);
+				}
+				catch (NoSuchObjectException e)
+				{
+					// Not exported
+				}
+			}
 		}
+		
+		mMetrics.unregister();
 	}
 
 	/**
@@ -247,6 +867,74 @@ public class CacheChannelConnector extends UnicastRemoteObject implements Remote
 	{
 		return mIdentifier;
 	}
+	
+	/**
+	 * EndpointListener receives the events of a single endpoint when multiple endpoints are configured
+	 */
+	private class EndpointListener extends UnicastRemoteObject implements RemoteCacheListener
+	{
+		private final CacheChannelEndpoint mEndpoint;
+		
+		EndpointListener(CacheChannelEndpoint endpoint, TunedSocketFactory socketFactory)
+			throws RemoteException
+		{
+			super(0, socketFactory != null ? socketFactory.getExportClientFactory() : null, socketFactory);
+			mEndpoint = endpoint;
+		}
+		
+		public void handleEvent(CacheEvent cacheEvent)
+		{
+			CacheChannelConnector.this.handleEvent(mEndpoint, cacheEvent);
+		}
+		
+		public String getGUID()
+		{
+			return mIdentifier;
+		}
+	}
+	
+	/**
+	 * CompletedBroadcast is the {@link Future} of a synchronously sent event
+	 */
+	private static class CompletedBroadcast implements Future<Void>
+	{
+		private final CacheException mFailure;
+		
+		CompletedBroadcast(CacheException failure)
+		{
+			mFailure = failure;
+		}
+		
+		public boolean cancel(boolean mayInterruptIfRunning)
+		{
+			return false;
+		}
+
+		public boolean isCancelled()
+		{
+			return false;
+		}
+
+		public boolean isDone()
+		{
+			return true;
+		}
+
+		public Void get()
+			throws ExecutionException
+		{
+			if (mFailure != null)
+				throw new ExecutionException(mFailure.getMessage(), mFailure);
+			
+			return null;
+		}
+
+		public Void get(long timeout, TimeUnit unit)
+			throws ExecutionException
+		{
+			return get();
+		}
+	}
 }
 
 
@@ -0,0 +1,164 @@
+/**
+ *   @description Cache Channel Endpoint
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.rmi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.tridion.cache.RemoteCacheChannelService;
+import com.tridion.cache.RemoteCacheListener;
+
+/**
+ * CacheChannelEndpoint holds the address and connection state of a single remote cache channel service.
+ */
+final class CacheChannelEndpoint
+{
+	// Endpoints are identified by a bit in the EventDeduplicator
+	static final int MAX_ENDPOINTS = 64;
+
+	private final int mIndex;
+	private final String mHost;
+	private final int mPort;
+	private final String mInstanceIdentifier;
+
+	private volatile RemoteCacheChannelService mService = null;
+	private RemoteCacheListener mListener = null;
+
+	/**
+	 * Create a new CacheChannelEndpoint
+	 *
+	 * @param index Position of the endpoint in the configured list
+	 * @param host Java RMI host to connect to
+	 * @param port Java RMI port to connect to
+	 * @param instanceIdentifier Tridion cache channel instance identifier, or null
+	 */
+	CacheChannelEndpoint(int index, String host, int port, String instanceIdentifier)
+	{
+		mIndex = index;
+		mHost = host;
+		mPort = port;
+		mInstanceIdentifier = ("".equals(instanceIdentifier) ? null : instanceIdentifier);
+	}
+
+	/**
+	 * Parse a list of endpoints formatted as "host[:port][/instanceIdentifier]", separated by commas or whitespace
+	 *
+	 * @param endpoints Endpoint list
+	 * @param defaultHost Host of endpoints without a host
+	 * @param defaultPort Port of endpoints without a port
+	 * @return List of {@link CacheChannelEndpoint}
+	 */
+	static List<CacheChannelEndpoint> parse(String endpoints, String defaultHost, int defaultPort)
+	{
+		List<CacheChannelEndpoint> result = new ArrayList<CacheChannelEndpoint>();
+
+		for (String endpoint : (endpoints != null ? endpoints.trim() : "").split("[,;\\s]+"))
+		{
+			if (endpoint.length() == 0)
+				continue;
+
+			String instanceIdentifier = null;
+			int separator = endpoint.indexOf('/');
+
+			if (separator >= 0)
+			{
+				instanceIdentifier = endpoint.substring(separator + 1);
+				endpoint = endpoint.substring(0, separator);
+			}
+
+			int port = defaultPort;
+			separator = endpoint.lastIndexOf(':');
+
+			if (separator >= 0)
+			{
+				try
+				{
+					port = Integer.parseInt(endpoint.substring(separator + 1));
+				}
+				catch (NumberFormatException e)
+				{
+					throw new IllegalArgumentException("Invalid port in CacheChannelService endpoint \"" + endpoint + "\"", e);
+				}
+
+				endpoint = endpoint.substring(0, separator);
+			}
+
+			result.add(new CacheChannelEndpoint(result.size(), endpoint.length() > 0 ? endpoint : defaultHost, port, instanceIdentifier));
+		}
+
+		if (result.isEmpty())
+			throw new IllegalArgumentException("No CacheChannelService endpoints configured");
+
+		if (result.size() > MAX_ENDPOINTS)
+			throw new IllegalArgumentException("At most " + MAX_ENDPOINTS + " CacheChannelService endpoints are supported");
+
+		return Collections.unmodifiableList(result);
+	}
+
+	int getIndex()
+	{
+		return mIndex;
+	}
+
+	String getHost()
+	{
+		return mHost;
+	}
+
+	int getPort()
+	{
+		return mPort;
+	}
+
+	/**
+	 * Name the cache channel service is bound to in the RMI registry
+	 */
+	String getServiceName()
+	{
+		// Append instance identifier if requested
+		return mInstanceIdentifier != null ? "CacheChannelService_" + mInstanceIdentifier : "CacheChannelService";
+	}
+
+	/**
+	 * RMI URI of the cache channel service
+	 */
+	String getServiceUri()
+	{
+		return "//" + mHost + ":" + mPort + "/" + getServiceName();
+	}
+
+	/**
+	 * Connected service, or null if not connected
+	 */
+	RemoteCacheChannelService getService()
+	{
+		return mService;
+	}
+
+	void setService(RemoteCacheChannelService service)
+	{
+		mService = service;
+	}
+
+	/**
+	 * {@link RemoteCacheListener} registered with the service of this endpoint
+	 */
+	RemoteCacheListener getListener()
+	{
+		return mListener;
+	}
+
+	void setListener(RemoteCacheListener listener)
+	{
+		mListener = listener;
+	}
+
+	@Override
+	public String toString()
+	{
+		return mHost + ":" + mPort + (mInstanceIdentifier != null ? "/" + mInstanceIdentifier : "");
+	}
+}
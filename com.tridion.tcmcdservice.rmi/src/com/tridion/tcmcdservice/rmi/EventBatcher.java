@@ -0,0 +1,189 @@
+/**
+ *   @description Event Batcher
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.rmi;
+
+import com.tridion.tcmcdservice.common.CacheEventTracer;
+import com.tridion.tcmcdservice.common.ConnectorMetrics;
+
+/**
+ * EventBatcher accumulates received cache events and delivers them to a {@link CacheChannelBatchEventListener}.
+ * <p>
+ * A batch is delivered by the receiving thread once it holds "batchSize" events, or by a background thread once its first
+ * event waited "batchDelay" milliseconds. Batches are delivered one at a time and in order.
+ * </p>
+ */
+class EventBatcher implements Runnable
+{
+	private static final CacheEventTracer mTracer = CacheEventTracer.getInstance();
+
+	private final CacheChannelBatchEventListener mListener;
+	private final int mBatchSize;
+	private final long mBatchDelay;
+	private final ConnectorMetrics mMetrics;
+
+	private final Object mDeliverLock = new Object();
+	private String[] mRegions;
+	private String[] mKeys;
+	private int[] mEventTypes;
+	private int mCount = 0;
+	private long mFirstEvent = 0;
+	private boolean mClosed = false;
+	private final Thread mThread;
+
+	/**
+	 * Create and start a new EventBatcher
+	 *
+	 * @param listener {@link CacheChannelBatchEventListener} to deliver batches to
+	 * @param batchSize Maximum number of events in a batch
+	 * @param batchDelay Maximum time in milliseconds an event waits for its batch to be delivered
+	 * @param name Name of the background thread
+	 * @param metrics {@link ConnectorMetrics} recording the delivery latency
+	 */
+	EventBatcher(CacheChannelBatchEventListener listener, int batchSize, long batchDelay, String name, ConnectorMetrics metrics)
+	{
+		mListener = listener;
+		mMetrics = metrics;
+		mBatchSize = Math.max(1, batchSize);
+		mBatchDelay = Math.max(0, batchDelay);
+
+		allocate();
+
+		mThread = new Thread(this, name);
+		mThread.setDaemon(true);
+		mThread.start();
+	}
+
+	private void allocate()
+	{
+		mRegions = new String[mBatchSize];
+		mKeys = new String[mBatchSize];
+		mEventTypes = new int[mBatchSize];
+		mCount = 0;
+	}
+
+	/**
+	 * Add a received cache event
+	 */
+	void add(String region, String key, int eventType)
+	{
+		while (true)
+		{
+			boolean added = false;
+
+			synchronized (this)
+			{
+				if (mCount < mBatchSize)
+				{
+					if (mCount == 0)
+					{
+						mFirstEvent = System.nanoTime();
+						notifyAll();
+					}
+
+					mRegions[mCount] = region;
+					mKeys[mCount] = key;
+					mEventTypes[mCount] = eventType;
+
+					if (++mCount < mBatchSize)
+						return;
+
+					added = true;
+				}
+			}
+
+			// Batch is full, deliver it on this thread and retry the event if it did not fit
+			flush();
+
+			if (added)
+				return;
+		}
+	}
+
+	/**
+	 * Deliver the pending events
+	 */
+	void flush()
+	{
+		synchronized (mDeliverLock)
+		{
+			String[] regions;
+			String[] keys;
+			int[] eventTypes;
+			int count;
+
+			synchronized (this)
+			{
+				if (mCount == 0)
+					return;
+
+				regions = mRegions;
+				keys = mKeys;
+				eventTypes = mEventTypes;
+				count = mCount;
+
+				allocate();
+			}
+
+			try
+			{
+				Object span = mTracer.begin(CacheEventTracer.Phase.DISPATCH);
+				long start = System.nanoTime();
+
+				mListener.onCacheEvents(regions, keys, eventTypes, count);
+
+				mMetrics.dispatchLatency(System.nanoTime() - start);
+				mTracer.end(span, CacheChannelConnector.CONNECTOR_TYPE, null, count);
+			}
+			catch (RuntimeException ex)
+			{
+				mListener.onLog("Delivering " + count + " cache events failed: " + ex.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Deliver the pending events and stop the background thread
+	 */
+	void close()
+	{
+		synchronized (this)
+		{
+			mClosed = true;
+			notifyAll();
+		}
+
+		flush();
+	}
+
+	public void run()
+	{
+		try
+		{
+			while (true)
+			{
+				synchronized (this)
+				{
+					while (mCount == 0 && !mClosed)
+						wait();
+
+					if (mClosed)
+						return;
+
+					long remaining;
+
+					// Wait for the delay of the first event, unless the batch is delivered by a receiving thread first
+					while (mCount > 0 && !mClosed && (remaining = mBatchDelay - (System.nanoTime() - mFirstEvent) / 1000000) > 0)
+						wait(remaining);
+				}
+
+				flush();
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			// Thread was interrupted, pending events are delivered by close
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ *   @description Event Deduplicator
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.rmi;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * EventDeduplicator drops cache events which are received from more than one cache channel service.
+ * <p>
+ * An event is a duplicate if the same region, key and type was received from a different endpoint within "window"
+ * milliseconds. An event received again from the same endpoint is a new occurrence and is never dropped. At most
+ * "capacity" events are remembered, the least recently received is forgotten first.
+ * </p>
+ */
+class EventDeduplicator
+{
+	private final long mWindow;
+	private final Map<String, Delivery> mDeliveries;
+
+	/**
+	 * Create a new EventDeduplicator
+	 *
+	 * @param window Time in milliseconds within which an event from another endpoint is a duplicate
+	 * @param capacity Maximum number of remembered events
+	 */
+	EventDeduplicator(long window, final int capacity)
+	{
+		mWindow = window;
+		mDeliveries = new LinkedHashMap<String, Delivery>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Delivery> eldest)
+			{
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Register a received event
+	 *
+	 * @param endpoint Index of the endpoint the event was received from, below {@link CacheChannelEndpoint#MAX_ENDPOINTS}
+	 * @param cacheEvent Received {@link CacheEvent}
+	 * @return true if the event is a duplicate and should be dropped
+	 */
+	synchronized boolean isDuplicate(int endpoint, CacheEvent cacheEvent)
+	{
+		// Each endpoint is a bit of a long, a larger index would wrap onto another endpoint
+		if (endpoint < 0 || endpoint >= CacheChannelEndpoint.MAX_ENDPOINTS)
+			throw new IllegalArgumentException("Endpoint index " + endpoint + " is outside of the " + CacheChannelEndpoint.MAX_ENDPOINTS + " supported endpoints");
+
+		String key = cacheEvent.getType() + ":" + cacheEvent.getRegionPath() + ":" + cacheEvent.getKey();
+		long source = 1L << endpoint;
+		long now = System.currentTimeMillis();
+
+		Delivery delivery = mDeliveries.get(key);
+
+		if (delivery != null && now - delivery.mTime < mWindow && (delivery.mSources & source) == 0)
+		{
+			delivery.mSources |= source;
+			return true;
+		}
+
+		mDeliveries.put(key, new Delivery(source, now));
+
+		return false;
+	}
+
+	/**
+	 * Endpoints an event was received from
+	 */
+	private static class Delivery
+	{
+		private long mSources;
+		private final long mTime;
+
+		Delivery(long sources, long time)
+		{
+			mSources = sources;
+			mTime = time;
+		}
+	}
+}
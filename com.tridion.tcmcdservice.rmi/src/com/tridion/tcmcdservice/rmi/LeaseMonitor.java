@@ -0,0 +1,135 @@
+/**
+ *   @description Lease Monitor
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.rmi;
+
+import java.util.Random;
+
+/**
+ * LeaseMonitor keeps the connection of a {@link CacheChannelConnector} alive from a background thread.
+ * <p>
+ * The lease with every connected service is renewed every "leaseInterval" milliseconds. Once a lease is lost the monitor
+ * reconnects, failed attempts are retried with an exponential backoff which is jittered so a restarted service is not
+ * reconnected to by all clients at the same moment.
+ * </p>
+ */
+class LeaseMonitor implements Runnable
+{
+	private static final long MIN_BACKOFF = 500;
+	private static final long MAX_BACKOFF = 30000;
+
+	private final CacheChannelConnector mConnector;
+	private final long mLeaseInterval;
+	private final Random mRandom = new Random();
+
+	private boolean mClosed = false;
+	private final Thread mThread;
+
+	/**
+	 * Create and start a new LeaseMonitor
+	 *
+	 * @param connector {@link CacheChannelConnector} to monitor
+	 * @param leaseInterval Time in milliseconds between lease renewals
+	 */
+	LeaseMonitor(CacheChannelConnector connector, long leaseInterval)
+	{
+		mConnector = connector;
+		mLeaseInterval = leaseInterval;
+
+		mThread = new Thread(this, "LeaseMonitor-" + connector.getGUID());
+		mThread.setDaemon(true);
+		mThread.start();
+	}
+
+	/**
+	 * Stop the background thread
+	 *
+	 * @param timeout Maximum time in milliseconds to wait for a running renewal or reconnect
+	 */
+	void close(long timeout)
+	{
+		synchronized (this)
+		{
+			mClosed = true;
+			notifyAll();
+		}
+
+		try
+		{
+			mThread.join(timeout);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Wait for the given delay
+	 *
+	 * @return false if the monitor was closed
+	 */
+	private synchronized boolean await(long delay)
+		throws InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + delay;
+		long remaining = delay;
+
+		while (!mClosed && remaining > 0)
+		{
+			wait(remaining);
+			remaining = deadline - System.currentTimeMillis();
+		}
+
+		return !mClosed;
+	}
+
+	/**
+	 * Jittered backoff after the given number of consecutive failed reconnects
+	 */
+	private long backoff(int failures)
+	{
+		long backoff = Math.min(MAX_BACKOFF, MIN_BACKOFF << Math.min(failures - 1, 16));
+
+		return backoff / 2 + (long)(mRandom.nextDouble() * (backoff / 2));
+	}
+
+	public void run()
+	{
+		int failures = 0;
+		long delay = mLeaseInterval;
+
+		try
+		{
+			while (await(delay))
+			{
+				// The monitor must survive any failure, validate() does not connect while it is running
+				try
+				{
+					mConnector.renewLeases();
+
+					if (mConnector.reconnect())
+					{
+						failures = 0;
+						delay = mLeaseInterval;
+					}
+					else
+					{
+						delay = backoff(++failures);
+						mConnector.log("Reconnect attempt " + failures + " failed, retrying in " + delay + "ms");
+					}
+				}
+				catch (RuntimeException ex)
+				{
+					delay = backoff(++failures);
+					mConnector.log("Lease renewal failed, retrying in " + delay + "ms: " + ex);
+				}
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			// Thread was interrupted, monitoring stops
+		}
+	}
+}
@@ -0,0 +1,476 @@
+/**
+ *   @description Tuned Socket Factory
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.rmi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.RMIServerSocketFactory;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * TunedSocketFactory creates RMI sockets with TCP_NODELAY, keep-alive, sized socket buffers and optional compression.
+ * <p>
+ * The factory is configured from a comma separated option string, for example
+ * "sendBuffer=65536,receiveBuffer=65536,compress":
+ * </p>
+ * <ul>
+ * <li>noDelay=false - Keep Nagle's algorithm enabled, TCP_NODELAY is set by default</li>
+ * <li>keepAlive=false - Disable TCP keep-alive, which is enabled by default</li>
+ * <li>sendBuffer=&lt;bytes&gt; - Socket send buffer size</li>
+ * <li>receiveBuffer=&lt;bytes&gt; - Socket receive buffer size</li>
+ * <li>exportClientFactory - Export the event listeners with this factory as client socket factory as well, so the
+ * cache channel service also uses tuned sockets when it calls back. The factory is serialized with the listener stubs,
+ * so the cache channel service MUST have this class on its classpath, otherwise adding a listener fails</li>
+ * <li>compress - Deflate every flushed payload of at least "compressThreshold" bytes, requires "exportClientFactory"</li>
+ * <li>compressThreshold=&lt;bytes&gt; - Minimum payload size to compress, defaults to 512</li>
+ * </ul>
+ * <p>
+ * By default the factory only tunes the sockets of this side: the registry lookup and the sockets accepted for calls
+ * from the cache channel service. A compressed connection can only be made to a peer exporting its objects with a
+ * compressing factory. Payloads are written in frames of at most {@value #MAX_FRAME_LENGTH} bytes, larger frames are
+ * rejected when read.
+ * </p>
+ */
+public class TunedSocketFactory implements RMIClientSocketFactory, RMIServerSocketFactory, Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	private static final int DEFAULT_COMPRESS_THRESHOLD = 512;
+
+	/**
+	 * Maximum payload length of a single compression frame
+	 */
+	public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+	private boolean mNoDelay = true;
+	private boolean mKeepAlive = true;
+	private int mSendBuffer = 0;
+	private int mReceiveBuffer = 0;
+	private boolean mExportClientFactory = false;
+	private boolean mCompress = false;
+	private int mCompressThreshold = DEFAULT_COMPRESS_THRESHOLD;
+
+	/**
+	 * Create a new TunedSocketFactory with TCP_NODELAY and default buffers
+	 */
+	public TunedSocketFactory()
+	{
+	}
+
+	/**
+	 * Create a new TunedSocketFactory
+	 *
+	 * @param options Comma separated options
+	 */
+	public TunedSocketFactory(String options)
+	{
+		for (String option : (options != null ? options.trim() : "").split("[,;\\s]+"))
+		{
+			if (option.length() == 0)
+				continue;
+
+			int separator = option.indexOf('=');
+			String name = (separator >= 0 ? option.substring(0, separator) : option).trim();
+			String value = (separator >= 0 ? option.substring(separator + 1) : "true").trim();
+
+			try
+			{
+				if ("noDelay".equalsIgnoreCase(name))
+					mNoDelay = Boolean.parseBoolean(value);
+				else if ("keepAlive".equalsIgnoreCase(name))
+					mKeepAlive = Boolean.parseBoolean(value);
+				else if ("sendBuffer".equalsIgnoreCase(name))
+					mSendBuffer = Integer.parseInt(value);
+				else if ("receiveBuffer".equalsIgnoreCase(name))
+					mReceiveBuffer = Integer.parseInt(value);
+				else if ("exportClientFactory".equalsIgnoreCase(name))
+					mExportClientFactory = Boolean.parseBoolean(value);
+				else if ("compress".equalsIgnoreCase(name))
+					mCompress = Boolean.parseBoolean(value);
+				else if ("compressThreshold".equalsIgnoreCase(name))
+					mCompressThreshold = Integer.parseInt(value);
+				else
+					throw new IllegalArgumentException("Unknown socket option \"" + name + "\"");
+			}
+			catch (NumberFormatException e)
+			{
+				throw new IllegalArgumentException("Invalid value for socket option \"" + name + "\": " + value, e);
+			}
+		}
+
+		if (mCompress && !mExportClientFactory)
+			throw new IllegalArgumentException("Socket option \"compress\" requires \"exportClientFactory\"");
+	}
+
+	/**
+	 * Copy of this factory without compression, for connections to peers using plain sockets such as the RMI registry
+	 */
+	public TunedSocketFactory withoutCompression()
+	{
+		TunedSocketFactory factory = new TunedSocketFactory();
+		factory.mNoDelay = mNoDelay;
+		factory.mKeepAlive = mKeepAlive;
+		factory.mSendBuffer = mSendBuffer;
+		factory.mReceiveBuffer = mReceiveBuffer;
+
+		return factory;
+	}
+
+	public boolean isCompressed()
+	{
+		return mCompress;
+	}
+
+	/**
+	 * Client socket factory to export remote objects with, which the peer calling them must be able to load
+	 *
+	 * @return this factory if "exportClientFactory" is set, otherwise null for the default client sockets
+	 */
+	public RMIClientSocketFactory getExportClientFactory()
+	{
+		return mExportClientFactory ? this : null;
+	}
+
+	public Socket createSocket(String host, int port)
+		throws IOException
+	{
+		Socket socket = new TunedSocket();
+		configure(socket);
+		socket.connect(new InetSocketAddress(host, port));
+
+		return socket;
+	}
+
+	public ServerSocket createServerSocket(int port)
+		throws IOException
+	{
+		return new ServerSocket(port)
+		{
+			@Override
+			public Socket accept()
+				throws IOException
+			{
+				Socket socket = new TunedSocket();
+				implAccept(socket);
+				configure(socket);
+
+				return socket;
+			}
+		};
+	}
+
+	private void configure(Socket socket)
+		throws IOException
+	{
+		socket.setTcpNoDelay(mNoDelay);
+		socket.setKeepAlive(mKeepAlive);
+
+		if (mSendBuffer > 0)
+			socket.setSendBufferSize(mSendBuffer);
+
+		if (mReceiveBuffer > 0)
+			socket.setReceiveBufferSize(mReceiveBuffer);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (!(obj instanceof TunedSocketFactory))
+			return false;
+
+		TunedSocketFactory factory = (TunedSocketFactory)obj;
+
+		return factory.getClass() == getClass() &&
+				mNoDelay == factory.mNoDelay &&
+				mKeepAlive == factory.mKeepAlive &&
+				mSendBuffer == factory.mSendBuffer &&
+				mReceiveBuffer == factory.mReceiveBuffer &&
+				mExportClientFactory == factory.mExportClientFactory &&
+				mCompress == factory.mCompress &&
+				mCompressThreshold == factory.mCompressThreshold;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return ((((((mNoDelay ? 1 : 0) * 31 + (mKeepAlive ? 1 : 0)) * 31 + mSendBuffer) * 31 + mReceiveBuffer) * 31 + (mExportClientFactory ? 1 : 0)) * 31 + (mCompress ? 1 : 0)) * 31 + mCompressThreshold;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "noDelay=" + mNoDelay + ",keepAlive=" + mKeepAlive + ",sendBuffer=" + mSendBuffer + ",receiveBuffer=" + mReceiveBuffer + ",exportClientFactory=" + mExportClientFactory + ",compress=" + mCompress +
+				(mCompress ? ",compressThreshold=" + mCompressThreshold : "");
+	}
+
+	/**
+	 * TunedSocket wraps its streams in compressing streams if compression is enabled
+	 */
+	private class TunedSocket extends Socket
+	{
+		private InputStream mInputStream = null;
+		private OutputStream mOutputStream = null;
+
+		@Override
+		public synchronized InputStream getInputStream()
+			throws IOException
+		{
+			if (mInputStream == null)
+				mInputStream = mCompress ? new InflatingInputStream(super.getInputStream()) : super.getInputStream();
+
+			return mInputStream;
+		}
+
+		@Override
+		public synchronized OutputStream getOutputStream()
+			throws IOException
+		{
+			if (mOutputStream == null)
+				mOutputStream = mCompress ? new DeflatingOutputStream(super.getOutputStream(), mCompressThreshold) : super.getOutputStream();
+
+			return mOutputStream;
+		}
+	}
+
+	/**
+	 * DeflatingOutputStream writes every flushed payload as frames of at most {@link #MAX_FRAME_LENGTH} bytes: flag byte
+	 * (0 = stored, 1 = deflated), payload length, frame length and the frame. A frame which does not shrink is stored.
+	 */
+	private static class DeflatingOutputStream extends FilterOutputStream
+	{
+		private final int mThreshold;
+		private final ByteArrayOutputStream mBuffer = new ByteArrayOutputStream(4096);
+		private final Deflater mDeflater = new Deflater(Deflater.BEST_SPEED);
+		private final byte[] mChunk = new byte[4096];
+
+		DeflatingOutputStream(OutputStream out, int threshold)
+		{
+			super(new DataOutputStream(out));
+			mThreshold = threshold;
+		}
+
+		@Override
+		public void write(int b)
+		{
+			mBuffer.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len)
+		{
+			mBuffer.write(b, off, len);
+		}
+
+		@Override
+		public void flush()
+			throws IOException
+		{
+			DataOutputStream out = (DataOutputStream)this.out;
+			byte[] payload = mBuffer.toByteArray();
+			mBuffer.reset();
+
+			for (int offset = 0; offset < payload.length; offset += MAX_FRAME_LENGTH)
+				writeFrame(out, payload, offset, Math.min(MAX_FRAME_LENGTH, payload.length - offset));
+
+			out.flush();
+		}
+
+		private void writeFrame(DataOutputStream out, byte[] payload, int offset, int length)
+			throws IOException
+		{
+			if (length >= mThreshold)
+			{
+				ByteArrayOutputStream frame = new ByteArrayOutputStream(length / 2);
+
+				mDeflater.reset();
+				mDeflater.setInput(payload, offset, length);
+				mDeflater.finish();
+
+				while (!mDeflater.finished())
+					frame.write(mChunk, 0, mDeflater.deflate(mChunk));
+
+				if (frame.size() < length)
+				{
+					out.writeByte(1);
+					out.writeInt(length);
+					out.writeInt(frame.size());
+					frame.writeTo(out);
+
+					return;
+				}
+			}
+
+			out.writeByte(0);
+			out.writeInt(length);
+			out.writeInt(length);
+			out.write(payload, offset, length);
+		}
+
+		@Override
+		public void close()
+			throws IOException
+		{
+			try
+			{
+				super.close();
+			}
+			finally
+			{
+				mDeflater.end();
+			}
+		}
+	}
+
+	/**
+	 * InflatingInputStream reads the frames written by {@link DeflatingOutputStream}
+	 */
+	private static class InflatingInputStream extends FilterInputStream
+	{
+		private final Inflater mInflater = new Inflater();
+		private byte[] mPayload = new byte[0];
+		private int mPosition = 0;
+
+		InflatingInputStream(InputStream in)
+		{
+			super(new DataInputStream(in));
+		}
+
+		/**
+		 * Read the next frame
+		 *
+		 * @return false at the end of the stream
+		 */
+		private boolean fill()
+			throws IOException
+		{
+			DataInputStream in = (DataInputStream)this.in;
+			int flag = in.read();
+
+			if (flag < 0)
+				return false;
+
+			int length = in.readInt();
+			int frameLength = in.readInt();
+
+			// Lengths are checked before allocating, a corrupt or hostile stream must not exhaust the heap
+			if (length < 0 || length > MAX_FRAME_LENGTH || frameLength < 0 || frameLength > length)
+				throw new IOException("Invalid compressed frame, payload length " + length + " frame length " + frameLength);
+
+			byte[] frame = new byte[frameLength];
+			in.readFully(frame);
+
+			if (flag == 0)
+				mPayload = frame;
+			else
+			{
+				mPayload = new byte[length];
+				mInflater.reset();
+				mInflater.setInput(frame);
+
+				try
+				{
+					int inflated = 0;
+
+					while (inflated < length && !mInflater.finished())
+						inflated += mInflater.inflate(mPayload, inflated, length - inflated);
+
+					if (inflated != length)
+						throw new EOFException("Truncated compressed frame");
+				}
+				catch (DataFormatException e)
+				{
+					throw new IOException("Invalid compressed frame: " + e.getMessage());
+				}
+			}
+
+			mPosition = 0;
+
+			return true;
+		}
+
+		@Override
+		public int read()
+			throws IOException
+		{
+			while (mPosition >= mPayload.length)
+			{
+				if (!fill())
+					return -1;
+			}
+
+			return mPayload[mPosition++] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len)
+			throws IOException
+		{
+			if (len == 0)
+				return 0;
+
+			while (mPosition >= mPayload.length)
+			{
+				if (!fill())
+					return -1;
+			}
+
+			int count = Math.min(len, mPayload.length - mPosition);
+			System.arraycopy(mPayload, mPosition, b, off, count);
+			mPosition += count;
+
+			return count;
+		}
+
+		@Override
+		public int available()
+		{
+			return mPayload.length - mPosition;
+		}
+
+		@Override
+		public long skip(long n)
+			throws IOException
+		{
+			int count = (int)Math.min(n, available());
+			mPosition += count;
+
+			return count;
+		}
+
+		@Override
+		public boolean markSupported()
+		{
+			return false;
+		}
+
+		@Override
+		public void close()
+			throws IOException
+		{
+			try
+			{
+				super.close();
+			}
+			finally
+			{
+				mInflater.end();
+			}
+		}
+	}
+}
@@ -0,0 +1,254 @@
+/**
+ *   @description Broadcast Queue Test
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.rmi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * BroadcastQueueTest verifies capacity, coalescing and failure handling of asynchronous broadcasts against a connector
+ * which records the events it is asked to send.
+ */
+public class BroadcastQueueTest
+{
+	private Connector mConnector;
+	private BroadcastQueue mQueue;
+
+	/**
+	 * Connector recording sent events, sending the held event waits until it is released
+	 */
+	private static class Connector extends CacheChannelConnector
+	{
+		private final List<CacheEvent> mSent = Collections.synchronizedList(new ArrayList<CacheEvent>());
+		private final CountDownLatch mSending = new CountDownLatch(1);
+		private final CountDownLatch mRelease = new CountDownLatch(1);
+		private volatile CacheEvent mHold = null;
+		private volatile CacheEvent mFail = null;
+
+		Connector()
+			throws RemoteException
+		{
+			super("127.0.0.1", 1099);
+		}
+
+		@Override
+		void sendEvent(CacheEvent cacheEvent)
+			throws CacheException
+		{
+			mSent.add(cacheEvent);
+
+			if (cacheEvent == mHold)
+			{
+				mSending.countDown();
+
+				try
+				{
+					mRelease.await();
+				}
+				catch (InterruptedException ex)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			if (cacheEvent == mFail)
+				throw new CacheException("Connection lost");
+		}
+	}
+
+	private static CacheEvent event(String regionPath, int key)
+	{
+		return new CacheEvent(regionPath, "1:" + key, CacheEvent.INVALIDATE);
+	}
+
+	private static CacheException getFailure(Future<Void> future)
+		throws Exception
+	{
+		try
+		{
+			future.get(5, TimeUnit.SECONDS);
+		}
+		catch (ExecutionException ex)
+		{
+			return (CacheException)ex.getCause();
+		}
+
+		fail("Broadcast did not fail");
+		return null;
+	}
+
+	@Before
+	public void setUp()
+		throws RemoteException
+	{
+		mConnector = new Connector();
+	}
+
+	@After
+	public void tearDown()
+		throws RemoteException
+	{
+		mConnector.mRelease.countDown();
+
+		if (mQueue != null)
+			mQueue.shutdown(5000);
+
+		mConnector.disconnect();
+		UnicastRemoteObject.unexportObject(mConnector, true);
+	}
+
+	/**
+	 * Start a queue and keep its thread busy sending the given event
+	 */
+	private Future<Void> hold(int capacity, boolean coalesce, CacheEvent cacheEvent)
+		throws Exception
+	{
+		mQueue = new BroadcastQueue(mConnector, capacity, 0, coalesce);
+		mConnector.mHold = cacheEvent;
+
+		Future<Void> future = mQueue.offer(cacheEvent);
+		assertTrue(mConnector.mSending.await(5, TimeUnit.SECONDS));
+
+		return future;
+	}
+
+	@Test(timeout = 30000)
+	public void rejectsEventsBeyondCapacity()
+		throws Exception
+	{
+		hold(2, false, event("/a", 0));
+
+		mQueue.offer(event("/a", 1));
+		mQueue.offer(event("/a", 2));
+		assertEquals(2, mQueue.size());
+
+		try
+		{
+			mQueue.offer(event("/a", 3));
+			fail("Queue accepted an event beyond its capacity");
+		}
+		catch (CacheException ex)
+		{
+			assertTrue(ex.getMessage().contains("exceeded 2 events"));
+		}
+	}
+
+	@Test(timeout = 30000)
+	public void coalescesQueuedEventsIntoOneFuture()
+		throws Exception
+	{
+		hold(1, true, event("/a", 0));
+
+		Future<Void> first = mQueue.offer(event("/a", 1));
+		Future<Void> second = mQueue.offer(event("/a", 1));
+
+		assertSame(first, second);
+		assertEquals(1, mQueue.size());
+
+		mConnector.mRelease.countDown();
+		first.get(5, TimeUnit.SECONDS);
+
+		assertEquals(2, mConnector.mSent.size());
+
+		// Once sent the event is queued again
+		assertNotSame(first, mQueue.offer(event("/a", 1)));
+	}
+
+	@Test(timeout = 30000)
+	public void keepsEventsWithoutCoalescing()
+		throws Exception
+	{
+		hold(2, false, event("/a", 0));
+
+		Future<Void> first = mQueue.offer(event("/a", 1));
+		Future<Void> second = mQueue.offer(event("/a", 1));
+
+		assertNotSame(first, second);
+
+		mConnector.mRelease.countDown();
+		first.get(5, TimeUnit.SECONDS);
+		second.get(5, TimeUnit.SECONDS);
+
+		assertEquals(3, mConnector.mSent.size());
+	}
+
+	@Test(timeout = 30000)
+	public void failsRestOfBatchAfterFirstFailure()
+		throws Exception
+	{
+		Future<Void> held = hold(8, false, event("/a", 0));
+
+		CacheEvent failing = event("/a", 1);
+		mConnector.mFail = failing;
+
+		List<Future<Void>> batch = new ArrayList<Future<Void>>();
+
+		for (CacheEvent cacheEvent : new CacheEvent[] { failing, event("/a", 2), event("/a", 3) })
+			batch.add(mQueue.offer(cacheEvent));
+
+		mConnector.mRelease.countDown();
+		held.get(5, TimeUnit.SECONDS);
+
+		CacheException failure = getFailure(batch.get(0));
+		assertEquals("Connection lost", failure.getMessage());
+
+		for (Future<Void> future : batch.subList(1, 3))
+			assertSame(failure, getFailure(future));
+
+		// The events after the failure are not sent at all
+		assertEquals(2, mConnector.mSent.size());
+
+		// The next batch is sent again
+		mQueue.offer(event("/a", 4)).get(5, TimeUnit.SECONDS);
+	}
+
+	@Test(timeout = 30000)
+	public void shutdownFailsPendingEvents()
+		throws Exception
+	{
+		Future<Void> held = hold(8, false, event("/a", 0));
+		Future<Void> pending = mQueue.offer(event("/a", 1));
+
+		mQueue.shutdown(50);
+
+		assertTrue(getFailure(pending).getMessage().contains("shut down"));
+		assertFalse(held.isDone());
+
+		try
+		{
+			mQueue.offer(event("/a", 2));
+			fail("Queue accepted an event after shutdown");
+		}
+		catch (CacheException ex)
+		{
+			assertTrue(ex.getMessage().contains("shut down"));
+		}
+
+		// The event in progress is still completed
+		mConnector.mRelease.countDown();
+		held.get(5, TimeUnit.SECONDS);
+		assertEquals(1, mConnector.mSent.size());
+	}
+}
@@ -0,0 +1,268 @@
+/**
+ *   @description Cache Channel Connector Test
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.rmi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.tridion.cache.CacheEvent;
+import com.tridion.cache.RemoteCacheChannelService;
+import com.tridion.cache.RemoteCacheListener;
+
+/**
+ * CacheChannelConnectorTest verifies how the connector delivers received events to its listener, and how it sends and
+ * receives events through several cache channel services in registries of this JVM.
+ */
+public class CacheChannelConnectorTest
+{
+	private CacheChannelConnector mConnector;
+	private final List<Registry> mRegistries = new ArrayList<Registry>();
+	private final List<Service> mServices = new ArrayList<Service>();
+
+	/**
+	 * Cache channel service recording broadcast events, failing every broadcast while it is failing
+	 */
+	private static class Service extends UnicastRemoteObject implements RemoteCacheChannelService
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final List<String> mEvents = Collections.synchronizedList(new ArrayList<String>());
+		private volatile RemoteCacheListener mListener = null;
+		private volatile boolean mFailing = false;
+
+		Service()
+			throws RemoteException
+		{
+		}
+
+		public void addListener(RemoteCacheListener listener)
+		{
+			mListener = listener;
+		}
+
+		public void broadcastEvent(String identifier, CacheEvent cacheEvent)
+			throws RemoteException
+		{
+			if (mFailing)
+				throw new RemoteException("Service is down");
+
+			mEvents.add(cacheEvent.getKey().toString());
+		}
+
+		public boolean isAlive(String identifier)
+		{
+			return true;
+		}
+	}
+
+	@Before
+	public void setUp()
+		throws RemoteException
+	{
+		mConnector = new CacheChannelConnector("127.0.0.1", 1099);
+	}
+
+	@After
+	public void tearDown()
+		throws RemoteException
+	{
+		mConnector.disconnect();
+		UnicastRemoteObject.unexportObject(mConnector, true);
+
+		for (Service service : mServices)
+			UnicastRemoteObject.unexportObject(service, true);
+
+		for (Registry registry : mRegistries)
+			UnicastRemoteObject.unexportObject(registry, true);
+	}
+
+	/**
+	 * Start the given number of services, each in its own registry, and replace the connector with one using them
+	 */
+	private void startServices(int count, boolean fanOut)
+		throws IOException
+	{
+		StringBuilder endpoints = new StringBuilder();
+
+		for (int i = 0; i < count; i++)
+		{
+			ServerSocket socket = new ServerSocket(0);
+			int port = socket.getLocalPort();
+			socket.close();
+
+			Registry registry = LocateRegistry.createRegistry(port);
+			mRegistries.add(registry);
+
+			Service service = new Service();
+			mServices.add(service);
+			registry.rebind("CacheChannelService", service);
+
+			endpoints.append("127.0.0.1:").append(port).append(',');
+		}
+
+		mConnector.disconnect();
+		UnicastRemoteObject.unexportObject(mConnector, true);
+
+		mConnector = new CacheChannelConnector(endpoints.toString(), fanOut);
+		mConnector.setLeaseInterval(0);
+		mConnector.setEventBatching(1, 0);
+	}
+
+	private void receive(int from, int to)
+	{
+		for (int i = from; i < to; i++)
+			mConnector.handleEvent(new CacheEvent("/a", "1:" + i, CacheEvent.INVALIDATE));
+	}
+
+	private static List<String> keys(int from, int to)
+	{
+		List<String> keys = new ArrayList<String>();
+
+		for (int i = from; i < to; i++)
+			keys.add("1:" + i);
+
+		return keys;
+	}
+
+	@Test(timeout = 30000)
+	public void replacingBatcherDeliversItsPendingEvents()
+	{
+		EventBatcherTest.Listener listener = new EventBatcherTest.Listener();
+
+		mConnector.setEventBatching(3, 60000);
+		mConnector.setListener(listener);
+
+		receive(0, 2);
+		assertTrue(listener.getBatches().isEmpty());
+
+		// The new batcher takes over, the events pending in the previous one are delivered first
+		mConnector.setEventBatching(5, 60000);
+		receive(2, 7);
+
+		assertEquals(Arrays.asList(keys(0, 2), keys(2, 7)), listener.getBatches());
+
+		receive(7, 8);
+
+		// Without batching the pending event is delivered and the next events are delivered one by one
+		mConnector.setEventBatching(1, 0);
+		receive(8, 10);
+
+		assertEquals(Arrays.asList(keys(0, 2), keys(2, 7), keys(7, 8)), listener.getBatches());
+		assertEquals(keys(8, 10), listener.getEvents());
+	}
+
+	@Test(timeout = 30000)
+	public void replacingListenerDeliversPendingEventsToPreviousListener()
+	{
+		EventBatcherTest.Listener first = new EventBatcherTest.Listener();
+		EventBatcherTest.Listener second = new EventBatcherTest.Listener();
+
+		mConnector.setEventBatching(10, 60000);
+		mConnector.setListener(first);
+		receive(0, 3);
+
+		mConnector.setListener(second);
+		receive(3, 5);
+
+		assertEquals(Collections.singletonList(keys(0, 3)), first.getBatches());
+		assertTrue(second.getBatches().isEmpty());
+
+		mConnector.disconnect();
+
+		assertEquals(Collections.singletonList(keys(3, 5)), second.getBatches());
+	}
+
+	@Test(timeout = 30000)
+	public void failsOverToStandbyService()
+		throws Exception
+	{
+		startServices(2, false);
+		Service active = mServices.get(0);
+		Service standby = mServices.get(1);
+
+		mConnector.broadcastEvent(new CacheEvent("/a", "1:0", CacheEvent.INVALIDATE));
+
+		assertEquals(keys(0, 1), active.mEvents);
+		assertTrue(standby.mEvents.isEmpty());
+
+		active.mFailing = true;
+		mConnector.broadcastEvent(new CacheEvent("/a", "1:1", CacheEvent.INVALIDATE));
+
+		assertEquals(keys(1, 2), standby.mEvents);
+
+		// The failed service is disconnected, the next event goes to the standby without trying it first
+		active.mFailing = false;
+		mConnector.broadcastEvent(new CacheEvent("/a", "1:2", CacheEvent.INVALIDATE));
+
+		assertEquals(keys(0, 1), active.mEvents);
+		assertEquals(keys(1, 3), standby.mEvents);
+	}
+
+	@Test(timeout = 30000)
+	public void failsWhenNoServiceReceivesEvent()
+		throws Exception
+	{
+		startServices(2, false);
+		mConnector.validate();
+
+		mServices.get(0).mFailing = true;
+		mServices.get(1).mFailing = true;
+
+		try
+		{
+			mConnector.broadcastEvent(new CacheEvent("/a", "1:0", CacheEvent.INVALIDATE));
+			fail("Broadcast without any service succeeded");
+		}
+		catch (CacheException ex)
+		{
+			assertEquals("Unable to broadcast event", ex.getMessage());
+		}
+	}
+
+	@Test(timeout = 30000)
+	public void dropsEventReceivedFromEveryServiceInFanOut()
+		throws Exception
+	{
+		startServices(2, true);
+
+		EventBatcherTest.Listener listener = new EventBatcherTest.Listener();
+		mConnector.setListener(listener);
+		mConnector.validate();
+
+		RemoteCacheListener first = mServices.get(0).mListener;
+		RemoteCacheListener second = mServices.get(1).mListener;
+
+		CacheEvent cacheEvent = new CacheEvent("/a", "1:0", CacheEvent.INVALIDATE);
+		first.handleEvent(cacheEvent);
+		second.handleEvent(cacheEvent);
+
+		assertEquals(keys(0, 1), listener.getEvents());
+
+		// The same event again from the same service is a new invalidation
+		first.handleEvent(cacheEvent);
+		second.handleEvent(cacheEvent);
+
+		assertEquals(Arrays.asList("1:0", "1:0"), listener.getEvents());
+
+		first.handleEvent(cacheEvent);
+		assertEquals(Arrays.asList("1:0", "1:0", "1:0"), listener.getEvents());
+	}
+}
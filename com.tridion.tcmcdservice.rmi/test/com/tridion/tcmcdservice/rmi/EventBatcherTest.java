@@ -0,0 +1,211 @@
+/**
+ *   @description Event Batcher Test
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.rmi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.tridion.cache.CacheEvent;
+import com.tridion.tcmcdservice.common.ConnectorMetrics;
+
+/**
+ * EventBatcherTest verifies when batches are delivered, by which thread, and that events keep their order across both.
+ */
+public class EventBatcherTest
+{
+	/**
+	 * Listener recording the keys of each delivered batch and the thread which delivered it
+	 */
+	static class Listener implements CacheChannelBatchEventListener
+	{
+		private final List<List<String>> mBatches = new ArrayList<List<String>>();
+		private final List<Thread> mThreads = new ArrayList<Thread>();
+		private final List<String> mEvents = new ArrayList<String>();
+
+		public synchronized void onCacheEvents(String[] regions, String[] keys, int[] eventTypes, int count)
+		{
+			mBatches.add(new ArrayList<String>(Arrays.asList(keys).subList(0, count)));
+			mThreads.add(Thread.currentThread());
+			notifyAll();
+		}
+
+		public synchronized void onCacheEvent(String region, String key, int eventType)
+		{
+			mEvents.add(key);
+		}
+
+		public void onLog(String message)
+		{
+		}
+
+		public void onDisconnect()
+		{
+		}
+
+		public void onConnect()
+		{
+		}
+
+		synchronized List<List<String>> getBatches()
+		{
+			return new ArrayList<List<String>>(mBatches);
+		}
+
+		synchronized List<Thread> getThreads()
+		{
+			return new ArrayList<Thread>(mThreads);
+		}
+
+		synchronized List<String> getEvents()
+		{
+			return new ArrayList<String>(mEvents);
+		}
+
+		synchronized void awaitBatches(int count)
+			throws InterruptedException
+		{
+			long deadline = System.currentTimeMillis() + 5000;
+
+			while (mBatches.size() < count && System.currentTimeMillis() < deadline)
+				wait(deadline - System.currentTimeMillis());
+		}
+	}
+
+	private static EventBatcher create(Listener listener, int batchSize, long batchDelay, String name)
+	{
+		return new EventBatcher(listener, batchSize, batchDelay, name, new ConnectorMetrics(CacheChannelConnector.CONNECTOR_TYPE, name));
+	}
+
+	private static void add(EventBatcher batcher, int from, int to)
+	{
+		for (int i = from; i < to; i++)
+			batcher.add("/a", "1:" + i, CacheEvent.INVALIDATE);
+	}
+
+	private static List<String> keys(int from, int to)
+	{
+		List<String> keys = new ArrayList<String>();
+
+		for (int i = from; i < to; i++)
+			keys.add("1:" + i);
+
+		return keys;
+	}
+
+	private static boolean isRunning(String name)
+	{
+		for (Thread thread : Thread.getAllStackTraces().keySet())
+		{
+			if (thread.getName().equals(name))
+				return true;
+		}
+
+		return false;
+	}
+
+	@Test(timeout = 30000)
+	public void deliversFullBatchOnReceivingThread()
+	{
+		Listener listener = new Listener();
+		EventBatcher batcher = create(listener, 3, 60000, "size");
+
+		add(batcher, 0, 2);
+		assertTrue(listener.getBatches().isEmpty());
+
+		add(batcher, 2, 7);
+
+		// Two full batches, the last event waits for the delay
+		assertEquals(Arrays.asList(keys(0, 3), keys(3, 6)), listener.getBatches());
+		assertEquals(Arrays.asList(Thread.currentThread(), Thread.currentThread()), listener.getThreads());
+
+		batcher.close();
+	}
+
+	@Test(timeout = 30000)
+	public void deliversPartialBatchAfterDelay()
+		throws Exception
+	{
+		Listener listener = new Listener();
+		EventBatcher batcher = create(listener, 100, 50, "delay");
+
+		long start = System.nanoTime();
+		add(batcher, 0, 2);
+
+		listener.awaitBatches(1);
+
+		assertTrue((System.nanoTime() - start) / 1000000 >= 50);
+		assertEquals(Arrays.asList(keys(0, 2)), listener.getBatches());
+		assertEquals("delay", listener.getThreads().get(0).getName());
+
+		batcher.close();
+	}
+
+	@Test(timeout = 60000)
+	public void keepsOrderAcrossReceivingAndTimerThreads()
+		throws Exception
+	{
+		Listener listener = new Listener();
+		EventBatcher batcher = create(listener, 7, 1, "order");
+
+		for (int i = 0; i < 2000; i++)
+		{
+			add(batcher, i * 5, i * 5 + 5);
+
+			// Pause now and then so the timer delivers part of the batches
+			if (i % 50 == 0)
+				Thread.sleep(2);
+		}
+
+		batcher.close();
+
+		List<String> delivered = new ArrayList<String>();
+
+		for (List<String> batch : listener.getBatches())
+		{
+			assertTrue(batch.size() <= 7);
+			delivered.addAll(batch);
+		}
+
+		assertEquals(keys(0, 10000), delivered);
+
+		Set<String> threads = new HashSet<String>();
+
+		for (Thread thread : listener.getThreads())
+			threads.add(thread.getName());
+
+		assertEquals(new HashSet<String>(Arrays.asList(Thread.currentThread().getName(), "order")), threads);
+	}
+
+	@Test(timeout = 30000)
+	public void closeDeliversRemainderAndStopsThread()
+		throws Exception
+	{
+		Listener listener = new Listener();
+		EventBatcher batcher = create(listener, 100, 60000, "close");
+
+		add(batcher, 0, 3);
+		batcher.close();
+
+		assertEquals(Arrays.asList(keys(0, 3)), listener.getBatches());
+		assertSame(Thread.currentThread(), listener.getThreads().get(0));
+
+		long deadline = System.currentTimeMillis() + 5000;
+
+		while (isRunning("close") && System.currentTimeMillis() < deadline)
+			Thread.sleep(1);
+
+		assertFalse(isRunning("close"));
+	}
+}
@@ -0,0 +1,127 @@
+/**
+ *   @description Event Deduplicator Test
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.rmi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.tridion.cache.CacheEvent;
+
+/**
+ * EventDeduplicatorTest verifies which events received from several endpoints are dropped, and the endpoint limit.
+ */
+public class EventDeduplicatorTest
+{
+	private static CacheEvent event(int key)
+	{
+		return new CacheEvent("/a", "1:" + key, CacheEvent.INVALIDATE);
+	}
+
+	@Test
+	public void dropsEventReceivedFromAnotherEndpoint()
+	{
+		EventDeduplicator deduplicator = new EventDeduplicator(60000, 16);
+
+		assertFalse(deduplicator.isDuplicate(0, event(1)));
+		assertTrue(deduplicator.isDuplicate(1, event(1)));
+		assertTrue(deduplicator.isDuplicate(2, event(1)));
+	}
+
+	@Test
+	public void keepsRepeatFromSameEndpoint()
+	{
+		EventDeduplicator deduplicator = new EventDeduplicator(60000, 16);
+
+		assertFalse(deduplicator.isDuplicate(0, event(1)));
+		assertTrue(deduplicator.isDuplicate(1, event(1)));
+
+		// A new occurrence, its copy from the other endpoint is dropped again
+		assertFalse(deduplicator.isDuplicate(0, event(1)));
+		assertTrue(deduplicator.isDuplicate(1, event(1)));
+		assertFalse(deduplicator.isDuplicate(1, event(1)));
+	}
+
+	@Test
+	public void keepsEventsWhichDiffer()
+	{
+		EventDeduplicator deduplicator = new EventDeduplicator(60000, 16);
+
+		assertFalse(deduplicator.isDuplicate(0, event(1)));
+		assertFalse(deduplicator.isDuplicate(1, event(2)));
+		assertFalse(deduplicator.isDuplicate(1, new CacheEvent("/a", "1:1", CacheEvent.FLUSH)));
+		assertFalse(deduplicator.isDuplicate(1, new CacheEvent("/b", "1:1", CacheEvent.INVALIDATE)));
+	}
+
+	@Test
+	public void keepsEventOutsideWindow()
+		throws Exception
+	{
+		EventDeduplicator deduplicator = new EventDeduplicator(20, 16);
+
+		assertFalse(deduplicator.isDuplicate(0, event(1)));
+		Thread.sleep(40);
+		assertFalse(deduplicator.isDuplicate(1, event(1)));
+	}
+
+	@Test
+	public void forgetsLeastRecentlyReceivedEvent()
+	{
+		EventDeduplicator deduplicator = new EventDeduplicator(60000, 2);
+
+		assertFalse(deduplicator.isDuplicate(0, event(1)));
+		assertFalse(deduplicator.isDuplicate(0, event(2)));
+		assertFalse(deduplicator.isDuplicate(0, event(3)));
+
+		assertFalse(deduplicator.isDuplicate(1, event(1)));
+		assertTrue(deduplicator.isDuplicate(1, event(3)));
+	}
+
+	@Test
+	public void distinguishesHighestEndpoint()
+	{
+		EventDeduplicator deduplicator = new EventDeduplicator(60000, 16);
+		int last = CacheChannelEndpoint.MAX_ENDPOINTS - 1;
+
+		assertFalse(deduplicator.isDuplicate(0, event(1)));
+		assertTrue(deduplicator.isDuplicate(last, event(1)));
+		assertFalse(deduplicator.isDuplicate(last, event(1)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsEndpointBeyondLimit()
+	{
+		new EventDeduplicator(60000, 16).isDuplicate(CacheChannelEndpoint.MAX_ENDPOINTS, event(1));
+	}
+
+	@Test
+	public void parsesUpToEndpointLimit()
+	{
+		StringBuilder endpoints = new StringBuilder();
+
+		for (int i = 0; i < CacheChannelEndpoint.MAX_ENDPOINTS; i++)
+			endpoints.append("host").append(i).append(":1099,");
+
+		List<CacheChannelEndpoint> parsed = CacheChannelEndpoint.parse(endpoints.toString(), "localhost", 1099);
+
+		assertEquals(CacheChannelEndpoint.MAX_ENDPOINTS, parsed.size());
+		assertEquals(CacheChannelEndpoint.MAX_ENDPOINTS - 1, parsed.get(parsed.size() - 1).getIndex());
+
+		try
+		{
+			CacheChannelEndpoint.parse(endpoints + "another:1099", "localhost", 1099);
+			fail("More than " + CacheChannelEndpoint.MAX_ENDPOINTS + " endpoints were accepted");
+		}
+		catch (IllegalArgumentException ex)
+		{
+			assertTrue(ex.getMessage().contains("At most " + CacheChannelEndpoint.MAX_ENDPOINTS));
+		}
+	}
+}
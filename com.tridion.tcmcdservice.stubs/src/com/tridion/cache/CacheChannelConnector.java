@@ -0,0 +1,24 @@
+/**
+ *   @description Cache Channel Connector (stub)
+ *   @created October 18, 2026
+ */
+package com.tridion.cache;
+
+import com.tridion.configuration.Configuration;
+import com.tridion.configuration.ConfigurationException;
+
+/**
+ * Stub of the Tridion cd_cache CacheChannelConnector, the deployed cd_cache.jar provides the actual interface.
+ */
+public interface CacheChannelConnector
+{
+	void configure(Configuration configuration) throws ConfigurationException;
+
+	void validate() throws CacheException;
+
+	void broadcastEvent(CacheEvent cacheEvent) throws CacheException;
+
+	void close();
+
+	void setListener(CacheChannelEventListener listener);
+}
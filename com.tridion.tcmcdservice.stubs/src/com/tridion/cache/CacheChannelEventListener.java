@@ -0,0 +1,17 @@
+/**
+ *   @description Cache Channel Event Listener (stub)
+ *   @created October 18, 2026
+ */
+package com.tridion.cache;
+
+/**
+ * Stub of the Tridion cd_cache CacheChannelEventListener, the deployed cd_cache.jar provides the actual interface.
+ */
+public interface CacheChannelEventListener
+{
+	void handleRemoteEvent(CacheEvent cacheEvent);
+
+	void handleDisconnect();
+
+	void handleConnect();
+}
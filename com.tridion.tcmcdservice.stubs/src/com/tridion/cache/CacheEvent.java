@@ -0,0 +1,50 @@
+/**
+ *   @description Cache Event (stub)
+ *   @created October 18, 2026
+ */
+package com.tridion.cache;
+
+import java.io.Serializable;
+
+/**
+ * Stub of the Tridion cd_cache CacheEvent, the deployed cd_cache.jar provides the actual implementation.
+ */
+public class CacheEvent implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	public static final int FLUSH = 0;
+	public static final int INVALIDATE = 1;
+
+	private final String mRegionPath;
+	private final Serializable mKey;
+	private final int mType;
+
+	public CacheEvent(String regionPath, Serializable key, int type)
+	{
+		mRegionPath = regionPath;
+		mKey = key;
+		mType = type;
+	}
+
+	public String getRegionPath()
+	{
+		return mRegionPath;
+	}
+
+	public Serializable getKey()
+	{
+		return mKey;
+	}
+
+	public int getType()
+	{
+		return mType;
+	}
+
+	@Override
+	public String toString()
+	{
+		return mRegionPath + ":" + mKey + ":" + mType;
+	}
+}
@@ -0,0 +1,23 @@
+/**
+ *   @description Cache Exception (stub)
+ *   @created October 18, 2026
+ */
+package com.tridion.cache;
+
+/**
+ * Stub of the Tridion cd_cache CacheException, the deployed cd_cache.jar provides the actual implementation.
+ */
+public class CacheException extends Exception
+{
+	private static final long serialVersionUID = 1L;
+
+	public CacheException(String message)
+	{
+		super(message);
+	}
+
+	public CacheException(String message, Throwable cause)
+	{
+		super(message, cause);
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ *   @description JMS Cache Channel Connector (stub)
+ *   @created October 18, 2026
+ */
+package com.tridion.cache;
+
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import javax.naming.NamingException;
+
+import com.tridion.configuration.Configuration;
+import com.tridion.configuration.ConfigurationException;
+
+/**
+ * Stub of the Tridion cd_cache JMSCacheChannelConnector, the deployed cd_cache.jar provides the actual implementation.
+ * <p>
+ * The stub connects its {@link JMSClient} on validation, passes received messages to {@link #handleJmsMessage} and
+ * drops the connection on a JMS exception so it is re-established on the next validation.
+ * </p>
+ */
+public class JMSCacheChannelConnector implements CacheChannelConnector, MessageListener, ExceptionListener
+{
+	protected JMSClient client;
+
+	private volatile boolean mConnected = false;
+	private CacheChannelEventListener mListener;
+
+	public interface JMSClient
+	{
+		void connect(MessageListener messageListener, ExceptionListener exceptionListener) throws JMSException, NamingException;
+
+		void broadcastEvent(CacheEvent cacheEvent) throws JMSException;
+
+		void cleanupIgnoringErrors();
+	}
+
+	public void configure(Configuration configuration) throws ConfigurationException
+	{
+	}
+
+	public synchronized void validate() throws CacheException
+	{
+		if (mConnected)
+			return;
+
+		try
+		{
+			client.connect(this, this);
+			mConnected = true;
+
+			if (mListener != null)
+				mListener.handleConnect();
+		}
+		catch (JMSException ex)
+		{
+			client.cleanupIgnoringErrors();
+			throw new CacheException("Unable to connect", ex);
+		}
+		catch (NamingException ex)
+		{
+			client.cleanupIgnoringErrors();
+			throw new CacheException("Unable to connect", ex);
+		}
+	}
+
+	public void broadcastEvent(CacheEvent cacheEvent) throws CacheException
+	{
+		validate();
+
+		try
+		{
+			client.broadcastEvent(cacheEvent);
+		}
+		catch (JMSException ex)
+		{
+			throw new CacheException("Unable to broadcast event", ex);
+		}
+	}
+
+	public void close()
+	{
+		client.cleanupIgnoringErrors();
+		mConnected = false;
+	}
+
+	public void setListener(CacheChannelEventListener listener)
+	{
+		mListener = listener;
+	}
+
+	public void onMessage(Message message)
+	{
+		handleJmsMessage(message);
+	}
+
+	public synchronized void onException(JMSException exception)
+	{
+		client.cleanupIgnoringErrors();
+		mConnected = false;
+
+		if (mListener != null)
+			mListener.handleDisconnect();
+	}
+
+	protected void handleJmsMessage(Message message)
+	{
+	}
+}
@@ -0,0 +1,13 @@
+/**
+ *   @description Key Generator (stub)
+ *   @created October 18, 2026
+ */
+package com.tridion.cache;
+
+/**
+ * Stub of the Tridion cd_cache KeyGenerator, the deployed cd_cache.jar provides the actual implementation.
+ */
+public class KeyGenerator
+{
+	public static final String KEY_DELIMITER = ":";
+}
@@ -0,0 +1,20 @@
+/**
+ *   @description Remote Cache Channel Service (stub)
+ *   @created October 18, 2026
+ */
+package com.tridion.cache;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+/**
+ * Stub of the Tridion cd_cache RemoteCacheChannelService, the deployed cd_cache.jar provides the actual interface.
+ */
+public interface RemoteCacheChannelService extends Remote
+{
+	void addListener(RemoteCacheListener listener) throws RemoteException;
+
+	void broadcastEvent(String identifier, CacheEvent cacheEvent) throws RemoteException;
+
+	boolean isAlive(String identifier) throws RemoteException;
+}
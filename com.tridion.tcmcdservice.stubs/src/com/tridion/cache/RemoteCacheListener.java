@@ -0,0 +1,16 @@
+/**
+ *   @description Remote Cache Listener (stub)
+ *   @created October 18, 2026
+ */
+package com.tridion.cache;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+/**
+ * Stub of the Tridion cd_cache RemoteCacheListener, the deployed cd_cache.jar provides the actual interface.
+ */
+public interface RemoteCacheListener extends Remote
+{
+	void handleEvent(CacheEvent cacheEvent) throws RemoteException;
+}
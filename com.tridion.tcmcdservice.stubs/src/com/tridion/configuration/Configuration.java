@@ -0,0 +1,27 @@
+/**
+ *   @description Configuration (stub)
+ *   @created October 18, 2026
+ */
+package com.tridion.configuration;
+
+import java.util.List;
+
+/**
+ * Stub of the Tridion cd_core Configuration, the deployed cd_core.jar provides the actual interface.
+ */
+public interface Configuration
+{
+	boolean hasChild(String name);
+
+	Configuration getChild(String name) throws ConfigurationException;
+
+	List<Configuration> getChildrenByName(String name);
+
+	String getAttribute(String name) throws ConfigurationException;
+
+	String getAttribute(String name, String defaultValue);
+
+	String getParameterValue(String name);
+
+	String getParameterValue(String name, String defaultValue);
+}
@@ -0,0 +1,18 @@
+/**
+ *   @description Configuration Exception (stub)
+ *   @created October 18, 2026
+ */
+package com.tridion.configuration;
+
+/**
+ * Stub of the Tridion cd_core ConfigurationException, the deployed cd_core.jar provides the actual implementation.
+ */
+public class ConfigurationException extends Exception
+{
+	private static final long serialVersionUID = 1L;
+
+	public ConfigurationException(String message)
+	{
+		super(message);
+	}
+}
@@ -0,0 +1,325 @@
+/**
+ *   @description ZeroMQ Broker
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.zmq;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.jeromq.ZMQ;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ZMQBroker relays cache channel messages between {@link ZMQCacheChannelConnector}s.
+ * <p>
+ * Connectors push messages to the submission endpoint (PULL) and receive them from the subscription endpoint (XPUB).
+ * Messages are forwarded frame by frame without copying their content, subscriptions are handled by the XPUB socket so
+ * messages are only sent to subscribers with a matching topic prefix. Unlike the .NET ZeroMQBroker all topics are relayed
+ * and frames are never converted to strings, so region topics and the binary format are supported.
+ * </p>
+ * <p>
+ * The broker runs embedded using {@link #start()} and {@link #stop()}, or standalone using {@link #main(String[])}.
+ * The number of messages per topic is logged every "report interval" milliseconds.
+ * </p>
+ */
+public class ZMQBroker
+{
+	private static Logger mLog = LoggerFactory.getLogger(ZMQBroker.class);
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final int BURST_SIZE = 1000;
+
+	private final String mSubmissionUri;
+	private final String mSubscriptionUri;
+	private final String mIdentifier = "ZMQBroker-" + UUID.randomUUID().toString();
+
+	private int mIOThreads = 1;
+	private long mHighWaterMark = 10000;
+	private long mReportInterval = 60000;
+
+	private ZMQ.Context mContext = null;
+	private ZMQ.Socket mControlSocket = null;
+	private Thread mThread = null;
+
+	private final Map<String, Long> mTopicCounts = new HashMap<String, Long>();
+	private volatile boolean mIsStopped = false;
+
+	/**
+	 * Create a new ZMQBroker
+	 *
+	 * @param submissionUri Endpoint connectors push messages to, for example "tcp://*:5557"
+	 * @param subscriptionUri Endpoint connectors subscribe to, for example "tcp://*:5556"
+	 */
+	public ZMQBroker(String submissionUri, String subscriptionUri)
+	{
+		mSubmissionUri = submissionUri;
+		mSubscriptionUri = subscriptionUri;
+	}
+
+	/**
+	 * Set the number of ZeroMQ I/O threads, must be called before {@link #start()}
+	 */
+	public void setIOThreads(int ioThreads)
+	{
+		mIOThreads = Math.max(1, ioThreads);
+	}
+
+	/**
+	 * Set the high-water mark of both endpoints in messages, must be called before {@link #start()}
+	 */
+	public void setHighWaterMark(long highWaterMark)
+	{
+		mHighWaterMark = highWaterMark;
+	}
+
+	/**
+	 * Set the interval in milliseconds between throughput reports, a value of zero disables reporting
+	 */
+	public void setReportInterval(long reportInterval)
+	{
+		mReportInterval = reportInterval;
+	}
+
+	/**
+	 * Get the number of relayed messages per topic since the last report
+	 */
+	public Map<String, Long> getTopicCounts()
+	{
+		synchronized (mTopicCounts)
+		{
+			return Collections.unmodifiableMap(new TreeMap<String, Long>(mTopicCounts));
+		}
+	}
+
+	/**
+	 * Bind the endpoints and start relaying messages on a background thread
+	 */
+	public synchronized void start()
+	{
+		if (mThread != null)
+			throw new IllegalStateException("ZMQBroker is already started.");
+
+		mContext = ZMQ.context(mIOThreads);
+
+		String controlUri = "inproc://" + mIdentifier + "-control";
+
+		ZMQ.Socket controlReceiver = mContext.socket(ZMQ.PAIR);
+		controlReceiver.bind(controlUri);
+
+		mControlSocket = mContext.socket(ZMQ.PAIR);
+		mControlSocket.connect(controlUri);
+
+		ZMQ.Socket pullSocket = mContext.socket(ZMQ.PULL);
+		pullSocket.setRcvHWM(mHighWaterMark);
+		pullSocket.bind(mSubmissionUri);
+
+		ZMQ.Socket publishSocket = mContext.socket(ZMQ.XPUB);
+		publishSocket.setSndHWM(mHighWaterMark);
+		publishSocket.setLinger(0);
+		publishSocket.bind(mSubscriptionUri);
+
+		mThread = new Thread(new Relay(pullSocket, publishSocket, controlReceiver), mIdentifier);
+		mThread.start();
+
+		mLog.info("ZMQBroker started: SubmissionUri [" + mSubmissionUri + "] SubscriptionUri [" + mSubscriptionUri + "] IOThreads [" + mIOThreads + "] HWM [" + mHighWaterMark + "]");
+	}
+
+	/**
+	 * Stop relaying messages and release the endpoints
+	 */
+	public synchronized void stop()
+	{
+		if (mThread == null || mIsStopped)
+			return;
+
+		mIsStopped = true;
+		mControlSocket.send(new byte[0], 0);
+
+		try
+		{
+			mThread.join();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		mControlSocket.close();
+		mContext.term();
+
+		mLog.info("ZMQBroker stopped.");
+	}
+
+	private void count(byte[] topic)
+	{
+		String name = new String(topic, UTF8);
+
+		synchronized (mTopicCounts)
+		{
+			Long count = mTopicCounts.get(name);
+			mTopicCounts.put(name, count != null ? count + 1 : 1L);
+		}
+	}
+
+	private void report(long elapsed)
+	{
+		Map<String, Long> counts;
+
+		synchronized (mTopicCounts)
+		{
+			counts = new TreeMap<String, Long>(mTopicCounts);
+			mTopicCounts.clear();
+		}
+
+		for (Map.Entry<String, Long> entry : counts.entrySet())
+			mLog.info("Topic [" + entry.getKey() + "]: " + entry.getValue() + " messages, " + (entry.getValue() * 1000 / Math.max(1, elapsed)) + " messages/s.");
+	}
+
+	/**
+	 * Relay implements a Java runnable which forwards messages from the submission to the subscription endpoint
+	 */
+	private class Relay implements Runnable
+	{
+		private final ZMQ.Socket mPullSocket;
+		private final ZMQ.Socket mPublishSocket;
+		private final ZMQ.Socket mControlReceiver;
+
+		Relay(ZMQ.Socket pullSocket, ZMQ.Socket publishSocket, ZMQ.Socket controlReceiver)
+		{
+			mPullSocket = pullSocket;
+			mPublishSocket = publishSocket;
+			mControlReceiver = controlReceiver;
+		}
+
+		/**
+		 * Forward a single multi-part message if one is available, the frames are passed on as-is
+		 *
+		 * @return True if a message was forwarded
+		 */
+		private boolean forward()
+		{
+			ZMQ.Msg frame = mPullSocket.recvMsg(ZMQ.DONTWAIT);
+
+			if (frame == null)
+				return false;
+
+			if (mReportInterval > 0)
+				count(frame.data());
+
+			// Remaining frames of a multi-part message are delivered atomically
+			while (mPullSocket.hasReceiveMore())
+			{
+				mPublishSocket.send(frame, ZMQ.SNDMORE);
+				frame = mPullSocket.recvMsg(0);
+			}
+
+			mPublishSocket.send(frame, 0);
+			return true;
+		}
+
+		/**
+		 * Log subscription changes, XPUB passes them as messages starting with 1 (subscribe) or 0 (unsubscribe)
+		 */
+		private void subscriptions()
+		{
+			byte[] data;
+
+			while ((data = mPublishSocket.recv(ZMQ.DONTWAIT)) != null)
+			{
+				if (data.length > 0 && mLog.isDebugEnabled())
+					mLog.debug((data[0] == 1 ? "Subscribe" : "Unsubscribe") + ": Topic [" + new String(data, 1, data.length - 1, UTF8) + "].");
+			}
+		}
+
+		public void run()
+		{
+			ZMQ.Poller items = mContext.poller(3);
+			items.register(mPullSocket, ZMQ.Poller.POLLIN);
+			items.register(mPublishSocket, ZMQ.Poller.POLLIN);
+			items.register(mControlReceiver, ZMQ.Poller.POLLIN);
+
+			long lastReport = System.currentTimeMillis();
+			boolean backlog = false;
+
+			while (!mIsStopped)
+			{
+				long timeout = -1;
+
+				// Readiness is signalled once per batch of arrivals, so a remaining backlog must not wait for the next one
+				if (backlog)
+					timeout = 0;
+				else if (mReportInterval > 0)
+					timeout = Math.max(1, lastReport + mReportInterval - System.currentTimeMillis());
+
+				items.poll(timeout);
+
+				// Forward a bounded burst before subscriptions and control messages are checked again
+				int forwarded = 0;
+
+				while (forwarded < BURST_SIZE && forward())
+					forwarded++;
+
+				backlog = forwarded == BURST_SIZE;
+
+				if (items.pollin(1))
+					subscriptions();
+
+				if (mReportInterval > 0 && System.currentTimeMillis() - lastReport >= mReportInterval)
+				{
+					long now = System.currentTimeMillis();
+					report(now - lastReport);
+					lastReport = now;
+				}
+			}
+
+			mPullSocket.close();
+			mPublishSocket.close();
+			mControlReceiver.close();
+		}
+	}
+
+	/**
+	 * Run a standalone ZMQBroker until the process is terminated
+	 *
+	 * @param args submissionUri subscriptionUri [ioThreads] [highWaterMark] [reportInterval]
+	 */
+	public static void main(String[] args)
+		throws InterruptedException
+	{
+		if (args.length < 2)
+		{
+			System.err.println("Usage: ZMQBroker <submissionUri> <subscriptionUri> [ioThreads] [highWaterMark] [reportInterval]");
+			System.err.println("   eg: ZMQBroker tcp://*:5557 tcp://*:5556 2 10000 60000");
+			System.exit(1);
+		}
+
+		final ZMQBroker broker = new ZMQBroker(args[0], args[1]);
+
+		if (args.length > 2)
+			broker.setIOThreads(Integer.parseInt(args[2]));
+
+		if (args.length > 3)
+			broker.setHighWaterMark(Long.parseLong(args[3]));
+
+		if (args.length > 4)
+			broker.setReportInterval(Long.parseLong(args[4]));
+
+		broker.start();
+
+		Runtime.getRuntime().addShutdownHook(new Thread()
+		{
+			@Override
+			public void run()
+			{
+				broker.stop();
+			}
+		});
+
+		broker.mThread.join();
+	}
+}
@@ -5,48 +5,105 @@
  */
 package com.tridion.tcmcdservice.zmq;
 
-import java.io.IOException;
-import java.io.Serializable;
-import java.io.StringReader;
-import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jeromq.ZMQ;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 
 import com.tridion.cache.CacheChannelConnector;
 import com.tridion.cache.CacheChannelEventListener;
 import com.tridion.cache.CacheEvent;
 import com.tridion.cache.CacheException;
-import com.tridion.cache.KeyGenerator;
 import com.tridion.configuration.Configuration;
 import com.tridion.configuration.ConfigurationException;
+import com.tridion.tcmcdservice.common.BinaryCacheEventCodec;
+import com.tridion.tcmcdservice.common.CacheEventFormat;
+import com.tridion.tcmcdservice.common.CacheEventMessage;
+import com.tridion.tcmcdservice.common.CacheEventRingBuffer;
+import com.tridion.tcmcdservice.common.CacheEventSequencer;
+import com.tridion.tcmcdservice.common.CacheEventTracer;
+import com.tridion.tcmcdservice.common.ConnectorMetrics;
+import com.tridion.tcmcdservice.common.RegionDictionary;
+import com.tridion.tcmcdservice.common.SequenceTracker;
+import com.tridion.tcmcdservice.common.XMLCacheEventCodec;
 
 /**
  * ZMQCacheChannelConnector implements a {@link CacheChannelConnector} communicating with ZeroMQ
  * (http://zeromq.org/) using the Java ZeroMQ library (https://github.com/zeromq/jeromq).
+ * <p>
+ * Received payloads are decoded as XML or as compact binary frames depending on their first byte, the "format" parameter
+ * selects the format of published payloads. Note the binary format requires a broker which relays frames as bytes, 
+ * the .NET ZeroMQBroker converts every frame to a string.
+ * </p>
+ * <p>
+ * With "dictionary" enabled (binary format only) region paths are sent as references to a per-publisher
+ * {@link RegionDictionary}, and the client frame holds a random 8 byte key instead of the client identifier. The key
+ * is logged once when the connector is configured. Receivers keep one dictionary per key and rebuild it from the periodic
+ * epoch refresh after a restart or lost message.
+ * </p>
+ * <p>
+ * Outgoing events are queued in a {@link CacheEventRingBuffer} of "queueCapacity" slots and encoded when they are sent.
+ * The "queueOverflow" parameter ("block", "drop-oldest" or "flush") selects the behaviour once the queue is full.
+ * </p>
+ * <p>
+ * When "regionTopics" is enabled the topic frame of published messages carries the region path of the event appended to
+ * the topic, "subscriptionRegions" lists region path prefixes (comma separated) to subscribe to. The PUB side then
+ * filters messages by region prefix, so nodes do not receive regions they do not cache. Region subscriptions require
+ * every publisher on the topic to enable "regionTopics", and are not supported by the .NET ZeroMQBroker which only relays
+ * messages matching its topic exactly.
+ * </p>
+ * <p>
+ * Every published payload carries the connector identifier and a sequence number, see {@link CacheEventSequencer}.
+ * Messages lost between publisher and subscriber (for example at a high-water mark) are detected from the sequence
+ * numbers and replaced by a flush of the affected regions, see {@link SequenceTracker}. Gap detection is disabled when
+ * "subscriptionRegions" is configured, as the subscriber then only receives part of the messages of a publisher.
+ * </p>
+ * <p>
+ * Payloads also carry the time at which the publisher created them, as "originTime" attribute or binary trailer which
+ * older peers ignore. Receivers record the propagation delay per publisher in their {@link ConnectorMetrics} and log a
+ * summary every "propagationReportInterval" milliseconds (default 60000, 0 disables the summary). The origin time is part
+ * of the payload rather than a separate frame, as the .NET ZeroMQBroker only relays the first three frames.
+ * </p>
+ * <p>
+ * Every "heartbeatInterval" milliseconds without outgoing events a heartbeat ([topic][client][empty frame]) is sent.
+ * Every received message, including the connector's own heartbeats and events relayed back by the broker, proves the
+ * broker is alive. Without any message for "heartbeatTimeout" milliseconds the listener receives
+ * {@link CacheChannelEventListener#handleDisconnect()}, the next message signals
+ * {@link CacheChannelEventListener#handleConnect()} again. Heartbeats are recognized by their empty content before
+ * anything is decoded, the .NET peers ignore them as empty XML. A "heartbeatInterval" of zero disables heartbeats.
+ * With "subscriptionRegions" heartbeats are sent on the topic followed by "#heartbeat", which these connectors also
+ * subscribe to.
+ * </p>
+ * <p>
+ * A single reactor thread per connector sends and receives all messages, using a ZeroMQ context shared by all connectors
+ * in the JVM, see {@link ZMQSharedContext}. Messages are sent without blocking, while the submission socket is at its
+ * high-water mark events remain in the queue and the reactor keeps receiving. Should the reactor fail the listener
+ * receives {@link CacheChannelEventListener#handleDisconnect()} and the next {@link #validate()} starts a new reactor.
+ * </p>
  */
 public class ZMQCacheChannelConnector implements CacheChannelConnector
 {
 	private static Logger mLog = LoggerFactory.getLogger(ZMQCacheChannelConnector.class);
-	private static DocumentBuilderFactory mDocumentFactory = DocumentBuilderFactory.newInstance();	
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final byte[] EMPTY = new byte[0];
+	private static final String HEARTBEAT_TOPIC_SUFFIX = "#heartbeat";
+	private static final String CONNECTOR_TYPE = "ZeroMQ";
+	private static final long CLOSE_TIMEOUT = 1000;
+	private static final long SEND_RETRY_INTERVAL = 10;
+	private static final CacheEventTracer mTracer = CacheEventTracer.getInstance();
 	
 	private static CacheChannelEventListener mEmptyListener = new CacheChannelEventListener()
 	{
@@ -61,13 +118,40 @@ public class ZMQCacheChannelConnector implements CacheChannelConnector
 	private String mSubscriptionUri = "tcp://localhost:5556";
 	private String mSubmissionUri = "tcp://localhost:5557";
 	private String mTopic = "Tridion";
+	private CacheEventFormat mFormat = CacheEventFormat.XML;
+	private boolean mDictionary = false;
+	private byte[] mClientFrame = mIdentifier.getBytes(UTF8);
+	private boolean mRegionTopics = false;
+	private List<String> mSubscriptionRegions = Collections.emptyList();
+	private long mHeartbeatInterval = 1000;
+	private long mHeartbeatTimeout = 3000;
 	
 	private CacheChannelEventListener mListener = mEmptyListener;
-	private Boolean mIsClosed = false;
+	private volatile boolean mIsClosed = false;
+	private volatile boolean mIsAlive = true;
+	private volatile boolean mReactorFailed = false;
 	
-	private Thread mSender = null;
-	private Thread mReceiver = null;
-	private LinkedBlockingQueue<String> mQueue = new LinkedBlockingQueue<String>();
+	private Thread mReactor = null;
+	private int mReactorStarts = 0;
+	private ZMQ.Context mContext = null;
+	private ZMQ.Socket mWakeupSocket = null;
+	private final Object mWakeupLock = new Object();
+	private final AtomicBoolean mSignalled = new AtomicBoolean(false);
+	private CacheEventRingBuffer mQueue = new CacheEventRingBuffer(16384, CacheEventRingBuffer.OverflowPolicy.FLUSH);
+	private final CacheEventSequencer mSequencer = new CacheEventSequencer(mIdentifier);
+	private final SequenceTracker mSequenceTracker = new SequenceTracker();
+	private final RegionDictionary.Encoder mDictionaryEncoder = new RegionDictionary.Encoder();
+	private final ConnectorMetrics mMetrics = new ConnectorMetrics(CONNECTOR_TYPE, mIdentifier);
+	private final Map<ByteBuffer, RegionDictionary.Decoder> mDictionaryDecoders = new LinkedHashMap<ByteBuffer, RegionDictionary.Decoder>(16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ByteBuffer, RegionDictionary.Decoder> eldest)
+		{
+			return size() > 1024;
+		}
+	};
 	
 	/**
 	 *  Get the client identifier for this {@link ZMQCacheChannelConnector}  
@@ -77,6 +161,54 @@ public class ZMQCacheChannelConnector implements CacheChannelConnector
 		return mIdentifier;
 	}
 	
+	/**
+	 *  Get the number of events waiting to be sent
+	 */
+	public int getQueueDepth()
+	{
+		return mQueue.getDepth();
+	}
+	
+	/**
+	 *  Get the highest number of events which were waiting to be sent
+	 */
+	public int getQueueHighWaterMark()
+	{
+		return mQueue.getHighWaterMark();
+	}
+	
+	/**
+	 *  Get the {@link ConnectorMetrics} of this {@link ZMQCacheChannelConnector}, also registered with JMX
+	 */
+	public ConnectorMetrics getMetrics()
+	{
+		return mMetrics;
+	}
+	
+	/**
+	 *  Get the number of events dropped or collapsed into a region flush because the queue was full
+	 */
+	public long getQueueOverflowCount()
+	{
+		return mQueue.getOverflowCount();
+	}
+	
+	/**
+	 *  Verify if a message was received within the heartbeat timeout, always true if heartbeats are disabled
+	 */
+	public boolean isAlive()
+	{
+		return mIsAlive;
+	}
+	
+	/**
+	 *  Get the number of sequence gaps detected in received messages
+	 */
+	public long getSequenceGapCount()
+	{
+		return mSequenceTracker.getGapCount();
+	}
+	
 	/**
 	 *  Get the subscription uri for this {@link ZMQCacheChannelConnector}  
 	 */
@@ -115,11 +247,16 @@ public class ZMQCacheChannelConnector implements CacheChannelConnector
 	 */
 	public ZMQCacheChannelConnector()
 	{
-		mReceiver = new Thread(new MessageReceiver(this));
-		mReceiver.setDaemon(true);
+		mMetrics.setQueueDepth(new ConnectorMetrics.Gauge()
+		{
+			public long getValue()
+			{
+				return mQueue.getDepth();
+			}
+		});
 		
-		mSender = new Thread(new MessageSender(this));
-		mSender.setDaemon(true);
+		if (!mMetrics.register())
+			mLog.warn("Client [" + mIdentifier + "] unable to register JMX metrics.");
 	}
 	
 	@Override
@@ -136,20 +273,120 @@ public class ZMQCacheChannelConnector implements CacheChannelConnector
 			throw new ConfigurationException("submissionUri is not configured.");
 		
 		mTopic = configuration.getParameterValue("topic", "TridionCacheChannel");
+		mRegionTopics = Boolean.parseBoolean(configuration.getParameterValue("regionTopics", "false"));
+		mSubscriptionRegions = new ArrayList<String>();
+		
+		for (String region : configuration.getParameterValue("subscriptionRegions", "").split(","))
+		{
+			if (region.trim().length() > 0)
+				mSubscriptionRegions.add(region.trim());
+		}
+		
+		try
+		{
+			mFormat = CacheEventFormat.fromName(configuration.getParameterValue("format", CacheEventFormat.XML.getName()));
+		}
+		catch (IllegalArgumentException ex)
+		{
+			throw new ConfigurationException(ex.getMessage());
+		}
+		
+		mDictionary = Boolean.parseBoolean(configuration.getParameterValue("dictionary", "false"));
+		
+		if (mDictionary && mFormat != CacheEventFormat.BINARY)
+			throw new ConfigurationException("dictionary requires the " + CacheEventFormat.BINARY.getName() + " format.");
+		
+		if (mDictionary)
+		{
+			mClientFrame = new byte[8];
+			new Random().nextBytes(mClientFrame);
+		}
+		else
+			mClientFrame = mIdentifier.getBytes(UTF8);
+		
+		String heartbeatInterval = configuration.getParameterValue("heartbeatInterval", "1000");
+		String heartbeatTimeout = configuration.getParameterValue("heartbeatTimeout", null);
+		
+		try
+		{
+			mHeartbeatInterval = Math.max(0, Long.parseLong(heartbeatInterval.trim()));
+			mHeartbeatTimeout = heartbeatTimeout != null ? Long.parseLong(heartbeatTimeout.trim()) : 3 * mHeartbeatInterval;
+		}
+		catch (NumberFormatException ex)
+		{
+			throw new ConfigurationException("Invalid value '" + heartbeatInterval + "' for heartbeatInterval or '" + heartbeatTimeout + "' for heartbeatTimeout, expected an integer.");
+		}
+		
+		if (mHeartbeatInterval > 0 && mHeartbeatTimeout <= mHeartbeatInterval)
+			throw new ConfigurationException("heartbeatTimeout (" + mHeartbeatTimeout + ") must exceed heartbeatInterval (" + mHeartbeatInterval + ").");
 		
-		mLog.info("Configuration: Client [" + mIdentifier + "] SubscriptionUri [" + mSubscriptionUri + "] SubmissionUri [" + mSubmissionUri + "] Topic [" + mTopic + "]");		
+		String propagationReportInterval = configuration.getParameterValue("propagationReportInterval", "60000");
+		
+		try
+		{
+			mMetrics.setReportInterval(Long.parseLong(propagationReportInterval.trim()));
+		}
+		catch (NumberFormatException ex)
+		{
+			throw new ConfigurationException("Invalid value '" + propagationReportInterval + "' for propagationReportInterval, expected an integer.");
+		}
+		
+		String queueCapacity = configuration.getParameterValue("queueCapacity", "16384");
+		
+		try
+		{
+			mQueue = new CacheEventRingBuffer(Integer.parseInt(queueCapacity.trim()), 
+				CacheEventRingBuffer.OverflowPolicy.fromName(configuration.getParameterValue("queueOverflow", CacheEventRingBuffer.OverflowPolicy.FLUSH.getName())));
+		}
+		catch (NumberFormatException ex)
+		{
+			throw new ConfigurationException("Invalid value '" + queueCapacity + "' for queueCapacity, expected an integer.");
+		}
+		catch (IllegalArgumentException ex)
+		{
+			throw new ConfigurationException(ex.getMessage());
+		}
+		
+		mLog.info("Configuration: Client [" + mIdentifier + "] SubscriptionUri [" + mSubscriptionUri + "] SubmissionUri [" + mSubmissionUri + "] Topic [" + mTopic + "] Format [" + mFormat.getName() + "]" +
+			" Queue [" + mQueue.getCapacity() + ", " + mQueue.getOverflowPolicy().getName() + "] RegionTopics [" + mRegionTopics + "] SubscriptionRegions " + mSubscriptionRegions + " Heartbeat [" + mHeartbeatInterval + ", " + mHeartbeatTimeout + "]" + (mDictionary ? " Dictionary [" + describeClient(mClientFrame) + "]" : ""));		
 	}
 	
 	@Override
-	public void validate() throws CacheException
+	public synchronized void validate() throws CacheException
 	{
 		verifyOpenState();
 		
-		if (!mReceiver.isAlive())
-			mReceiver.start();			
-
-		if (!mSender.isAlive())
-			mSender.start();
+		if (mReactor != null && mReactorFailed)
+		{
+			mLog.info("Client [" + mIdentifier + "] restarting the failed reactor.");
+			stopReactor();
+		}
+		
+		if (mReactor == null)
+		{
+			mContext = ZMQSharedContext.acquire();
+			mReactorFailed = false;
+			
+			// The wake-up pair connects broadcasting threads with the reactor thread
+			String wakeupUri = "inproc://" + mIdentifier + "-wakeup-" + (++mReactorStarts);
+			
+			ZMQ.Socket wakeupReceiver = mContext.socket(ZMQ.PAIR);
+			wakeupReceiver.bind(wakeupUri);
+			
+			synchronized (mWakeupLock)
+			{
+				mWakeupSocket = mContext.socket(ZMQ.PAIR);
+				mWakeupSocket.connect(wakeupUri);
+			}
+			
+			mReactor = new Thread(new Reactor(this, mContext, wakeupReceiver), "ZMQReactor-" + mIdentifier);
+			mReactor.setDaemon(true);
+			mReactor.start();
+		}
+		
+		// Without heartbeats the broker is unavailable, the reactor signals handleConnect once messages arrive again
+		if (!mIsAlive)
+			throw new CacheException("Client [" + mIdentifier + "] received no message for " + mHeartbeatTimeout + "ms.");
 				
 		mListener.handleConnect();
 	}	
@@ -157,81 +394,170 @@ public class ZMQCacheChannelConnector implements CacheChannelConnector
 	@Override
 	public void broadcastEvent(CacheEvent cacheEvent) throws CacheException 
 	{
-		try
-		{	
-			DocumentBuilder builder = mDocumentFactory.newDocumentBuilder(); 
-			Document document = builder.newDocument();
-	
-			Element element = document.createElement("cacheEvent");
-			document.appendChild(element);		
-			
-			element.setAttribute("regionPath", cacheEvent.getRegionPath());
-			element.setAttribute("key", cacheEvent.getKey().toString());
-			element.setAttribute("type", Integer.toString(cacheEvent.getType()));
+		// Nothing drains the queue until the reactor is restarted, a blocking queue would wait for ever
+		if (mReactorFailed)
+			throw new CacheException("Client [" + mIdentifier + "] reactor has failed, unable to broadcast " + cacheEvent + ".");
+		
+		Object publish = mTracer.begin(CacheEventTracer.Phase.PUBLISH);
+		Object enqueue = mTracer.begin(CacheEventTracer.Phase.ENQUEUE);
+		
+		mQueue.offer(cacheEvent);
+		mTracer.end(enqueue, CONNECTOR_TYPE, cacheEvent, 1);
+		
+		if (mSignalled.compareAndSet(false, true))
+			wakeup();
+		
+		mTracer.end(publish, CONNECTOR_TYPE, cacheEvent, 1);
+	}
 	
-			DOMSource domSource = new DOMSource(document);
-			StringWriter writer = new StringWriter();
-			StreamResult result = new StreamResult(writer);
-			TransformerFactory transformerFactory = TransformerFactory.newInstance();
-			Transformer transformer = transformerFactory.newTransformer();
-			transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-			
-			transformer.transform(domSource, result);
-			
-			mQueue.add(writer.toString());
-		}
-		catch (IllegalStateException ex)
+	/**
+	 * Signal the reactor thread, ZeroMQ sockets are not thread-safe so signals are serialized
+	 */
+	private void wakeup()
+	{
+		synchronized (mWakeupLock)
 		{
-			mLog.error("broadcastEvent: Error inserting into outgoing message queue.", ex);		
+			// A wake-up is only refused while earlier wake-ups are unread or the reactor has stopped
+			if (mWakeupSocket != null)
+				mWakeupSocket.send(EMPTY, ZMQ.DONTWAIT);
 		}
-		catch (TransformerException ex) 
+	}
+	
+	/**
+	 * Encode a {@link CacheEvent} with the next sequence number in the configured {@link CacheEventFormat}
+	 */
+	private byte[] encode(CacheEvent cacheEvent)
+	{
+		CacheEventMessage message = mSequencer.next(Collections.singletonList(cacheEvent));
+		
+		if (mDictionary)
+			return BinaryCacheEventCodec.encode(message, mDictionaryEncoder);
+		
+		if (mFormat == CacheEventFormat.BINARY)
+			return BinaryCacheEventCodec.encode(message);
+		
+		return XMLCacheEventCodec.encode(message).getBytes(UTF8);
+	}
+	
+	private void handleSubscriptionMessage(byte[] client, byte[] message) 
+	{
+		Object receive = mTracer.begin(CacheEventTracer.Phase.RECEIVE);
+		CacheEventMessage cacheEventMessage = null;
+		
+		if (BinaryCacheEventCodec.isBinary(message))
 		{
-			mLog.error("broadcastEvent: Error creating XML.", ex);				
+			try
+			{
+				RegionDictionary.Decoder dictionary = null;
+				
+				if (message[0] == BinaryCacheEventCodec.VERSION_DICTIONARY)
+				{
+					ByteBuffer key = ByteBuffer.wrap(client);
+					dictionary = mDictionaryDecoders.get(key);
+					
+					if (dictionary == null)
+					{
+						dictionary = new RegionDictionary.Decoder(describeClient(client));
+						mDictionaryDecoders.put(key, dictionary);
+					}
+				}
+				
+				Object decode = mTracer.begin(CacheEventTracer.Phase.DECODE);
+				cacheEventMessage = BinaryCacheEventCodec.decodeMessage(message, dictionary);
+				mTracer.end(decode, CONNECTOR_TYPE, cacheEventMessage);
+				
+				handleMessage(cacheEventMessage);
+			}
+			catch (IllegalArgumentException ex)
+			{
+				mMetrics.decodeError();
+				mLog.error("handleSubscriptionMessage: Error reading input binary data.", ex);		
+			}
 		}
-		catch (ParserConfigurationException ex) 
+		else
 		{
-			mLog.error("broadcastEvent: Error initializing XML parser.", ex);				
+			try
+			{		
+				Object decode = mTracer.begin(CacheEventTracer.Phase.DECODE);
+				cacheEventMessage = XMLCacheEventCodec.decodeMessage(new String(message, UTF8));
+				mTracer.end(decode, CONNECTOR_TYPE, cacheEventMessage);
+				
+				handleMessage(cacheEventMessage);
+	        }
+			catch (IllegalArgumentException ex)
+			{
+				mMetrics.decodeError();
+				mLog.error("handleSubscriptionMessage: Error reading input XML text.", ex);		
+			}
 		}
+		
+		if (cacheEventMessage != null)
+			mTracer.end(receive, CONNECTOR_TYPE, cacheEventMessage);
 	}
 	
-	private void handleSubscriptionMessage(String message) 
+	/**
+	 * Update the liveness state, the listener is notified of every transition
+	 */
+	private void setAlive(boolean alive)
 	{
-		try
-		{		
-			DocumentBuilder documentBuilder = mDocumentFactory.newDocumentBuilder();		            
-		    InputSource inputSource = new InputSource(new StringReader(message));		            
-		    Document document = documentBuilder.parse(inputSource);
-		    
-		    Element element = document.getDocumentElement();
-		    
-		    if (element != null && element.getTagName() == "cacheEvent")
-		    {
-		    	String regionPath = element.getAttribute("regionPath");
-		    	String key = element.getAttribute("key");
-		    	int eventType = Integer.parseInt(element.getAttribute("type"));
-
-		    	// Convert to the original serializable value as per com.tridion.cache.KeyGenerator
-		    	Serializable serializableKey = key.contains(KeyGenerator.KEY_DELIMITER) ? key : Integer.valueOf(key);
-		    	
-				mListener.handleRemoteEvent(new CacheEvent(regionPath, serializableKey, eventType));		            	
-		    }
-        }
-		catch (ParserConfigurationException ex)
+		if (mIsAlive == alive)
+			return;
+		
+		mIsAlive = alive;
+		
+		if (alive)
 		{
-			mLog.error("handleSubscriptionMessage: Error initializing XML parser.", ex);
+			mMetrics.connected();
+			mLog.info("Client [" + mIdentifier + "] receiving messages again.");
+			mListener.handleConnect();
 		}
-		catch (SAXException ex) 
+		else
 		{
-			mLog.error("handleSubscriptionMessage: Error reading input XML text.", ex);				
+			mMetrics.disconnected();
+			mLog.warn("Client [" + mIdentifier + "] received no message for " + mHeartbeatTimeout + "ms, broker unavailable.");
+			mListener.handleDisconnect();
 		}
-		catch (IOException ex) 
+	}
+	
+	/**
+	 * Pass the events of a received message to the listener, preceded by flushes for messages lost before it
+	 */
+	private void handleMessage(CacheEventMessage message)
+	{
+		if (message.getOriginTime() > 0)
 		{
-			mLog.error("handleSubscriptionMessage: Error reading input XML text.", ex);
+			mMetrics.propagationDelay(message.getPublisher(), System.currentTimeMillis() - message.getOriginTime());
+			String report = mMetrics.takePropagationReport();
+			
+			if (report != null)
+				mLog.info(report);
 		}
-		catch (IllegalArgumentException ex)
+		
+		long start = System.nanoTime();
+		
+		if (mSubscriptionRegions.isEmpty())
+		{
+			for (CacheEvent cacheEvent : mSequenceTracker.track(message))
+				dispatch(cacheEvent);
+		}
+		
+		for (CacheEvent cacheEvent : message.getEvents())
 		{
-			mLog.error("handleSubscriptionMessage: Error reading input XML text.", ex);		
+			mMetrics.eventReceived(cacheEvent);
+			dispatch(cacheEvent);
 		}
+		
+		mMetrics.dispatchLatency(System.nanoTime() - start);
+	}
+	
+	/**
+	 * Pass a received {@link CacheEvent} to the listener
+	 */
+	private void dispatch(CacheEvent cacheEvent)
+	{
+		Object span = mTracer.begin(CacheEventTracer.Phase.DISPATCH);
+		mListener.handleRemoteEvent(cacheEvent);
+		mTracer.end(span, CONNECTOR_TYPE, cacheEvent, 1);
 	}
 	
 	@Override
@@ -244,38 +570,52 @@ public class ZMQCacheChannelConnector implements CacheChannelConnector
 		{
 			mIsClosed = true;
 						
-			// Gracefully close the current processors
-			if (mReceiver != null && mReceiver.isAlive())
+			// Gracefully stop the reactor, queued events are sent first
+			synchronized (this)
 			{
-				mReceiver.interrupt();
-				
-				try 
-				{
-					mReceiver.join();
-				} 
-				catch (InterruptedException e) 
-				{
-					//
-				}
+				stopReactor();
 			}
 			
-			if (mSender != null && mSender.isAlive())
-			{
-				mSender.interrupt();
-				
-				try 
-				{
-					mSender.join();
-				} 
-				catch (InterruptedException e) 
-				{
-					//
-				}
-			}			
-			
+			mMetrics.unregister();
 			mListener.handleDisconnect();
 		}
 	}
+	
+	/**
+	 * Stop the reactor thread and release its resources, the reactor is given a bounded time to send queued events
+	 */
+	private void stopReactor()
+	{
+		if (mReactor == null)
+			return;
+		
+		if (mReactor.isAlive())
+			wakeup();
+		
+		try 
+		{
+			mReactor.join(CLOSE_TIMEOUT + 5000);
+		} 
+		catch (InterruptedException e) 
+		{
+			Thread.currentThread().interrupt();
+		}
+		
+		synchronized (mWakeupLock)
+		{
+			mWakeupSocket.close();
+			mWakeupSocket = null;
+		}
+		
+		// Terminating the shared context waits for every socket, including those of a reactor which did not stop
+		if (mReactor.isAlive())
+			mLog.warn("Reactor for Client [" + mIdentifier + "] did not stop, its ZeroMQ context is not released.");
+		else
+			ZMQSharedContext.release();
+		
+		mReactor = null;
+		mContext = null;
+	}
 
 	/**
 	 * Configure the {@link CacheChannelEventListener} for this CacheChannelConnector
@@ -289,108 +629,373 @@ public class ZMQCacheChannelConnector implements CacheChannelConnector
 	}
 	
 	/**
-	 * MessageSender implements a Java runnable which sends outgoing ZeroMQ messages
+	 * Describe a message payload for logging purposes
 	 */
-	private static class MessageSender implements Runnable 
+	private static String describe(byte[] message)
+	{
+		return BinaryCacheEventCodec.isBinary(message) ? "binary, " + message.length + " bytes" : new String(message, UTF8);
+	}
+	
+	/**
+	 * Describe a client frame, the 8 byte keys of dictionary publishers are written in hexadecimal
+	 */
+	private static String describeClient(byte[] client)
+	{
+		if (client.length != 8)
+			return new String(client, UTF8);
+		
+		StringBuilder builder = new StringBuilder(16);
+		
+		for (byte b : client)
+			builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		
+		return builder.toString();
+	}
+	
+	/**
+	 * Reactor implements a Java runnable which sends outgoing and processes incoming ZeroMQ messages on a single thread
+	 * <p>
+	 * The reactor polls the subscription socket together with an inproc wake-up socket signalled by 
+	 * {@link ZMQCacheChannelConnector#broadcastEvent}, every wake-up sends all queued events in a single burst. The poll
+	 * timeout is the time until the next heartbeat or liveness deadline.
+	 * </p>
+	 * <p>
+	 * A message refused by the submission socket at its high-water mark is kept pending and retried every
+	 * {@value ZMQCacheChannelConnector#SEND_RETRY_INTERVAL} milliseconds, no further events are taken from the queue until
+	 * it is sent. The socket is not polled for writability as jeromq 0.2.0 does not support it.
+	 * </p>
+	 */
+	private static class Reactor implements Runnable 
 	{
 		private ZMQCacheChannelConnector mConnector;
+		private ZMQ.Context mContext;
+		private ZMQ.Socket mWakeupSocket;
+		private Map<String, byte[]> mTopicFrames = new HashMap<String, byte[]>();
+		private long mLastSent = now();
+		private long mLastReceived = now();
+		private CacheEvent mPendingEvent = null;
+		private byte[] mPendingTopic = null;
+		private byte[] mPendingMessage = null;
+		private long mPendingStart = 0;
 		
-		public MessageSender(final ZMQCacheChannelConnector connector)
+		public Reactor(final ZMQCacheChannelConnector connector, ZMQ.Context context, ZMQ.Socket wakeupSocket)
 		{
 			mConnector = connector;
-		}		
+			mContext = context;
+			mWakeupSocket = wakeupSocket;
+		}
 		
 		/**
-		 * Execute the receive events thread
+		 * Get the topic frame for the given {@link CacheEvent}, the region path is appended if region topics are enabled
 		 */
-        public void run() 
-        {	
-        	String connectorTopic = mConnector.getTopic();
-        	String connectorIdentifier = mConnector.getIdentifier();
-        	
-        	ZMQ.Context context = ZMQ.context();
-        	
-        	ZMQ.Socket pushSocket = context.socket(ZMQ.PUSH);
-        	pushSocket.setIdentity(connectorIdentifier + "-PUSH");
-        	pushSocket.connect(mConnector.getSubmissionUri());
-        	
-        	try 
-        	{   	
-	        	while (!Thread.currentThread().isInterrupted()) 
-	        	{   
-	    			String message = mConnector.mQueue.poll(1000, TimeUnit.MILLISECONDS);
-				    			
-	    			if (message != null)
-					{
-	        			mLog.debug("Sending message: Topic [" + connectorTopic + "], Client [" + connectorIdentifier + "], Message [" + message + "].");
-	            		            			
-	        			pushSocket.sendMore(connectorTopic);
-	        			pushSocket.sendMore(connectorIdentifier);
-	        			pushSocket.send(message);
-					}        		
-	        	}
-        	}
-        	catch (InterruptedException e)
-        	{
-        		mLog.info("MessageSender has been interrupted.");
+		private byte[] getTopicFrame(CacheEvent cacheEvent)
+		{
+			String topic = mConnector.mRegionTopics ? mConnector.getTopic() + cacheEvent.getRegionPath() : mConnector.getTopic();
+			byte[] frame = mTopicFrames.get(topic);
+			
+			if (frame == null)
+			{
+				frame = topic.getBytes(UTF8);
+				
+				// Region paths are a small, fixed set but guard against unbounded growth
+				if (mTopicFrames.size() < 1024)
+					mTopicFrames.put(topic, frame);
 			}
-        	
-        	pushSocket.close();
-        	context.term();
-        }
-    }	
-
-	/**
-	 * MessageReceiver implements a Java runnable which polls and processes incoming ZeroMQ subscription messages
-	 */
-	private static class MessageReceiver implements Runnable 
-	{
-		private ZMQCacheChannelConnector mConnector;
+			
+			return frame;
+		}
 		
-		public MessageReceiver(final ZMQCacheChannelConnector connector)
+		private static long now()
 		{
-			mConnector = connector;
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
 		}
+		
+		/**
+		 * Send a message without blocking, once the first frame is accepted the remaining frames are never refused
+		 * 
+		 * @return false if the socket is at its high-water mark or has no connected peer
+		 */
+		private static boolean trySend(ZMQ.Socket pushSocket, byte[] topic, byte[] client, byte[] message)
+		{
+			if (!pushSocket.send(topic, ZMQ.SNDMORE | ZMQ.DONTWAIT))
+				return false;
+			
+			pushSocket.send(client, ZMQ.SNDMORE | ZMQ.DONTWAIT);
+			pushSocket.send(message, ZMQ.DONTWAIT);
 			
+			return true;
+		}
+		
 		/**
-		 * Execute the receive events thread
+		 * Record a sent event
 		 */
-        public void run() 
-        {	
-        	String connectorIdentifier = mConnector.getIdentifier();
-        	
-        	ZMQ.Context context = ZMQ.context();
-        	
-        	ZMQ.Socket subscribeSocket = context.socket(ZMQ.SUB);
-        	
-        	subscribeSocket.setIdentity(connectorIdentifier + "-SUB");
-        	subscribeSocket.connect(mConnector.getSubscriptionUri());
-        	
-        	subscribeSocket.subscribe(mConnector.getTopic());
-        	
-        	ZMQ.Poller items = context.poller(1);
-            items.register(subscribeSocket, ZMQ.Poller.POLLIN);
-        	
-        	while (!Thread.currentThread().isInterrupted()) 
-        	{
-        		items.poll(1000);
-        		
-        		if (items.pollin(0)) 
-        		{
-                    String topic = subscribeSocket.recvStr();
-                    String identifier = subscribeSocket.recvStr();
-                    String content = subscribeSocket.recvStr();
-                    
-                    mLog.debug("Received message: Topic [" + topic + "], Client [" + identifier + "], Message [" + content + "].");
-                    
-                    // Only process messages from other clients on the same topic                    
-                    if (!identifier.equalsIgnoreCase(connectorIdentifier))
-                    	mConnector.handleSubscriptionMessage(content);                    	
-                }
-        	}
-        	
-        	subscribeSocket.close();
-        	context.term();
-        }
-    }
+		private void sent(CacheEvent cacheEvent, long start)
+		{
+			mConnector.mMetrics.eventSent(cacheEvent);
+			mConnector.mMetrics.broadcastLatency(System.nanoTime() - start);
+			
+			// Events only replace heartbeats if they are relayed back to this connector
+			if (mConnector.mSubscriptionRegions.isEmpty())
+				mLastSent = now();
+		}
+		
+		/**
+		 * Send the pending message and all queued events, until the socket refuses a message
+		 * 
+		 * @return true if no message is pending
+		 */
+		private boolean sendQueued(ZMQ.Socket pushSocket, byte[] connectorIdentifier)
+		{
+			if (mPendingMessage != null)
+			{
+				if (!trySend(pushSocket, mPendingTopic, connectorIdentifier, mPendingMessage))
+					return false;
+				
+				sent(mPendingEvent, mPendingStart);
+				
+				mPendingEvent = null;
+				mPendingTopic = null;
+				mPendingMessage = null;
+			}
+			
+			// Reset before draining, events queued from here on signal a new wake-up
+			mConnector.mSignalled.set(false);
+			
+			CacheEvent cacheEvent;
+			
+			while ((cacheEvent = mConnector.mQueue.poll()) != null)
+			{
+				long start = System.nanoTime();
+				byte[] topic = getTopicFrame(cacheEvent);
+				byte[] message;
+				
+				try
+				{
+					Object encode = mTracer.begin(CacheEventTracer.Phase.ENCODE);
+					message = mConnector.encode(cacheEvent);
+					mTracer.end(encode, CONNECTOR_TYPE, cacheEvent, 1);
+				}
+				catch (RuntimeException ex)
+				{
+					mConnector.mMetrics.encodeError();
+					mLog.error("sendQueued: Unable to encode cache event [" + cacheEvent + "].", ex);
+					continue;
+				}
+				
+				if (mLog.isDebugEnabled())
+					mLog.debug("Sending message: Topic [" + new String(topic, UTF8) + "], Client [" + mConnector.getIdentifier() + "], Message [" + describe(message) + "].");
+				
+				Object send = mTracer.begin(CacheEventTracer.Phase.SEND);
+				boolean accepted = trySend(pushSocket, topic, connectorIdentifier, message);
+				mTracer.end(send, CONNECTOR_TYPE, cacheEvent, 1);
+				
+				if (!accepted)
+				{
+					mPendingEvent = cacheEvent;
+					mPendingTopic = topic;
+					mPendingMessage = message;
+					mPendingStart = start;
+					
+					return false;
+				}
+				
+				sent(cacheEvent, start);
+			}
+			
+			return true;
+		}
+		
+		/**
+		 * Process all available subscription messages
+		 */
+		private void receiveAvailable(ZMQ.Socket subscribeSocket, byte[] connectorIdentifier)
+		{
+			byte[] topic;
+			
+			while ((topic = subscribeSocket.recv(ZMQ.DONTWAIT)) != null)
+			{
+				byte[] identifier = subscribeSocket.hasReceiveMore() ? subscribeSocket.recv(0) : null;
+				byte[] content = subscribeSocket.hasReceiveMore() ? subscribeSocket.recv(0) : null;
+				
+				// Discard unexpected trailing frames
+				while (subscribeSocket.hasReceiveMore())
+					subscribeSocket.recv(0);
+				
+				if (content == null)
+				{
+					mLog.warn("Ignoring incomplete message on Topic [" + new String(topic, UTF8) + "].");
+					continue;
+				}
+				
+				// Any message, including heartbeats and our own messages, proves the broker is relaying
+				mLastReceived = now();
+				mConnector.setAlive(true);
+				
+				// Heartbeats and messages of this client are discarded before anything is decoded
+				if (content.length == 0 || Arrays.equals(identifier, connectorIdentifier))
+					continue;
+				
+				if (mLog.isDebugEnabled())
+					mLog.debug("Received message: Topic [" + new String(topic, UTF8) + "], Client [" + describeClient(identifier) + "], Message [" + describe(content) + "].");
+				
+				try
+				{
+					mConnector.handleSubscriptionMessage(identifier, content);
+				}
+				catch (RuntimeException ex)
+				{
+					// A failing listener must not stop the reactor, the remaining messages are still processed
+					mLog.error("receiveAvailable: Error handling message of Client [" + describeClient(identifier) + "].", ex);
+				}
+			}
+		}
+		
+		/**
+		 * Execute the reactor thread
+		 */
+		public void run() 
+		{
+			String connectorIdentifier = mConnector.getIdentifier();
+			ZMQ.Socket pushSocket = null;
+			ZMQ.Socket subscribeSocket = null;
+			
+			try
+			{
+				pushSocket = mContext.socket(ZMQ.PUSH);
+				pushSocket.setIdentity(connectorIdentifier + "-PUSH");
+				pushSocket.setLinger(CLOSE_TIMEOUT);
+				pushSocket.connect(mConnector.getSubmissionUri());
+				
+				subscribeSocket = mContext.socket(ZMQ.SUB);
+				subscribeSocket.setIdentity(connectorIdentifier + "-SUB");
+				subscribeSocket.connect(mConnector.getSubscriptionUri());
+				
+				react(pushSocket, subscribeSocket);
+				
+				mLog.info("Reactor for Client [" + connectorIdentifier + "] has been stopped.");
+			}
+			catch (RuntimeException ex)
+			{
+				mLog.error("Reactor for Client [" + connectorIdentifier + "] failed, the connector is disconnected until it is validated again.", ex);
+				
+				mConnector.mReactorFailed = true;
+				
+				try
+				{
+					mConnector.setAlive(false);
+				}
+				catch (RuntimeException listenerException)
+				{
+					mLog.error("Reactor for Client [" + connectorIdentifier + "] error signalling the disconnect.", listenerException);
+				}
+			}
+			finally
+			{
+				if (subscribeSocket != null)
+					subscribeSocket.close();
+				
+				if (pushSocket != null)
+					pushSocket.close();
+				
+				mWakeupSocket.close();
+			}
+		}
+		
+		/**
+		 * Send and receive messages until the connector is closed
+		 */
+		private void react(ZMQ.Socket pushSocket, ZMQ.Socket subscribeSocket)
+		{
+			String connectorTopic = mConnector.getTopic();
+			byte[] identifierFrame = mConnector.mClientFrame;
+			byte[] heartbeatTopic;
+			
+			if (mConnector.mSubscriptionRegions.isEmpty())
+			{
+				heartbeatTopic = connectorTopic.getBytes(UTF8);
+				subscribeSocket.subscribe(heartbeatTopic);
+			}
+			else
+			{
+				for (String region : mConnector.mSubscriptionRegions)
+					subscribeSocket.subscribe((connectorTopic + region).getBytes(UTF8));
+				
+				heartbeatTopic = (connectorTopic + HEARTBEAT_TOPIC_SUFFIX).getBytes(UTF8);
+				subscribeSocket.subscribe(heartbeatTopic);
+			}
+			
+			long heartbeatInterval = mConnector.mHeartbeatInterval;
+			long heartbeatTimeout = mConnector.mHeartbeatTimeout;
+			
+			ZMQ.Poller items = mContext.poller(2);
+			items.register(subscribeSocket, ZMQ.Poller.POLLIN);
+			items.register(mWakeupSocket, ZMQ.Poller.POLLIN);
+			
+			// Events broadcast before the reactor was started
+			boolean writable = sendQueued(pushSocket, identifierFrame);
+			
+			while (!mConnector.mIsClosed)
+			{
+				long timeout = -1;
+				
+				if (heartbeatInterval > 0)
+				{
+					long deadline = mLastSent + heartbeatInterval;
+					
+					if (mConnector.mIsAlive)
+						deadline = Math.min(deadline, mLastReceived + heartbeatTimeout);
+					
+					timeout = Math.max(1, deadline - now());
+				}
+				
+				if (!writable)
+					timeout = timeout < 0 ? SEND_RETRY_INTERVAL : Math.min(timeout, SEND_RETRY_INTERVAL);
+				
+				items.poll(timeout);
+				
+				if (items.pollin(1))
+					while (mWakeupSocket.recv(ZMQ.DONTWAIT) != null) {}
+				
+				if (items.pollin(1) || !writable)
+					writable = sendQueued(pushSocket, identifierFrame);
+				
+				if (items.pollin(0))
+					receiveAvailable(subscribeSocket, identifierFrame);
+				
+				if (heartbeatInterval > 0)
+				{
+					long now = now();
+					
+					// Outgoing events double as heartbeats, so a heartbeat is only sent after an idle interval.
+					// A refused heartbeat is not retried, the broker is not reading from the submission socket.
+					if (now - mLastSent >= heartbeatInterval)
+					{
+						trySend(pushSocket, heartbeatTopic, identifierFrame, EMPTY);
+						mLastSent = now;
+					}
+					
+					if (now - mLastReceived >= heartbeatTimeout)
+						mConnector.setAlive(false);
+				}
+			}
+			
+			// Send events broadcast before close, for at most the linger period of the submission socket
+			long deadline = now() + CLOSE_TIMEOUT;
+			
+			while (!sendQueued(pushSocket, identifierFrame) && now() < deadline)
+			{
+				try
+				{
+					Thread.sleep(SEND_RETRY_INTERVAL);
+				}
+				catch (InterruptedException ex)
+				{
+					break;
+				}
+			}
+			
+			if (mPendingMessage != null)
+				mLog.warn("Reactor for Client [" + mConnector.getIdentifier() + "] discarded " + (mConnector.mQueue.getDepth() + 1) + " unsent events on close.");
+		}
+	}
 }
@@ -0,0 +1,60 @@
+/**
+ *   @description ZeroMQ Shared Context
+ *   @created October 18, 2026
+ */
+package com.tridion.tcmcdservice.zmq;
+
+import org.jeromq.ZMQ;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ZMQSharedContext holds a single reference counted {@link ZMQ.Context} for all connectors in a JVM.
+ * <p>
+ * The context is created by the first {@link #acquire()} and terminated once every acquired reference is released.
+ * </p>
+ */
+final class ZMQSharedContext
+{
+	private static Logger mLog = LoggerFactory.getLogger(ZMQSharedContext.class);
+
+	private static ZMQ.Context mContext = null;
+	private static int mReferences = 0;
+
+	private ZMQSharedContext()
+	{
+	}
+
+	/**
+	 * Acquire a reference to the shared {@link ZMQ.Context}
+	 */
+	static synchronized ZMQ.Context acquire()
+	{
+		if (mContext == null)
+		{
+			mContext = ZMQ.context(1);
+			mLog.debug("Created shared ZeroMQ context.");
+		}
+
+		mReferences++;
+
+		return mContext;
+	}
+
+	/**
+	 * Release a reference to the shared {@link ZMQ.Context}, all sockets of the caller need to be closed
+	 */
+	static synchronized void release()
+	{
+		if (mReferences == 0)
+			return;
+
+		if (--mReferences == 0)
+		{
+			mContext.term();
+			mContext = null;
+
+			mLog.debug("Terminated shared ZeroMQ context.");
+		}
+	}
+}